@@ -32,18 +32,29 @@ import static com.salesforce.omakase.Message.NO_SUPPLIER;
 import static com.salesforce.omakase.Message.UNIQUE_PLUGIN;
 
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import com.google.common.collect.ClassToInstanceMap;
 import com.google.common.collect.MutableClassToInstanceMap;
+import com.salesforce.omakase.ast.Statement;
 import com.salesforce.omakase.ast.Status;
+import com.salesforce.omakase.ast.Stylesheet;
 import com.salesforce.omakase.broadcast.Broadcaster;
 import com.salesforce.omakase.broadcast.EmittingBroadcaster;
+import com.salesforce.omakase.broadcast.InterestBroadcaster;
+import com.salesforce.omakase.broadcast.TypeInterestBroadcaster;
 import com.salesforce.omakase.broadcast.VisitingBroadcaster;
 import com.salesforce.omakase.broadcast.emitter.SubscriptionPhase;
 import com.salesforce.omakase.error.ErrorManager;
+import com.salesforce.omakase.jfr.Recording;
+import com.salesforce.omakase.jfr.Recordings;
+import com.salesforce.omakase.jfr.Stage;
 import com.salesforce.omakase.parser.Grammar;
+import com.salesforce.omakase.parser.Parser;
+import com.salesforce.omakase.parser.ParserException;
+import com.salesforce.omakase.parser.Source;
 import com.salesforce.omakase.parser.factory.ParserFactory;
 import com.salesforce.omakase.parser.factory.StandardParserFactory;
 import com.salesforce.omakase.parser.factory.StandardTokenFactory;
@@ -53,6 +64,7 @@ import com.salesforce.omakase.plugin.GrammarPlugin;
 import com.salesforce.omakase.plugin.ParserPlugin;
 import com.salesforce.omakase.plugin.Plugin;
 import com.salesforce.omakase.plugin.PostProcessingPlugin;
+import com.salesforce.omakase.plugin.core.SyntaxTree;
 
 /**
  * Contextual state for a parsing operation.
@@ -86,6 +98,12 @@ final class Context implements PluginRegistry {
     /** parser factory determines which parsers to use */
     private ParserFactory parserFactory;
 
+    /** the error manager given to {@link #beforeParsing(ErrorManager)} */
+    private ErrorManager em;
+
+    /** stats for the parsing operation, if enabled */
+    private ParseStats stats;
+
     @Override
     public void register(Iterable<? extends Plugin> plugins) {
         for (Plugin plugin : plugins) {
@@ -180,7 +198,7 @@ final class Context implements PluginRegistry {
      * Internal method to signify when (high-level) parsing is about to begin.
      */
     protected Grammar beforeParsing(ErrorManager em) {
-        checkNotNull(em, "An error manager must be given to the context");
+        this.em = checkNotNull(em, "An error manager must be given to the context");
 
         Grammar grammar = new Grammar(
             tokenFactory != null ? tokenFactory : StandardTokenFactory.instance(),
@@ -194,21 +212,119 @@ final class Context implements PluginRegistry {
         return grammar;
     }
 
+    /**
+     * Internal method to parse the source.
+     */
+    protected void parse(Source source, Grammar grammar) {
+        stage(Stage.PARSE, source.length(), () -> grammar.parser().stylesheetParser().parse(source, grammar, broadcaster));
+    }
+
     /**
      * Internal method to signify when (high-level) parsing is completed.
      */
     protected void afterParsing() {
         // replay broadcasts for observers and reworkers
-        emittingBroadcaster.phase(SubscriptionPhase.PROCESS);
-        visitor.visit(broadcaster, Status.PARSED);
+        stage(Stage.PROCESS, 0, () -> {
+            emittingBroadcaster.phase(SubscriptionPhase.PROCESS);
+            visitor.visit(broadcaster, Status.PARSED);
+        });
 
         // replay broadcasts for validators
-        emittingBroadcaster.phase(SubscriptionPhase.VALIDATE);
-        visitor.visit(broadcaster, Status.PROCESSED);
+        stage(Stage.VALIDATE, 0, () -> {
+            emittingBroadcaster.phase(SubscriptionPhase.VALIDATE);
+            visitor.visit(broadcaster, Status.PROCESSED);
+        });
+
+        postProcess();
+    }
+
+    /**
+     * Internal method to parse and process the source one top-level statement at a time, instead of {@link #parse(Source,
+     * Grammar)} and {@link #afterParsing()}.
+     * <p>
+     * Each statement is refined while parsed, then placed by itself into a new {@link Stylesheet} and replayed for the process
+     * and validation phases, then handed to the consumer. Any statements added next to it by plugins are in the same stylesheet.
+     * A final stylesheet holding only the orphaned comments at the end of the source is given last. The {@link Stylesheet}s
+     * themselves are not broadcasted.
+     */
+    protected void stream(Source source, Grammar grammar, Consumer<Stylesheet> consumer) {
+        stage(Stage.PARSE, source.length(), () -> {
+            Parser statementParser = grammar.parser().statementParser();
+            InterestBroadcaster<Statement> interest = TypeInterestBroadcaster.of(Statement.class);
+            interest.chain(broadcaster);
+
+            while (true) {
+                emittingBroadcaster.phase(SubscriptionPhase.REFINE);
+                if (!statementParser.parse(source, grammar, interest)) break;
+
+                Stylesheet window = new Stylesheet();
+                window.statements().appendAll(interest.gather());
+                interest.reset();
+
+                emittingBroadcaster.phase(SubscriptionPhase.PROCESS);
+                window.statements().propagateBroadcast(broadcaster, Status.PARSED);
+
+                emittingBroadcaster.phase(SubscriptionPhase.VALIDATE);
+                window.statements().propagateBroadcast(broadcaster, Status.PROCESSED);
+
+                consumer.accept(window);
+            }
+
+            source.collectComments();
+            if (!source.eof()) {
+                throw new ParserException(source, Message.EXTRANEOUS, source.remaining());
+            }
+
+            Stylesheet end = new Stylesheet();
+            end.orphanedComments(source.flushComments());
+            consumer.accept(end);
+        });
+
+        postProcess();
+    }
+
+    /** notify post processors */
+    private void postProcess() {
+        stage(Stage.POST_PROCESS, 0, () -> {
+            for (PostProcessingPlugin plugin : filter(PostProcessingPlugin.class)) {
+                plugin.postProcess(this);
+            }
+        });
+    }
+
+    /**
+     * Internal method to enable collection of {@link ParseStats}. This must be called before {@link
+     * #beforeParsing(ErrorManager)}.
+     */
+    protected void collectStats(ParseStats stats) {
+        this.stats = checkNotNull(stats, "stats cannot be null");
+        require(SyntaxTree.class);
+    }
+
+    /**
+     * Internal method to complete the collection of {@link ParseStats}, if enabled.
+     */
+    protected Optional<ParseStats> stats() {
+        if (stats == null) return Optional.empty();
+        return Optional.of(stats.finish(retrieve(SyntaxTree.class).map(SyntaxTree::stylesheet).orElse(null)));
+    }
+
+    /** runs a stage, recording it with the flight recorder and the stats if enabled */
+    private void stage(Stage stage, long size, Runnable runnable) {
+        Recording recording = Recordings.begin(stage);
+        long startingEmitCount = emittingBroadcaster.emitted();
+        long start = stats != null ? System.nanoTime() : 0;
+
+        try {
+            runnable.run();
+        } finally {
+            if (stats != null) {
+                stats.time(stage, System.nanoTime() - start);
+            }
+        }
 
-        // notify post processors
-        for (PostProcessingPlugin plugin : filter(PostProcessingPlugin.class)) {
-            plugin.postProcess(this);
+        if (recording.stop()) {
+            recording.commit(em.getSourceName(), size, emittingBroadcaster.emitted() - startingEmitCount);
         }
     }
 
@@ -28,7 +28,15 @@ package com.salesforce.omakase;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
 import com.google.common.collect.Lists;
+import com.salesforce.omakase.ast.Statement;
+import com.salesforce.omakase.ast.Stylesheet;
 import com.salesforce.omakase.broadcast.Broadcaster;
 import com.salesforce.omakase.broadcast.emitter.SubscriptionException;
 import com.salesforce.omakase.error.DefaultErrorManager;
@@ -38,6 +46,9 @@ import com.salesforce.omakase.parser.Grammar;
 import com.salesforce.omakase.parser.ParserException;
 import com.salesforce.omakase.parser.Source;
 import com.salesforce.omakase.plugin.Plugin;
+import com.salesforce.omakase.plugin.core.SyntaxTree;
+import com.salesforce.omakase.writer.StyleAppendable;
+import com.salesforce.omakase.writer.StyleWriter;
 
 /**
  * Main entry point for the Omakase CSS Parser.
@@ -112,6 +123,7 @@ public final class Omakase {
     public static final class Request {
         private final Context context;
         private final Source source;
+        private final List<StatsReporter> reporters = new ArrayList<>(2);
 
         private ErrorManager em;
 
@@ -172,6 +184,22 @@ public final class Omakase {
             return this;
         }
 
+        /**
+         * Specifies a {@link StatsReporter} to receive the {@link ParseStats} for this parsing operation. Stats are only
+         * collected when at least one reporter is given.
+         * <p>
+         * Note that this will register the {@link SyntaxTree} plugin if not already registered.
+         *
+         * @param reporter
+         *     The reporter.
+         *
+         * @return this, for chaining.
+         */
+        public Request stats(StatsReporter reporter) {
+            reporters.add(checkNotNull(reporter, "reporter cannot be null"));
+            return this;
+        }
+
         /**
          * Processes the CSS source code, invoking registered plugins as applicable.
          * <p>
@@ -184,19 +212,88 @@ public final class Omakase {
          * for further processing or information retrieval.
          */
         public PluginRegistry process() {
+            return run(grammar -> {
+                context.parse(source, grammar);
+                context.afterParsing();
+            });
+        }
+
+        /**
+         * Processes the CSS source code one top-level statement at a time, writing out each statement with the given {@link
+         * StyleWriter} as soon as it has been parsed, processed and validated.
+         * <p>
+         * This is meant for pipelines that only transform the source (e.g., prefixing or conditionals). Each statement is
+         * released once written, so the whole {@link Stylesheet} is never held in memory at once. The output is the same as
+         * writing the stylesheet after {@link #process()} as long as the plugins only work with the current statement:
+         * <ul>
+         * <li>Plugins may add statements before or after the current statement, but not alter previous statements, which have
+         * already been written. Plugins that look at other statements will only see the current one, e.g., the prefixer can't
+         * tell that a prefixed at-rule is already present elsewhere in the source.</li>
+         * <li>{@link Stylesheet} subscriptions are not called, and there is no {@link SyntaxTree}.</li>
+         * <li>All processing is recorded as the parse stage by the flight recorder and {@link ParseStats}, and the stats don't
+         * include unit counts.</li>
+         * </ul>
+         * The writer should not also be registered with {@link #use(Plugin...)}. If an error is reported partway through, the
+         * output will contain the statements written before the error.
+         * <p>
+         * Example:
+         * <pre><code>
+         * Omakase.source(input).use(prefixer).stream(StyleWriter.compressed(), response.getWriter());
+         * </code></pre>
+         *
+         * @param writer
+         *     Write each statement with this writer.
+         * @param output
+         *     Write the processed CSS source code to this appendable.
+         *
+         * @return The {@link PluginRegistry} containing all registered plugins.
+         *
+         * @throws IOException
+         *     If an I/O error occurs.
+         */
+        public PluginRegistry stream(StyleWriter writer, Appendable output) throws IOException {
+            checkNotNull(writer, "writer cannot be null");
+            StyleAppendable appendable = new StyleAppendable(checkNotNull(output, "output cannot be null"));
+
+            // statements are written as inner units of a stylesheet would be, so that separators come out the same
+            writer.incrementDepth();
+            try {
+                return run(grammar -> context.stream(source, grammar, window -> {
+                    try {
+                        for (Statement statement : window.statements()) {
+                            writer.writeInner(statement, appendable);
+                        }
+                        writer.appendComments(window.orphanedComments(), appendable);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            } finally {
+                writer.decrementDepth();
+            }
+        }
+
+        /** runs the parsing operation with the shared setup, error handling and reporting */
+        private PluginRegistry run(Consumer<Grammar> operation) {
             if (this.em == null) {
                 this.em = new DefaultErrorManager();
             }
+            if (!reporters.isEmpty()) {
+                context.collectStats(new ParseStats(source.length()));
+            }
             try {
                 Grammar grammar = context.beforeParsing(this.em);
-                grammar.parser().stylesheetParser().parse(source, grammar, context.broadcaster());
-                context.afterParsing();
+                operation.accept(grammar);
             } catch (ParserException e) {
                 em.report(e);
             } catch (SubscriptionException e) {
                 em.report(e);
             }
 
+            context.stats().ifPresent(stats -> reporters.forEach(reporter -> reporter.report(stats)));
+
             if (em.autoSummarize() && em.hasErrors()) {
                 throw new ProblemSummaryException(em.summarize());
             }
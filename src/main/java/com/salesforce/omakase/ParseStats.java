@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2015, salesforce.com, inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of salesforce.com, inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.salesforce.omakase;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.salesforce.omakase.ast.Rule;
+import com.salesforce.omakase.ast.Statement;
+import com.salesforce.omakase.ast.StatementIterable;
+import com.salesforce.omakase.ast.Stylesheet;
+import com.salesforce.omakase.ast.atrule.AtRule;
+import com.salesforce.omakase.ast.declaration.Declaration;
+import com.salesforce.omakase.ast.selector.Selector;
+import com.salesforce.omakase.jfr.Stage;
+import com.salesforce.omakase.plugin.core.AutoRefine;
+import com.salesforce.omakase.util.As;
+
+/**
+ * Statistics about a single parsing operation.
+ * <p>
+ * Register a {@link StatsReporter} with {@link Omakase.Request#stats(StatsReporter)} to receive an instance of this class. The
+ * counts are taken from the final syntax tree after all processing has completed, which makes it possible to see how much of
+ * the source was actually refined (e.g., by {@link AutoRefine} or custom refiners).
+ *
+ * @author nmcwilliams
+ */
+public final class ParseStats {
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean ALLOCATION_SUPPORTED = isAllocationSupported();
+
+    private final int inputLength;
+    private final long startAllocated;
+    private final Map<Stage, Long> nanos = new EnumMap<>(Stage.class);
+
+    private long allocated = -1;
+    private int statements;
+    private int rules;
+    private int atRules;
+    private int refinedAtRules;
+    private int selectors;
+    private int refinedSelectors;
+    private int declarations;
+    private int refinedDeclarations;
+
+    /** starts collecting stats for a source of the given length */
+    ParseStats(int inputLength) {
+        this.inputLength = inputLength;
+        this.startAllocated = currentThreadAllocatedBytes();
+    }
+
+    /** records the time spent in the given stage */
+    void time(Stage stage, long elapsed) {
+        nanos.merge(stage, elapsed, Long::sum);
+    }
+
+    /** completes the stats using the given (possibly null if parsing failed) stylesheet */
+    ParseStats finish(Stylesheet stylesheet) {
+        if (startAllocated != -1) {
+            allocated = currentThreadAllocatedBytes() - startAllocated;
+        }
+        if (stylesheet != null) {
+            count(stylesheet);
+        }
+        return this;
+    }
+
+    private void count(StatementIterable iterable) {
+        for (Statement statement : iterable.statements()) {
+            statements++;
+
+            if (statement instanceof Rule) {
+                Rule rule = (Rule)statement;
+                rules++;
+                for (Selector selector : rule.selectors()) {
+                    selectors++;
+                    if (selector.isRefined()) refinedSelectors++;
+                }
+                for (Declaration declaration : rule.declarations()) {
+                    declarations++;
+                    if (declaration.isRefined()) refinedDeclarations++;
+                }
+            } else if (statement instanceof AtRule) {
+                AtRule atRule = (AtRule)statement;
+                atRules++;
+                if (atRule.isRefined()) {
+                    refinedAtRules++;
+                    atRule.block().ifPresent(this::count);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the number of characters in the input source.
+     *
+     * @return The input length.
+     */
+    public int inputLength() {
+        return inputLength;
+    }
+
+    /**
+     * Gets the number of statements (rules and at-rules), including statements nested inside of refined at-rules.
+     *
+     * @return The number of statements.
+     */
+    public int statements() {
+        return statements;
+    }
+
+    /**
+     * Gets the number of {@link Rule}s, including rules nested inside of refined at-rules.
+     *
+     * @return The number of rules.
+     */
+    public int rules() {
+        return rules;
+    }
+
+    /**
+     * Gets the number of {@link AtRule}s, including at-rules nested inside of refined at-rules.
+     *
+     * @return The number of at-rules.
+     */
+    public int atRules() {
+        return atRules;
+    }
+
+    /**
+     * Gets the number of {@link AtRule}s that were refined.
+     *
+     * @return The number of refined at-rules.
+     */
+    public int refinedAtRules() {
+        return refinedAtRules;
+    }
+
+    /**
+     * Gets the number of {@link Selector}s.
+     *
+     * @return The number of selectors.
+     */
+    public int selectors() {
+        return selectors;
+    }
+
+    /**
+     * Gets the number of {@link Selector}s that were refined.
+     *
+     * @return The number of refined selectors.
+     */
+    public int refinedSelectors() {
+        return refinedSelectors;
+    }
+
+    /**
+     * Gets the number of {@link Declaration}s.
+     *
+     * @return The number of declarations.
+     */
+    public int declarations() {
+        return declarations;
+    }
+
+    /**
+     * Gets the number of {@link Declaration}s that were refined.
+     *
+     * @return The number of refined declarations.
+     */
+    public int refinedDeclarations() {
+        return refinedDeclarations;
+    }
+
+    /**
+     * Gets the number of bytes allocated by the processing thread during the parsing operation.
+     * <p>
+     * This is only available when the JVM supports measuring thread allocation (e.g., {@code
+     * com.sun.management.ThreadMXBean}).
+     *
+     * @return The number of allocated bytes, or -1 if not available.
+     */
+    public long allocatedBytes() {
+        return allocated;
+    }
+
+    /**
+     * Gets the time spent in the given {@link Stage}. Note that {@link Stage#PARSE} includes refinement that occurs during
+     * parsing, and that {@link Stage#REFINE} and {@link Stage#WRITE} are not measured here.
+     *
+     * @param stage
+     *     The stage.
+     *
+     * @return The elapsed time in nanoseconds, or 0 if the stage did not run.
+     */
+    public long nanos(Stage stage) {
+        return nanos.getOrDefault(stage, 0L);
+    }
+
+    /**
+     * Gets the total time spent in all stages.
+     *
+     * @return The elapsed time in nanoseconds.
+     */
+    public long totalNanos() {
+        return nanos.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    @Override
+    public String toString() {
+        return As.string(this)
+            .add("inputLength", inputLength)
+            .add("statements", statements)
+            .add("rules", rules)
+            .add("atRules", atRules)
+            .add("refinedAtRules", refinedAtRules)
+            .add("selectors", selectors)
+            .add("refinedSelectors", refinedSelectors)
+            .add("declarations", declarations)
+            .add("refinedDeclarations", refinedDeclarations)
+            .add("allocatedBytes", allocated)
+            .add("nanos", nanos)
+            .toString();
+    }
+
+    /** gets the allocated bytes for the current thread, or -1 if not supported */
+    private static long currentThreadAllocatedBytes() {
+        if (!ALLOCATION_SUPPORTED) return -1;
+        return ((com.sun.management.ThreadMXBean)THREADS).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /** com.sun.management is not available on all JVMs */
+    private static boolean isAllocationSupported() {
+        try {
+            return THREADS instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean)THREADS).isThreadAllocatedMemorySupported()
+                && ((com.sun.management.ThreadMXBean)THREADS).isThreadAllocatedMemoryEnabled();
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+}
@@ -46,8 +46,12 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * @author nmcwilliams
  */
 public abstract class AbstractSyntax implements Syntax {
+    /* ids are handed out to each thread in blocks so that constructing units doesn't contend on the shared sequence */
+    private static final int ID_BLOCK_SIZE = 1024;
     private static final AtomicInteger sequence = new AtomicInteger();
-    private final int id = sequence.incrementAndGet();
+    private static final ThreadLocal<int[]> idBlock = ThreadLocal.withInitial(() -> new int[2]);
+
+    private final int id = nextId();
 
     private final int line;
     private final int column;
@@ -56,6 +60,7 @@ public abstract class AbstractSyntax implements Syntax {
     private List<Comment> orphanedComments;
 
     private Status status = Status.PARSED;
+    private int revision;
 
     /**
      * Creates a new instance with no line or number specified (used for dynamically created {@link Syntax} units).
@@ -77,11 +82,45 @@ public abstract class AbstractSyntax implements Syntax {
         this.column = column;
     }
 
+    /** gets the next id from the current thread's block of ids, reserving a new block when exhausted */
+    private static int nextId() {
+        int[] block = idBlock.get(); // [last issued, limit]
+        if (block[0] == block[1]) {
+            block[1] = sequence.addAndGet(ID_BLOCK_SIZE);
+            block[0] = block[1] - ID_BLOCK_SIZE;
+        }
+        return ++block[0];
+    }
+
     @Override
     public int id() {
         return id;
     }
 
+    @Override
+    public int revision() {
+        return revision;
+    }
+
+    @Override
+    public void markModified() {
+        revision++;
+        Syntax enclosing = enclosing();
+        if (enclosing != null) {
+            enclosing.markModified();
+        }
+    }
+
+    /**
+     * Gets the unit directly enclosing this one, if known. Modifications to this unit are propagated to the enclosing unit. See
+     * {@link #markModified()}.
+     *
+     * @return The enclosing unit, or null if there isn't one.
+     */
+    protected Syntax enclosing() {
+        return null;
+    }
+
     @Override
     public int line() {
         return line;
@@ -136,6 +175,7 @@ public abstract class AbstractSyntax implements Syntax {
     public Syntax comment(Comment comment) {
         checkNotNull(comment, "comment cannot be null");
         getOrCreateComments(4).add(comment);
+        markModified();
         return this;
     }
 
@@ -149,6 +189,7 @@ public abstract class AbstractSyntax implements Syntax {
             this.comments.add(new Comment(comment));
         }
 
+        markModified();
         return this;
     }
 
@@ -158,6 +199,7 @@ public abstract class AbstractSyntax implements Syntax {
         if (toCopy.isEmpty()) return this;
 
         getOrCreateComments(toCopy.size()).addAll(toCopy);
+        markModified();
         return this;
     }
 
@@ -176,6 +218,7 @@ public abstract class AbstractSyntax implements Syntax {
             this.orphanedComments.add(new Comment(comment));
         }
 
+        markModified();
         return this;
     }
 
@@ -185,6 +228,7 @@ public abstract class AbstractSyntax implements Syntax {
         if (toCopy.isEmpty()) return this;
 
         getOrCreateOrphanedComments(toCopy.size()).addAll(toCopy);
+        markModified();
         return this;
     }
 
@@ -79,6 +79,7 @@ public final class RawFunction extends AbstractSyntax implements Named, Refinabl
      */
     public RawFunction name(String name) {
         this.name = checkNotNull(name, "name cannot be null");
+        markModified();
         return this;
     }
 
@@ -102,6 +103,7 @@ public final class RawFunction extends AbstractSyntax implements Named, Refinabl
      */
     public RawFunction args(String args) {
         this.args = checkNotNull(args, "args cannot be null");
+        markModified();
         return this;
     }
 
@@ -27,13 +27,14 @@
 package com.salesforce.omakase.ast;
 
 import com.salesforce.omakase.ast.collection.AbstractGroupable;
-import com.salesforce.omakase.ast.collection.LinkedSyntaxCollection;
+import com.salesforce.omakase.ast.collection.IntrusiveSyntaxCollection;
 import com.salesforce.omakase.ast.collection.SyntaxCollection;
 import com.salesforce.omakase.ast.declaration.Declaration;
 import com.salesforce.omakase.ast.selector.Selector;
 import com.salesforce.omakase.broadcast.Broadcaster;
 import com.salesforce.omakase.broadcast.annotation.Description;
 import com.salesforce.omakase.broadcast.annotation.Subscribable;
+import com.salesforce.omakase.parser.SourceSpan;
 import com.salesforce.omakase.writer.StyleAppendable;
 import com.salesforce.omakase.writer.StyleWriter;
 
@@ -78,6 +79,10 @@ public final class Rule extends AbstractGroupable<StatementIterable, Statement>
     private final SyntaxCollection<Rule, Selector> selectors;
     private final SyntaxCollection<Rule, Declaration> declarations;
 
+    /* the original source of this rule, along with the revision at the time it was recorded */
+    private SourceSpan verbatim;
+    private int verbatimRevision;
+
     /** Creates a new instance with no line or number specified (used for dynamically created {@link Syntax} units). */
     public Rule() {
         this(-1, -1);
@@ -92,8 +97,8 @@ public final class Rule extends AbstractGroupable<StatementIterable, Statement>
      */
     public Rule(int line, int column) {
         super(line, column);
-        selectors = new LinkedSyntaxCollection<>(this);
-        declarations = new LinkedSyntaxCollection<>(this);
+        selectors = new IntrusiveSyntaxCollection<>(this);
+        declarations = new IntrusiveSyntaxCollection<>(this);
     }
 
     /**
@@ -116,6 +121,40 @@ public final class Rule extends AbstractGroupable<StatementIterable, Statement>
         return declarations;
     }
 
+    /**
+     * Records the original source text of this rule. Library method - do not call directly.
+     * <p>
+     * This should be called only after all of the parsed selectors and declarations have been added.
+     *
+     * @param span
+     *     The source span of the whole rule, from the start of the first selector to the closing brace.
+     *
+     * @return this, for chaining.
+     */
+    public Rule verbatim(SourceSpan span) {
+        this.verbatim = span;
+        this.verbatimRevision = revision();
+        return this;
+    }
+
+    /**
+     * Gets the original source text of this rule, but only if it is known to be unmodified since parsing. That is, its {@link
+     * #revision()} has not changed and none of the selectors or declarations have been refined.
+     *
+     * @return The original source text, or empty if not available or possibly modified.
+     */
+    public Optional<SourceSpan> verbatim() {
+        if (verbatim == null || revision() != verbatimRevision) return Optional.empty();
+
+        for (Selector selector : selectors) {
+            if (selector.isRefined() || !selector.isWritable()) return Optional.empty();
+        }
+        for (Declaration declaration : declarations) {
+            if (declaration.isRefined() || !declaration.isWritable()) return Optional.empty();
+        }
+        return Optional.of(verbatim);
+    }
+
     @Override
     protected Rule self() {
         return this;
@@ -178,6 +217,17 @@ public final class Rule extends AbstractGroupable<StatementIterable, Statement>
             appendable.newline().newlineIf(writer.isVerbose());
         }
 
+        // unmodified rules can be copied straight from the original source
+        if (writer.shouldWriteVerbatim()) {
+            Optional<SourceSpan> span = verbatim();
+            if (span.isPresent()) {
+                // comments before the rule are attributed to the first selector and are not part of the span
+                writer.appendComments(selectors.first().get().comments(), appendable);
+                span.get().appendTo(appendable);
+                return;
+            }
+        }
+
         // selectors
         for (Selector selector : selectors) {
             writer.writeInner(selector, appendable);
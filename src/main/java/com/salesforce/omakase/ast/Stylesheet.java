@@ -33,7 +33,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import com.salesforce.omakase.ast.collection.LinkedSyntaxCollection;
+import com.salesforce.omakase.ast.collection.IntrusiveSyntaxCollection;
 import com.salesforce.omakase.ast.collection.SyntaxCollection;
 import com.salesforce.omakase.broadcast.Broadcaster;
 import com.salesforce.omakase.broadcast.annotation.Description;
@@ -61,7 +61,7 @@ public final class Stylesheet extends AbstractSyntax implements StatementIterabl
      */
     public Stylesheet() {
         super(1, 1);
-        statements = new LinkedSyntaxCollection<>(this);
+        statements = new IntrusiveSyntaxCollection<>(this);
     }
 
     @Override
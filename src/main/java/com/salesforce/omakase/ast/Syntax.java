@@ -64,6 +64,33 @@ public interface Syntax extends Writable, Broadcastable {
      */
     int id();
 
+    /**
+     * Gets the current revision of this unit. The revision increases every time this unit or any unit within it is modified, for
+     * example when a property value is changed, a prefix is added, or a unit is appended to or removed from an inner collection.
+     * <p>
+     * Modifications are propagated up to the enclosing units, all the way to the {@link Rule}, {@link AtRule} and {@link
+     * Stylesheet}. To find out whether a unit (or anything within it) changed, compare the revision to a previously saved value.
+     * The revision is only meaningful when compared with earlier revisions of the same unit.
+     * <p>
+     * Units that do not track modifications always return 0. All units extending {@link AbstractSyntax} track modifications.
+     *
+     * @return The current revision.
+     */
+    default int revision() {
+        return 0;
+    }
+
+    /**
+     * Records that this unit was modified, increasing the {@link #revision()} of this unit and of all enclosing units.
+     * <p>
+     * This is called automatically by the standard AST units whenever they are changed. Custom units should call this method in
+     * any method that changes the output of the unit.
+     * <p>
+     * By default this does nothing. See {@link AbstractSyntax} for an implementation that tracks modifications.
+     */
+    default void markModified() {
+    }
+
     /**
      * The line number within the source where this {@link Syntax} unit was parsed.
      *
@@ -27,6 +27,7 @@
 package com.salesforce.omakase.ast.atrule;
 
 import com.salesforce.omakase.ast.AbstractSyntax;
+import com.salesforce.omakase.ast.Syntax;
 
 /**
  * Base class for {@link AtRuleMember}s.
@@ -61,4 +62,9 @@ public abstract class AbstractAtRuleMember extends AbstractSyntax implements AtR
     public AtRule parent() {
         return atRule;
     }
+
+    @Override
+    protected Syntax enclosing() {
+        return atRule;
+    }
 }
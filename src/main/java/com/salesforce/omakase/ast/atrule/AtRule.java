@@ -45,6 +45,7 @@ import com.salesforce.omakase.broadcast.Broadcaster;
 import com.salesforce.omakase.broadcast.annotation.Description;
 import com.salesforce.omakase.broadcast.annotation.Subscribable;
 import com.salesforce.omakase.broadcast.emitter.SubscriptionPhase;
+import com.salesforce.omakase.parser.SourceSpan;
 import com.salesforce.omakase.writer.StyleAppendable;
 import com.salesforce.omakase.writer.StyleWriter;
 
@@ -71,6 +72,10 @@ public final class AtRule extends AbstractGroupable<StatementIterable, Statement
     private AtRuleExpression expression;
     private AtRuleBlock block;
 
+    /* the original source of this at-rule, along with the revision at the time it was recorded */
+    private SourceSpan verbatim;
+    private int verbatimRevision;
+
     /**
      * Constructs a new {@link AtRule} instance.
      *
@@ -135,6 +140,7 @@ public final class AtRule extends AbstractGroupable<StatementIterable, Statement
      */
     public AtRule name(String name) {
         this.name = checkNotNull(name, "name cannot be null");
+        markModified();
         return this;
     }
 
@@ -156,6 +162,7 @@ public final class AtRule extends AbstractGroupable<StatementIterable, Statement
      */
     public AtRule shouldWriteName(boolean shouldWriteName) {
         this.shouldWriteName = shouldWriteName;
+        markModified();
         return this;
     }
 
@@ -202,6 +209,7 @@ public final class AtRule extends AbstractGroupable<StatementIterable, Statement
             expression.parent(this);
         }
         this.expression = expression;
+        markModified();
         return this;
     }
 
@@ -231,6 +239,7 @@ public final class AtRule extends AbstractGroupable<StatementIterable, Statement
             block.parent(this);
         }
         this.block = block;
+        markModified();
         return this;
     }
 
@@ -260,6 +269,33 @@ public final class AtRule extends AbstractGroupable<StatementIterable, Statement
         return this;
     }
 
+    /**
+     * Records the original source text of this at-rule. Library method - do not call directly.
+     *
+     * @param span
+     *     The source span of the whole at-rule, from the '@' symbol to the terminating semicolon or closing brace.
+     *
+     * @return this, for chaining.
+     */
+    public AtRule verbatim(SourceSpan span) {
+        this.verbatim = span;
+        this.verbatimRevision = revision();
+        return this;
+    }
+
+    /**
+     * Gets the original source text of this at-rule, but only if it is known to be unmodified since parsing. That is, it has not
+     * been refined and its {@link #revision()} has not changed.
+     *
+     * @return The original source text, or empty if not available or possibly modified.
+     */
+    public Optional<SourceSpan> verbatim() {
+        if (verbatim == null || revision() != verbatimRevision || isRefined() || isConditional) {
+            return Optional.empty();
+        }
+        return Optional.of(verbatim);
+    }
+
     @Override
     public boolean isRefined() {
         return expression != null || block != null;
@@ -344,6 +380,15 @@ public final class AtRule extends AbstractGroupable<StatementIterable, Statement
             appendable.newline().newlineIf(writer.isVerbose());
         }
 
+        // unmodified at-rules can be copied straight from the original source
+        if (writer.shouldWriteVerbatim()) {
+            Optional<SourceSpan> span = verbatim();
+            if (span.isPresent()) {
+                span.get().appendTo(appendable);
+                return;
+            }
+        }
+
         if (isRefined()) {
             // name
             if (shouldWriteName) {
@@ -166,6 +166,7 @@ public final class FontDescriptor extends AbstractGroupable<FontFaceBlock, FontD
         if (propagatingBroadcaster != null) {
             this.propertyValue.propagateBroadcast(propagatingBroadcaster, Status.PARSED);
         }
+        markModified();
         return this;
     }
 
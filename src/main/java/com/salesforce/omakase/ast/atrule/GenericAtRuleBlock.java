@@ -29,7 +29,7 @@ package com.salesforce.omakase.ast.atrule;
 import com.salesforce.omakase.ast.Statement;
 import com.salesforce.omakase.ast.StatementIterable;
 import com.salesforce.omakase.ast.Status;
-import com.salesforce.omakase.ast.collection.LinkedSyntaxCollection;
+import com.salesforce.omakase.ast.collection.IntrusiveSyntaxCollection;
 import com.salesforce.omakase.ast.collection.SyntaxCollection;
 import com.salesforce.omakase.broadcast.Broadcaster;
 import com.salesforce.omakase.writer.StyleAppendable;
@@ -50,7 +50,7 @@ public final class GenericAtRuleBlock extends AbstractAtRuleMember implements At
 
     /** Creates a new {@link GenericAtRuleBlock} instance with no statements or {@link Broadcaster} specified. */
     public GenericAtRuleBlock() {
-        this.statements = new LinkedSyntaxCollection<>(this);
+        this.statements = new IntrusiveSyntaxCollection<>(this);
     }
 
     /**
@@ -60,7 +60,7 @@ public final class GenericAtRuleBlock extends AbstractAtRuleMember implements At
      *
      */
     public GenericAtRuleBlock(Iterable<Statement> statements) {
-        this.statements = new LinkedSyntaxCollection<>(this);
+        this.statements = new IntrusiveSyntaxCollection<>(this);
         this.statements.appendAll(statements);
     }
 
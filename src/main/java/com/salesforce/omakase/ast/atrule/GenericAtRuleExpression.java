@@ -76,6 +76,7 @@ public class GenericAtRuleExpression extends AbstractAtRuleMember implements AtR
      */
     public GenericAtRuleExpression expression(String expression) {
         this.expression = expression;
+        markModified();
         return this;
     }
 
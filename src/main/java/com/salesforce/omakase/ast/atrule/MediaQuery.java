@@ -33,7 +33,7 @@ import java.util.Optional;
 
 import com.salesforce.omakase.ast.Status;
 import com.salesforce.omakase.ast.collection.AbstractGroupable;
-import com.salesforce.omakase.ast.collection.LinkedSyntaxCollection;
+import com.salesforce.omakase.ast.collection.IntrusiveSyntaxCollection;
 import com.salesforce.omakase.ast.collection.SyntaxCollection;
 import com.salesforce.omakase.broadcast.Broadcaster;
 import com.salesforce.omakase.writer.StyleAppendable;
@@ -77,7 +77,7 @@ public final class MediaQuery extends AbstractGroupable<MediaQueryList, MediaQue
      */
     public MediaQuery(int line, int column) {
         super(line, column);
-        this.expressions = new LinkedSyntaxCollection<>(this);
+        this.expressions = new IntrusiveSyntaxCollection<>(this);
     }
 
     /**
@@ -94,6 +94,7 @@ public final class MediaQuery extends AbstractGroupable<MediaQueryList, MediaQue
     public MediaQuery restriction(MediaRestriction restriction) {
         this.restriction = restriction;
         checkState(this.restriction == null || type != null, "cannot have a restriction without a media type");
+        markModified();
         return this;
     }
 
@@ -116,6 +117,7 @@ public final class MediaQuery extends AbstractGroupable<MediaQueryList, MediaQue
      */
     public MediaQuery type(String type) {
         this.type = type != null ? type.toLowerCase() : null;
+        markModified();
         return this;
     }
 
@@ -90,6 +90,7 @@ public final class MediaQueryExpression extends AbstractGroupable<MediaQuery, Me
      */
     public MediaQueryExpression terms(Iterable<PropertyValueMember> terms) {
         this.terms = Lists.newArrayList(checkNotNull(terms, "terms cannot be null"));
+        markModified();
         return this;
     }
 
@@ -112,6 +113,7 @@ public final class MediaQueryExpression extends AbstractGroupable<MediaQuery, Me
      */
     public MediaQueryExpression feature(String feature) {
         this.feature = checkNotNull(feature, "feature cannot be null");
+        markModified();
         return this;
     }
 
@@ -29,7 +29,7 @@ package com.salesforce.omakase.ast.atrule;
 import java.io.IOException;
 
 import com.salesforce.omakase.ast.Status;
-import com.salesforce.omakase.ast.collection.LinkedSyntaxCollection;
+import com.salesforce.omakase.ast.collection.IntrusiveSyntaxCollection;
 import com.salesforce.omakase.ast.collection.SyntaxCollection;
 import com.salesforce.omakase.broadcast.BroadcastRequirement;
 import com.salesforce.omakase.broadcast.Broadcaster;
@@ -70,7 +70,7 @@ public final class MediaQueryList extends AbstractAtRuleMember implements AtRule
      */
     public MediaQueryList(int line, int column) {
         super(line, column);
-        queries = new LinkedSyntaxCollection<>(this);
+        queries = new IntrusiveSyntaxCollection<>(this);
     }
 
     /**
@@ -33,6 +33,7 @@ import java.util.Optional;
 
 import com.salesforce.omakase.ast.AbstractSyntax;
 import com.salesforce.omakase.ast.Status;
+import com.salesforce.omakase.ast.Syntax;
 
 /**
  * Base class for {@link Groupable}s.
@@ -48,6 +49,11 @@ public abstract class AbstractGroupable<P, T extends Groupable<P, T>> extends Ab
     private SyntaxCollection<P, T> group;
     private boolean destroyed;
 
+    /* links to peers, maintained by IntrusiveSyntaxCollection only */
+    private T linkedPrevious;
+    private T linkedNext;
+    private int linkStamp;
+
     /** Creates a new instance with no line or number specified (used for dynamically created {@link Syntax} units). */
     public AbstractGroupable() {}
 
@@ -153,8 +159,44 @@ public abstract class AbstractGroupable<P, T extends Groupable<P, T>> extends Ab
         return group == null ? null : group().parent();
     }
 
+    @Override
+    protected Syntax enclosing() {
+        P parent = parent();
+        return parent instanceof Syntax ? (Syntax)parent : null;
+    }
+
     @Override
     public boolean isWritable() {
         return !destroyed;
     }
+
+    /** the previous unit, when grouped in an {@link IntrusiveSyntaxCollection} */
+    T linkedPrevious() {
+        return linkedPrevious;
+    }
+
+    /** sets the previous unit, when grouped in an {@link IntrusiveSyntaxCollection} */
+    void linkedPrevious(T previous) {
+        this.linkedPrevious = previous;
+    }
+
+    /** the next unit, when grouped in an {@link IntrusiveSyntaxCollection} */
+    T linkedNext() {
+        return linkedNext;
+    }
+
+    /** sets the next unit, when grouped in an {@link IntrusiveSyntaxCollection} */
+    void linkedNext(T next) {
+        this.linkedNext = next;
+    }
+
+    /** the number of times this unit was removed from an {@link IntrusiveSyntaxCollection} */
+    int linkStamp() {
+        return linkStamp;
+    }
+
+    /** records that this unit was removed from an {@link IntrusiveSyntaxCollection} */
+    void unlinked() {
+        linkStamp++;
+    }
 }
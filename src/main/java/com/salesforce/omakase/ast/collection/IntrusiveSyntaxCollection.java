@@ -0,0 +1,376 @@
+/*
+ * Copyright (c) 2015, salesforce.com, inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of salesforce.com, inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.salesforce.omakase.ast.collection;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.salesforce.omakase.ast.Status;
+import com.salesforce.omakase.ast.Syntax;
+import com.salesforce.omakase.broadcast.Broadcaster;
+import com.salesforce.omakase.util.As;
+
+/**
+ * An intrusive implementation of the {@link SyntaxCollection}, used for the collections within the standard AST.
+ * <p>
+ * Instead of wrapping each unit in a separate node and indexing the nodes by id, the previous and next links are stored directly
+ * on the units. This means {@link #contains(Groupable)}, {@link #next(Groupable)} and {@link #previous(Groupable)} are constant
+ * time operations without any extra allocations. Since a unit can only belong to one collection at a time (see {@link
+ * Groupable}), this has the same behavior as {@link LinkedSyntaxCollection}. This includes modifying the collection during
+ * iteration: when the current unit is removed, or moved anywhere (including elsewhere in this collection), the iteration
+ * continues with the unit that followed it, and a unit moved further ahead is visited again.
+ * <p>
+ * All units added to this collection must extend {@link AbstractGroupable}. For custom {@link Groupable} implementations use
+ * {@link LinkedSyntaxCollection} instead.
+ *
+ * @param <P>
+ *     Type of the (P)arent object containing this collection (e.g., {@link SelectorPart}s have {@link Selector}s as the parent).
+ * @param <T>
+ *     The (T)ype of units to be grouped with.
+ *
+ * @author nmcwilliams
+ */
+public final class IntrusiveSyntaxCollection<P, T extends Groupable<P, T>> implements SyntaxCollection<P, T> {
+    private final P parent;
+
+    private T first;
+    private T last;
+    private int size;
+    private transient Broadcaster propagatingBroadcaster;
+
+    /**
+     * Creates a new {@link IntrusiveSyntaxCollection} with no available {@link Broadcaster}.
+     *
+     * @param parent
+     *     The parent that owns this collection. Do not pass null.
+     */
+    public IntrusiveSyntaxCollection(P parent) {
+        this.parent = parent;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return first == null;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private T current;
+            private T following;
+            private int stamp;
+
+            @Override
+            public boolean hasNext() {
+                if (current == null) return first != null;
+
+                // if the current unit was removed or moved (even within this collection) during iteration then continue on
+                // with the unit that followed it
+                if (contains(current) && links(current).linkStamp() == stamp) {
+                    following = links(current).linkedNext();
+                }
+                return following != null;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                current = (current == null) ? first : following;
+                following = links(current).linkedNext();
+                stamp = links(current).linkStamp();
+                return current;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException(); // can be implemented when needed
+            }
+        };
+    }
+
+    @Override
+    public boolean isEmptyOrNoneWritable() {
+        if (isEmpty()) return true;
+        for (T unit : this) {
+            if (unit.isWritable()) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean contains(T unit) {
+        return unit.group() == this;
+    }
+
+    @Override
+    public Optional<T> first() {
+        return Optional.ofNullable(first);
+    }
+
+    @Override
+    public Optional<T> last() {
+        return Optional.ofNullable(last);
+    }
+
+    @Override
+    public Optional<T> next(T unit) {
+        checkMember(unit);
+        return Optional.ofNullable(links(unit).linkedNext());
+    }
+
+    @Override
+    public Optional<T> previous(T unit) {
+        checkMember(unit);
+        return Optional.ofNullable(links(unit).linkedPrevious());
+    }
+
+    @Override
+    public <S extends T> Optional<S> find(Class<S> klass) {
+        return stream().filter(klass::isInstance).map(klass::cast).findFirst();
+    }
+
+    @Override
+    public SyntaxCollection<P, T> prepend(T unit) {
+        checkNotNull(unit, "unit cannot be null");
+        checkArgument(!unit.isDestroyed(), "cannot prepend a destroyed unit!");
+
+        // disassociate with old group
+        unit.unlink();
+
+        // link and associate with this group
+        link(unit, null, first);
+
+        // broadcast if it hasn't been already
+        propagateNewUnit(unit);
+
+        return this;
+    }
+
+    @Override
+    public SyntaxCollection<P, T> prependAll(Iterable<T> units) {
+        for (T unit : ImmutableList.copyOf(units).reverse()) prepend(unit);
+        return this;
+    }
+
+    @Override
+    public SyntaxCollection<P, T> prependBefore(T index, T unit) throws IllegalArgumentException {
+        checkNotNull(index, "exiting cannot be null");
+        checkNotNull(unit, "unit cannot be null");
+        checkArgument(!unit.isDestroyed(), "cannot prepend a destroyed unit!");
+        checkMember(index);
+
+        if (index == unit) return this;
+
+        // disassociate with old group
+        unit.unlink();
+
+        // link and associate with this group
+        link(unit, links(index).linkedPrevious(), index);
+
+        // broadcast if it hasn't been already
+        propagateNewUnit(unit);
+
+        return this;
+    }
+
+    @Override
+    public SyntaxCollection<P, T> append(T unit) {
+        checkNotNull(unit, "unit cannot be null");
+        checkArgument(!unit.isDestroyed(), "cannot append a destroyed unit!");
+
+        // disassociate with old group
+        unit.unlink();
+
+        // link and associate with this group
+        link(unit, last, null);
+
+        // broadcast if it hasn't been already
+        propagateNewUnit(unit);
+
+        return this;
+    }
+
+    @Override
+    public SyntaxCollection<P, T> appendAll(Iterable<T> units) {
+        for (T unit : units) append(unit);
+        return this;
+    }
+
+    @Override
+    public SyntaxCollection<P, T> appendAfter(T index, T unit) throws IllegalArgumentException {
+        checkNotNull(index, "exiting cannot be null");
+        checkNotNull(unit, "unit cannot be null");
+        checkArgument(!unit.isDestroyed(), "cannot append a destroyed unit!");
+        checkMember(index);
+
+        if (index == unit) return this;
+
+        // disassociate with old group
+        unit.unlink();
+
+        // link and associate with this group
+        link(unit, index, links(index).linkedNext());
+
+        // broadcast if it hasn't been already
+        propagateNewUnit(unit);
+
+        return this;
+    }
+
+    @Override
+    public SyntaxCollection<P, T> remove(T unit) {
+        if (contains(unit)) {
+            AbstractGroupable<P, T> links = links(unit);
+            T previous = links.linkedPrevious();
+            T next = links.linkedNext();
+
+            // update our links
+            if (unit == first) first = next;
+            if (unit == last) last = previous;
+            if (previous != null) links(previous).linkedNext(next);
+            if (next != null) links(next).linkedPrevious(previous);
+
+            links.linkedPrevious(null);
+            links.linkedNext(null);
+            links.unlinked();
+            size--;
+            parentModified();
+
+            // ensure the unit is not associated with this group any longer
+            unit.group(null);
+        }
+
+        return this;
+    }
+
+    @Override
+    public SyntaxCollection<P, T> clear() {
+        for (T unit : this) remove(unit);
+        return this;
+    }
+
+    @Override
+    public SyntaxCollection<P, T> replaceExistingWith(T unit) {
+        return clear().append(unit);
+    }
+
+    @Override
+    public SyntaxCollection<P, T> replaceExistingWith(Iterable<T> units) {
+        return clear().appendAll(units);
+    }
+
+    @Override
+    public void destroyAll() {
+        for (T unit : this) {
+            unit.destroy();
+        }
+    }
+
+    @Override
+    public P parent() {
+        return parent;
+    }
+
+    @Override
+    public void propagateBroadcast(Broadcaster broadcaster, Status status) {
+        // save a reference so that subsequent appended/prepended units will be broadcasted
+        this.propagatingBroadcaster = broadcaster;
+        for (T unit : this) {
+            unit.propagateBroadcast(broadcaster, status);
+        }
+    }
+
+    @Override
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    @Override
+    public String toString() {
+        return As.string(this).add("units", Lists.newArrayList(iterator())).toString();
+    }
+
+    private void propagateNewUnit(T unit) {
+        if (propagatingBroadcaster != null) {
+            unit.propagateBroadcast(propagatingBroadcaster, Status.PARSED);
+        }
+    }
+
+    /** records the modification on the parent, when it is a syntax unit */
+    private void parentModified() {
+        if (parent instanceof Syntax) {
+            ((Syntax)parent).markModified();
+        }
+    }
+
+    /** links the unit between the given units (either of which may be null) */
+    private void link(T unit, T previous, T next) {
+        AbstractGroupable<P, T> links = links(unit);
+        links.linkedPrevious(previous);
+        links.linkedNext(next);
+
+        if (previous == null) {
+            first = unit;
+        } else {
+            links(previous).linkedNext(unit);
+        }
+
+        if (next == null) {
+            last = unit;
+        } else {
+            links(next).linkedPrevious(unit);
+        }
+
+        size++;
+        parentModified();
+        unit.group(this);
+    }
+
+    private void checkMember(T unit) {
+        if (!contains(unit)) throw new IllegalArgumentException("the specified unit does not exist in this collection!");
+    }
+
+    @SuppressWarnings("unchecked")
+    private AbstractGroupable<P, T> links(T unit) {
+        // cast is safe as long as the unit type extends AbstractGroupable, which is always the case for library units
+        checkArgument(unit instanceof AbstractGroupable, "units must extend AbstractGroupable (use LinkedSyntaxCollection)");
+        return (AbstractGroupable<P, T>)unit;
+    }
+}
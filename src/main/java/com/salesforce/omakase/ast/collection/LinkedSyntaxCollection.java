@@ -47,10 +47,13 @@ import com.salesforce.omakase.broadcast.Broadcaster;
 import com.salesforce.omakase.util.As;
 
 /**
- * Standard (default) implementation of the {@link SyntaxCollection}.
+ * General implementation of the {@link SyntaxCollection}.
  * <p>
  * This uses a linked-node approach optimized for random lookups, insertions and removals. Uniqueness is maintained like a set and
  * prevents duplicates. Appending or prepending an existing unit will simply move its position.
+ * <p>
+ * The standard AST units use {@link IntrusiveSyntaxCollection} instead, which stores the links on the units themselves. This
+ * implementation works with any {@link Groupable}, including ones that do not extend {@link AbstractGroupable}.
  *
  * @param <P>
  *     Type of the (P)arent object containing this collection (e.g., {@link SelectorPart}s have {@link Selector}s as the parent).
@@ -171,6 +174,8 @@ public final class LinkedSyntaxCollection<P, T extends Groupable<P, T>> implemen
             last = first;
         }
 
+        parentModified();
+
         // broadcast if it hasn't been already
         propagateNewUnit(unit);
 
@@ -202,6 +207,8 @@ public final class LinkedSyntaxCollection<P, T extends Groupable<P, T>> implemen
         // create a new node
         lookup.put(unit.id(), new Node<>(node.previous, node, unit));
 
+        parentModified();
+
         // broadcast if it hasn't been already
         propagateNewUnit(unit);
 
@@ -221,6 +228,8 @@ public final class LinkedSyntaxCollection<P, T extends Groupable<P, T>> implemen
         lookup.put(unit.id(), last);
         if (first == null) first = last;
 
+        parentModified();
+
         // broadcast if it hasn't been already
         propagateNewUnit(unit);
 
@@ -252,6 +261,8 @@ public final class LinkedSyntaxCollection<P, T extends Groupable<P, T>> implemen
         // create a new node
         lookup.put(unit.id(), new Node<>(node, node.next, unit));
 
+        parentModified();
+
         // broadcast if it hasn't been already
         propagateNewUnit(unit);
 
@@ -268,6 +279,7 @@ public final class LinkedSyntaxCollection<P, T extends Groupable<P, T>> implemen
 
             // ensure the unit is not associated with this group any longer
             unit.group(null);
+            parentModified();
         }
 
         return this;
@@ -326,6 +338,13 @@ public final class LinkedSyntaxCollection<P, T extends Groupable<P, T>> implemen
         }
     }
 
+    /** records the modification on the parent, when it is a syntax unit */
+    private void parentModified() {
+        if (parent instanceof Syntax) {
+            ((Syntax)parent).markModified();
+        }
+    }
+
     private void unlink(Node<T> node) {
         if (node == first) first = node.next;
         if (node == last) last = node.previous;
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2015, salesforce.com, inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of salesforce.com, inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.salesforce.omakase.ast.compact;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+import com.salesforce.omakase.ast.RawSyntax;
+import com.salesforce.omakase.ast.Rule;
+import com.salesforce.omakase.ast.Statement;
+import com.salesforce.omakase.ast.Stylesheet;
+import com.salesforce.omakase.ast.Syntax;
+import com.salesforce.omakase.ast.atrule.AtRule;
+import com.salesforce.omakase.ast.declaration.Declaration;
+import com.salesforce.omakase.ast.selector.Selector;
+import com.salesforce.omakase.util.As;
+
+/**
+ * A lightweight view of a single node within a {@link CompactStylesheet}.
+ * <p>
+ * Views hold nothing more than a reference to the store and the node index, so they are cheap to create and may be discarded
+ * freely. Two views are equal if they refer to the same node in the same store. Use {@link #toSyntax()} to create the
+ * equivalent (raw) AST unit when the regular {@link Syntax} API is needed.
+ *
+ * @author nmcwilliams
+ */
+public final class CompactNode {
+    private final CompactStylesheet store;
+    private final int index;
+
+    CompactNode(CompactStylesheet store, int index) {
+        this.store = store;
+        this.index = index;
+    }
+
+    /**
+     * Gets the index of this node within the {@link CompactStylesheet}.
+     *
+     * @return The node index.
+     */
+    public int index() {
+        return index;
+    }
+
+    /**
+     * Gets the kind of node.
+     *
+     * @return The node kind.
+     */
+    public NodeKind kind() {
+        return store.kind(index);
+    }
+
+    /**
+     * Gets the line number within the original source.
+     *
+     * @return The line number.
+     */
+    public int line() {
+        return store.line(index);
+    }
+
+    /**
+     * Gets the column number within the original source.
+     *
+     * @return The column number.
+     */
+    public int column() {
+        return store.column(index);
+    }
+
+    /**
+     * Gets the raw text of this node. This is the selector content for {@link NodeKind#SELECTOR}, the property name for {@link
+     * NodeKind#DECLARATION}, the at-rule name for {@link NodeKind#AT_RULE} and the raw content for the other raw kinds.
+     *
+     * @return The text, or null for {@link NodeKind#STYLESHEET} and {@link NodeKind#RULE} nodes.
+     */
+    public String text() {
+        return store.text(index);
+    }
+
+    /**
+     * Gets the parent node.
+     *
+     * @return The parent, or empty for the root node.
+     */
+    public Optional<CompactNode> parent() {
+        int parent = store.parentIndex(index);
+        return parent < 0 ? Optional.empty() : Optional.of(new CompactNode(store, parent));
+    }
+
+    /**
+     * Gets the first child of the given kind.
+     *
+     * @param kind
+     *     The kind of child.
+     *
+     * @return The first matching child, or empty if there isn't one.
+     */
+    public Optional<CompactNode> child(NodeKind kind) {
+        for (CompactNode child : children()) {
+            if (child.kind() == kind) return Optional.of(child);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Gets the direct children of this node, in source order.
+     *
+     * @return The children.
+     */
+    public Iterable<CompactNode> children() {
+        return () -> new Iterator<CompactNode>() {
+            private int next = store.firstChildIndex(index);
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public CompactNode next() {
+                if (next < 0) throw new NoSuchElementException();
+                CompactNode node = new CompactNode(store, next);
+                next = store.nextSiblingIndex(next);
+                return node;
+            }
+        };
+    }
+
+    /**
+     * Creates the equivalent raw AST unit for this node, including all descendants. The returned unit is a new, independent
+     * instance each time.
+     * <p>
+     * This returns a {@link Stylesheet}, {@link Rule}, {@link Selector}, {@link Declaration} or {@link AtRule} respectively, or a
+     * {@link RawSyntax} for the other kinds.
+     *
+     * @return The materialized unit.
+     */
+    public Syntax toSyntax() {
+        switch (kind()) {
+        case STYLESHEET:
+            Stylesheet stylesheet = new Stylesheet();
+            for (CompactNode child : children()) {
+                stylesheet.statements().append((Statement)child.toSyntax());
+            }
+            return stylesheet;
+        case RULE:
+            Rule rule = new Rule(line(), column());
+            for (CompactNode child : children()) {
+                if (child.kind() == NodeKind.SELECTOR) {
+                    rule.selectors().append((Selector)child.toSyntax());
+                } else {
+                    rule.declarations().append((Declaration)child.toSyntax());
+                }
+            }
+            return rule;
+        case SELECTOR:
+            return new Selector(toRaw());
+        case DECLARATION:
+            return new Declaration(toRaw(), child(NodeKind.DECLARATION_VALUE).get().toRaw());
+        case AT_RULE:
+            RawSyntax expression = child(NodeKind.AT_RULE_EXPRESSION).map(CompactNode::toRaw).orElse(null);
+            RawSyntax block = child(NodeKind.AT_RULE_BLOCK).map(CompactNode::toRaw).orElse(null);
+            return new AtRule(line(), column(), text(), expression, block);
+        default:
+            return toRaw();
+        }
+    }
+
+    private RawSyntax toRaw() {
+        return new RawSyntax(line(), column(), text());
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof CompactNode)) return false;
+        CompactNode other = (CompactNode)obj;
+        return store == other.store && index == other.index;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(store) + index;
+    }
+
+    @Override
+    public String toString() {
+        return As.string(this)
+            .add("index", index)
+            .add("kind", kind())
+            .add("line", line())
+            .add("column", column())
+            .add("text", text())
+            .toString();
+    }
+}
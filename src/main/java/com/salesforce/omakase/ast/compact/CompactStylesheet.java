@@ -0,0 +1,345 @@
+/*
+ * Copyright (c) 2015, salesforce.com, inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of salesforce.com, inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.salesforce.omakase.ast.compact;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import com.salesforce.omakase.Message;
+import com.salesforce.omakase.ast.RawSyntax;
+import com.salesforce.omakase.ast.Rule;
+import com.salesforce.omakase.ast.Statement;
+import com.salesforce.omakase.ast.atrule.AtRule;
+import com.salesforce.omakase.ast.declaration.Declaration;
+import com.salesforce.omakase.ast.selector.Selector;
+import com.salesforce.omakase.broadcast.ConsumingBroadcaster;
+import com.salesforce.omakase.parser.Grammar;
+import com.salesforce.omakase.parser.Parser;
+import com.salesforce.omakase.parser.ParserException;
+import com.salesforce.omakase.parser.Source;
+import com.salesforce.omakase.util.As;
+
+/**
+ * A compact, read-only representation of a stylesheet, intended for analysis-only pipelines (linting, statistics, indexing)
+ * over large amounts of CSS.
+ * <p>
+ * Instead of an object per unit, the node kinds, source positions, parent/child links and text of each node are stored in
+ * primitive arrays, and all text is interned into a single string table. Statements are compacted one at a time as they are
+ * parsed, so the full object graph for the stylesheet is never held in memory at once. Nodes are accessed through lightweight
+ * {@link CompactNode} views created on demand, which can also be materialized into the regular (raw) AST units when needed.
+ * <p>
+ * Only the raw (unrefined) content is captured, the same as the first phase of normal parsing. Comments are not retained. The
+ * contents of at-rule blocks are kept as raw text.
+ * <p>
+ * Example:
+ * <pre>
+ * <code>CompactStylesheet sheet = CompactStylesheet.parse(input);
+ * for (CompactNode statement : sheet.root().children()) {...}
+ * </code></pre>
+ *
+ * @author nmcwilliams
+ */
+public final class CompactStylesheet {
+    private static final int NONE = -1;
+    private static final NodeKind[] KINDS = NodeKind.values();
+
+    private final byte[] kinds;
+    private final int[] lines;
+    private final int[] columns;
+    private final int[] parents;
+    private final int[] firstChildren;
+    private final int[] nextSiblings;
+    private final int[] texts;
+    private final String[] strings;
+
+    private CompactStylesheet(Builder builder) {
+        int size = builder.size;
+        this.kinds = Arrays.copyOf(builder.kinds, size);
+        this.lines = Arrays.copyOf(builder.lines, size);
+        this.columns = Arrays.copyOf(builder.columns, size);
+        this.parents = Arrays.copyOf(builder.parents, size);
+        this.firstChildren = Arrays.copyOf(builder.firstChildren, size);
+        this.nextSiblings = Arrays.copyOf(builder.nextSiblings, size);
+        this.texts = Arrays.copyOf(builder.texts, size);
+        this.strings = new String[builder.strings.size()];
+        for (Map.Entry<String, Integer> entry : builder.strings.entrySet()) {
+            strings[entry.getValue()] = entry.getKey();
+        }
+    }
+
+    /**
+     * Parses the given CSS source into a {@link CompactStylesheet}.
+     *
+     * @param source
+     *     The CSS source.
+     *
+     * @return The compacted stylesheet.
+     *
+     * @throws ParserException
+     *     If the source contains a syntax error.
+     */
+    public static CompactStylesheet parse(CharSequence source) {
+        return parse(source, new Grammar());
+    }
+
+    /**
+     * Parses the given CSS source into a {@link CompactStylesheet}, using the given {@link Grammar}.
+     *
+     * @param source
+     *     The CSS source.
+     * @param grammar
+     *     The grammar to use for parsing.
+     *
+     * @return The compacted stylesheet.
+     *
+     * @throws ParserException
+     *     If the source contains a syntax error.
+     */
+    public static CompactStylesheet parse(CharSequence source, Grammar grammar) {
+        checkNotNull(source, "source cannot be null");
+        checkNotNull(grammar, "grammar cannot be null");
+
+        Source src = new Source(source);
+        Builder builder = new Builder();
+        int root = builder.add(NodeKind.STYLESHEET, NONE, 1, 1, null);
+
+        // each statement is compacted as soon as it is parsed and is then free to be garbage collected
+        ConsumingBroadcaster<Statement> broadcaster = new ConsumingBroadcaster<>(Statement.class, s -> builder.statement(root, s));
+        Parser statement = grammar.parser().statementParser();
+
+        while (true) {
+            if (!statement.parse(src, grammar, broadcaster)) {
+                break;
+            }
+        }
+
+        // after all rules and content is parsed, there should be nothing left in the source
+        src.collectComments();
+        if (!src.eof()) {
+            throw new ParserException(src, Message.EXTRANEOUS, src.remaining());
+        }
+
+        return new CompactStylesheet(builder);
+    }
+
+    /**
+     * Gets the root {@link NodeKind#STYLESHEET} node.
+     *
+     * @return The root node.
+     */
+    public CompactNode root() {
+        return new CompactNode(this, 0);
+    }
+
+    /**
+     * Gets the node at the given index. Nodes are numbered in document order, starting with the root at 0.
+     *
+     * @param index
+     *     The node index.
+     *
+     * @return The node.
+     */
+    public CompactNode node(int index) {
+        checkElementIndex(index, kinds.length);
+        return new CompactNode(this, index);
+    }
+
+    /**
+     * Gets the total number of nodes, including the root.
+     *
+     * @return The number of nodes.
+     */
+    public int size() {
+        return kinds.length;
+    }
+
+    /**
+     * Gets the number of unique strings in the string table.
+     *
+     * @return The number of unique strings.
+     */
+    public int uniqueStrings() {
+        return strings.length;
+    }
+
+    /**
+     * Counts the number of nodes of the given kind.
+     *
+     * @param kind
+     *     Count nodes of this kind.
+     *
+     * @return The number of matching nodes.
+     */
+    public int count(NodeKind kind) {
+        int count = 0;
+        for (byte k : kinds) {
+            if (k == kind.ordinal()) count++;
+        }
+        return count;
+    }
+
+    NodeKind kind(int index) {
+        return KINDS[kinds[index]];
+    }
+
+    int line(int index) {
+        return lines[index];
+    }
+
+    int column(int index) {
+        return columns[index];
+    }
+
+    int parentIndex(int index) {
+        return parents[index];
+    }
+
+    int firstChildIndex(int index) {
+        return firstChildren[index];
+    }
+
+    int nextSiblingIndex(int index) {
+        return nextSiblings[index];
+    }
+
+    String text(int index) {
+        int text = texts[index];
+        return text == NONE ? null : strings[text];
+    }
+
+    @Override
+    public String toString() {
+        return As.string(this)
+            .add("nodes", size())
+            .add("rules", count(NodeKind.RULE))
+            .add("atRules", count(NodeKind.AT_RULE))
+            .add("declarations", count(NodeKind.DECLARATION))
+            .add("uniqueStrings", uniqueStrings())
+            .toString();
+    }
+
+    /** accumulates nodes into growable arrays while parsing */
+    private static final class Builder {
+        private byte[] kinds = new byte[64];
+        private int[] lines = new int[64];
+        private int[] columns = new int[64];
+        private int[] parents = new int[64];
+        private int[] firstChildren = new int[64];
+        private int[] nextSiblings = new int[64];
+        private int[] lastChildren = new int[64];
+        private int[] texts = new int[64];
+        private final Map<String, Integer> strings = new HashMap<>();
+        private int size;
+
+        void statement(int parent, Statement statement) {
+            if (statement instanceof Rule) {
+                rule(parent, (Rule)statement);
+            } else if (statement instanceof AtRule) {
+                atRule(parent, (AtRule)statement);
+            }
+        }
+
+        private void rule(int parent, Rule rule) {
+            int node = add(NodeKind.RULE, parent, rule.line(), rule.column(), null);
+
+            for (Selector selector : rule.selectors()) {
+                selector.raw().ifPresent(raw -> raw(NodeKind.SELECTOR, node, raw));
+            }
+
+            for (Declaration declaration : rule.declarations()) {
+                Optional<RawSyntax> name = declaration.rawPropertyName();
+                Optional<RawSyntax> value = declaration.rawPropertyValue();
+                if (name.isPresent() && value.isPresent()) {
+                    int d = raw(NodeKind.DECLARATION, node, name.get());
+                    raw(NodeKind.DECLARATION_VALUE, d, value.get());
+                }
+            }
+        }
+
+        private void atRule(int parent, AtRule atRule) {
+            int node = add(NodeKind.AT_RULE, parent, atRule.line(), atRule.column(), atRule.name());
+            atRule.rawExpression().ifPresent(raw -> raw(NodeKind.AT_RULE_EXPRESSION, node, raw));
+            atRule.rawBlock().ifPresent(raw -> raw(NodeKind.AT_RULE_BLOCK, node, raw));
+        }
+
+        private int raw(NodeKind kind, int parent, RawSyntax raw) {
+            return add(kind, parent, raw.line(), raw.column(), raw.content());
+        }
+
+        int add(NodeKind kind, int parent, int line, int column, String text) {
+            if (size == kinds.length) grow();
+
+            int node = size++;
+            kinds[node] = (byte)kind.ordinal();
+            lines[node] = line;
+            columns[node] = column;
+            parents[node] = parent;
+            firstChildren[node] = NONE;
+            nextSiblings[node] = NONE;
+            lastChildren[node] = NONE;
+            texts[node] = (text == null) ? NONE : intern(text);
+
+            // link to the parent and the previous sibling
+            if (parent != NONE) {
+                int previous = lastChildren[parent];
+                if (previous == NONE) {
+                    firstChildren[parent] = node;
+                } else {
+                    nextSiblings[previous] = node;
+                }
+                lastChildren[parent] = node;
+            }
+
+            return node;
+        }
+
+        private int intern(String text) {
+            Integer existing = strings.get(text);
+            if (existing != null) return existing;
+            int index = strings.size();
+            strings.put(text, index);
+            return index;
+        }
+
+        private void grow() {
+            int capacity = kinds.length * 2;
+            kinds = Arrays.copyOf(kinds, capacity);
+            lines = Arrays.copyOf(lines, capacity);
+            columns = Arrays.copyOf(columns, capacity);
+            parents = Arrays.copyOf(parents, capacity);
+            firstChildren = Arrays.copyOf(firstChildren, capacity);
+            nextSiblings = Arrays.copyOf(nextSiblings, capacity);
+            lastChildren = Arrays.copyOf(lastChildren, capacity);
+            texts = Arrays.copyOf(texts, capacity);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2015, salesforce.com, inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of salesforce.com, inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.salesforce.omakase.ast.compact;
+
+/**
+ * The kind of a node within a {@link CompactStylesheet}.
+ *
+ * @author nmcwilliams
+ */
+public enum NodeKind {
+    /** the root node, with {@link #RULE} and {@link #AT_RULE} children */
+    STYLESHEET,
+
+    /** a rule, with {@link #SELECTOR} and {@link #DECLARATION} children */
+    RULE,
+
+    /** a raw selector, e.g., ".class > a" */
+    SELECTOR,
+
+    /** a declaration with the raw property name as its text and a single {@link #DECLARATION_VALUE} child */
+    DECLARATION,
+
+    /** the raw declaration value, e.g., "1px solid red" */
+    DECLARATION_VALUE,
+
+    /** an at-rule with the name as its text and optional {@link #AT_RULE_EXPRESSION} and {@link #AT_RULE_BLOCK} children */
+    AT_RULE,
+
+    /** the raw at-rule expression, e.g., "screen and (max-width: 800px)" */
+    AT_RULE_EXPRESSION,
+
+    /** the raw at-rule block content (not including the braces) */
+    AT_RULE_BLOCK
+}
@@ -203,8 +203,7 @@ public final class Declaration extends AbstractGroupable<Rule, Declaration> impl
      * @return this, for chaining.
      */
     public Declaration propertyName(Property property) {
-        this.propertyName = PropertyName.of(checkNotNull(property, "property cannot be null"));
-        return this;
+        return propertyName(PropertyName.of(checkNotNull(property, "property cannot be null")));
     }
 
     /**
@@ -217,6 +216,8 @@ public final class Declaration extends AbstractGroupable<Rule, Declaration> impl
      */
     public Declaration propertyName(PropertyName propertyName) {
         this.propertyName = checkNotNull(propertyName, "propertyName cannot be null");
+        this.propertyName.declaration(this);
+        markModified();
         return this;
     }
 
@@ -229,8 +230,7 @@ public final class Declaration extends AbstractGroupable<Rule, Declaration> impl
      * @return this, for chaining.
      */
     public Declaration propertyName(String propertyName) {
-        this.propertyName = PropertyName.of(propertyName);
-        return this;
+        return propertyName(PropertyName.of(propertyName));
     }
 
     @Override
@@ -246,6 +246,7 @@ public final class Declaration extends AbstractGroupable<Rule, Declaration> impl
     public PropertyName propertyName() {
         if (propertyName == null) {
             propertyName = PropertyName.of(rawName.line(), rawName.column(), rawName.content());
+            propertyName.declaration(this);
         }
         return propertyName;
     }
@@ -382,6 +383,7 @@ public final class Declaration extends AbstractGroupable<Rule, Declaration> impl
 
         this.propertyValue = propertyValue;
         this.propertyValue.declaration(this);
+        markModified();
 
         if (propagatingBroadcaster != null) {
             this.propertyValue.propagateBroadcast(propagatingBroadcaster, Status.PARSED);
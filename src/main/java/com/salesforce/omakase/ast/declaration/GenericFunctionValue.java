@@ -92,6 +92,7 @@ public class GenericFunctionValue extends AbstractTerm implements FunctionValue
      */
     public GenericFunctionValue name(String name) {
         this.name = checkNotNull(name, "name cannot be null");
+        markModified();
         return this;
     }
 
@@ -115,6 +116,7 @@ public class GenericFunctionValue extends AbstractTerm implements FunctionValue
      */
     public GenericFunctionValue args(String args) {
         this.args = checkNotNull(args, "args cannot be null");
+        markModified();
         return this;
     }
 
@@ -110,6 +110,7 @@ public final class HexColorValue extends AbstractTerm {
         // color is automatically lower-cased
         this.color = color.toLowerCase();
 
+        markModified();
         return this;
     }
 
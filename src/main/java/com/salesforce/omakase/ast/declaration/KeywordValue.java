@@ -100,6 +100,7 @@ public final class KeywordValue extends AbstractTerm implements Named {
      */
     public KeywordValue keyword(String keyword) {
         this.keyword = checkNotNull(keyword, "keyword cannot be null");
+        markModified();
         return this;
     }
 
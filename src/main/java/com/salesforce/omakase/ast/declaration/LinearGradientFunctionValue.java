@@ -91,6 +91,7 @@ public final class LinearGradientFunctionValue extends AbstractTerm implements F
      */
     public LinearGradientFunctionValue args(String args) {
         this.args = checkNotNull(args, "args cannot be null");
+        markModified();
         return this;
     }
 
@@ -113,6 +114,7 @@ public final class LinearGradientFunctionValue extends AbstractTerm implements F
      */
     public LinearGradientFunctionValue repeating(boolean repeating) {
         this.repeating = repeating;
+        markModified();
         return this;
     }
 
@@ -135,6 +137,7 @@ public final class LinearGradientFunctionValue extends AbstractTerm implements F
      */
     public LinearGradientFunctionValue prefix(Prefix prefix) {
         this.prefix = prefix;
+        markModified();
         return this;
     }
 
@@ -184,6 +187,6 @@ public final class LinearGradientFunctionValue extends AbstractTerm implements F
 
     @Override
     public LinearGradientFunctionValue copy() {
-        return new LinearGradientFunctionValue(args).repeating(repeating).copiedFrom(this);
+        return new LinearGradientFunctionValue(args).repeating(repeating).prefix(prefix).copiedFrom(this);
     }
 }
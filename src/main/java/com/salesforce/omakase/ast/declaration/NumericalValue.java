@@ -39,6 +39,7 @@ import com.google.common.base.CharMatcher;
 import com.google.common.collect.ImmutableSet;
 import com.salesforce.omakase.broadcast.annotation.Description;
 import com.salesforce.omakase.broadcast.annotation.Subscribable;
+import com.salesforce.omakase.data.Property;
 import com.salesforce.omakase.writer.StyleAppendable;
 import com.salesforce.omakase.writer.StyleWriter;
 
@@ -131,6 +132,7 @@ public final class NumericalValue extends AbstractTerm {
         } else {
             explicitSign = null;
         }
+        markModified();
         return this;
     }
 
@@ -155,6 +157,7 @@ public final class NumericalValue extends AbstractTerm {
         } else {
             explicitSign = null;
         }
+        markModified();
         return this;
     }
 
@@ -206,6 +209,7 @@ public final class NumericalValue extends AbstractTerm {
      */
     public NumericalValue unit(String unit) {
         this.unit = unit;
+        markModified();
         return this;
     }
 
@@ -228,6 +232,7 @@ public final class NumericalValue extends AbstractTerm {
      */
     public NumericalValue explicitSign(Sign sign) {
         this.explicitSign = sign;
+        markModified();
         return this;
     }
 
@@ -271,6 +276,13 @@ public final class NumericalValue extends AbstractTerm {
         return builder.toString();
     }
 
+    /** IE10 and IE11 don't accept a unitless zero for the flex basis */
+    private boolean isFlexBasis() {
+        Declaration declaration = declaration();
+        return declaration != null
+            && (declaration.isPropertyIgnorePrefix(Property.FLEX) || declaration.isPropertyIgnorePrefix(Property.FLEX_BASIS));
+    }
+
     @Override
     public void write(StyleWriter writer, StyleAppendable appendable) throws IOException {
         if (explicitSign != null) {
@@ -288,7 +300,7 @@ public final class NumericalValue extends AbstractTerm {
             // - after a zero length, the unit identifier is optional (for distance units only!) e.g., 0px => 0
             if (ZERO.matchesAllOf(num.charAt(0) == '.' ? num.substring(1) : num)) {
                 num = "0";
-                potentiallyDiscardUnit = true;
+                potentiallyDiscardUnit = !isFlexBasis();
             }
         }
 
@@ -33,6 +33,7 @@ import java.util.Optional;
 
 import com.salesforce.omakase.ast.AbstractSyntax;
 import com.salesforce.omakase.ast.Named;
+import com.salesforce.omakase.ast.Syntax;
 import com.salesforce.omakase.data.Prefix;
 import com.salesforce.omakase.data.Property;
 import com.salesforce.omakase.util.Prefixes;
@@ -61,6 +62,7 @@ public final class PropertyName extends AbstractSyntax implements Named {
 
     private Prefix prefix;
     private boolean starHack;
+    private transient Declaration declaration;
 
     private final Property cached;
     private final String unprefixed;
@@ -126,9 +128,20 @@ public final class PropertyName extends AbstractSyntax implements Named {
      */
     public PropertyName starHack(boolean starHack) {
         this.starHack = starHack;
+        markModified();
         return this;
     }
 
+    /** sets the {@link Declaration} that contains this property name, for propagating modifications */
+    void declaration(Declaration declaration) {
+        this.declaration = declaration;
+    }
+
+    @Override
+    protected Syntax enclosing() {
+        return declaration;
+    }
+
     /**
      * Gets the full property name, including the prefix if present.
      *
@@ -188,6 +201,7 @@ public final class PropertyName extends AbstractSyntax implements Named {
      */
     public PropertyName prefix(Prefix prefix) {
         this.prefix = prefix;
+        markModified();
         return this;
     }
 
@@ -198,6 +212,7 @@ public final class PropertyName extends AbstractSyntax implements Named {
      */
     public PropertyName removePrefix() {
         prefix = null;
+        markModified();
         return this;
     }
 
@@ -35,7 +35,8 @@ import java.util.Optional;
 import com.google.common.collect.ImmutableList;
 import com.salesforce.omakase.ast.AbstractSyntax;
 import com.salesforce.omakase.ast.Status;
-import com.salesforce.omakase.ast.collection.LinkedSyntaxCollection;
+import com.salesforce.omakase.ast.Syntax;
+import com.salesforce.omakase.ast.collection.IntrusiveSyntaxCollection;
 import com.salesforce.omakase.ast.collection.SyntaxCollection;
 import com.salesforce.omakase.broadcast.Broadcaster;
 import com.salesforce.omakase.broadcast.annotation.Description;
@@ -80,7 +81,7 @@ public final class PropertyValue extends AbstractSyntax {
      */
     public PropertyValue(int line, int column) {
         super(line, column);
-        members = new LinkedSyntaxCollection<>(this);
+        members = new IntrusiveSyntaxCollection<>(this);
     }
 
     /**
@@ -192,6 +193,7 @@ public final class PropertyValue extends AbstractSyntax {
      */
     public PropertyValue important(boolean important) {
         this.important = important;
+        markModified();
         return this;
     }
 
@@ -217,6 +219,11 @@ public final class PropertyValue extends AbstractSyntax {
         return declaration;
     }
 
+    @Override
+    protected Syntax enclosing() {
+        return declaration;
+    }
+
     @Override
     public void propagateBroadcast(Broadcaster broadcaster, Status status) {
         if (status() == status) {
@@ -110,6 +110,7 @@ public class UnicodeRangeValue extends AbstractTerm {
     public UnicodeRangeValue value(String value) {
         checkNotNull(value, "value cannot be null");
         this.value = value.toLowerCase();
+        markModified();
         return this;
     }
 
@@ -92,6 +92,7 @@ public final class UrlFunctionValue extends AbstractTerm implements FunctionValu
      */
     public UrlFunctionValue url(String url) {
         this.url = checkNotNull(url, "url cannot be null");
+        markModified();
         return this;
     }
 
@@ -114,6 +115,7 @@ public final class UrlFunctionValue extends AbstractTerm implements FunctionValu
      */
     public UrlFunctionValue quotationMode(QuotationMode quotationMode) {
         this.quotationMode = quotationMode;
+        markModified();
         return this;
     }
 
@@ -40,7 +40,7 @@ import com.salesforce.omakase.ast.StatementIterable;
 import com.salesforce.omakase.ast.Status;
 import com.salesforce.omakase.ast.atrule.AbstractAtRuleMember;
 import com.salesforce.omakase.ast.atrule.AtRuleBlock;
-import com.salesforce.omakase.ast.collection.LinkedSyntaxCollection;
+import com.salesforce.omakase.ast.collection.IntrusiveSyntaxCollection;
 import com.salesforce.omakase.ast.collection.SyntaxCollection;
 import com.salesforce.omakase.broadcast.Broadcaster;
 import com.salesforce.omakase.broadcast.annotation.Description;
@@ -108,7 +108,7 @@ public final class ConditionalAtRuleBlock extends AbstractAtRuleMember implement
         super(line, column);
         this.config = checkNotNull(config, "config cannot be null");
         this.conditionals = ImmutableList.copyOf(checkNotNull(conditionals, "conditionals cannot be null"));
-        this.statements = new LinkedSyntaxCollection<>(this);
+        this.statements = new IntrusiveSyntaxCollection<>(this);
         this.statements.appendAll(statements);
     }
 
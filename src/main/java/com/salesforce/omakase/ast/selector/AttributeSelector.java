@@ -90,6 +90,7 @@ public final class AttributeSelector extends AbstractSelectorPart implements Sim
      */
     public AttributeSelector attribute(String attribute) {
         this.attribute = checkNotNull(attribute, "attribute cannot be null");
+        markModified();
         return this;
     }
 
@@ -120,6 +121,7 @@ public final class AttributeSelector extends AbstractSelectorPart implements Sim
         this.matchType = matchType;
         this.value = value;
 
+        markModified();
         return this;
     }
 
@@ -132,6 +134,7 @@ public final class AttributeSelector extends AbstractSelectorPart implements Sim
     public AttributeSelector matchAll() {
         matchType = null;
         value = null;
+        markModified();
         return this;
     }
 
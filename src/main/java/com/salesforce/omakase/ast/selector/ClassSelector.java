@@ -84,6 +84,7 @@ public final class ClassSelector extends AbstractSelectorPart implements SimpleS
      */
     public ClassSelector name(String name) {
         this.name = checkNotNull(name, "name cannot be null");
+        markModified();
         return this;
     }
 
@@ -84,6 +84,7 @@ public final class IdSelector extends AbstractSelectorPart implements SimpleSele
      */
     public IdSelector name(String name) {
         this.name = checkNotNull(name, "name cannot be null");
+        markModified();
         return this;
     }
 
@@ -78,6 +78,7 @@ public final class KeyframeSelector extends AbstractSelectorPart {
      */
     public KeyframeSelector keyframe(String keyframe) {
         this.keyframe = checkNotNull(keyframe, "keyframe cannot be null");
+        markModified();
         return this;
     }
 
@@ -110,6 +110,7 @@ public final class PseudoClassSelector extends AbstractSelectorPart implements S
             String.format("%s must be created as a PseudoElementSelector", name));
 
         this.name = checkNotNull(name, "name cannot be null");
+        markModified();
         return this;
     }
 
@@ -130,6 +131,7 @@ public final class PseudoClassSelector extends AbstractSelectorPart implements S
      */
     public PseudoClassSelector args(String args) {
         this.args = args;
+        markModified();
         return this;
     }
 
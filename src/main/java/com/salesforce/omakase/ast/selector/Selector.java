@@ -39,7 +39,7 @@ import com.salesforce.omakase.ast.Refinable;
 import com.salesforce.omakase.ast.Rule;
 import com.salesforce.omakase.ast.Status;
 import com.salesforce.omakase.ast.collection.AbstractGroupable;
-import com.salesforce.omakase.ast.collection.LinkedSyntaxCollection;
+import com.salesforce.omakase.ast.collection.IntrusiveSyntaxCollection;
 import com.salesforce.omakase.ast.collection.SyntaxCollection;
 import com.salesforce.omakase.broadcast.Broadcaster;
 import com.salesforce.omakase.broadcast.annotation.Description;
@@ -88,7 +88,7 @@ public final class Selector extends AbstractGroupable<Rule, Selector> implements
     public Selector(RawSyntax raw) {
         super(raw.line(), raw.column());
         this.raw = raw;
-        this.parts = new LinkedSyntaxCollection<>(this);
+        this.parts = new IntrusiveSyntaxCollection<>(this);
         status(Status.RAW);
     }
 
@@ -143,7 +143,7 @@ public final class Selector extends AbstractGroupable<Rule, Selector> implements
     public Selector(int line, int column, Iterable<SelectorPart> parts) {
         super(line, column);
         this.raw = null;
-        this.parts = new LinkedSyntaxCollection<Selector, SelectorPart>(this).appendAll(parts);
+        this.parts = new IntrusiveSyntaxCollection<Selector, SelectorPart>(this).appendAll(parts);
     }
 
     /**
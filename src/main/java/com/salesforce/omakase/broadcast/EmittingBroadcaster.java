@@ -28,10 +28,19 @@ package com.salesforce.omakase.broadcast;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.salesforce.omakase.ast.RawFunction;
+import com.salesforce.omakase.ast.RawSyntax;
+import com.salesforce.omakase.ast.Refinable;
 import com.salesforce.omakase.ast.Status;
+import com.salesforce.omakase.ast.atrule.AtRule;
+import com.salesforce.omakase.ast.declaration.Declaration;
+import com.salesforce.omakase.ast.selector.Selector;
 import com.salesforce.omakase.broadcast.emitter.Emitter;
 import com.salesforce.omakase.broadcast.emitter.SubscriptionPhase;
 import com.salesforce.omakase.error.ErrorManager;
+import com.salesforce.omakase.jfr.Recording;
+import com.salesforce.omakase.jfr.Recordings;
+import com.salesforce.omakase.jfr.Stage;
 import com.salesforce.omakase.parser.Grammar;
 
 /**
@@ -46,6 +55,7 @@ public final class EmittingBroadcaster extends AbstractBroadcaster {
     private Grammar grammar;
     private Broadcaster broadcaster;
     private ErrorManager em;
+    private long emitted;
 
     /**
      * Specifies the {@link Grammar} to pass along to {@link Refine} subscription methods.
@@ -97,6 +107,15 @@ public final class EmittingBroadcaster extends AbstractBroadcaster {
         emitter.phase(phase);
     }
 
+    /**
+     * Gets the total number of units emitted to subscribers so far, across all phases.
+     *
+     * @return The number of emitted units.
+     */
+    public long emitted() {
+        return emitted;
+    }
+
     @Override
     public void broadcast(Broadcastable broadcastable) {
         SubscriptionPhase phase = emitter.phase();
@@ -105,9 +124,19 @@ public final class EmittingBroadcaster extends AbstractBroadcaster {
         if (status.shouldBroadcastForPhase(phase)) {
             // set the status to broadcasting
             broadcastable.status(Status.EMITTING);
+            emitted++;
 
             // send to listeners
-            emitter.emit(broadcastable, grammar, broadcaster, em);
+            if (phase == SubscriptionPhase.REFINE && broadcastable instanceof Refinable) {
+                Recording recording = Recordings.begin(Stage.REFINE);
+                long start = emitted;
+                emitter.emit(broadcastable, grammar, broadcaster, em);
+                if (recording.stop()) {
+                    recording.commit(em != null ? em.getSourceName() : null, rawLength(broadcastable), emitted - start);
+                }
+            } else {
+                emitter.emit(broadcastable, grammar, broadcaster, em);
+            }
 
             // update the status
             if (broadcastable.status() != Status.NEVER_EMIT) {
@@ -117,4 +146,27 @@ public final class EmittingBroadcaster extends AbstractBroadcaster {
 
         relay(broadcastable);
     }
+
+    /** gets the length of the raw content of the given refinable unit */
+    private static long rawLength(Broadcastable broadcastable) {
+        if (broadcastable instanceof Declaration) {
+            Declaration declaration = (Declaration)broadcastable;
+            return length(declaration.rawPropertyName().orElse(null)) + length(declaration.rawPropertyValue().orElse(null));
+        }
+        if (broadcastable instanceof Selector) {
+            return length(((Selector)broadcastable).raw().orElse(null));
+        }
+        if (broadcastable instanceof AtRule) {
+            AtRule atRule = (AtRule)broadcastable;
+            return length(atRule.rawExpression().orElse(null)) + length(atRule.rawBlock().orElse(null));
+        }
+        if (broadcastable instanceof RawFunction) {
+            return ((RawFunction)broadcastable).args().length();
+        }
+        return 0;
+    }
+
+    private static long length(RawSyntax raw) {
+        return raw == null ? 0 : raw.content().length();
+    }
 }
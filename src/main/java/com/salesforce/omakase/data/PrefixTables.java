@@ -26,488 +26,169 @@
 
 package com.salesforce.omakase.data;
 
-import com.google.common.collect.ImmutableTable;
-import com.google.common.collect.Table;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.google.common.collect.ImmutableMap;
 
 /**
  * Contains the last version of a browser that requires a prefix for various CSS properties.
  * <p>
- * The *CSS Prefix data* in this file is retrieved from caniuse.com and
- * licensed under CC-BY-4.0 (http://creativecommons.org/licenses/by/4.0).
+ * The data is loaded from the compact binary {@value #RESOURCE} resource the first time it is needed, into primitive
+ * arrays indexed by enum ordinals. This avoids the cost of building large boxed tables in a static initializer, which is
+ * significant for short-lived processes.
+ * <p>
+ * The *CSS Prefix data* in the resource is retrieved from caniuse.com and licensed under CC-BY-4.0
+ * (http://creativecommons.org/licenses/by/4.0).
  * <p>
- * THIS FILE IS GENERATED. DO NOT EDIT DIRECTLY.
+ * THE RESOURCE IS GENERATED. See class com.salesforce.omakase.tools.GeneratePrefixTablesClass for instructions on updating.
  * <p>
- * See class com.salesforce.omakase.tools.GeneratePrefixTablesClass for instructions on updating.
+ * The resource format (all values big-endian, as written by {@link java.io.DataOutputStream}) is:
+ * <pre>
+ * int     magic ({@value #MAGIC})
+ * short   format version ({@value #FORMAT})
+ * byte    number of {@link Browser}s
+ * 5 x     section: short number of names, then each name as UTF name, byte number of entries, then each entry as byte
+ *         browser ordinal, float version
+ * </pre>
+ * The sections are properties, keywords, at-rules, selectors then functions. Properties and keywords are stored by name and
+ * looked up in the {@link Property} and {@link Keyword} enums when loaded, so the resource stays valid when the enums are
+ * regenerated with new constants. Names that aren't in the enums are ignored.
  */
 public final class PrefixTables {
-    static final Table<Property, Browser, Double> PROPERTIES;
-    static final Table<Keyword, Browser, Double> KEYWORDS;
-    static final Table<String, Browser, Double> AT_RULES;
-    static final Table<String, Browser, Double> SELECTORS;
-    static final Table<String, Browser, Double> FUNCTIONS;
+    /** name of the resource, relative to this class */
+    public static final String RESOURCE = "prefix-tables.bin";
 
-    static {
-        ImmutableTable.Builder<Property, Browser, Double> builder = ImmutableTable.builder();
+    /** first bytes of the resource */
+    public static final int MAGIC = 0x4F4D4B50;
 
-        builder.put(Property.BORDER_RADIUS, Browser.CHROME, 4.0);
-        builder.put(Property.BORDER_TOP_LEFT_RADIUS, Browser.CHROME, 4.0);
-        builder.put(Property.BORDER_TOP_RIGHT_RADIUS, Browser.CHROME, 4.0);
-        builder.put(Property.BORDER_BOTTOM_LEFT_RADIUS, Browser.CHROME, 4.0);
-        builder.put(Property.BORDER_BOTTOM_RIGHT_RADIUS, Browser.CHROME, 4.0);
-        builder.put(Property.BORDER_RADIUS, Browser.SAFARI, 4.0);
-        builder.put(Property.BORDER_TOP_LEFT_RADIUS, Browser.SAFARI, 4.0);
-        builder.put(Property.BORDER_TOP_RIGHT_RADIUS, Browser.SAFARI, 4.0);
-        builder.put(Property.BORDER_BOTTOM_LEFT_RADIUS, Browser.SAFARI, 4.0);
-        builder.put(Property.BORDER_BOTTOM_RIGHT_RADIUS, Browser.SAFARI, 4.0);
-        builder.put(Property.BORDER_RADIUS, Browser.FIREFOX, 3.6);
-        builder.put(Property.BORDER_TOP_LEFT_RADIUS, Browser.FIREFOX, 3.6);
-        builder.put(Property.BORDER_TOP_RIGHT_RADIUS, Browser.FIREFOX, 3.6);
-        builder.put(Property.BORDER_BOTTOM_LEFT_RADIUS, Browser.FIREFOX, 3.6);
-        builder.put(Property.BORDER_BOTTOM_RIGHT_RADIUS, Browser.FIREFOX, 3.6);
-        builder.put(Property.BORDER_RADIUS, Browser.ANDROID, 2.1);
-        builder.put(Property.BORDER_TOP_LEFT_RADIUS, Browser.ANDROID, 2.1);
-        builder.put(Property.BORDER_TOP_RIGHT_RADIUS, Browser.ANDROID, 2.1);
-        builder.put(Property.BORDER_BOTTOM_LEFT_RADIUS, Browser.ANDROID, 2.1);
-        builder.put(Property.BORDER_BOTTOM_RIGHT_RADIUS, Browser.ANDROID, 2.1);
-        builder.put(Property.BORDER_RADIUS, Browser.IOS_SAFARI, 3.2);
-        builder.put(Property.BORDER_TOP_LEFT_RADIUS, Browser.IOS_SAFARI, 3.2);
-        builder.put(Property.BORDER_TOP_RIGHT_RADIUS, Browser.IOS_SAFARI, 3.2);
-        builder.put(Property.BORDER_BOTTOM_LEFT_RADIUS, Browser.IOS_SAFARI, 3.2);
-        builder.put(Property.BORDER_BOTTOM_RIGHT_RADIUS, Browser.IOS_SAFARI, 3.2);
-        builder.put(Property.BACKGROUND_CLIP, Browser.OPERA, 10.1);
-        builder.put(Property.BACKGROUND_ORIGIN, Browser.OPERA, 10.1);
-        builder.put(Property.BACKGROUND_SIZE, Browser.OPERA, 10.1);
-        builder.put(Property.BACKGROUND_CLIP, Browser.FIREFOX, 3.6);
-        builder.put(Property.BACKGROUND_ORIGIN, Browser.FIREFOX, 3.6);
-        builder.put(Property.BACKGROUND_SIZE, Browser.FIREFOX, 3.6);
-        builder.put(Property.BACKGROUND_CLIP, Browser.ANDROID, 2.3);
-        builder.put(Property.BACKGROUND_ORIGIN, Browser.ANDROID, 2.3);
-        builder.put(Property.BACKGROUND_SIZE, Browser.ANDROID, 2.3);
-        builder.put(Property.BORDER_IMAGE, Browser.OPERA, 12.1);
-        builder.put(Property.BORDER_IMAGE_SOURCE, Browser.OPERA, 12.1);
-        builder.put(Property.BORDER_IMAGE_WIDTH, Browser.OPERA, 12.1);
-        builder.put(Property.BORDER_IMAGE_SLICE, Browser.OPERA, 12.1);
-        builder.put(Property.BORDER_IMAGE_REPEAT, Browser.OPERA, 12.1);
-        builder.put(Property.BORDER_IMAGE_OUTSET, Browser.OPERA, 12.1);
-        builder.put(Property.BORDER_IMAGE, Browser.CHROME, 14.0);
-        builder.put(Property.BORDER_IMAGE_SOURCE, Browser.CHROME, 14.0);
-        builder.put(Property.BORDER_IMAGE_WIDTH, Browser.CHROME, 14.0);
-        builder.put(Property.BORDER_IMAGE_SLICE, Browser.CHROME, 14.0);
-        builder.put(Property.BORDER_IMAGE_REPEAT, Browser.CHROME, 14.0);
-        builder.put(Property.BORDER_IMAGE_OUTSET, Browser.CHROME, 14.0);
-        builder.put(Property.BORDER_IMAGE, Browser.SAFARI, 5.1);
-        builder.put(Property.BORDER_IMAGE_SOURCE, Browser.SAFARI, 5.1);
-        builder.put(Property.BORDER_IMAGE_WIDTH, Browser.SAFARI, 5.1);
-        builder.put(Property.BORDER_IMAGE_SLICE, Browser.SAFARI, 5.1);
-        builder.put(Property.BORDER_IMAGE_REPEAT, Browser.SAFARI, 5.1);
-        builder.put(Property.BORDER_IMAGE_OUTSET, Browser.SAFARI, 5.1);
-        builder.put(Property.BORDER_IMAGE, Browser.FIREFOX, 14.0);
-        builder.put(Property.BORDER_IMAGE_SOURCE, Browser.FIREFOX, 14.0);
-        builder.put(Property.BORDER_IMAGE_WIDTH, Browser.FIREFOX, 14.0);
-        builder.put(Property.BORDER_IMAGE_SLICE, Browser.FIREFOX, 14.0);
-        builder.put(Property.BORDER_IMAGE_REPEAT, Browser.FIREFOX, 14.0);
-        builder.put(Property.BORDER_IMAGE_OUTSET, Browser.FIREFOX, 14.0);
-        builder.put(Property.BORDER_IMAGE, Browser.ANDROID, 4.3);
-        builder.put(Property.BORDER_IMAGE_SOURCE, Browser.ANDROID, 4.3);
-        builder.put(Property.BORDER_IMAGE_WIDTH, Browser.ANDROID, 4.3);
-        builder.put(Property.BORDER_IMAGE_SLICE, Browser.ANDROID, 4.3);
-        builder.put(Property.BORDER_IMAGE_REPEAT, Browser.ANDROID, 4.3);
-        builder.put(Property.BORDER_IMAGE_OUTSET, Browser.ANDROID, 4.3);
-        builder.put(Property.BORDER_IMAGE, Browser.IOS_SAFARI, 5.1);
-        builder.put(Property.BORDER_IMAGE_SOURCE, Browser.IOS_SAFARI, 5.1);
-        builder.put(Property.BORDER_IMAGE_WIDTH, Browser.IOS_SAFARI, 5.1);
-        builder.put(Property.BORDER_IMAGE_SLICE, Browser.IOS_SAFARI, 5.1);
-        builder.put(Property.BORDER_IMAGE_REPEAT, Browser.IOS_SAFARI, 5.1);
-        builder.put(Property.BORDER_IMAGE_OUTSET, Browser.IOS_SAFARI, 5.1);
-        builder.put(Property.BOX_SHADOW, Browser.CHROME, 9.0);
-        builder.put(Property.BOX_SHADOW, Browser.SAFARI, 5.0);
-        builder.put(Property.BOX_SHADOW, Browser.FIREFOX, 3.6);
-        builder.put(Property.BOX_SHADOW, Browser.ANDROID, 3.0);
-        builder.put(Property.BOX_SHADOW, Browser.IOS_SAFARI, 4.3);
-        builder.put(Property.ANIMATION, Browser.OPERA, 29.0);
-        builder.put(Property.ANIMATION_DELAY, Browser.OPERA, 29.0);
-        builder.put(Property.ANIMATION_DIRECTION, Browser.OPERA, 29.0);
-        builder.put(Property.ANIMATION_DURATION, Browser.OPERA, 29.0);
-        builder.put(Property.ANIMATION_FILL_MODE, Browser.OPERA, 29.0);
-        builder.put(Property.ANIMATION_ITERATION_COUNT, Browser.OPERA, 29.0);
-        builder.put(Property.ANIMATION_NAME, Browser.OPERA, 29.0);
-        builder.put(Property.ANIMATION_PLAY_STATE, Browser.OPERA, 29.0);
-        builder.put(Property.ANIMATION_TIMING_FUNCTION, Browser.OPERA, 29.0);
-        builder.put(Property.ANIMATION, Browser.CHROME, 42.0);
-        builder.put(Property.ANIMATION_DELAY, Browser.CHROME, 42.0);
-        builder.put(Property.ANIMATION_DIRECTION, Browser.CHROME, 42.0);
-        builder.put(Property.ANIMATION_DURATION, Browser.CHROME, 42.0);
-        builder.put(Property.ANIMATION_FILL_MODE, Browser.CHROME, 42.0);
-        builder.put(Property.ANIMATION_ITERATION_COUNT, Browser.CHROME, 42.0);
-        builder.put(Property.ANIMATION_NAME, Browser.CHROME, 42.0);
-        builder.put(Property.ANIMATION_PLAY_STATE, Browser.CHROME, 42.0);
-        builder.put(Property.ANIMATION_TIMING_FUNCTION, Browser.CHROME, 42.0);
-        builder.put(Property.ANIMATION, Browser.SAFARI, 8.0);
-        builder.put(Property.ANIMATION_DELAY, Browser.SAFARI, 8.0);
-        builder.put(Property.ANIMATION_DIRECTION, Browser.SAFARI, 8.0);
-        builder.put(Property.ANIMATION_DURATION, Browser.SAFARI, 8.0);
-        builder.put(Property.ANIMATION_FILL_MODE, Browser.SAFARI, 8.0);
-        builder.put(Property.ANIMATION_ITERATION_COUNT, Browser.SAFARI, 8.0);
-        builder.put(Property.ANIMATION_NAME, Browser.SAFARI, 8.0);
-        builder.put(Property.ANIMATION_PLAY_STATE, Browser.SAFARI, 8.0);
-        builder.put(Property.ANIMATION_TIMING_FUNCTION, Browser.SAFARI, 8.0);
-        builder.put(Property.ANIMATION, Browser.FIREFOX, 15.0);
-        builder.put(Property.ANIMATION_DELAY, Browser.FIREFOX, 15.0);
-        builder.put(Property.ANIMATION_DIRECTION, Browser.FIREFOX, 15.0);
-        builder.put(Property.ANIMATION_DURATION, Browser.FIREFOX, 15.0);
-        builder.put(Property.ANIMATION_FILL_MODE, Browser.FIREFOX, 15.0);
-        builder.put(Property.ANIMATION_ITERATION_COUNT, Browser.FIREFOX, 15.0);
-        builder.put(Property.ANIMATION_NAME, Browser.FIREFOX, 15.0);
-        builder.put(Property.ANIMATION_PLAY_STATE, Browser.FIREFOX, 15.0);
-        builder.put(Property.ANIMATION_TIMING_FUNCTION, Browser.FIREFOX, 15.0);
-        builder.put(Property.ANIMATION, Browser.ANDROID, 4.4);
-        builder.put(Property.ANIMATION_DELAY, Browser.ANDROID, 4.4);
-        builder.put(Property.ANIMATION_DIRECTION, Browser.ANDROID, 4.4);
-        builder.put(Property.ANIMATION_DURATION, Browser.ANDROID, 4.4);
-        builder.put(Property.ANIMATION_FILL_MODE, Browser.ANDROID, 4.4);
-        builder.put(Property.ANIMATION_ITERATION_COUNT, Browser.ANDROID, 4.4);
-        builder.put(Property.ANIMATION_NAME, Browser.ANDROID, 4.4);
-        builder.put(Property.ANIMATION_PLAY_STATE, Browser.ANDROID, 4.4);
-        builder.put(Property.ANIMATION_TIMING_FUNCTION, Browser.ANDROID, 4.4);
-        builder.put(Property.ANIMATION, Browser.IOS_SAFARI, 8.4);
-        builder.put(Property.ANIMATION_DELAY, Browser.IOS_SAFARI, 8.4);
-        builder.put(Property.ANIMATION_DIRECTION, Browser.IOS_SAFARI, 8.4);
-        builder.put(Property.ANIMATION_DURATION, Browser.IOS_SAFARI, 8.4);
-        builder.put(Property.ANIMATION_FILL_MODE, Browser.IOS_SAFARI, 8.4);
-        builder.put(Property.ANIMATION_ITERATION_COUNT, Browser.IOS_SAFARI, 8.4);
-        builder.put(Property.ANIMATION_NAME, Browser.IOS_SAFARI, 8.4);
-        builder.put(Property.ANIMATION_PLAY_STATE, Browser.IOS_SAFARI, 8.4);
-        builder.put(Property.ANIMATION_TIMING_FUNCTION, Browser.IOS_SAFARI, 8.4);
-        builder.put(Property.TRANSITION, Browser.OPERA, 12.0);
-        builder.put(Property.TRANSITION_PROPERTY, Browser.OPERA, 12.0);
-        builder.put(Property.TRANSITION_DURATION, Browser.OPERA, 12.0);
-        builder.put(Property.TRANSITION_DELAY, Browser.OPERA, 12.0);
-        builder.put(Property.TRANSITION_TIMING_FUNCTION, Browser.OPERA, 12.0);
-        builder.put(Property.TRANSITION, Browser.CHROME, 25.0);
-        builder.put(Property.TRANSITION_PROPERTY, Browser.CHROME, 25.0);
-        builder.put(Property.TRANSITION_DURATION, Browser.CHROME, 25.0);
-        builder.put(Property.TRANSITION_DELAY, Browser.CHROME, 25.0);
-        builder.put(Property.TRANSITION_TIMING_FUNCTION, Browser.CHROME, 25.0);
-        builder.put(Property.TRANSITION, Browser.SAFARI, 6.0);
-        builder.put(Property.TRANSITION_PROPERTY, Browser.SAFARI, 6.0);
-        builder.put(Property.TRANSITION_DURATION, Browser.SAFARI, 6.0);
-        builder.put(Property.TRANSITION_DELAY, Browser.SAFARI, 6.0);
-        builder.put(Property.TRANSITION_TIMING_FUNCTION, Browser.SAFARI, 6.0);
-        builder.put(Property.TRANSITION, Browser.FIREFOX, 15.0);
-        builder.put(Property.TRANSITION_PROPERTY, Browser.FIREFOX, 15.0);
-        builder.put(Property.TRANSITION_DURATION, Browser.FIREFOX, 15.0);
-        builder.put(Property.TRANSITION_DELAY, Browser.FIREFOX, 15.0);
-        builder.put(Property.TRANSITION_TIMING_FUNCTION, Browser.FIREFOX, 15.0);
-        builder.put(Property.TRANSITION, Browser.ANDROID, 4.3);
-        builder.put(Property.TRANSITION_PROPERTY, Browser.ANDROID, 4.3);
-        builder.put(Property.TRANSITION_DURATION, Browser.ANDROID, 4.3);
-        builder.put(Property.TRANSITION_DELAY, Browser.ANDROID, 4.3);
-        builder.put(Property.TRANSITION_TIMING_FUNCTION, Browser.ANDROID, 4.3);
-        builder.put(Property.TRANSITION, Browser.IOS_SAFARI, 6.1);
-        builder.put(Property.TRANSITION_PROPERTY, Browser.IOS_SAFARI, 6.1);
-        builder.put(Property.TRANSITION_DURATION, Browser.IOS_SAFARI, 6.1);
-        builder.put(Property.TRANSITION_DELAY, Browser.IOS_SAFARI, 6.1);
-        builder.put(Property.TRANSITION_TIMING_FUNCTION, Browser.IOS_SAFARI, 6.1);
-        builder.put(Property.TRANSFORM, Browser.IE, 9.0);
-        builder.put(Property.TRANSFORM_ORIGIN, Browser.IE, 9.0);
-        builder.put(Property.TRANSFORM_STYLE, Browser.IE, 9.0);
-        builder.put(Property.TRANSFORM, Browser.OPERA, 22.0);
-        builder.put(Property.TRANSFORM_ORIGIN, Browser.OPERA, 22.0);
-        builder.put(Property.TRANSFORM_STYLE, Browser.OPERA, 22.0);
-        builder.put(Property.TRANSFORM, Browser.CHROME, 35.0);
-        builder.put(Property.TRANSFORM_ORIGIN, Browser.CHROME, 35.0);
-        builder.put(Property.TRANSFORM_STYLE, Browser.CHROME, 35.0);
-        builder.put(Property.TRANSFORM, Browser.SAFARI, 8.0);
-        builder.put(Property.TRANSFORM_ORIGIN, Browser.SAFARI, 8.0);
-        builder.put(Property.TRANSFORM_STYLE, Browser.SAFARI, 8.0);
-        builder.put(Property.TRANSFORM, Browser.FIREFOX, 15.0);
-        builder.put(Property.TRANSFORM_ORIGIN, Browser.FIREFOX, 15.0);
-        builder.put(Property.TRANSFORM_STYLE, Browser.FIREFOX, 15.0);
-        builder.put(Property.TRANSFORM, Browser.ANDROID, 4.4);
-        builder.put(Property.TRANSFORM_ORIGIN, Browser.ANDROID, 4.4);
-        builder.put(Property.TRANSFORM_STYLE, Browser.ANDROID, 4.4);
-        builder.put(Property.TRANSFORM, Browser.IOS_SAFARI, 8.4);
-        builder.put(Property.TRANSFORM_ORIGIN, Browser.IOS_SAFARI, 8.4);
-        builder.put(Property.TRANSFORM_STYLE, Browser.IOS_SAFARI, 8.4);
-        builder.put(Property.PERSPECTIVE, Browser.OPERA, 22.0);
-        builder.put(Property.PERSPECTIVE_ORIGIN, Browser.OPERA, 22.0);
-        builder.put(Property.BACKFACE_VISIBILITY, Browser.OPERA, 22.0);
-        builder.put(Property.PERSPECTIVE, Browser.CHROME, 35.0);
-        builder.put(Property.PERSPECTIVE_ORIGIN, Browser.CHROME, 35.0);
-        builder.put(Property.BACKFACE_VISIBILITY, Browser.CHROME, 35.0);
-        builder.put(Property.PERSPECTIVE, Browser.SAFARI, 8.0);
-        builder.put(Property.PERSPECTIVE_ORIGIN, Browser.SAFARI, 8.0);
-        builder.put(Property.BACKFACE_VISIBILITY, Browser.SAFARI, 11.1);
-        builder.put(Property.PERSPECTIVE, Browser.FIREFOX, 15.0);
-        builder.put(Property.PERSPECTIVE_ORIGIN, Browser.FIREFOX, 15.0);
-        builder.put(Property.BACKFACE_VISIBILITY, Browser.FIREFOX, 15.0);
-        builder.put(Property.PERSPECTIVE, Browser.ANDROID, 4.4);
-        builder.put(Property.PERSPECTIVE_ORIGIN, Browser.ANDROID, 4.4);
-        builder.put(Property.BACKFACE_VISIBILITY, Browser.ANDROID, 4.4);
-        builder.put(Property.PERSPECTIVE, Browser.IOS_SAFARI, 8.4);
-        builder.put(Property.PERSPECTIVE_ORIGIN, Browser.IOS_SAFARI, 8.4);
-        builder.put(Property.BACKFACE_VISIBILITY, Browser.IOS_SAFARI, 11.4);
-        builder.put(Property.BOX_SIZING, Browser.CHROME, 9.0);
-        builder.put(Property.BOX_SIZING, Browser.SAFARI, 5.0);
-        builder.put(Property.BOX_SIZING, Browser.FIREFOX, 28.0);
-        builder.put(Property.BOX_SIZING, Browser.ANDROID, 3.0);
-        builder.put(Property.BOX_SIZING, Browser.IOS_SAFARI, 4.3);
-        builder.put(Property.COLUMNS, Browser.OPERA, 36.0);
-        builder.put(Property.COLUMN_WIDTH, Browser.OPERA, 36.0);
-        builder.put(Property.COLUMN_GAP, Browser.OPERA, 36.0);
-        builder.put(Property.COLUMN_RULE, Browser.OPERA, 36.0);
-        builder.put(Property.COLUMN_COUNT, Browser.OPERA, 36.0);
-        builder.put(Property.COLUMN_RULE_COLOR, Browser.OPERA, 36.0);
-        builder.put(Property.COLUMN_RULE_WIDTH, Browser.OPERA, 36.0);
-        builder.put(Property.COLUMN_RULE_STYLE, Browser.OPERA, 36.0);
-        builder.put(Property.COLUMN_SPAN, Browser.OPERA, 36.0);
-        builder.put(Property.COLUMN_FILL, Browser.OPERA, 36.0);
-        builder.put(Property.COLUMNS, Browser.CHROME, 49.0);
-        builder.put(Property.COLUMN_WIDTH, Browser.CHROME, 49.0);
-        builder.put(Property.COLUMN_GAP, Browser.CHROME, 49.0);
-        builder.put(Property.COLUMN_RULE, Browser.CHROME, 49.0);
-        builder.put(Property.COLUMN_COUNT, Browser.CHROME, 49.0);
-        builder.put(Property.COLUMN_RULE_COLOR, Browser.CHROME, 49.0);
-        builder.put(Property.COLUMN_RULE_WIDTH, Browser.CHROME, 49.0);
-        builder.put(Property.COLUMN_RULE_STYLE, Browser.CHROME, 49.0);
-        builder.put(Property.COLUMN_SPAN, Browser.CHROME, 49.0);
-        builder.put(Property.COLUMN_FILL, Browser.CHROME, 49.0);
-        builder.put(Property.COLUMNS, Browser.SAFARI, 8.0);
-        builder.put(Property.COLUMN_WIDTH, Browser.SAFARI, 8.0);
-        builder.put(Property.COLUMN_GAP, Browser.SAFARI, 8.0);
-        builder.put(Property.COLUMN_RULE, Browser.SAFARI, 8.0);
-        builder.put(Property.COLUMN_COUNT, Browser.SAFARI, 8.0);
-        builder.put(Property.COLUMN_RULE_COLOR, Browser.SAFARI, 8.0);
-        builder.put(Property.COLUMN_RULE_WIDTH, Browser.SAFARI, 8.0);
-        builder.put(Property.COLUMN_RULE_STYLE, Browser.SAFARI, 8.0);
-        builder.put(Property.COLUMN_SPAN, Browser.SAFARI, 8.0);
-        builder.put(Property.COLUMN_FILL, Browser.SAFARI, 8.0);
-        builder.put(Property.COLUMNS, Browser.FIREFOX, 51.0);
-        builder.put(Property.COLUMN_WIDTH, Browser.FIREFOX, 51.0);
-        builder.put(Property.COLUMN_GAP, Browser.FIREFOX, 51.0);
-        builder.put(Property.COLUMN_RULE, Browser.FIREFOX, 51.0);
-        builder.put(Property.COLUMN_COUNT, Browser.FIREFOX, 51.0);
-        builder.put(Property.COLUMN_RULE_COLOR, Browser.FIREFOX, 51.0);
-        builder.put(Property.COLUMN_RULE_WIDTH, Browser.FIREFOX, 51.0);
-        builder.put(Property.COLUMN_RULE_STYLE, Browser.FIREFOX, 51.0);
-        builder.put(Property.COLUMN_SPAN, Browser.FIREFOX, 51.0);
-        builder.put(Property.COLUMN_FILL, Browser.FIREFOX, 51.0);
-        builder.put(Property.COLUMNS, Browser.ANDROID, 4.4);
-        builder.put(Property.COLUMN_WIDTH, Browser.ANDROID, 4.4);
-        builder.put(Property.COLUMN_GAP, Browser.ANDROID, 4.4);
-        builder.put(Property.COLUMN_RULE, Browser.ANDROID, 4.4);
-        builder.put(Property.COLUMN_COUNT, Browser.ANDROID, 4.4);
-        builder.put(Property.COLUMN_RULE_COLOR, Browser.ANDROID, 4.4);
-        builder.put(Property.COLUMN_RULE_WIDTH, Browser.ANDROID, 4.4);
-        builder.put(Property.COLUMN_RULE_STYLE, Browser.ANDROID, 4.4);
-        builder.put(Property.COLUMN_SPAN, Browser.ANDROID, 4.4);
-        builder.put(Property.COLUMN_FILL, Browser.ANDROID, 4.4);
-        builder.put(Property.COLUMNS, Browser.IOS_SAFARI, 8.4);
-        builder.put(Property.COLUMN_WIDTH, Browser.IOS_SAFARI, 8.4);
-        builder.put(Property.COLUMN_GAP, Browser.IOS_SAFARI, 8.4);
-        builder.put(Property.COLUMN_RULE, Browser.IOS_SAFARI, 8.4);
-        builder.put(Property.COLUMN_COUNT, Browser.IOS_SAFARI, 8.4);
-        builder.put(Property.COLUMN_RULE_COLOR, Browser.IOS_SAFARI, 8.4);
-        builder.put(Property.COLUMN_RULE_WIDTH, Browser.IOS_SAFARI, 8.4);
-        builder.put(Property.COLUMN_RULE_STYLE, Browser.IOS_SAFARI, 8.4);
-        builder.put(Property.COLUMN_SPAN, Browser.IOS_SAFARI, 8.4);
-        builder.put(Property.COLUMN_FILL, Browser.IOS_SAFARI, 8.4);
-        builder.put(Property.ALIGN_CONTENT, Browser.IE, 10.0);
-        builder.put(Property.ALIGN_ITEMS, Browser.IE, 10.0);
-        builder.put(Property.ALIGN_SELF, Browser.IE, 10.0);
-        builder.put(Property.FLEX, Browser.IE, 10.0);
-        builder.put(Property.FLEX_BASIS, Browser.IE, 10.0);
-        builder.put(Property.FLEX_DIRECTION, Browser.IE, 10.0);
-        builder.put(Property.FLEX_FLOW, Browser.IE, 10.0);
-        builder.put(Property.FLEX_GROW, Browser.IE, 10.0);
-        builder.put(Property.FLEX_SHRINK, Browser.IE, 10.0);
-        builder.put(Property.FLEX_WRAP, Browser.IE, 10.0);
-        builder.put(Property.JUSTIFY_CONTENT, Browser.IE, 10.0);
-        builder.put(Property.ORDER, Browser.IE, 10.0);
-        builder.put(Property.ALIGN_CONTENT, Browser.OPERA, 16.0);
-        builder.put(Property.ALIGN_ITEMS, Browser.OPERA, 16.0);
-        builder.put(Property.ALIGN_SELF, Browser.OPERA, 16.0);
-        builder.put(Property.FLEX, Browser.OPERA, 16.0);
-        builder.put(Property.FLEX_BASIS, Browser.OPERA, 16.0);
-        builder.put(Property.FLEX_DIRECTION, Browser.OPERA, 16.0);
-        builder.put(Property.FLEX_FLOW, Browser.OPERA, 16.0);
-        builder.put(Property.FLEX_GROW, Browser.OPERA, 16.0);
-        builder.put(Property.FLEX_SHRINK, Browser.OPERA, 16.0);
-        builder.put(Property.FLEX_WRAP, Browser.OPERA, 16.0);
-        builder.put(Property.JUSTIFY_CONTENT, Browser.OPERA, 16.0);
-        builder.put(Property.ORDER, Browser.OPERA, 16.0);
-        builder.put(Property.ALIGN_CONTENT, Browser.CHROME, 28.0);
-        builder.put(Property.ALIGN_ITEMS, Browser.CHROME, 28.0);
-        builder.put(Property.ALIGN_SELF, Browser.CHROME, 28.0);
-        builder.put(Property.FLEX, Browser.CHROME, 28.0);
-        builder.put(Property.FLEX_BASIS, Browser.CHROME, 28.0);
-        builder.put(Property.FLEX_DIRECTION, Browser.CHROME, 28.0);
-        builder.put(Property.FLEX_FLOW, Browser.CHROME, 28.0);
-        builder.put(Property.FLEX_GROW, Browser.CHROME, 28.0);
-        builder.put(Property.FLEX_SHRINK, Browser.CHROME, 28.0);
-        builder.put(Property.FLEX_WRAP, Browser.CHROME, 28.0);
-        builder.put(Property.JUSTIFY_CONTENT, Browser.CHROME, 28.0);
-        builder.put(Property.ORDER, Browser.CHROME, 28.0);
-        builder.put(Property.ALIGN_CONTENT, Browser.SAFARI, 8.0);
-        builder.put(Property.ALIGN_ITEMS, Browser.SAFARI, 8.0);
-        builder.put(Property.ALIGN_SELF, Browser.SAFARI, 8.0);
-        builder.put(Property.FLEX, Browser.SAFARI, 8.0);
-        builder.put(Property.FLEX_BASIS, Browser.SAFARI, 8.0);
-        builder.put(Property.FLEX_DIRECTION, Browser.SAFARI, 8.0);
-        builder.put(Property.FLEX_FLOW, Browser.SAFARI, 8.0);
-        builder.put(Property.FLEX_GROW, Browser.SAFARI, 8.0);
-        builder.put(Property.FLEX_SHRINK, Browser.SAFARI, 8.0);
-        builder.put(Property.FLEX_WRAP, Browser.SAFARI, 8.0);
-        builder.put(Property.JUSTIFY_CONTENT, Browser.SAFARI, 8.0);
-        builder.put(Property.ORDER, Browser.SAFARI, 8.0);
-        builder.put(Property.ALIGN_CONTENT, Browser.FIREFOX, 21.0);
-        builder.put(Property.ALIGN_ITEMS, Browser.FIREFOX, 21.0);
-        builder.put(Property.ALIGN_SELF, Browser.FIREFOX, 21.0);
-        builder.put(Property.FLEX, Browser.FIREFOX, 21.0);
-        builder.put(Property.FLEX_BASIS, Browser.FIREFOX, 21.0);
-        builder.put(Property.FLEX_DIRECTION, Browser.FIREFOX, 21.0);
-        builder.put(Property.FLEX_FLOW, Browser.FIREFOX, 21.0);
-        builder.put(Property.FLEX_GROW, Browser.FIREFOX, 21.0);
-        builder.put(Property.FLEX_SHRINK, Browser.FIREFOX, 21.0);
-        builder.put(Property.FLEX_WRAP, Browser.FIREFOX, 21.0);
-        builder.put(Property.JUSTIFY_CONTENT, Browser.FIREFOX, 21.0);
-        builder.put(Property.ORDER, Browser.FIREFOX, 21.0);
-        builder.put(Property.ALIGN_CONTENT, Browser.ANDROID, 4.3);
-        builder.put(Property.ALIGN_ITEMS, Browser.ANDROID, 4.3);
-        builder.put(Property.ALIGN_SELF, Browser.ANDROID, 4.3);
-        builder.put(Property.FLEX, Browser.ANDROID, 4.3);
-        builder.put(Property.FLEX_BASIS, Browser.ANDROID, 4.3);
-        builder.put(Property.FLEX_DIRECTION, Browser.ANDROID, 4.3);
-        builder.put(Property.FLEX_FLOW, Browser.ANDROID, 4.3);
-        builder.put(Property.FLEX_GROW, Browser.ANDROID, 4.3);
-        builder.put(Property.FLEX_SHRINK, Browser.ANDROID, 4.3);
-        builder.put(Property.FLEX_WRAP, Browser.ANDROID, 4.3);
-        builder.put(Property.JUSTIFY_CONTENT, Browser.ANDROID, 4.3);
-        builder.put(Property.ORDER, Browser.ANDROID, 4.3);
-        builder.put(Property.ALIGN_CONTENT, Browser.IE_MOBILE, 10.0);
-        builder.put(Property.ALIGN_ITEMS, Browser.IE_MOBILE, 10.0);
-        builder.put(Property.ALIGN_SELF, Browser.IE_MOBILE, 10.0);
-        builder.put(Property.FLEX, Browser.IE_MOBILE, 10.0);
-        builder.put(Property.FLEX_BASIS, Browser.IE_MOBILE, 10.0);
-        builder.put(Property.FLEX_DIRECTION, Browser.IE_MOBILE, 10.0);
-        builder.put(Property.FLEX_FLOW, Browser.IE_MOBILE, 10.0);
-        builder.put(Property.FLEX_GROW, Browser.IE_MOBILE, 10.0);
-        builder.put(Property.FLEX_SHRINK, Browser.IE_MOBILE, 10.0);
-        builder.put(Property.FLEX_WRAP, Browser.IE_MOBILE, 10.0);
-        builder.put(Property.JUSTIFY_CONTENT, Browser.IE_MOBILE, 10.0);
-        builder.put(Property.ORDER, Browser.IE_MOBILE, 10.0);
-        builder.put(Property.ALIGN_CONTENT, Browser.IOS_SAFARI, 8.4);
-        builder.put(Property.ALIGN_ITEMS, Browser.IOS_SAFARI, 8.4);
-        builder.put(Property.ALIGN_SELF, Browser.IOS_SAFARI, 8.4);
-        builder.put(Property.FLEX, Browser.IOS_SAFARI, 8.4);
-        builder.put(Property.FLEX_BASIS, Browser.IOS_SAFARI, 8.4);
-        builder.put(Property.FLEX_DIRECTION, Browser.IOS_SAFARI, 8.4);
-        builder.put(Property.FLEX_FLOW, Browser.IOS_SAFARI, 8.4);
-        builder.put(Property.FLEX_GROW, Browser.IOS_SAFARI, 8.4);
-        builder.put(Property.FLEX_SHRINK, Browser.IOS_SAFARI, 8.4);
-        builder.put(Property.FLEX_WRAP, Browser.IOS_SAFARI, 8.4);
-        builder.put(Property.JUSTIFY_CONTENT, Browser.IOS_SAFARI, 8.4);
-        builder.put(Property.ORDER, Browser.IOS_SAFARI, 8.4);
-        builder.put(Property.USER_SELECT, Browser.IE, 11.0);
-        builder.put(Property.USER_SELECT, Browser.EDGE, 17.0);
-        builder.put(Property.USER_SELECT, Browser.OPERA, 40.0);
-        builder.put(Property.USER_SELECT, Browser.CHROME, 53.0);
-        builder.put(Property.USER_SELECT, Browser.SAFARI, 11.1);
-        builder.put(Property.USER_SELECT, Browser.FIREFOX, 61.0);
-        builder.put(Property.USER_SELECT, Browser.ANDROID, 4.4);
-        builder.put(Property.USER_SELECT, Browser.IE_MOBILE, 11.0);
-        builder.put(Property.USER_SELECT, Browser.IOS_SAFARI, 11.4);
-        builder.put(Property.HYPHENS, Browser.IE, 11.0);
-        builder.put(Property.HYPHENS, Browser.EDGE, 17.0);
-        builder.put(Property.HYPHENS, Browser.SAFARI, 11.1);
-        builder.put(Property.HYPHENS, Browser.FIREFOX, 42.0);
-        builder.put(Property.HYPHENS, Browser.IOS_SAFARI, 11.4);
-        builder.put(Property.TAB_SIZE, Browser.OPERA, 12.1);
-        builder.put(Property.TAB_SIZE, Browser.FIREFOX, 61.0);
-        builder.put(Property.APPEARANCE, Browser.FIREFOX, 61.0);
-        builder.put(Property.APPEARANCE, Browser.CHROME, 68.0);
-        builder.put(Property.APPEARANCE, Browser.SAFARI, 11.1);
-        builder.put(Property.APPEARANCE, Browser.ANDROID, 67.0);
-        builder.put(Property.APPEARANCE, Browser.IOS_SAFARI, 11.4);
-
-        PROPERTIES = builder.build();
-    }
+    /** current version of the resource format */
+    public static final int FORMAT = 2;
 
-    static {
-        ImmutableTable.Builder<Keyword, Browser, Double> builder = ImmutableTable.builder();
+    /** marker for browsers that do not require a prefix */
+    static final double NONE = -1d;
 
-        builder.put(Keyword.FLEX, Browser.IE, 10.0);
-        builder.put(Keyword.INLINE_FLEX, Browser.IE, 10.0);
-        builder.put(Keyword.FLEX, Browser.OPERA, 16.0);
-        builder.put(Keyword.INLINE_FLEX, Browser.OPERA, 16.0);
-        builder.put(Keyword.FLEX, Browser.CHROME, 28.0);
-        builder.put(Keyword.INLINE_FLEX, Browser.CHROME, 28.0);
-        builder.put(Keyword.FLEX, Browser.SAFARI, 8.0);
-        builder.put(Keyword.INLINE_FLEX, Browser.SAFARI, 8.0);
-        builder.put(Keyword.FLEX, Browser.FIREFOX, 21.0);
-        builder.put(Keyword.INLINE_FLEX, Browser.FIREFOX, 21.0);
-        builder.put(Keyword.FLEX, Browser.ANDROID, 4.3);
-        builder.put(Keyword.INLINE_FLEX, Browser.ANDROID, 4.3);
-        builder.put(Keyword.FLEX, Browser.IE_MOBILE, 10.0);
-        builder.put(Keyword.INLINE_FLEX, Browser.IE_MOBILE, 10.0);
-        builder.put(Keyword.FLEX, Browser.IOS_SAFARI, 8.4);
-        builder.put(Keyword.INLINE_FLEX, Browser.IOS_SAFARI, 8.4);
+    private PrefixTables() {}
 
-        KEYWORDS = builder.build();
+    static boolean isPrefixable(Property property) {
+        return Data.PREFIXABLE_PROPERTIES[property.ordinal()];
     }
 
-    static {
-        ImmutableTable.Builder<String, Browser, Double> builder = ImmutableTable.builder();
-
-        builder.put("keyframes", Browser.OPERA, 29.0);
-        builder.put("keyframes", Browser.CHROME, 42.0);
-        builder.put("keyframes", Browser.SAFARI, 8.0);
-        builder.put("keyframes", Browser.FIREFOX, 15.0);
-        builder.put("keyframes", Browser.ANDROID, 4.4);
-        builder.put("keyframes", Browser.IOS_SAFARI, 8.4);
-
-        AT_RULES = builder.build();
+    static boolean isPrefixable(Keyword keyword) {
+        return Data.PREFIXABLE_KEYWORDS[keyword.ordinal()];
     }
 
-    static {
-        ImmutableTable.Builder<String, Browser, Double> builder = ImmutableTable.builder();
-
-        builder.put("selection", Browser.FIREFOX, 61.0);
-        builder.put("placeholder", Browser.IE, 11.0);
-        builder.put("placeholder", Browser.EDGE, 17.0);
-        builder.put("placeholder", Browser.OPERA, 43.0);
-        builder.put("placeholder", Browser.CHROME, 56.0);
-        builder.put("placeholder", Browser.SAFARI, 10.0);
-        builder.put("placeholder", Browser.FIREFOX, 50.0);
-        builder.put("placeholder", Browser.ANDROID, 4.4);
-        builder.put("placeholder", Browser.IE_MOBILE, 11.0);
-        builder.put("placeholder", Browser.IOS_SAFARI, 10.2);
+    static double lastPrefixed(Property property, Browser browser) {
+        return Data.PROPERTIES[property.ordinal() * Data.BROWSERS + browser.ordinal()];
+    }
 
-        SELECTORS = builder.build();
+    static double lastPrefixed(Keyword keyword, Browser browser) {
+        return Data.KEYWORDS[keyword.ordinal() * Data.BROWSERS + browser.ordinal()];
     }
 
-    static {
-        ImmutableTable.Builder<String, Browser, Double> builder = ImmutableTable.builder();
+    static Map<String, double[]> atRules() {
+        return Data.AT_RULES;
+    }
 
-        builder.put("calc", Browser.CHROME, 25.0);
-        builder.put("calc", Browser.SAFARI, 6.0);
-        builder.put("calc", Browser.FIREFOX, 15.0);
-        builder.put("calc", Browser.IOS_SAFARI, 6.1);
-        builder.put("linear-gradient", Browser.OPERA, 12.0);
-        builder.put("repeating-linear-gradient", Browser.OPERA, 12.0);
-        builder.put("linear-gradient", Browser.CHROME, 25.0);
-        builder.put("repeating-linear-gradient", Browser.CHROME, 25.0);
-        builder.put("linear-gradient", Browser.SAFARI, 6.0);
-        builder.put("repeating-linear-gradient", Browser.SAFARI, 6.0);
-        builder.put("linear-gradient", Browser.FIREFOX, 15.0);
-        builder.put("repeating-linear-gradient", Browser.FIREFOX, 15.0);
-        builder.put("linear-gradient", Browser.ANDROID, 4.3);
-        builder.put("repeating-linear-gradient", Browser.ANDROID, 4.3);
-        builder.put("linear-gradient", Browser.IOS_SAFARI, 6.1);
-        builder.put("repeating-linear-gradient", Browser.IOS_SAFARI, 6.1);
+    static Map<String, double[]> selectors() {
+        return Data.SELECTORS;
+    }
 
-        FUNCTIONS = builder.build();
+    static Map<String, double[]> functions() {
+        return Data.FUNCTIONS;
     }
 
-    private PrefixTables() {}
+    /** holder for the loaded data, so that it is only read when first needed */
+    private static final class Data {
+        private static final int BROWSERS = Browser.values().length;
+
+        private static final double[] PROPERTIES;
+        private static final boolean[] PREFIXABLE_PROPERTIES;
+        private static final double[] KEYWORDS;
+        private static final boolean[] PREFIXABLE_KEYWORDS;
+        private static final Map<String, double[]> AT_RULES;
+        private static final Map<String, double[]> SELECTORS;
+        private static final Map<String, double[]> FUNCTIONS;
+
+        static {
+            InputStream resource = PrefixTables.class.getResourceAsStream(RESOURCE);
+            if (resource == null) throw new IllegalStateException("unable to find prefix data resource " + RESOURCE);
+
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(resource))) {
+                int magic = in.readInt();
+                int format = in.readUnsignedShort();
+                if (magic != MAGIC || format != FORMAT) {
+                    throw new IllegalStateException("unrecognized prefix data resource format " + format);
+                }
+
+                int browsers = in.readUnsignedByte();
+                if (browsers != BROWSERS) {
+                    throw new IllegalStateException("prefix data resource is out of date with the Browser enum");
+                }
+
+                int properties = Property.values().length;
+                PROPERTIES = versions(properties);
+                PREFIXABLE_PROPERTIES = new boolean[properties];
+                readEnumSection(in, Property::lookup, PROPERTIES, PREFIXABLE_PROPERTIES);
+
+                int keywords = Keyword.values().length;
+                KEYWORDS = versions(keywords);
+                PREFIXABLE_KEYWORDS = new boolean[keywords];
+                readEnumSection(in, Keyword::lookup, KEYWORDS, PREFIXABLE_KEYWORDS);
+
+                AT_RULES = readNameSection(in);
+                SELECTORS = readNameSection(in);
+                FUNCTIONS = readNameSection(in);
+            } catch (IOException e) {
+                throw new UncheckedIOException("unable to read prefix data resource " + RESOURCE, e);
+            }
+        }
+
+        private static double[] versions(int rows) {
+            double[] versions = new double[rows * BROWSERS];
+            Arrays.fill(versions, NONE);
+            return versions;
+        }
+
+        /** reads a section into the arrays indexed by the ordinal of the enum constant with the name */
+        private static <E extends Enum<E>> void readEnumSection(DataInputStream in, Function<String, E> lookup,
+            double[] versions, boolean[] prefixable) throws IOException {
+            for (Map.Entry<String, double[]> entry : readNameSection(in).entrySet()) {
+                E constant = lookup.apply(entry.getKey());
+                if (constant == null) continue; // no longer in the enum
+
+                int ordinal = constant.ordinal();
+                System.arraycopy(entry.getValue(), 0, versions, ordinal * BROWSERS, BROWSERS);
+                prefixable[ordinal] = true;
+            }
+        }
+
+        private static Map<String, double[]> readNameSection(DataInputStream in) throws IOException {
+            ImmutableMap.Builder<String, double[]> builder = ImmutableMap.builder();
+
+            int names = in.readUnsignedShort();
+            for (int i = 0; i < names; i++) {
+                String name = in.readUTF();
+                double[] versions = versions(1);
+                int entries = in.readUnsignedByte();
+                for (int j = 0; j < entries; j++) {
+                    versions[in.readUnsignedByte()] = widen(in.readFloat());
+                }
+                builder.put(name, versions);
+            }
+
+            return builder.build();
+        }
+
+        /** converts the stored float back to the nearest double of the decimal version (e.g., 3.6f to 3.6d, not 3.5999999) */
+        private static double widen(float version) {
+            return Math.round(version * 1000d) / 1000d;
+        }
+    }
 }
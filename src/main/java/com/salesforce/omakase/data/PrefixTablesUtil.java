@@ -26,6 +26,11 @@
 
 package com.salesforce.omakase.data;
 
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableSet;
+
 /**
  * Utilities for working with the generated data in {@link PrefixTables}.
  *
@@ -44,7 +49,7 @@ public final class PrefixTablesUtil {
      * @return True of prefix info exists for the given property.
      */
     public static boolean isPrefixableProperty(Property property) {
-        return PrefixTables.PROPERTIES.containsRow(property);
+        return PrefixTables.isPrefixable(property);
     }
 
     /**
@@ -56,7 +61,7 @@ public final class PrefixTablesUtil {
      * @return True of prefix info exists for the given keyword.
      */
     public static boolean isPrefixableKeyword(Keyword keyword) {
-        return PrefixTables.KEYWORDS.containsRow(keyword);
+        return PrefixTables.isPrefixable(keyword);
     }
 
     /**
@@ -68,7 +73,7 @@ public final class PrefixTablesUtil {
      * @return True of prefix info exists for the given at-rule.
      */
     public static boolean isPrefixableAtRule(String name) {
-        return PrefixTables.AT_RULES.containsRow(name);
+        return PrefixTables.atRules().containsKey(name);
     }
 
     /**
@@ -80,7 +85,7 @@ public final class PrefixTablesUtil {
      * @return True of prefix info exists for the given selector name.
      */
     public static boolean isPrefixableSelector(String name) {
-        return PrefixTables.SELECTORS.containsRow(name);
+        return PrefixTables.selectors().containsKey(name);
     }
 
     /**
@@ -92,7 +97,34 @@ public final class PrefixTablesUtil {
      * @return True of prefix info exists for the given function name.
      */
     public static boolean isPrefixableFunction(String function) {
-        return PrefixTables.FUNCTIONS.containsRow(function);
+        return PrefixTables.functions().containsKey(function);
+    }
+
+    /**
+     * Gets the names of all at-rules with prefix info.
+     *
+     * @return The at-rule names.
+     */
+    public static Set<String> prefixableAtRules() {
+        return ImmutableSet.copyOf(PrefixTables.atRules().keySet());
+    }
+
+    /**
+     * Gets the names of all selectors with prefix info.
+     *
+     * @return The selector names.
+     */
+    public static Set<String> prefixableSelectors() {
+        return ImmutableSet.copyOf(PrefixTables.selectors().keySet());
+    }
+
+    /**
+     * Gets the names of all functions with prefix info.
+     *
+     * @return The function names.
+     */
+    public static Set<String> prefixableFunctions() {
+        return ImmutableSet.copyOf(PrefixTables.functions().keySet());
     }
 
     /**
@@ -106,8 +138,7 @@ public final class PrefixTablesUtil {
      * @return The last version, or -1 if all known versions of the browser supports the property unprefixed.
      */
     public static Double lastVersionPropertyIsPrefixed(Property property, Browser browser) {
-        final Double val = PrefixTables.PROPERTIES.get(property, browser);
-        return val != null ? val : -1d;
+        return PrefixTables.lastPrefixed(property, browser);
     }
 
     /**
@@ -121,8 +152,7 @@ public final class PrefixTablesUtil {
      * @return The last version, or -1 if all known versions of the browser supports the keyword unprefixed.
      */
     public static Double lastVersionKeywordIsPrefixed(Keyword keyword, Browser browser) {
-        final Double val = PrefixTables.KEYWORDS.get(keyword, browser);
-        return val != null ? val : -1d;
+        return PrefixTables.lastPrefixed(keyword, browser);
     }
 
     /**
@@ -136,8 +166,7 @@ public final class PrefixTablesUtil {
      * @return The last version, or -1 if all known versions of the browser supports the at-rule unprefixed.
      */
     public static Double lastVersionAtRuleIsPrefixed(String name, Browser browser) {
-        final Double val = PrefixTables.AT_RULES.get(name, browser);
-        return val != null ? val : -1d;
+        return lastPrefixed(PrefixTables.atRules(), name, browser);
     }
 
     /**
@@ -151,8 +180,7 @@ public final class PrefixTablesUtil {
      * @return The last version, or -1 if all known versions of the browser supports the selector unprefixed.
      */
     public static Double lastVersionSelectorIsPrefixed(String name, Browser browser) {
-        final Double val = PrefixTables.SELECTORS.get(name, browser);
-        return val != null ? val : -1d;
+        return lastPrefixed(PrefixTables.selectors(), name, browser);
     }
 
     /**
@@ -166,7 +194,11 @@ public final class PrefixTablesUtil {
      * @return The last version, or -1 if all known versions of the browser supports the function name unprefixed.
      */
     public static Double lastVersionFunctionIsPrefixed(String name, Browser browser) {
-        final Double val = PrefixTables.FUNCTIONS.get(name, browser);
-        return val != null ? val : -1d;
+        return lastPrefixed(PrefixTables.functions(), name, browser);
+    }
+
+    private static Double lastPrefixed(Map<String, double[]> table, String name, Browser browser) {
+        double[] versions = table.get(name);
+        return versions != null ? versions[browser.ordinal()] : PrefixTables.NONE;
     }
 }
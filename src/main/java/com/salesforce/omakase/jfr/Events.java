@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2015, salesforce.com, inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of salesforce.com, inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.salesforce.omakase.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The flight recorder event types. This class must only be loaded when {@link Recordings} has verified the flight recorder api is
+ * available.
+ *
+ * @author nmcwilliams
+ */
+final class Events {
+    /** do not construct */
+    private Events() {}
+
+    /** creates the event for the given stage */
+    static Recording begin(Stage stage) {
+        StageEvent event;
+
+        switch (stage) {
+        case PARSE:
+            event = new ParseEvent();
+            break;
+        case REFINE:
+            event = new RefineEvent();
+            break;
+        case PROCESS:
+            event = new ProcessEvent();
+            break;
+        case VALIDATE:
+            event = new ValidateEvent();
+            break;
+        case POST_PROCESS:
+            event = new PostProcessEvent();
+            break;
+        case WRITE:
+            event = new WriteEvent();
+            break;
+        default:
+            throw new IllegalArgumentException("unknown stage " + stage);
+        }
+
+        if (!event.isEnabled()) return Recordings.NOOP;
+
+        event.begin();
+        return event;
+    }
+
+    @Category("Omakase")
+    abstract static class StageEvent extends Event implements Recording {
+        @Label("Source Name")
+        @Description("Name of the source, as given by the ErrorManager")
+        String sourceName;
+
+        @Label("Size")
+        @Description("Number of characters processed")
+        long size;
+
+        @Label("Nodes")
+        @Description("Number of syntax units handled")
+        long nodes;
+
+        @Override
+        public boolean stop() {
+            super.end();
+            return shouldCommit();
+        }
+
+        @Override
+        public void commit(String sourceName, long size, long nodes) {
+            this.sourceName = sourceName;
+            this.size = size;
+            this.nodes = nodes;
+            commit();
+        }
+    }
+
+    @Name("com.salesforce.omakase.Parse")
+    @Label("CSS Parse")
+    @Description("Parsing of a stylesheet, including refinement performed while parsing")
+    static final class ParseEvent extends StageEvent {}
+
+    @Name("com.salesforce.omakase.Refine")
+    @Label("CSS Refine")
+    @Description("Refinement of a single selector, declaration, at-rule or function")
+    static final class RefineEvent extends StageEvent {}
+
+    @Name("com.salesforce.omakase.Process")
+    @Label("CSS Process")
+    @Description("The process (observe and rework) phase")
+    static final class ProcessEvent extends StageEvent {}
+
+    @Name("com.salesforce.omakase.Validate")
+    @Label("CSS Validate")
+    @Description("The validate phase")
+    static final class ValidateEvent extends StageEvent {}
+
+    @Name("com.salesforce.omakase.PostProcess")
+    @Label("CSS Post Process")
+    @Description("Notification of post processing plugins")
+    static final class PostProcessEvent extends StageEvent {}
+
+    @Name("com.salesforce.omakase.Write")
+    @Label("CSS Write")
+    @Description("Writing of a processed stylesheet")
+    static final class WriteEvent extends StageEvent {}
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2015, salesforce.com, inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of salesforce.com, inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.salesforce.omakase.jfr;
+
+import com.salesforce.omakase.error.ErrorManager;
+
+/**
+ * A timed recording of a single processing {@link Stage}.
+ * <p>
+ * Usage follows the same pattern as a flight recorder event. The (potentially expensive) event details should only be
+ * calculated when {@link #stop()} returns true:
+ * <pre><code>
+ * Recording recording = Recordings.begin(Stage.PARSE);
+ * ...
+ * if (recording.stop()) {
+ *     recording.commit(em.getSourceName(), source.length(), nodes);
+ * }
+ * </code></pre>
+ *
+ * @author nmcwilliams
+ * @see Recordings
+ */
+public interface Recording {
+    /**
+     * Stops timing this recording.
+     *
+     * @return True if the recording should be committed with {@link #commit(String, long, long)}.
+     */
+    boolean stop();
+
+    /**
+     * Commits the recording. This should only be called when {@link #stop()} returns true.
+     *
+     * @param sourceName
+     *     Name of the source being processed, as given by {@link ErrorManager#getSourceName()}. May be null.
+     * @param size
+     *     Number of characters processed in this stage.
+     * @param nodes
+     *     Number of syntax units handled in this stage.
+     */
+    void commit(String sourceName, long size, long nodes);
+}
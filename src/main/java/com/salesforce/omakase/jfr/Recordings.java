@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2015, salesforce.com, inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of salesforce.com, inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.salesforce.omakase.jfr;
+
+/**
+ * Entry point for recording processing {@link Stage}s as Java Flight Recorder events.
+ * <p>
+ * Events are only created when the flight recorder API is available in the running JVM. Otherwise, and whenever an event type
+ * is not enabled in the active recording, a no-op {@link Recording} is returned.
+ * <p>
+ * The events are registered in the "Omakase" category, e.g., {@code com.salesforce.omakase.Parse}, {@code
+ * com.salesforce.omakase.Write}, etc...
+ *
+ * @author nmcwilliams
+ */
+public final class Recordings {
+    /** a recording that does nothing */
+    public static final Recording NOOP = new Recording() {
+        @Override
+        public boolean stop() {
+            return false;
+        }
+
+        @Override
+        public void commit(String sourceName, long size, long nodes) {}
+    };
+
+    private static final boolean AVAILABLE = isAvailable();
+
+    /** do not construct */
+    private Recordings() {}
+
+    /**
+     * Begins timing the given {@link Stage}.
+     *
+     * @param stage
+     *     The stage.
+     *
+     * @return The {@link Recording}, or {@link #NOOP} if flight recording is unavailable or not enabled for the stage.
+     */
+    public static Recording begin(Stage stage) {
+        return AVAILABLE ? Events.begin(stage) : NOOP;
+    }
+
+    /** the flight recorder api is only present in some java 8 builds */
+    private static boolean isAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, Recordings.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
@@ -47,6 +47,7 @@ public final class RuleParser implements Parser {
         // save off current line and column
         int line = source.originalLine();
         int column = source.originalColumn();
+        int start = source.index();
 
         // wrap the broadcaster inside a queryable so we can gather the selectors and declarations
         QueryableBroadcaster queryable = new QueryableBroadcaster(broadcaster);
@@ -72,6 +73,7 @@ public final class RuleParser implements Parser {
 
         // parse the end of the block (must be after orphaned comments parsing)
         source.expect(grammar.token().declarationBlockEnd());
+        rule.verbatim(source.spanFrom(start));
 
         // broadcast the rule
         broadcaster.broadcast(rule);
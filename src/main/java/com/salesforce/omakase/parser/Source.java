@@ -285,6 +285,19 @@ public final class Source {
         return new String(chars);
     }
 
+    /**
+     * Gets a {@link SourceSpan} referencing the characters from the given index up to (but not including) the current index.
+     *
+     * @param start
+     *     The (0-based) start index, as previously obtained from {@link #index()}.
+     *
+     * @return The span.
+     */
+    public SourceSpan spanFrom(int start) {
+        checkPositionIndex(start, index);
+        return new SourceSpan(chars, start, index);
+    }
+
     /**
      * Gets the remaining text in the source, including the current character. This does not advance the current position.
      *
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2015, salesforce.com, inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of salesforce.com, inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.salesforce.omakase.parser;
+
+import java.io.IOException;
+
+import com.salesforce.omakase.writer.StyleAppendable;
+
+/**
+ * A range of characters within the original source buffer of a {@link Source}.
+ * <p>
+ * This references the existing buffer instead of copying the characters, and can be written out as a single bulk copy with
+ * {@link #appendTo(StyleAppendable)}.
+ *
+ * @author nmcwilliams
+ * @see Source#spanFrom(int)
+ */
+public final class SourceSpan implements CharSequence {
+    private final char[] chars;
+    private final int start;
+    private final int end;
+
+    SourceSpan(char[] chars, int start, int end) {
+        this.chars = chars;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Gets the (0-based) index of the first character of this span within the source.
+     *
+     * @return The start index (inclusive).
+     */
+    public int start() {
+        return start;
+    }
+
+    /**
+     * Gets the (0-based) index after the last character of this span within the source.
+     *
+     * @return The end index (exclusive).
+     */
+    public int end() {
+        return end;
+    }
+
+    /**
+     * Appends the characters of this span to the given {@link StyleAppendable}.
+     *
+     * @param appendable
+     *     Append to this {@link StyleAppendable}.
+     *
+     * @throws IOException
+     *     If an I/O error occurs.
+     */
+    public void appendTo(StyleAppendable appendable) throws IOException {
+        appendable.append(chars, start, end - start);
+    }
+
+    @Override
+    public int length() {
+        return end - start;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length()) throw new IndexOutOfBoundsException("index: " + index);
+        return chars[start + index];
+    }
+
+    @Override
+    public CharSequence subSequence(int from, int to) {
+        if (from < 0 || to > length() || from > to) throw new IndexOutOfBoundsException("from: " + from + ", to: " + to);
+        return new SourceSpan(chars, start + from, start + to);
+    }
+
+    @Override
+    public String toString() {
+        return new String(chars, start, end - start);
+    }
+}
@@ -41,6 +41,7 @@ import com.salesforce.omakase.parser.Grammar;
 import com.salesforce.omakase.parser.Parser;
 import com.salesforce.omakase.parser.ParserException;
 import com.salesforce.omakase.parser.Source;
+import com.salesforce.omakase.parser.SourceSpan;
 import com.salesforce.omakase.parser.factory.TokenFactory;
 import com.salesforce.omakase.parser.token.Tokens;
 
@@ -67,6 +68,7 @@ public final class AtRuleParser implements Parser {
         // save off current line and column
         int startLine = source.originalLine();
         int startColumn = source.originalColumn();
+        int startIndex = source.index();
 
         // must begin with '@'
         if (!source.optionallyPresent(Tokens.AT_RULE)) {
@@ -92,15 +94,20 @@ public final class AtRuleParser implements Parser {
         List<String> comments = source.flushComments();
 
         RawSyntax block = null;
+        boolean terminated = source.optionallyPresent(tf.atRuleTermination());
 
         // parse the termination (usually ';' or the start of an at-rule block), then parse the block
-        if (!source.optionallyPresent(tf.atRuleTermination()) && tf.atRuleBlockBegin().matches(source.current())) {
+        if (!terminated && tf.atRuleBlockBegin().matches(source.current())) {
             line = source.originalLine();
             column = source.originalColumn();
             content = source.chompEnclosedValue(tf.atRuleBlockBegin(), tf.atRuleBlockEnd()).trim();
             block = content.isEmpty() ? null : new RawSyntax(line, column, content);
+            terminated = true;
         }
 
+        // keep a reference to the original source of a complete at-rule, for verbatim writing
+        SourceSpan span = terminated ? source.spanFrom(startIndex) : null;
+
         // expression content must be present
         if (expression == null && block == null) {
             throw new ParserException(source, Message.MISSING_AT_RULE_VALUE);
@@ -111,6 +118,7 @@ public final class AtRuleParser implements Parser {
         // create and broadcast the new rule
         AtRule atRule = new AtRule(startLine, startColumn, name.get(), expression, block);
         atRule.comments(comments);
+        atRule.verbatim(span);
 
         broadcaster.chainBroadcast(atRule,
             new ConsumingBroadcaster<>(AtRuleExpression.class, atRule::expression, t -> !atRule.isConditional()),
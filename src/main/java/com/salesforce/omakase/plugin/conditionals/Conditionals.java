@@ -53,6 +53,7 @@ import com.salesforce.omakase.plugin.DependentPlugin;
  * @author nmcwilliams
  * @see ConditionalsConfig
  * @see ConditionalsCollector
+ * @see ConditionalsPermutations
  */
 public final class Conditionals implements DependentPlugin {
     private final ConditionalsConfig config = new ConditionalsConfig();
@@ -45,6 +45,8 @@ import com.salesforce.omakase.plugin.DependentPlugin;
  * <p>
  * <b>Note</b>: The {@link Conditionals} plugin <em>lower-cases</em> all conditions for comparison purposes, so usually
  * any arguments passed to methods of this class should be passed in lower-cased as well.
+ * <p>
+ * To find the conditions without processing the source use {@link ConditionalsScanner} instead.
  *
  * @author nmcwilliams
  */
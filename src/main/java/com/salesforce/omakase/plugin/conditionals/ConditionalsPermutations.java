@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2015, salesforce.com, inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of salesforce.com, inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.salesforce.omakase.plugin.conditionals;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Sets;
+import com.salesforce.omakase.PluginRegistry;
+import com.salesforce.omakase.ast.extended.ConditionalAtRuleBlock;
+import com.salesforce.omakase.broadcast.annotation.Observe;
+import com.salesforce.omakase.plugin.DependentPlugin;
+import com.salesforce.omakase.util.As;
+import com.salesforce.omakase.writer.OutputCache;
+import com.salesforce.omakase.writer.StyleWriter;
+
+/**
+ * Writes out multiple permutations of true conditions from a single parse.
+ * <p>
+ * Instead of parsing and processing the same source once for each combination of true conditions, register this plugin, add
+ * the permutations to write, and then call {@link #write(StyleWriter)} after processing. Each permutation is written from the
+ * same syntax tree by evaluating every {@link ConditionalAtRuleBlock} against that permutation's true conditions:
+ * <pre><code>
+ * ConditionalsPermutations permutations = new ConditionalsPermutations().allCombinations();
+ * StyleWriter writer = StyleWriter.compressed();
+ * Omakase.source(input).use(permutations).use(writer).process();
+ * Map&lt;Set&lt;String&gt;, String&gt; outputs = permutations.write(writer);
+ * </code></pre>
+ * Rules and at-rules outside of (and inside of) the conditional blocks are written once and then reused from an {@link
+ * OutputCache}, and permutations where every conditional block matches the same way share the same output string.
+ * <p>
+ * This automatically enables the {@link Conditionals} and {@link ConditionalsCollector} plugins. If you are explicitly adding
+ * either of those plugins, they must be registered <em>before</em> this one.
+ *
+ * @author nmcwilliams
+ * @see ConditionalsCollector
+ */
+public final class ConditionalsPermutations implements DependentPlugin {
+    /** the most conditions allowed with {@link #allCombinations()}, as the number of permutations doubles with each one */
+    private static final int MAX_COMBINED_CONDITIONS = 16;
+
+    private final Set<ImmutableSet<String>> permutations = new LinkedHashSet<>();
+    private final List<ConditionalAtRuleBlock> blocks = new ArrayList<>();
+    private boolean allCombinations;
+
+    private ConditionalsConfig config;
+    private ConditionalsCollector collector;
+
+    @Override
+    public void dependencies(PluginRegistry registry) {
+        config = registry.require(Conditionals.class).config();
+        collector = registry.require(ConditionalsCollector.class);
+    }
+
+    /**
+     * Adds a permutation to write, consisting of the given true conditions. Each string will be automatically lower-cased for
+     * comparison purposes.
+     *
+     * @param trueConditions
+     *     The strings that should evaluate to "true" in this permutation.
+     *
+     * @return this, for chaining.
+     */
+    public ConditionalsPermutations add(String... trueConditions) {
+        return add(ImmutableSet.copyOf(trueConditions));
+    }
+
+    /**
+     * Adds a permutation to write, consisting of the given true conditions. Each string will be automatically lower-cased for
+     * comparison purposes.
+     *
+     * @param trueConditions
+     *     The strings that should evaluate to "true" in this permutation.
+     *
+     * @return this, for chaining.
+     */
+    public ConditionalsPermutations add(Iterable<String> trueConditions) {
+        ImmutableSet.Builder<String> builder = ImmutableSet.builder();
+        for (String condition : checkNotNull(trueConditions, "trueConditions cannot be null")) {
+            builder.add(condition.toLowerCase());
+        }
+        permutations.add(builder.build());
+        return this;
+    }
+
+    /**
+     * Specifies to write every combination of the conditions found by the {@link ConditionalsCollector} (including the empty
+     * combination), in addition to any permutations added with {@link #add(Iterable)}. Use {@link
+     * ConditionalsCollector#excludeNegationOnly(boolean)} to leave out conditions that are only used with negation.
+     * <p>
+     * At most 16 conditions may be found, as the number of permutations doubles with each one.
+     *
+     * @return this, for chaining.
+     */
+    public ConditionalsPermutations allCombinations() {
+        this.allCombinations = true;
+        return this;
+    }
+
+    /**
+     * Gets all of the permutations that will be written, in order.
+     *
+     * @return The permutations of true conditions.
+     */
+    public ImmutableSet<ImmutableSet<String>> permutations() {
+        ImmutableSet.Builder<ImmutableSet<String>> builder = ImmutableSet.builder();
+        builder.addAll(permutations);
+
+        if (allCombinations) {
+            checkState(collector != null, "this plugin has not been registered");
+            Set<String> found = ImmutableSortedSet.copyOf(collector.foundConditions());
+            checkState(found.size() <= MAX_COMBINED_CONDITIONS, "too many conditions to combine (%s)", found.size());
+            for (Set<String> combination : Sets.powerSet(found)) {
+                builder.add(ImmutableSet.copyOf(combination));
+            }
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Subscription method - do not call directly.
+     *
+     * @param block
+     *     The conditional at-rule block instance.
+     */
+    @Observe
+    public void conditional(ConditionalAtRuleBlock block) {
+        blocks.add(block);
+    }
+
+    /**
+     * Writes out each permutation with the given {@link StyleWriter}. The {@link StyleWriter} must have been registered with
+     * the same parse operation as this plugin.
+     * <p>
+     * The true conditions of the {@link ConditionalsConfig} are restored once done. If the writer doesn't have an {@link
+     * OutputCache} then a temporary one is used.
+     *
+     * @param writer
+     *     Write the permutations with this writer.
+     *
+     * @return The output of each permutation, keyed by its true conditions, in the same order as {@link #permutations()}.
+     */
+    public Map<ImmutableSet<String>, String> write(StyleWriter writer) {
+        checkNotNull(writer, "writer cannot be null");
+        checkState(config != null, "this plugin has not been registered");
+
+        ImmutableSet<String> previousConditions = config.trueConditions();
+        OutputCache previousCache = writer.outputCache().orElse(null);
+        if (previousCache == null) {
+            writer.outputCache(new OutputCache());
+        }
+
+        ImmutableMap.Builder<ImmutableSet<String>, String> outputs = ImmutableMap.builder();
+        Map<BitSet, String> bySignature = new HashMap<>();
+
+        try {
+            for (ImmutableSet<String> permutation : permutations()) {
+                config.replaceTrueConditions(permutation);
+                outputs.put(permutation, bySignature.computeIfAbsent(signature(), s -> writer.write()));
+            }
+        } finally {
+            config.replaceTrueConditions(previousConditions);
+            writer.outputCache(previousCache);
+        }
+
+        return outputs.build();
+    }
+
+    /** which of the conditional blocks match the current true conditions (permutations with the same signature are identical) */
+    private BitSet signature() {
+        BitSet signature = new BitSet(blocks.size());
+        if (!config.isPassthroughMode()) {
+            for (int i = 0; i < blocks.size(); i++) {
+                if (blocks.get(i).matches()) signature.set(i);
+            }
+        }
+        return signature;
+    }
+
+    @Override
+    public String toString() {
+        return As.string(this)
+            .add("permutations", permutations)
+            .add("allCombinations", allCombinations)
+            .toString();
+    }
+}
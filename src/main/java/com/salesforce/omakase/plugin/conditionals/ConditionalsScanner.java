@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2015, salesforce.com, inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of salesforce.com, inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.salesforce.omakase.plugin.conditionals;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableSet;
+import com.salesforce.omakase.Message;
+import com.salesforce.omakase.parser.ParserException;
+import com.salesforce.omakase.parser.Source;
+import com.salesforce.omakase.parser.token.Tokens;
+import com.salesforce.omakase.util.As;
+
+/**
+ * Finds the conditions used by conditional at-rules (<code>@if(...)</code>) directly from the raw source, without parsing it.
+ * <p>
+ * This is a lightweight alternative to the {@link ConditionalsCollector}, for when the conditions are needed up front (e.g., to
+ * decide which permutations to build) before or without processing the source. The source is scanned once, skipping over
+ * comments and strings, and only the <code>@if</code> expressions are read. No syntax units are created.
+ * <pre><code>
+ * Set&lt;String&gt; conditions = new ConditionalsScanner().scan(input).foundConditions();
+ * </code></pre>
+ * The expressions are read the same way as the {@link Conditionals} plugin reads them, and an invalid expression results in
+ * the same {@link ParserException}. The rest of the source is not validated.
+ * <p>
+ * Like the {@link Conditionals} plugin, all conditions are <em>lower-cased</em>.
+ *
+ * @author nmcwilliams
+ * @see ConditionalsCollector
+ */
+public final class ConditionalsScanner {
+    private final Set<String> conditions = new HashSet<>();
+    private final Set<String> nonNegated = new HashSet<>();
+    private int expressions;
+    private boolean excludeNegationOnly;
+
+    /**
+     * Specify true to ignore conditions that are <em>only</em> used with the negation operator (e.g., <code>!ie9</code>). See
+     * {@link ConditionalsCollector#excludeNegationOnly(boolean)}.
+     *
+     * @param excludeNegationOnly
+     *     Whether to ignore conditions only used with the negation operator.
+     *
+     * @return this, for chaining.
+     */
+    public ConditionalsScanner excludeNegationOnly(boolean excludeNegationOnly) {
+        this.excludeNegationOnly = excludeNegationOnly;
+        return this;
+    }
+
+    /**
+     * Scans the given source for conditional at-rules. The conditions found are added to the ones from any previous scans.
+     *
+     * @param source
+     *     The CSS source.
+     *
+     * @return this, for chaining.
+     *
+     * @throws ParserException
+     *     If a conditional at-rule expression or a comment is invalid.
+     */
+    public ConditionalsScanner scan(CharSequence source) {
+        checkNotNull(source, "source cannot be null");
+        if (!mayContainConditional(source)) return this;
+
+        Source src = new Source(source);
+
+        while (!src.eof()) {
+            if (src.inString()) {
+                src.next();
+            } else if (src.current() == '/' && src.peek() == '*') {
+                src.collectComments(false).flushComments();
+            } else if (src.current() == '@' && isConditional(src)) {
+                src.forward(src.index() + 3);
+                readExpression(src);
+            } else {
+                src.next();
+            }
+        }
+
+        return this;
+    }
+
+    /** quick check for "@if" anywhere in the source (including comments and strings) before doing the full scan */
+    private static boolean mayContainConditional(CharSequence source) {
+        for (int i = 0, length = source.length() - 2; i < length; i++) {
+            if (source.charAt(i) == '@') {
+                char c = source.charAt(i + 1);
+                if ((c == 'i' || c == 'I') && (source.charAt(i + 2) == 'f' || source.charAt(i + 2) == 'F')) return true;
+            }
+        }
+        return false;
+    }
+
+    /** whether the source is at "@if", ignoring case (but not e.g., "@iffy") */
+    private static boolean isConditional(Source source) {
+        char i = source.peek(1);
+        char f = source.peek(2);
+        return (i == 'i' || i == 'I') && (f == 'f' || f == 'F') && !Tokens.NMCHAR.matches(source.peek(3)) && !source.isEscaped();
+    }
+
+    /** reads the expression after the at-rule name, same as in {@link ConditionalsRefiner} */
+    private void readExpression(Source source) {
+        source.collectComments().flushComments();
+        if (!Tokens.OPEN_PAREN.matches(source.current())) {
+            throw new ParserException(source, Message.MISSING_CONDITIONAL_EXPRESSION);
+        }
+
+        source.expect(Tokens.OPEN_PAREN);
+        source.skipWhitepace();
+        readCondition(source);
+
+        source.skipWhitepace();
+        while (source.optionallyPresent(Tokens.PIPE)) {
+            source.expect(Tokens.PIPE);
+            source.skipWhitepace();
+            readCondition(source);
+            source.skipWhitepace();
+        }
+
+        source.expect(Tokens.CLOSE_PAREN);
+        expressions++;
+    }
+
+    private void readCondition(Source source) {
+        boolean isNegated = source.optionallyPresent(Tokens.EXCLAMATION);
+        Optional<String> condition = source.readIdent();
+        if (!condition.isPresent()) {
+            throw new ParserException(source, Message.CONDITION_NAME);
+        }
+
+        String lowerCased = condition.get().toLowerCase();
+        conditions.add(lowerCased);
+        if (!isNegated) {
+            nonNegated.add(lowerCased);
+        }
+    }
+
+    /**
+     * Gets whether the given condition was found.
+     *
+     * @param condition
+     *     Check if this condition was found. This should be lower-cased.
+     *
+     * @return True if the given condition was found.
+     */
+    public boolean hasCondition(String condition) {
+        return excludeNegationOnly ? nonNegated.contains(condition) : conditions.contains(condition);
+    }
+
+    /**
+     * Returns a copy of the set of found conditions.
+     *
+     * @return The found conditions.
+     */
+    public ImmutableSet<String> foundConditions() {
+        return ImmutableSet.copyOf(excludeNegationOnly ? nonNegated : conditions);
+    }
+
+    /**
+     * Gets the number of conditional at-rules found.
+     *
+     * @return The number of conditional at-rules.
+     */
+    public int count() {
+        return expressions;
+    }
+
+    @Override
+    public String toString() {
+        return As.string(this)
+            .add("conditions", conditions)
+            .add("excludeNegationOnly", excludeNegationOnly)
+            .toString();
+    }
+}
@@ -28,6 +28,8 @@ package com.salesforce.omakase.plugin.core;
 
 import com.salesforce.omakase.ast.Stylesheet;
 import com.salesforce.omakase.broadcast.annotation.Observe;
+import com.salesforce.omakase.broadcast.annotation.Validate;
+import com.salesforce.omakase.error.ErrorManager;
 import com.salesforce.omakase.plugin.Plugin;
 import com.salesforce.omakase.util.As;
 
@@ -41,6 +43,7 @@ import com.salesforce.omakase.util.As;
  */
 public final class SyntaxTree implements Plugin {
     private Stylesheet stylesheet;
+    private String sourceName;
 
     /**
      * Sets the stylesheet. Library method - do not call directly.
@@ -53,6 +56,28 @@ public final class SyntaxTree implements Plugin {
         this.stylesheet = stylesheet;
     }
 
+    /**
+     * Records the name of the source. Library method - do not call directly.
+     *
+     * @param stylesheet
+     *     The stylesheet.
+     * @param em
+     *     The error manager.
+     */
+    @Validate
+    public void sourceName(Stylesheet stylesheet, ErrorManager em) {
+        this.sourceName = em.getSourceName();
+    }
+
+    /**
+     * Gets the name of the source, as given by {@link ErrorManager#getSourceName()}.
+     *
+     * @return The source name, or null if not specified.
+     */
+    public String sourceName() {
+        return sourceName;
+    }
+
     /**
      * Gets the {@link Stylesheet} instance.
      *
@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2015, salesforce.com, inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of salesforce.com, inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.salesforce.omakase.plugin.minify;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.salesforce.omakase.PluginRegistry;
+import com.salesforce.omakase.ast.Rule;
+import com.salesforce.omakase.ast.declaration.Declaration;
+import com.salesforce.omakase.ast.declaration.FunctionValue;
+import com.salesforce.omakase.ast.declaration.KeywordValue;
+import com.salesforce.omakase.ast.declaration.PropertyValue;
+import com.salesforce.omakase.ast.declaration.Term;
+import com.salesforce.omakase.broadcast.annotation.Rework;
+import com.salesforce.omakase.data.Property;
+import com.salesforce.omakase.plugin.DependentPlugin;
+import com.salesforce.omakase.plugin.syntax.DeclarationPlugin;
+import com.salesforce.omakase.writer.StyleWriter;
+
+/**
+ * Collapses the four longhand declarations of {@code margin}, {@code padding}, {@code border-width}, {@code border-style} and
+ * {@code border-color} into the shortest equivalent shorthand declaration.
+ * <p>
+ * For example, {@code .a{margin-top:1px;margin-right:2px;margin-bottom:1px;margin-left:2px}} becomes {@code .a{margin:1px 2px}}.
+ * Existing shorthand declarations are shortened the same way, e.g., {@code padding:0 0 0 0} becomes {@code padding:0}.
+ * <p>
+ * Longhands are only collapsed when all four are present in the same rule, each has a single value and they all have the same
+ * importance. The shorthand takes the place of the last of the four. Nothing is collapsed when a related declaration (such as
+ * {@code margin} itself, a logical property like {@code margin-inline-start}, or {@code border-top} for the border longhands)
+ * comes after any of the four, as the result could then differ.
+ * <p>
+ * Each rule is handled with a single pass over its declarations to build an index by {@link Property}, so the cost is linear in
+ * the number of declarations. Background longhands are not collapsed because the {@code background} shorthand also resets every
+ * background longhand not given.
+ *
+ * @author nmcwilliams
+ */
+public final class ShorthandMinifier implements DependentPlugin {
+    /** sides of the logical properties, including the names of the older prefixed versions (e.g., -webkit-margin-start) */
+    private static final List<String> LOGICAL_SIDES = ImmutableList.of(
+        "inline", "block", "inline-start", "inline-end", "block-start", "block-end", "start", "end", "before", "after");
+
+    private static final List<Family> FAMILIES = ImmutableList.of(
+        new Family(Property.MARGIN, logical("margin", null),
+            Property.MARGIN_TOP, Property.MARGIN_RIGHT, Property.MARGIN_BOTTOM, Property.MARGIN_LEFT),
+        new Family(Property.PADDING, logical("padding", null),
+            Property.PADDING_TOP, Property.PADDING_RIGHT, Property.PADDING_BOTTOM, Property.PADDING_LEFT),
+        new Family(Property.BORDER_WIDTH, logical("border", "width"),
+            Property.BORDER_TOP_WIDTH, Property.BORDER_RIGHT_WIDTH, Property.BORDER_BOTTOM_WIDTH, Property.BORDER_LEFT_WIDTH,
+            Property.BORDER, Property.BORDER_TOP, Property.BORDER_RIGHT, Property.BORDER_BOTTOM, Property.BORDER_LEFT),
+        new Family(Property.BORDER_STYLE, logical("border", "style"),
+            Property.BORDER_TOP_STYLE, Property.BORDER_RIGHT_STYLE, Property.BORDER_BOTTOM_STYLE, Property.BORDER_LEFT_STYLE,
+            Property.BORDER, Property.BORDER_TOP, Property.BORDER_RIGHT, Property.BORDER_BOTTOM, Property.BORDER_LEFT),
+        new Family(Property.BORDER_COLOR, logical("border", "color"),
+            Property.BORDER_TOP_COLOR, Property.BORDER_RIGHT_COLOR, Property.BORDER_BOTTOM_COLOR, Property.BORDER_LEFT_COLOR,
+            Property.BORDER, Property.BORDER_TOP, Property.BORDER_RIGHT, Property.BORDER_BOTTOM, Property.BORDER_LEFT));
+
+    /** keywords that can't be used as one of several values in a shorthand */
+    private static final Set<String> CSS_WIDE = ImmutableSet.of("inherit", "initial", "unset", "revert");
+
+    private final StyleWriter keys = StyleWriter.compressed();
+
+    @Override
+    public void dependencies(PluginRegistry registry) {
+        registry.require(DeclarationPlugin.class);
+    }
+
+    /**
+     * Collapses longhands and shortens shorthands within the rule. The rule is broadcasted after its declarations, so they
+     * have all been processed by this point.
+     *
+     * @param rule
+     *     The rule.
+     */
+    @Rework
+    public void rule(Rule rule) {
+        Map<Property, Declaration> last = new EnumMap<>(Property.class);
+        Map<Property, Integer> positions = new EnumMap<>(Property.class);
+        Map<String, Integer> named = new HashMap<>();
+        int allPosition = -1;
+        int position = 0;
+
+        for (Declaration declaration : rule.declarations()) {
+            if (!declaration.isWritable()) continue;
+            position++;
+
+            if (declaration.isProperty("all")) allPosition = position;
+            if (declaration.propertyName().hasStarHack()) continue;
+
+            // positions by name include prefixed and unknown properties, such as the logical ones
+            named.put(declaration.propertyName().unprefixed().toLowerCase(), position);
+            if (declaration.isPrefixed()) continue;
+
+            Optional<Property> property = declaration.propertyName().asProperty();
+            if (property.isPresent()) {
+                last.put(property.get(), declaration);
+                positions.put(property.get(), position);
+            }
+        }
+
+        for (Family family : FAMILIES) {
+            collapse(family, last, positions, named, allPosition);
+
+            Declaration shorthand = last.get(family.shorthand);
+            if (shorthand != null && shorthand.isWritable()) {
+                shorten(shorthand.propertyValue());
+            }
+        }
+    }
+
+    /** replaces a complete set of longhands with the shorthand */
+    private void collapse(Family family, Map<Property, Declaration> last, Map<Property, Integer> positions,
+        Map<String, Integer> named, int allPosition) {
+        Declaration[] longhands = new Declaration[4];
+        int first = Integer.MAX_VALUE;
+        Declaration latest = null;
+        int latestPosition = -1;
+
+        for (int i = 0; i < 4; i++) {
+            Declaration longhand = last.get(family.longhands.get(i));
+            if (longhand == null || !longhand.isWritable() || !isSingleValue(longhand.propertyValue())) return;
+            if (!longhand.annotations().isEmpty()) return;
+            if (i > 0 && longhand.propertyValue().isImportant() != longhands[0].propertyValue().isImportant()) return;
+
+            longhands[i] = longhand;
+            int position = positions.get(family.longhands.get(i));
+            first = Math.min(first, position);
+            if (position > latestPosition) {
+                latest = longhand;
+                latestPosition = position;
+            }
+        }
+
+        // a related declaration after one of the longhands would override some sides but not others
+        if (allPosition > first) return;
+        for (String related : family.related) {
+            Integer position = named.get(related);
+            if (position != null && position > first) return;
+        }
+
+        PropertyValue value = new PropertyValue();
+        for (Declaration longhand : longhands) {
+            value.append(longhand.propertyValue().terms().get(0).copy());
+        }
+        value.important(longhands[0].propertyValue().isImportant());
+        shorten(value);
+
+        Declaration shorthand = new Declaration(family.shorthand, value);
+        latest.replaceWith(shorthand);
+        for (Declaration longhand : longhands) {
+            if (longhand != latest) longhand.destroy();
+        }
+
+        last.put(family.shorthand, shorthand);
+        positions.put(family.shorthand, latestPosition);
+    }
+
+    /** removes trailing values of a top-right-bottom-left shorthand that are implied by the values before them */
+    private void shorten(PropertyValue value) {
+        List<Term> terms = value.terms();
+        if (terms.size() < 2 || terms.size() > 4 || terms.size() != value.members().size()) return;
+
+        String[] written = new String[terms.size()];
+        for (int i = 0; i < written.length; i++) {
+            written[i] = keys.writeSingle(terms.get(i));
+        }
+
+        int count = written.length;
+        if (count == 4 && written[3].equals(written[1])) count = 3; // left same as right
+        if (count == 3 && written[2].equals(written[0])) count = 2; // bottom same as top
+        if (count == 2 && written[1].equals(written[0])) count = 1; // right same as top
+
+        for (int i = count; i < written.length; i++) {
+            terms.get(i).destroy();
+        }
+    }
+
+    /** whether the value is a single term that can also be used in a shorthand */
+    private static boolean isSingleValue(PropertyValue value) {
+        if (value.members().size() != 1 || value.terms().size() != 1) return false;
+
+        Term term = value.terms().get(0);
+        if (term instanceof KeywordValue) {
+            return !CSS_WIDE.contains(((KeywordValue)term).keyword().toLowerCase());
+        }
+        if (term instanceof FunctionValue) {
+            String name = ((FunctionValue)term).name();
+            return !name.equals("var") && !name.equals("env");
+        }
+        return true;
+    }
+
+    /** gets the names of the logical properties with the given prefix and optional suffix, e.g., border-inline-start-width */
+    private static Set<String> logical(String prefix, String suffix) {
+        ImmutableSet.Builder<String> names = ImmutableSet.builder();
+        for (String side : LOGICAL_SIDES) {
+            names.add(prefix + '-' + side);
+            if (suffix != null) {
+                names.add(prefix + '-' + side + '-' + suffix);
+            }
+        }
+        return names.build();
+    }
+
+    /**
+     * a shorthand, its longhands in top-right-bottom-left order, and the names of the other properties that also set the
+     * longhands (including the logical ones)
+     */
+    private static final class Family {
+        final Property shorthand;
+        final List<Property> longhands;
+        final Set<String> related;
+
+        Family(Property shorthand, Set<String> logical, Property top, Property right, Property bottom, Property left,
+            Property... others) {
+            this.shorthand = shorthand;
+            this.longhands = ImmutableList.of(top, right, bottom, left);
+
+            ImmutableSet.Builder<String> related = ImmutableSet.<String>builder().add(shorthand.toString()).addAll(logical);
+            for (Property other : others) {
+                related.add(other.toString());
+            }
+            this.related = related.build();
+        }
+    }
+}
@@ -0,0 +1,429 @@
+/*
+ * Copyright (c) 2015, salesforce.com, inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of salesforce.com, inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.salesforce.omakase.plugin.minify;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.salesforce.omakase.PluginRegistry;
+import com.salesforce.omakase.ast.Rule;
+import com.salesforce.omakase.ast.Statement;
+import com.salesforce.omakase.ast.StatementIterable;
+import com.salesforce.omakase.ast.Stylesheet;
+import com.salesforce.omakase.ast.atrule.AtRule;
+import com.salesforce.omakase.ast.atrule.AtRuleBlock;
+import com.salesforce.omakase.ast.atrule.GenericAtRuleBlock;
+import com.salesforce.omakase.ast.collection.SyntaxCollection;
+import com.salesforce.omakase.ast.declaration.Declaration;
+import com.salesforce.omakase.ast.declaration.HexColorValue;
+import com.salesforce.omakase.ast.declaration.KeywordValue;
+import com.salesforce.omakase.ast.declaration.NumericalValue;
+import com.salesforce.omakase.ast.declaration.PropertyValue;
+import com.salesforce.omakase.ast.declaration.StringValue;
+import com.salesforce.omakase.ast.declaration.Term;
+import com.salesforce.omakase.ast.selector.PseudoClassSelector;
+import com.salesforce.omakase.ast.selector.PseudoElementSelector;
+import com.salesforce.omakase.ast.selector.Selector;
+import com.salesforce.omakase.ast.selector.SelectorPart;
+import com.salesforce.omakase.broadcast.annotation.Rework;
+import com.salesforce.omakase.plugin.DependentPlugin;
+import com.salesforce.omakase.plugin.syntax.DeclarationPlugin;
+import com.salesforce.omakase.plugin.syntax.MediaPlugin;
+import com.salesforce.omakase.plugin.syntax.SelectorPlugin;
+import com.salesforce.omakase.writer.StyleWriter;
+
+/**
+ * Reduces the number of rules, declarations and media blocks in the stylesheet without changing which styles apply.
+ * <p>
+ * This plugin makes a single pass over the whole stylesheet once everything else has been processed, and within the top level
+ * as well as each {@code @media} block it will:
+ * <ul>
+ * <li>combine adjacent {@code @media} blocks with the same media query list, e.g., {@code @media print{.a{color:red}} @media
+ * print{.b{color:red}}} becomes {@code @media print{.a{color:red}.b{color:red}}}.</li>
+ * <li>merge a rule into an earlier rule with the same selectors, e.g., {@code .a{color:red}.a{margin:0}} becomes {@code
+ * .a{color:red;margin:0}}.</li>
+ * <li>merge a rule into an earlier rule with the same declarations, e.g., {@code .a{color:red}.b{color:red}} becomes {@code
+ * .a,.b{color:red}}.</li>
+ * <li>remove declarations that are overridden by a later declaration for the same property in the same rule, e.g., {@code
+ * .a{margin:0;margin:1px}} becomes {@code .a{margin:1px}}.</li>
+ * </ul>
+ * <p>
+ * Merging a rule into an earlier one moves its declarations up in the stylesheet. This is only done when none of the rules in
+ * between declare a property from the same family (e.g., {@code margin} and {@code margin-top}, or {@code word-wrap} and {@code
+ * overflow-wrap}), so the cascade is unchanged for any element matched by more than one of the rules. Rules with properties that
+ * aren't known to this plugin are never merged or moved across. Rules are never moved across at-rules. Selectors are only
+ * combined when they are understood by all browsers (no vendor-prefixed or newer pseudo classes and pseudo elements), as
+ * otherwise browsers drop the entire combined rule.
+ * <p>
+ * Likewise, an overridden declaration is only removed when the overriding declaration has the exact same value or is built
+ * entirely from values that all browsers understand. This keeps fallbacks such as {@code display:block;display:flex} or
+ * {@code color:#000;color:rgba(0,0,0,.5)} intact.
+ * <p>
+ * Rules and media blocks are compared by their compressed output and looked up from an index, so the pass stays linear in the
+ * size of the stylesheet. This plugin works on the whole {@link Stylesheet} and therefore has no effect when streaming.
+ *
+ * @author nmcwilliams
+ */
+public final class StructuralMinifier implements DependentPlugin {
+    /** properties whose shorthand or alias doesn't share the first part of its name */
+    private static final Map<String, String> FAMILIES = ImmutableMap.<String, String>builder()
+        .put("line-height", "font")
+        .put("top", "inset")
+        .put("right", "inset")
+        .put("bottom", "inset")
+        .put("left", "inset")
+        .put("width", "size")
+        .put("height", "size")
+        .put("inline-size", "size")
+        .put("block-size", "size")
+        .put("columns", "column")
+        .put("align-content", "place")
+        .put("align-items", "place")
+        .put("align-self", "place")
+        .put("justify-content", "place")
+        .put("justify-items", "place")
+        .put("justify-self", "place")
+        .put("row-gap", "gap")
+        .put("column-gap", "gap")
+        .put("grid-gap", "gap")
+        .put("grid-row-gap", "gap")
+        .put("grid-column-gap", "gap")
+        .put("word-wrap", "overflow")
+        .put("page-break-before", "break")
+        .put("page-break-after", "break")
+        .put("page-break-inside", "break")
+        .put("column-break-before", "break")
+        .put("column-break-after", "break")
+        .put("column-break-inside", "break")
+        .put("white-space", "text")
+        .put("color-adjust", "print")
+        .build();
+
+    /**
+     * families known to contain every shorthand, longhand and alias of their properties. A property from any other family is
+     * treated like "all", since it might interact with properties from a different family
+     */
+    private static final Set<String> KNOWN_FAMILIES = ImmutableSet.of(
+        "animation", "appearance", "aspect", "backdrop", "backface", "background", "border", "box", "break", "caption", "caret",
+        "clear", "clip", "color", "column", "contain", "container", "content", "counter", "cursor", "direction", "display",
+        "empty", "fill", "filter", "flex", "float", "font", "gap", "grid", "hyphens", "image", "inset", "isolation", "letter",
+        "line", "list", "margin", "mask", "max", "min", "mix", "object", "opacity", "order", "orphans", "outline", "overflow",
+        "overscroll", "padding", "page", "perspective", "place", "pointer", "position", "print", "quotes", "resize", "rotate",
+        "scale", "scroll", "scrollbar", "size", "stroke", "tab", "table", "tap", "text", "touch", "transform", "transition",
+        "translate", "unicode", "user", "visibility", "widows", "will", "word", "writing", "z", "zoom");
+
+    /** the family of the "all" property, which resets every other property */
+    private static final String ALL = "all";
+
+    private static final Set<String> LEGACY_UNITS = ImmutableSet.of(
+        "px", "em", "ex", "%", "pt", "pc", "in", "cm", "mm", "deg", "s", "ms");
+
+    private static final Set<String> LEGACY_KEYWORDS = ImmutableSet.of(
+        "inherit", "none", "auto", "normal", "hidden", "visible", "block", "inline", "inline-block", "list-item", "table",
+        "left", "right", "center", "top", "bottom", "middle", "baseline", "justify", "static", "relative", "absolute",
+        "fixed", "both", "bold", "bolder", "lighter", "italic", "underline", "uppercase", "lowercase", "nowrap", "pointer",
+        "default", "solid", "dashed", "dotted", "double", "repeat", "no-repeat", "repeat-x", "repeat-y", "collapse",
+        "black", "white", "red", "green", "blue", "yellow", "gray", "silver", "maroon", "purple", "fuchsia", "lime",
+        "olive", "navy", "teal", "aqua", "orange");
+
+    private static final Set<String> LEGACY_PSEUDOS = ImmutableSet.of(
+        "link", "visited", "hover", "active", "focus", "first-child", "first-line", "first-letter", "before", "after");
+
+    private final StyleWriter keys = StyleWriter.compressed();
+
+    @Override
+    public void dependencies(PluginRegistry registry) {
+        registry.require(SelectorPlugin.class);
+        registry.require(DeclarationPlugin.class);
+        registry.require(MediaPlugin.class);
+    }
+
+    /**
+     * Minifies the whole stylesheet. The stylesheet is broadcasted last, so everything else has been processed at this point.
+     *
+     * @param stylesheet
+     *     The stylesheet.
+     */
+    @Rework
+    public void stylesheet(Stylesheet stylesheet) {
+        minify(stylesheet.statements());
+    }
+
+    /** minifies the statements at one level of the tree, i.e., the top level or the inside of a media block */
+    private void minify(SyntaxCollection<StatementIterable, Statement> statements) {
+        combineMedia(statements);
+
+        Map<String, Entry> bySelectors = new HashMap<>();
+        Map<String, Entry> byDeclarations = new HashMap<>();
+        Map<String, Integer> lastDeclared = new HashMap<>();
+        int position = 0;
+
+        for (Statement statement : statements) {
+            if (!statement.isWritable()) continue;
+            position++;
+
+            if (!(statement instanceof Rule)) {
+                // rules are never moved across at-rules
+                mediaBlock(statement).ifPresent(block -> minify(block.statements()));
+                bySelectors.clear();
+                byDeclarations.clear();
+                continue;
+            }
+
+            Rule rule = (Rule)statement;
+            removeOverridden(rule);
+            Set<String> families = families(rule);
+
+            Entry earlier = bySelectors.get(selectorKey(rule));
+            if (earlier != null && canMoveTo(earlier, families, lastDeclared)) {
+                earlier.rule.declarations().appendAll(ImmutableList.copyOf(rule.declarations()));
+                rule.destroy();
+                removeOverridden(earlier.rule);
+                reindex(earlier, families, bySelectors, byDeclarations, lastDeclared);
+                continue;
+            }
+
+            earlier = byDeclarations.get(declarationKey(rule));
+            if (earlier != null && isCombinable(rule) && isCombinable(earlier.rule)
+                && canMoveTo(earlier, families, lastDeclared)) {
+                Set<String> existing = new HashSet<>();
+                for (Selector selector : earlier.rule.selectors()) {
+                    existing.add(keys.writeSingle(selector));
+                }
+                for (Selector selector : ImmutableList.copyOf(rule.selectors())) {
+                    if (existing.add(keys.writeSingle(selector))) {
+                        earlier.rule.selectors().append(selector);
+                    }
+                }
+                rule.destroy();
+                reindex(earlier, families, bySelectors, byDeclarations, lastDeclared);
+                continue;
+            }
+
+            Entry entry = new Entry(rule, position);
+            for (String family : families) {
+                lastDeclared.put(family, position);
+            }
+            if (!families.contains(ALL)) {
+                index(entry, bySelectors, byDeclarations);
+            }
+        }
+    }
+
+    /** combines adjacent media blocks with the same media query list */
+    private void combineMedia(SyntaxCollection<StatementIterable, Statement> statements) {
+        AtRule previous = null;
+        String previousKey = null;
+
+        for (Statement statement : statements) {
+            if (!statement.isWritable()) continue;
+
+            if (!mediaBlock(statement).isPresent()) {
+                previous = null;
+                continue;
+            }
+
+            AtRule media = (AtRule)statement;
+            String key = keys.writeSingle(media.expression().get());
+            if (previous != null && key.equals(previousKey)) {
+                SyntaxCollection<StatementIterable, Statement> into = mediaBlock(previous).get().statements();
+                into.appendAll(ImmutableList.copyOf(mediaBlock(media).get().statements()));
+                media.destroy();
+            } else {
+                previous = media;
+                previousKey = key;
+            }
+        }
+    }
+
+    /** removes declarations that will always be overridden by a later declaration for the same property */
+    private void removeOverridden(Rule rule) {
+        Map<String, Declaration> later = new HashMap<>();
+
+        for (Declaration declaration : ImmutableList.copyOf(rule.declarations()).reverse()) {
+            if (!declaration.isWritable()) continue;
+
+            String name = keys.writeSingle(declaration.propertyName());
+            Declaration overriding = later.get(name);
+
+            if (overriding != null && isOverriddenBy(declaration, overriding)) {
+                declaration.destroy();
+            } else {
+                later.put(name, declaration);
+            }
+        }
+    }
+
+    private boolean isOverriddenBy(Declaration declaration, Declaration overriding) {
+        PropertyValue value = declaration.propertyValue();
+        PropertyValue overridingValue = overriding.propertyValue();
+
+        if (value.isImportant() && !overridingValue.isImportant()) return false;
+        return keys.writeSingle(value).equals(keys.writeSingle(overridingValue)) || isLegacy(overridingValue);
+    }
+
+    /** whether the value is made only of terms that all browsers understand, in which case it can never be a fallback */
+    private static boolean isLegacy(PropertyValue value) {
+        for (Term term : value.terms()) {
+            if (term instanceof NumericalValue) {
+                String unit = ((NumericalValue)term).unit().orElse(null);
+                if (unit != null && !LEGACY_UNITS.contains(unit)) return false;
+            } else if (term instanceof KeywordValue) {
+                if (!LEGACY_KEYWORDS.contains(((KeywordValue)term).keyword())) return false;
+            } else if (term instanceof HexColorValue) {
+                int length = ((HexColorValue)term).color().length();
+                if (length != 3 && length != 6) return false;
+            } else if (!(term instanceof StringValue)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** whether the rule's selectors can be combined with other selectors without risking the whole rule being dropped */
+    private static boolean isCombinable(Rule rule) {
+        for (Selector selector : rule.selectors()) {
+            if (!selector.isRefined()) return false;
+
+            for (SelectorPart part : selector.parts()) {
+                String pseudo = null;
+                if (part instanceof PseudoClassSelector) {
+                    pseudo = ((PseudoClassSelector)part).name();
+                } else if (part instanceof PseudoElementSelector) {
+                    pseudo = ((PseudoElementSelector)part).name();
+                }
+                if (pseudo != null && !LEGACY_PSEUDOS.contains(pseudo)) return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * gets the property families declared by the rule, e.g., "margin" for both margin and margin-top. Custom properties are
+     * their own family, and properties from an unknown family are reported as "all"
+     */
+    private static Set<String> families(Rule rule) {
+        Set<String> families = new LinkedHashSet<>();
+        for (Declaration declaration : rule.declarations()) {
+            if (!declaration.isWritable()) continue;
+
+            String name = declaration.propertyName().unprefixed();
+            if (name.startsWith("--")) {
+                families.add(name);
+                continue;
+            }
+
+            String family = FAMILIES.get(name);
+            if (family == null) {
+                int dash = name.indexOf('-');
+                family = dash <= 0 ? name : name.substring(0, dash);
+            }
+            families.add(KNOWN_FAMILIES.contains(family) ? family : ALL);
+        }
+        return families;
+    }
+
+    /** whether the declarations from a later rule can be moved to the earlier rule without changing the cascade */
+    private static boolean canMoveTo(Entry earlier, Set<String> families, Map<String, Integer> lastDeclared) {
+        if (families.contains(ALL) || isAfter(lastDeclared.get(ALL), earlier.position)) return false;
+        for (String family : families) {
+            if (isAfter(lastDeclared.get(family), earlier.position)) return false;
+        }
+        return true;
+    }
+
+    private static boolean isAfter(Integer position, int other) {
+        return position != null && position > other;
+    }
+
+    private void reindex(Entry entry, Set<String> families, Map<String, Entry> bySelectors,
+        Map<String, Entry> byDeclarations, Map<String, Integer> lastDeclared) {
+        bySelectors.remove(entry.selectorKey, entry);
+        byDeclarations.remove(entry.declarationKey, entry);
+        for (String family : families) {
+            lastDeclared.put(family, entry.position);
+        }
+        index(entry, bySelectors, byDeclarations);
+    }
+
+    private void index(Entry entry, Map<String, Entry> bySelectors, Map<String, Entry> byDeclarations) {
+        entry.selectorKey = selectorKey(entry.rule);
+        entry.declarationKey = declarationKey(entry.rule);
+        bySelectors.put(entry.selectorKey, entry);
+        byDeclarations.put(entry.declarationKey, entry);
+    }
+
+    private String selectorKey(Rule rule) {
+        StringBuilder key = new StringBuilder(32);
+        for (Selector selector : rule.selectors()) {
+            if (selector.isWritable()) key.append(keys.writeSingle(selector)).append(',');
+        }
+        return key.toString();
+    }
+
+    private String declarationKey(Rule rule) {
+        StringBuilder key = new StringBuilder(64);
+        for (Declaration declaration : rule.declarations()) {
+            if (declaration.isWritable()) key.append(keys.writeSingle(declaration)).append(';');
+        }
+        return key.toString();
+    }
+
+    /** gets the block of a refined {@code @media} at-rule */
+    private static Optional<GenericAtRuleBlock> mediaBlock(Statement statement) {
+        if (!(statement instanceof AtRule)) return Optional.empty();
+
+        AtRule atRule = (AtRule)statement;
+        if (!"media".equals(atRule.name()) || !atRule.expression().isPresent()) return Optional.empty();
+
+        Optional<AtRuleBlock> block = atRule.block();
+        if (block.isPresent() && block.get() instanceof GenericAtRuleBlock) {
+            return Optional.of((GenericAtRuleBlock)block.get());
+        }
+        return Optional.empty();
+    }
+
+    /** a rule that later rules may be merged into */
+    private static final class Entry {
+        final Rule rule;
+        final int position;
+        String selectorKey;
+        String declarationKey;
+
+        Entry(Rule rule, int position) {
+            this.rule = rule;
+            this.position = position;
+        }
+    }
+}
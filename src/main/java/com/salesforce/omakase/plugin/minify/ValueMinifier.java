@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2015, salesforce.com, inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of salesforce.com, inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.salesforce.omakase.plugin.minify;
+
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.base.CharMatcher;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.salesforce.omakase.PluginRegistry;
+import com.salesforce.omakase.ast.declaration.Declaration;
+import com.salesforce.omakase.ast.declaration.HexColorValue;
+import com.salesforce.omakase.ast.declaration.KeywordValue;
+import com.salesforce.omakase.ast.declaration.NumericalValue;
+import com.salesforce.omakase.ast.declaration.StringValue;
+import com.salesforce.omakase.ast.declaration.UrlFunctionValue;
+import com.salesforce.omakase.broadcast.annotation.Rework;
+import com.salesforce.omakase.data.Keyword;
+import com.salesforce.omakase.data.Property;
+import com.salesforce.omakase.plugin.DependentPlugin;
+import com.salesforce.omakase.plugin.syntax.DeclarationPlugin;
+import com.salesforce.omakase.plugin.syntax.UrlPlugin;
+
+/**
+ * Rewrites individual values in their shortest equivalent form.
+ * <p>
+ * This includes:
+ * <ul>
+ * <li>hex colors in shorthand form, e.g., {@code #aabbcc} becomes {@code #abc}.</li>
+ * <li>hex colors as color names and color names as hex colors, whichever is shorter, e.g., {@code #ff0000} becomes {@code red}
+ * and {@code white} becomes {@code #fff}.</li>
+ * <li>zero lengths without a unit, e.g., {@code 0px} becomes {@code 0}. The unit is kept in {@code flex} and {@code
+ * flex-basis}, where IE10 and IE11 don't accept a unitless zero basis.</li>
+ * <li>numbers without extraneous zeros, e.g., {@code 0.50} becomes {@code .5}.</li>
+ * <li>font weights as numbers, e.g., {@code bold} becomes {@code 700}.</li>
+ * <li>font families and urls without quotes, e.g., {@code "Arial"} becomes {@code Arial} and {@code url("a.png")} becomes
+ * {@code url(a.png)}.</li>
+ * </ul>
+ * <p>
+ * Each value type is handled by a single {@link Rework} subscription that only looks at that one value and its declaration, so
+ * this plugin adds little overhead. Use {@link StructuralMinifier} to also merge rules and declarations.
+ *
+ * @author nmcwilliams
+ */
+public final class ValueMinifier implements DependentPlugin {
+    private static final CharMatcher URL_SAFE = CharMatcher.whitespace()
+        .or(CharMatcher.anyOf("\"'()\\"))
+        .negate()
+        .precomputed();
+    private static final CharMatcher IDENT = CharMatcher.inRange('a', 'z')
+        .or(CharMatcher.inRange('A', 'Z'))
+        .or(CharMatcher.inRange('0', '9'))
+        .or(CharMatcher.is('-'))
+        .precomputed();
+
+    private static final Set<String> LENGTH_UNITS = ImmutableSet.of(
+        "px", "em", "rem", "ex", "ch", "vw", "vh", "vmin", "vmax", "cm", "mm", "in", "pt", "pc");
+
+    /** properties where a keyword is known to be a color */
+    private static final Set<String> COLOR_PROPERTIES = ImmutableSet.of(
+        "color", "background", "background-color", "border", "border-color", "border-top", "border-top-color", "border-right",
+        "border-right-color", "border-bottom", "border-bottom-color", "border-left", "border-left-color", "outline",
+        "outline-color", "box-shadow", "text-shadow", "text-decoration-color", "column-rule", "column-rule-color", "fill",
+        "stroke", "caret-color");
+
+    /** hex colors that have a shorter name */
+    private static final Map<String, String> HEX_TO_NAME = ImmutableMap.<String, String>builder()
+        .put("f00", "red")
+        .put("000080", "navy")
+        .put("008080", "teal")
+        .put("808080", "gray")
+        .put("800000", "maroon")
+        .put("800080", "purple")
+        .put("008000", "green")
+        .put("808000", "olive")
+        .put("c0c0c0", "silver")
+        .put("ffa500", "orange")
+        .put("d2b48c", "tan")
+        .put("fa8072", "salmon")
+        .put("ffc0cb", "pink")
+        .put("dda0dd", "plum")
+        .put("ee82ee", "violet")
+        .put("f5deb3", "wheat")
+        .put("ff6347", "tomato")
+        .put("a52a2a", "brown")
+        .put("ffd700", "gold")
+        .put("4b0082", "indigo")
+        .put("fffff0", "ivory")
+        .put("f0e68c", "khaki")
+        .put("faf0e6", "linen")
+        .put("da70d6", "orchid")
+        .put("cd853f", "peru")
+        .put("a0522d", "sienna")
+        .put("fffafa", "snow")
+        .put("f5f5dc", "beige")
+        .put("ffe4c4", "bisque")
+        .put("ff7f50", "coral")
+        .put("f0ffff", "azure")
+        .build();
+
+    /** color names that have a shorter hex color */
+    private static final Map<String, String> NAME_TO_HEX = ImmutableMap.<String, String>builder()
+        .put("black", "000")
+        .put("white", "fff")
+        .put("yellow", "ff0")
+        .put("fuchsia", "f0f")
+        .put("magenta", "f0f")
+        .put("aliceblue", "f0f8ff")
+        .put("blanchedalmond", "ffebcd")
+        .put("darkgoldenrod", "b8860b")
+        .put("lightgoldenrodyellow", "fafad2")
+        .put("lightslategray", "789")
+        .put("lightslategrey", "789")
+        .put("mediumspringgreen", "00fa9a")
+        .put("mediumvioletred", "c71585")
+        .put("papayawhip", "ffefd5")
+        .build();
+
+    /** keywords that are not font family names */
+    private static final Set<String> GENERIC_FONTS = ImmutableSet.of(
+        "serif", "sans-serif", "monospace", "cursive", "fantasy", "system-ui", "math", "emoji", "fangsong", "default",
+        "inherit", "initial", "unset", "revert");
+
+    @Override
+    public void dependencies(PluginRegistry registry) {
+        registry.require(DeclarationPlugin.class);
+        registry.require(UrlPlugin.class);
+    }
+
+    /**
+     * Shortens hex colors.
+     *
+     * @param value
+     *     The hex color.
+     */
+    @Rework
+    public void hexColor(HexColorValue value) {
+        String color = value.color();
+        if (color.length() == 6 && color.charAt(0) == color.charAt(1) && color.charAt(2) == color.charAt(3)
+            && color.charAt(4) == color.charAt(5)) {
+            color = new String(new char[]{color.charAt(0), color.charAt(2), color.charAt(4)});
+            value.color(color);
+        }
+
+        String name = HEX_TO_NAME.get(color);
+        if (name != null && value.declaration() != null) {
+            value.replaceWith(KeywordValue.of(name));
+        }
+    }
+
+    /**
+     * Replaces color names with shorter hex colors and font weights with numbers.
+     *
+     * @param value
+     *     The keyword.
+     */
+    @Rework
+    public void keyword(KeywordValue value) {
+        Declaration declaration = value.declaration();
+        if (declaration == null) return;
+
+        String keyword = value.keyword().toLowerCase();
+
+        if (declaration.isProperty(Property.FONT_WEIGHT) || declaration.isProperty(Property.FONT)) {
+            if (keyword.equals("bold")) {
+                value.replaceWith(NumericalValue.of(700));
+            } else if (keyword.equals("normal") && declaration.isProperty(Property.FONT_WEIGHT)) {
+                // in the font shorthand "normal" could be the style or variant instead
+                value.replaceWith(NumericalValue.of(400));
+            }
+            return;
+        }
+
+        String hex = NAME_TO_HEX.get(keyword);
+        if (hex != null && COLOR_PROPERTIES.contains(declaration.propertyName().unprefixed())) {
+            value.replaceWith(HexColorValue.of(hex));
+        }
+    }
+
+    /**
+     * Removes units from zero lengths and extraneous zeros from numbers.
+     *
+     * @param value
+     *     The number.
+     */
+    @Rework
+    public void numerical(NumericalValue value) {
+        String raw = value.value();
+        String trimmed = trimZeros(raw);
+
+        if (trimmed.equals("0")) {
+            if (!raw.equals("0") || value.explicitSign().isPresent()) value.value(0);
+            if (value.unit().isPresent() && LENGTH_UNITS.contains(value.unit().get()) && !isFlexBasis(value)) value.unit(null);
+        } else if (!trimmed.equals(raw)) {
+            NumericalValue replacement = NumericalValue.of(trimmed, value.unit().orElse(null));
+            if (value.isNegative()) replacement.explicitSign(NumericalValue.Sign.NEGATIVE);
+            value.replaceWith(replacement);
+        }
+    }
+
+    /** whether the number is (or may be) a flex basis, which needs to keep its unit */
+    private static boolean isFlexBasis(NumericalValue value) {
+        Declaration declaration = value.declaration();
+        return declaration != null
+            && (declaration.isPropertyIgnorePrefix(Property.FLEX) || declaration.isPropertyIgnorePrefix(Property.FLEX_BASIS));
+    }
+
+    /** removes leading zeros, trailing zeros after the decimal point and a trailing decimal point, e.g., "01.50" to "1.5" */
+    private static String trimZeros(String raw) {
+        int start = 0;
+        int end = raw.length();
+        int dot = raw.indexOf('.');
+
+        if (dot >= 0) {
+            while (end > dot + 1 && raw.charAt(end - 1) == '0') end--;
+            if (end == dot + 1) end = dot;
+        }
+        while (start < end - 1 && raw.charAt(start) == '0') start++;
+
+        if (start == end) return "0";
+        return raw.substring(start, end);
+    }
+
+    /**
+     * Removes quotes from font family names where possible.
+     *
+     * @param value
+     *     The string.
+     */
+    @Rework
+    public void string(StringValue value) {
+        Declaration declaration = value.declaration();
+        if (declaration == null) return;
+        if (!declaration.isProperty(Property.FONT_FAMILY) && !declaration.isProperty(Property.FONT)) return;
+
+        String content = value.content();
+        if (!content.isEmpty() && Character.isLetter(content.charAt(0)) && IDENT.matchesAllOf(content)
+            && Keyword.lookup(content.toLowerCase()) == null && !GENERIC_FONTS.contains(content.toLowerCase())) {
+            value.replaceWith(KeywordValue.of(content));
+        }
+    }
+
+    /**
+     * Removes quotes from urls where possible.
+     *
+     * @param value
+     *     The url.
+     */
+    @Rework
+    public void url(UrlFunctionValue value) {
+        if (value.quotationMode().isPresent() && !value.url().isEmpty() && URL_SAFE.matchesAllOf(value.url())) {
+            value.quotationMode(null);
+        }
+    }
+}
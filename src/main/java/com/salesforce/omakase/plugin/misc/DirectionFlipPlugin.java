@@ -35,17 +35,19 @@ import java.util.Set;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
-import com.salesforce.omakase.PluginRegistry;
 import com.salesforce.omakase.ast.declaration.Declaration;
 import com.salesforce.omakase.ast.declaration.KeywordValue;
 import com.salesforce.omakase.ast.declaration.NumericalValue;
 import com.salesforce.omakase.ast.declaration.OperatorType;
 import com.salesforce.omakase.ast.declaration.PropertyValue;
 import com.salesforce.omakase.ast.declaration.Term;
+import com.salesforce.omakase.broadcast.Broadcaster;
+import com.salesforce.omakase.broadcast.annotation.Refine;
 import com.salesforce.omakase.broadcast.annotation.Rework;
 import com.salesforce.omakase.data.Keyword;
 import com.salesforce.omakase.data.Property;
-import com.salesforce.omakase.plugin.DependentPlugin;
+import com.salesforce.omakase.parser.Grammar;
+import com.salesforce.omakase.plugin.Plugin;
 import com.salesforce.omakase.plugin.syntax.DeclarationPlugin;
 import com.salesforce.omakase.util.CssAnnotations;
 import com.salesforce.omakase.util.Values;
@@ -53,10 +55,13 @@ import com.salesforce.omakase.util.Values;
 /**
  * DirectionFlipPlugin changes the direction of CSS property names, keywords, and term lists from left to right, or from right to
  * left.
+ * <p>
+ * Only the declarations that could be flipped are refined, based on the raw property name and the names in the raw property
+ * value. All other declarations are left unrefined and are written out as-is.
  *
  * @author david.brady
  */
-public final class DirectionFlipPlugin implements DependentPlugin {
+public final class DirectionFlipPlugin implements Plugin {
     private static final Map<Property, Property> PROPERTIES_TO_FLIP = new ImmutableMap.Builder<Property, Property>()
         .put(Property.LEFT, Property.RIGHT)
         .put(Property.RIGHT, Property.LEFT)
@@ -114,9 +119,45 @@ public final class DirectionFlipPlugin implements DependentPlugin {
         Property.BORDER_STYLE,
         Property.BORDER_WIDTH);
 
-    @Override
-    public void dependencies(PluginRegistry registry) {
-        registry.require(DeclarationPlugin.class);
+    /** properties with values that may be flipped, in addition to the ones in {@link #KEYWORDS_TO_FLIP} */
+    private static final Set<Property> VALUES_TO_FLIP = ImmutableSet.<Property>builder()
+        .addAll(FLIP_PERCENTAGE)
+        .addAll(FOUR_TERM_PROPERTIES)
+        .add(Property.BORDER_RADIUS)
+        .build();
+
+    /** the names of the keywords to flip, for checking raw values */
+    private static final Set<String> KEYWORD_NAMES = KEYWORDS_TO_FLIP.keySet().stream()
+        .map(Keyword::toString)
+        .collect(ImmutableSet.toImmutableSet());
+
+    /**
+     * Refines the declaration only if it might be flipped.
+     *
+     * @param declaration
+     *     The declaration.
+     * @param grammar
+     *     The grammar.
+     * @param broadcaster
+     *     The broadcaster.
+     */
+    @Refine
+    public void refine(Declaration declaration, Grammar grammar, Broadcaster broadcaster) {
+        if (hasNoFlip(declaration)) return;
+
+        // keywords are flipped regardless of the property
+        Optional<Property> property = declaration.propertyName().asPropertyIgnorePrefix();
+        boolean flippable = property.isPresent()
+            && (PROPERTIES_TO_FLIP.containsKey(property.get()) || VALUES_TO_FLIP.contains(property.get()));
+
+        if (flippable || mentionsKeywordToFlip(declaration.rawPropertyValue().get().content())) {
+            DeclarationPlugin.delegateRefinement(declaration, grammar, broadcaster);
+        }
+    }
+
+    /** whether any of the names in the raw value is a keyword to flip */
+    private static boolean mentionsKeywordToFlip(String value) {
+        return Values.anyRawName(value, (name, function) -> KEYWORD_NAMES.contains(name.toLowerCase()));
     }
 
     /**
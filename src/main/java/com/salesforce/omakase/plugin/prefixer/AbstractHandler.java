@@ -26,14 +26,27 @@
 
 package com.salesforce.omakase.plugin.prefixer;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Multimap;
+import com.salesforce.omakase.ast.Rule;
+import com.salesforce.omakase.ast.Statement;
+import com.salesforce.omakase.ast.Stylesheet;
+import com.salesforce.omakase.ast.Syntax;
 import com.salesforce.omakase.ast.collection.Groupable;
+import com.salesforce.omakase.ast.declaration.Declaration;
 import com.salesforce.omakase.data.Prefix;
 import com.salesforce.omakase.util.Actions;
 import com.salesforce.omakase.util.SupportMatrix;
+import com.salesforce.omakase.writer.StyleWriter;
 
 /**
  * Base class for most {@link Handler} implementations.
@@ -49,26 +62,53 @@ import com.salesforce.omakase.util.SupportMatrix;
  */
 abstract class AbstractHandler<T, G extends Groupable<?, G>> implements Handler<T> {
     @Override
-    public boolean handle(T instance, boolean rearrange, boolean prune, SupportMatrix support) {
+    public boolean handle(T instance, boolean rearrange, boolean prune, SupportMatrix support, EquivalentsIndex index,
+        PrefixCache cache, PrefixTargets targets) {
         if (!applicable(instance, support)) return false;
 
         // gather all required prefixes
         Set<Prefix> required = required(instance, support);
 
         // find all prefixed equivalents
-        Multimap<Prefix, ? extends G> equivalents = equivalents(instance);
+        Multimap<Prefix, ? extends G> equivalents = equivalents(instance, index);
 
         // get the main unprefixed object of question
         G subject = subject(instance);
 
+        // without any existing equivalents the prefixed copies only depend on the declaration itself, so they can be reused
+        if (cache != null && !required.isEmpty() && equivalents.isEmpty() && isCacheable(subject)) {
+            Callable<ImmutableList<Declaration>> loader = () -> expand(subject, required, support);
+            for (Declaration template : cache.get(support, this, (Declaration)subject, instance, loader)) {
+                subject.prepend(cast(template.copy()));
+            }
+            index.update(subject, ImmutableList.of(), ImmutableList.of());
+            return true;
+        }
+
+        // keep track of what was moved or removed for the index
+        List<G> moved = new ArrayList<>();
+        List<G> removed = new ArrayList<>();
+
         // look through each required prefix to see whether we need to rearrange, remove or prepend
         for (Prefix prefix : required) {
             Collection<? extends G> matches = equivalents.get(prefix);
             if (!matches.isEmpty()) {
                 if (rearrange) {
                     Actions.<G>moveBefore().apply(subject, matches);
+                    moved.addAll(matches);
+                }
+                if (targets != null && prune) {
+                    // with pruning, each target only keeps the equivalents it needs itself
+                    int mask = targets(instance, prefix, targets);
+                    for (G match : matches) {
+                        targets.tag(match, mask);
+                    }
                 }
                 equivalents.removeAll(prefix);
+            } else if (targets != null) {
+                G before = subject.previous().orElse(null);
+                copy(subject, prefix, support);
+                tagCopies(subject, before, prefix, targets(instance, prefix, targets) & targets.mask(subject), targets);
             } else {
                 copy(subject, prefix, support);
             }
@@ -77,15 +117,114 @@ abstract class AbstractHandler<T, G extends Groupable<?, G>> implements Handler<
         // any left over equivalents are unnecessary. remove or rearrange them if allowed
         if (!equivalents.isEmpty()) {
             if (prune) {
+                removed.addAll(equivalents.values());
                 Actions.destroy().apply(equivalents.values());
             } else if (rearrange) {
+                moved.addAll(equivalents.values());
                 Actions.<G>moveBefore().apply(subject, equivalents.values());
             }
         }
 
+        index.update(subject, moved, removed);
+
         return !required.isEmpty();
     }
 
+    /** gets the targets that require the given prefix for the instance */
+    private int targets(T instance, Prefix prefix, PrefixTargets targets) {
+        return targets.matching(target -> applicable(instance, target) && required(instance, target).contains(prefix));
+    }
+
+    /**
+     * records the targets on the copies that were inserted before the subject, back to (but not including) the given unit. The
+     * copies are made for the combined support of all targets, which can differ from what a single target gets (e.g., flexbox
+     * keywords depend on the exact browser versions), so each copy is only tagged with the targets that make an identical copy
+     * by themselves. A copy that no target makes by itself goes to the targets that didn't get any of their own copies. The inner
+     * units of the copies keep the targets of the corresponding inner units of the subject
+     */
+    private void tagCopies(G subject, G before, Prefix prefix, int mask, PrefixTargets targets) {
+        List<G> copies = new ArrayList<>();
+        for (Optional<G> unit = subject.previous(); unit.isPresent() && unit.get() != before; unit = unit.get().previous()) {
+            copies.add(unit.get());
+        }
+        if (copies.isEmpty()) return;
+
+        StyleWriter writer = StyleWriter.compressed();
+        List<Set<String>> variants = new ArrayList<>();
+        for (int i = 0; i < Integer.SIZE; i++) {
+            variants.add((mask & 1 << i) != 0 ? variants(subject, prefix, targets.matrix(i), writer) : ImmutableSet.of());
+        }
+
+        int[] masks = new int[copies.size()];
+        int matched = 0;
+        for (int c = 0; c < copies.size(); c++) {
+            String written = writer.writeSingle(copies.get(c));
+            for (int i = 0; i < Integer.SIZE; i++) {
+                if (variants.get(i).contains(written)) masks[c] |= 1 << i;
+            }
+            matched |= masks[c];
+        }
+
+        for (int c = 0; c < copies.size(); c++) {
+            G copy = copies.get(c);
+            targets.tag(copy, masks[c] != 0 ? masks[c] : mask & ~matched);
+            targets.copyTags(subject, copy);
+        }
+    }
+
+    /** gets the written prefixed copies of a detached copy of the subject for the given support */
+    private Set<String> variants(G subject, Prefix prefix, SupportMatrix support, StyleWriter writer) {
+        G scratch = detached(subject);
+        copy(scratch, prefix, support);
+
+        Set<String> variants = new HashSet<>();
+        for (Optional<G> unit = scratch.previous(); unit.isPresent(); unit = unit.get().previous()) {
+            variants.add(writer.writeSingle(unit.get()));
+        }
+        return variants;
+    }
+
+    /** makes a copy of the subject in a detached group, so that prefixed copies can be made without broadcasting them */
+    @SuppressWarnings("unchecked")
+    private static <G extends Groupable<?, G>> G detached(G subject) {
+        Syntax copy = subject.copy();
+        if (copy instanceof Declaration) {
+            new Rule().declarations().append((Declaration)copy);
+        } else {
+            new Stylesheet().statements().append((Statement)copy);
+        }
+        return (G)copy;
+    }
+
+    /** whether the prefixed copies of the subject can be stored in a {@link PrefixCache} */
+    private static boolean isCacheable(Object subject) {
+        if (!(subject instanceof Declaration)) return false;
+        Declaration declaration = (Declaration)subject;
+        return declaration.comments().isEmpty() && declaration.orphanedComments().isEmpty();
+    }
+
+    /** makes the prefixed copies of a detached copy of the subject, without broadcasting any of them */
+    private ImmutableList<Declaration> expand(G subject, Set<Prefix> required, SupportMatrix support) {
+        Declaration scratch = ((Declaration)subject).copy();
+        new Rule().declarations().append(scratch);
+
+        for (Prefix prefix : required) {
+            copy(cast(scratch), prefix, support);
+        }
+
+        ImmutableList.Builder<Declaration> builder = ImmutableList.builder();
+        for (Declaration declaration : scratch.group()) {
+            if (declaration == scratch) break;
+            builder.add(declaration);
+        }
+        return builder.build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private G cast(Declaration declaration) {
+        return (G)declaration; // only used when G is Declaration, see isCacheable
+    }
+
     /** should return false if the instance should be skipped */
     protected abstract boolean applicable(T instance, SupportMatrix support);
 
@@ -95,8 +234,11 @@ abstract class AbstractHandler<T, G extends Groupable<?, G>> implements Handler<
     /** should return the set of required {@link Prefix}es for the given instance */
     protected abstract Set<Prefix> required(T instance, SupportMatrix support);
 
-    /** should return the set of related objects that may be existing prefixed equivalents for rearrangement or removal */
-    protected abstract Multimap<Prefix, ? extends G> equivalents(T instance);
+    /**
+     * should return the set of related objects that may be existing prefixed equivalents for rearrangement or removal. The index
+     * can be used when the equivalents are declarations (see {@link EquivalentsIndex#prefixes}).
+     */
+    protected abstract Multimap<Prefix, ? extends G> equivalents(T instance, EquivalentsIndex index);
 
     /** should make (and prepends) a copy of the instance with the given prefix */
     protected abstract void copy(G original, Prefix prefix, SupportMatrix support);
@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2015, salesforce.com, inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of salesforce.com, inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.salesforce.omakase.plugin.prefixer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.LinkedListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Multimap;
+import com.salesforce.omakase.ast.Named;
+import com.salesforce.omakase.ast.Syntax;
+import com.salesforce.omakase.ast.collection.Groupable;
+import com.salesforce.omakase.ast.collection.SyntaxCollection;
+import com.salesforce.omakase.ast.declaration.Declaration;
+import com.salesforce.omakase.data.Prefix;
+import com.salesforce.omakase.util.As;
+import com.salesforce.omakase.util.Equivalents;
+import com.salesforce.omakase.util.Prefixes;
+
+/**
+ * An index of the declarations within a single rule (or other declaration block), by unprefixed property name.
+ * <p>
+ * {@link Equivalents#prefixes(Object, Named, Equivalents.EquivalentWalker)} walks every other declaration in the block to find
+ * the prefixed equivalents, which makes prefixing a block quadratic in the number of declarations. This index is built once per
+ * block and is then kept up to date as the {@link Prefixer} inserts, moves and removes declarations, so that the lookup only has
+ * to consider the declarations with the relevant property names.
+ * <p>
+ * Each declaration is also assigned a sparse position so that the found equivalents are returned in the same order as the peer
+ * walk would return them (nearest previous first, followed by the next ones in order). Changes to the block that weren't made
+ * through the prefixer (including renamed declarations) are detected by a change to the {@link Syntax#revision()} of the rule,
+ * in which case the index is rebuilt. Small blocks aren't indexed at all.
+ * <p>
+ * Only the most recently used block is indexed, as the declarations of a block are processed together.
+ *
+ * @author nmcwilliams
+ */
+final class EquivalentsIndex {
+    /** blocks smaller than this are walked directly, as that's cheaper than building the index */
+    private static final int MIN_SIZE = 16;
+
+    /** distance between the positions of adjacent declarations when (re)building */
+    private static final long SPACING = 1L << 32;
+
+    private SyntaxCollection<?, Declaration> block;
+    private final ListMultimap<String, Declaration> byName = ArrayListMultimap.create();
+    private final Map<Declaration, Long> positions = new IdentityHashMap<>();
+    private int revision;
+
+    /**
+     * Finds all declarations within the same block as the subject that are prefixed equivalents. This returns the same results
+     * as {@link Equivalents#prefixes(Object, Named, Equivalents.EquivalentWalker)}.
+     *
+     * @param subject
+     *     The unprefixed declaration.
+     * @param unprefixed
+     *     The unprefixed unit.
+     * @param walker
+     *     Determines the property names to look at and whether a declaration is a match.
+     * @param <N>
+     *     Type of the unprefixed unit.
+     *
+     * @return All found prefixed equivalents, or an empty immutable multimap if none are found.
+     */
+    <N extends Named> Multimap<Prefix, Declaration> prefixes(Declaration subject, N unprefixed,
+        Equivalents.DeclarationBase<N> walker) {
+        SyntaxCollection<?, Declaration> group = subject.group();
+        if (group == null || group.size() < MIN_SIZE) return Equivalents.prefixes(subject, unprefixed, walker);
+
+        if (group != block || revision != revision(group)) {
+            rebuild(group);
+        }
+
+        long position = positions.get(subject);
+        List<Declaration> before = null;
+        List<Declaration> after = null;
+
+        for (String name : walker.properties(unprefixed)) {
+            for (Declaration peer : byName.get(name)) {
+                if (peer == subject || peer.group() != group || walker.locate(peer, unprefixed) == null) continue;
+
+                if (positions.get(peer) < position) {
+                    if (before == null) before = new ArrayList<>(4);
+                    before.add(peer);
+                } else {
+                    if (after == null) after = new ArrayList<>(4);
+                    after.add(peer);
+                }
+            }
+        }
+
+        if (before == null && after == null) return ImmutableMultimap.of();
+
+        // match the peer walk order, nearest previous first then the following ones in order
+        Multimap<Prefix, Declaration> multimap = LinkedListMultimap.create();
+        if (before != null) {
+            before.sort((a, b) -> Long.compare(positions.get(b), positions.get(a)));
+            for (Declaration peer : before) {
+                multimap.put(Prefixes.parsePrefix(walker.locate(peer, unprefixed).name()).get(), peer);
+            }
+        }
+        if (after != null) {
+            after.sort((a, b) -> Long.compare(positions.get(a), positions.get(b)));
+            for (Declaration peer : after) {
+                multimap.put(Prefixes.parsePrefix(walker.locate(peer, unprefixed).name()).get(), peer);
+            }
+        }
+        return multimap;
+    }
+
+    /**
+     * Records the changes made around the given subject. Prefixed copies are always inserted directly before the subject, and
+     * rearranged equivalents are always moved directly before the subject.
+     *
+     * @param subject
+     *     The unit that was handled.
+     * @param moved
+     *     The units that were moved before the subject.
+     * @param removed
+     *     The units that were removed.
+     * @param <G>
+     *     Type of the units.
+     */
+    <G extends Groupable<?, G>> void update(G subject, Collection<? extends G> moved, Collection<? extends G> removed) {
+        if (block == null || subject.group() != block) return;
+
+        // removed declarations are left in the index, they are skipped during lookups
+        Declaration anchor = (Declaration)subject;
+
+        // find the run of new or moved declarations directly before the subject
+        List<Declaration> run = new ArrayList<>();
+        Optional<Declaration> previous = anchor.previous();
+        while (previous.isPresent() && (!positions.containsKey(previous.get()) || moved.contains(previous.get()))) {
+            run.add(0, previous.get());
+            previous = previous.get().previous();
+        }
+
+        // the subject itself may be new too (e.g., a copy that is being handled as it is inserted)
+        Long upper = positions.get(anchor);
+        if (upper == null) {
+            run.add(anchor);
+            Optional<Declaration> next = anchor.next();
+            upper = next.isPresent() ? positions.get(next.get()) : null;
+        }
+
+        if (run.isEmpty()) {
+            revision = revision(block);
+            return;
+        }
+
+        long lower = previous.isPresent() ? positions.get(previous.get()) : 0;
+        if (upper == null) upper = lower + SPACING * (run.size() + 1);
+
+        long step = (upper - lower) / (run.size() + 1);
+        if (step < 1) {
+            rebuild(block);
+            return;
+        }
+
+        long position = lower;
+        for (Declaration declaration : run) {
+            position += step;
+            if (positions.put(declaration, position) == null) {
+                byName.put(declaration.propertyName().unprefixed(), declaration);
+            }
+        }
+        revision = revision(block);
+    }
+
+    private void rebuild(SyntaxCollection<?, Declaration> group) {
+        block = group;
+        byName.clear();
+        positions.clear();
+
+        long position = 0;
+        for (Declaration declaration : group) {
+            position += SPACING;
+            positions.put(declaration, position);
+            byName.put(declaration.propertyName().unprefixed(), declaration);
+        }
+        revision = revision(group);
+    }
+
+    /**
+     * gets the revision of the rule that owns the block, which changes whenever a declaration within it is added, removed or
+     * modified (see {@link Syntax#revision()}). Falls back to the size for blocks that aren't owned by a syntax unit
+     */
+    private static int revision(SyntaxCollection<?, Declaration> group) {
+        Object parent = group.parent();
+        return parent instanceof Syntax ? ((Syntax)parent).revision() : group.size();
+    }
+
+    @Override
+    public String toString() {
+        return As.string(this).add("revision", revision).add("names", byName.keySet()).toString();
+    }
+}
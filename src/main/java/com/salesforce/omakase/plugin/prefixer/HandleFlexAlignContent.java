@@ -28,6 +28,7 @@ package com.salesforce.omakase.plugin.prefixer;
 
 import java.util.Optional;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Multimap;
 import com.salesforce.omakase.ast.declaration.Declaration;
 import com.salesforce.omakase.ast.declaration.KeywordValue;
@@ -53,8 +54,8 @@ final class HandleFlexAlignContent extends HandleProperty {
     }
 
     @Override
-    protected Multimap<Prefix, Declaration> equivalents(final Declaration instance) {
-        Equivalents.EquivalentWalker<Declaration, Declaration> walker = new Equivalents.Base<Declaration, Declaration>() {
+    protected Multimap<Prefix, Declaration> equivalents(final Declaration instance, EquivalentsIndex index) {
+        Equivalents.DeclarationBase<Declaration> walker = new Equivalents.DeclarationBase<Declaration>() {
             @Override
             public Declaration locate(Declaration peer, Declaration unprefixed) {
                 if (peer.isPrefixed() && (peer.isPropertyIgnorePrefix(Property.ALIGN_CONTENT) ||
@@ -63,8 +64,13 @@ final class HandleFlexAlignContent extends HandleProperty {
                 }
                 return null;
             }
+
+            @Override
+            public Iterable<String> properties(Declaration unprefixed) {
+                return ImmutableList.of(Property.ALIGN_CONTENT.toString(), "flex-line-pack");
+            }
         };
-        return Equivalents.prefixes(subject(instance), instance, walker);
+        return index.prefixes(subject(instance), instance, walker);
     }
 
     @Override
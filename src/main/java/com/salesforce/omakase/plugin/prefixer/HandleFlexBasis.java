@@ -26,6 +26,7 @@
 
 package com.salesforce.omakase.plugin.prefixer;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Multimap;
 import com.salesforce.omakase.ast.declaration.Declaration;
 import com.salesforce.omakase.ast.declaration.PropertyName;
@@ -48,8 +49,8 @@ final class HandleFlexBasis extends HandleProperty {
     }
 
     @Override
-    protected Multimap<Prefix, Declaration> equivalents(final Declaration instance) {
-        Equivalents.EquivalentWalker<Declaration, Declaration> walker = new Equivalents.Base<Declaration, Declaration>() {
+    protected Multimap<Prefix, Declaration> equivalents(final Declaration instance, EquivalentsIndex index) {
+        Equivalents.DeclarationBase<Declaration> walker = new Equivalents.DeclarationBase<Declaration>() {
             @Override
             public Declaration locate(Declaration peer, Declaration unprefixed) {
                 if (peer.isPrefixed() && (peer.isPropertyIgnorePrefix(Property.FLEX_BASIS) ||
@@ -58,8 +59,13 @@ final class HandleFlexBasis extends HandleProperty {
                 }
                 return null;
             }
+
+            @Override
+            public Iterable<String> properties(Declaration unprefixed) {
+                return ImmutableList.of(Property.FLEX_BASIS.toString(), "flex-preferred-size");
+            }
         };
-        return Equivalents.prefixes(subject(instance), instance, walker);
+        return index.prefixes(subject(instance), instance, walker);
     }
 
     @Override
@@ -30,6 +30,7 @@ import java.util.EnumSet;
 import java.util.Optional;
 import java.util.Set;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Multimap;
 import com.salesforce.omakase.ast.declaration.Declaration;
 import com.salesforce.omakase.ast.declaration.KeywordValue;
@@ -68,8 +69,8 @@ final class HandleFlexDirection extends AbstractHandler<Declaration, Declaration
     }
 
     @Override
-    protected Multimap<Prefix, ? extends Declaration> equivalents(Declaration instance) {
-        Equivalents.EquivalentWalker<Declaration, Declaration> walker = new Equivalents.Base<Declaration, Declaration>() {
+    protected Multimap<Prefix, ? extends Declaration> equivalents(Declaration instance, EquivalentsIndex index) {
+        Equivalents.DeclarationBase<Declaration> walker = new Equivalents.DeclarationBase<Declaration>() {
             @Override
             public Declaration locate(Declaration peer, Declaration unprefixed) {
                 if (peer.isPrefixed() && (peer.isPropertyIgnorePrefix(Property.FLEX_DIRECTION) ||
@@ -79,8 +80,13 @@ final class HandleFlexDirection extends AbstractHandler<Declaration, Declaration
                 }
                 return null;
             }
+
+            @Override
+            public Iterable<String> properties(Declaration unprefixed) {
+                return ImmutableList.of(Property.FLEX_DIRECTION.toString(), "box-direction", "box-orient");
+            }
         };
-        return Equivalents.prefixes(subject(instance), instance, walker);
+        return index.prefixes(subject(instance), instance, walker);
     }
 
     @Override
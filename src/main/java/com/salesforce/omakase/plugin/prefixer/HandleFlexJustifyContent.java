@@ -29,6 +29,7 @@ package com.salesforce.omakase.plugin.prefixer;
 import java.util.Optional;
 import java.util.Set;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Multimap;
 import com.salesforce.omakase.ast.declaration.Declaration;
 import com.salesforce.omakase.ast.declaration.KeywordValue;
@@ -64,8 +65,8 @@ final class HandleFlexJustifyContent extends AbstractHandler<Declaration, Declar
     }
 
     @Override
-    protected Multimap<Prefix, ? extends Declaration> equivalents(Declaration instance) {
-        Equivalents.EquivalentWalker<Declaration, Declaration> walker = new Equivalents.Base<Declaration, Declaration>() {
+    protected Multimap<Prefix, ? extends Declaration> equivalents(Declaration instance, EquivalentsIndex index) {
+        Equivalents.DeclarationBase<Declaration> walker = new Equivalents.DeclarationBase<Declaration>() {
             @Override
             public Declaration locate(Declaration peer, Declaration unprefixed) {
                 if (peer.isPrefixed() && (peer.isPropertyIgnorePrefix(Property.JUSTIFY_CONTENT) ||
@@ -75,8 +76,13 @@ final class HandleFlexJustifyContent extends AbstractHandler<Declaration, Declar
                 }
                 return null;
             }
+
+            @Override
+            public Iterable<String> properties(Declaration unprefixed) {
+                return ImmutableList.of(Property.JUSTIFY_CONTENT.toString(), "box-pack", "flex-pack");
+            }
         };
-        return Equivalents.prefixes(subject(instance), instance, walker);
+        return index.prefixes(subject(instance), instance, walker);
     }
 
     @Override
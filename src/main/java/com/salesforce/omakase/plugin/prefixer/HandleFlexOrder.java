@@ -29,6 +29,7 @@ package com.salesforce.omakase.plugin.prefixer;
 import java.util.Optional;
 import java.util.Set;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Multimap;
 import com.salesforce.omakase.ast.declaration.Declaration;
 import com.salesforce.omakase.ast.declaration.NumericalValue;
@@ -63,8 +64,8 @@ final class HandleFlexOrder extends AbstractHandler<Declaration, Declaration> {
     }
 
     @Override
-    protected Multimap<Prefix, ? extends Declaration> equivalents(final Declaration instance) {
-        Equivalents.EquivalentWalker<Declaration, Declaration> walker = new Equivalents.Base<Declaration, Declaration>() {
+    protected Multimap<Prefix, ? extends Declaration> equivalents(final Declaration instance, EquivalentsIndex index) {
+        Equivalents.DeclarationBase<Declaration> walker = new Equivalents.DeclarationBase<Declaration>() {
             @Override
             public Declaration locate(Declaration peer, Declaration unprefixed) {
                 if (peer.isPrefixed() && (peer.isPropertyIgnorePrefix(Property.ORDER) ||
@@ -74,8 +75,13 @@ final class HandleFlexOrder extends AbstractHandler<Declaration, Declaration> {
                 }
                 return null;
             }
+
+            @Override
+            public Iterable<String> properties(Declaration unprefixed) {
+                return ImmutableList.of(Property.ORDER.toString(), "flex-order", "box-ordinal-group");
+            }
         };
-        return Equivalents.prefixes(subject(instance), instance, walker);
+        return index.prefixes(subject(instance), instance, walker);
     }
 
     @Override
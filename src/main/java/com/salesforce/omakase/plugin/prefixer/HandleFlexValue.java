@@ -29,6 +29,7 @@ package com.salesforce.omakase.plugin.prefixer;
 import java.util.Optional;
 import java.util.Set;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Multimap;
 import com.salesforce.omakase.ast.declaration.Declaration;
 import com.salesforce.omakase.ast.declaration.KeywordValue;
@@ -80,9 +81,9 @@ final class HandleFlexValue extends AbstractHandler<KeywordValue, Declaration> {
     }
 
     @Override
-    protected Multimap<Prefix, ? extends Declaration> equivalents(KeywordValue instance) {
+    protected Multimap<Prefix, ? extends Declaration> equivalents(KeywordValue instance, EquivalentsIndex index) {
         // find all of the variants that are equivalent
-        Equivalents.EquivalentWalker<Declaration, KeywordValue> walker = new Equivalents.Base<Declaration, KeywordValue>() {
+        Equivalents.DeclarationBase<KeywordValue> walker = new Equivalents.DeclarationBase<KeywordValue>() {
             @Override
             public KeywordValue locate(Declaration peer, KeywordValue unprefixed) {
                 if (!peer.isProperty(Property.DISPLAY)) return null;
@@ -105,9 +106,14 @@ final class HandleFlexValue extends AbstractHandler<KeywordValue, Declaration> {
                 }
                 return null;
             }
+
+            @Override
+            public Iterable<String> properties(KeywordValue unprefixed) {
+                return ImmutableList.of(Property.DISPLAY.toString());
+            }
         };
 
-        return Equivalents.prefixes(subject(instance), instance, walker);
+        return index.prefixes(subject(instance), instance, walker);
     }
 
     @Override
@@ -82,8 +82,8 @@ final class HandleFunction extends AbstractHandlerSimple<FunctionValue, Declarat
     }
 
     @Override
-    protected Multimap<Prefix, Declaration> equivalents(FunctionValue instance) {
-        return Equivalents.prefixes(subject(instance), instance, Equivalents.FUNCTION_VALUES);
+    protected Multimap<Prefix, Declaration> equivalents(FunctionValue instance, EquivalentsIndex index) {
+        return index.prefixes(subject(instance), instance, Equivalents.FUNCTION_VALUES);
     }
 
 //    @Override
@@ -60,8 +60,8 @@ class HandleProperty extends AbstractHandlerSimple<Declaration, Declaration> {
     }
 
     @Override
-    protected Multimap<Prefix, Declaration> equivalents(Declaration instance) {
-        return Equivalents.prefixes(subject(instance), instance, Equivalents.PROPERTIES);
+    protected Multimap<Prefix, Declaration> equivalents(Declaration instance, EquivalentsIndex index) {
+        return index.prefixes(subject(instance), instance, Equivalents.PROPERTIES);
     }
 
     @Override
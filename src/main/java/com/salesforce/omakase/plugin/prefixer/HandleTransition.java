@@ -29,6 +29,7 @@ package com.salesforce.omakase.plugin.prefixer;
 import java.util.EnumSet;
 import java.util.Optional;
 
+import com.google.common.collect.ImmutableList;
 import com.salesforce.omakase.ast.declaration.Declaration;
 import com.salesforce.omakase.ast.declaration.KeywordValue;
 import com.salesforce.omakase.data.Prefix;
@@ -49,12 +50,14 @@ import com.salesforce.omakase.util.Values;
  */
 final class HandleTransition extends HandleProperty {
     @Override
-    public boolean handle(Declaration instance, boolean rearrange, boolean prune, SupportMatrix support) {
+    public boolean handle(Declaration instance, boolean rearrange, boolean prune, SupportMatrix support,
+        EquivalentsIndex index, PrefixCache cache, PrefixTargets targets) {
         if (applicable(instance, support)) {
-            boolean handled = super.handle(instance, rearrange, prune, support);
+            boolean handled = super.handle(instance, rearrange, prune, support, index, cache, targets);
             if (!handled) {
                 // the "transition" property may not need a prefix, but one of the values still might
-                prefixValues(instance, support);
+                prefixValues(instance, support, targets);
+                index.update(instance, ImmutableList.of(), ImmutableList.of());
             }
             return true;
         }
@@ -102,9 +105,27 @@ final class HandleTransition extends HandleProperty {
      *     The declaration.
      * @param support
      *     The support matrix.
+     * @param targets
+     *     Records which targets need each prefixed copy, or null.
      */
-    private void prefixValues(Declaration instance, SupportMatrix support) {
+    private void prefixValues(Declaration instance, SupportMatrix support, PrefixTargets targets) {
         // find all necessary prefixes
+        EnumSet<Prefix> prefixes = valuePrefixes(instance, support);
+
+        // add a prefixed copy for each required prefix
+        for (Prefix prefix : prefixes) {
+            Declaration copy = instance.copy();
+            prefixValues(copy, prefix, support);
+            if (targets != null) {
+                int mask = targets.matching(target -> valuePrefixes(instance, target).contains(prefix));
+                targets.tag(copy, mask & targets.mask(instance));
+            }
+            instance.prepend(copy);
+        }
+    }
+
+    /** gets the prefixes required for property names in the declaration value */
+    private static EnumSet<Prefix> valuePrefixes(Declaration instance, SupportMatrix support) {
         EnumSet<Prefix> prefixes = EnumSet.noneOf(Prefix.class);
         for (KeywordValue kw : Values.filter(KeywordValue.class, instance.propertyValue())) {
             // check if the keyword is a property
@@ -113,13 +134,7 @@ final class HandleTransition extends HandleProperty {
                 prefixes.addAll(support.prefixesForProperty(keywordAsProperty));
             }
         }
-
-        // add a prefixed copy for each required prefix
-        for (Prefix prefix : prefixes) {
-            Declaration copy = instance.copy();
-            prefixValues(copy, prefix, support);
-            instance.prepend(copy);
-        }
+        return prefixes;
     }
 }
 
@@ -48,8 +48,15 @@ interface Handler<T> {
      *     If true, existing prefixes may be removed.
      * @param support
      *     Browser support data.
+     * @param index
+     *     Index of the declarations within the current block, for finding prefixed equivalents.
+     * @param cache
+     *     Stores prefixed copies of declarations for reuse, or null if not enabled.
+     * @param targets
+     *     Records which targets need each prefixed copy, or null if not writing multiple targets.
      *
      * @return True if the object was "handled" and should not be passed on to another handler.
      */
-    boolean handle(T instance, boolean rearrange, boolean prune, SupportMatrix support);
+    boolean handle(T instance, boolean rearrange, boolean prune, SupportMatrix support, EquivalentsIndex index,
+        PrefixCache cache, PrefixTargets targets);
 }
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2015, salesforce.com, inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of salesforce.com, inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.salesforce.omakase.plugin.prefixer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.salesforce.omakase.ast.declaration.Declaration;
+import com.salesforce.omakase.util.As;
+import com.salesforce.omakase.util.SupportMatrix;
+import com.salesforce.omakase.writer.StyleWriter;
+import com.salesforce.omakase.writer.Writable;
+
+/**
+ * Stores the prefixed copies that the {@link Prefixer} adds for a declaration, so that the same declaration in another rule or
+ * another source only needs to copy the stored declarations instead of working out the prefixed copies again.
+ * <p>
+ * To use, give an instance to one or more {@link Prefixer}s with {@link Prefixer#cache(PrefixCache)}. The {@link Prefixer} must
+ * be using a {@link SupportMatrix#compile() compiled} {@link SupportMatrix}, as the stored copies are kept separately for each
+ * compiled support matrix instance. The same compiled instance should be shared between the prefixers for the cache to be
+ * effective.
+ * <p>
+ * Only declarations without comments and without any existing prefixed equivalents in the same rule are stored, as in those
+ * cases the prefixed copies depend on the declaration content alone.
+ * <p>
+ * The number of stored declarations is bounded by the maximum size given to the constructor. This class is thread-safe.
+ *
+ * @author nmcwilliams
+ */
+public final class PrefixCache {
+    private static final long DEFAULT_MAXIMUM_SIZE = 5000;
+
+    /* inline output keeps the declaration as-is, e.g., units and color notation are not changed like in compressed output */
+    private static final ThreadLocal<StyleWriter> WRITER = ThreadLocal.withInitial(StyleWriter::inline);
+
+    private final Cache<Key, ImmutableList<Declaration>> expansions;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates a new {@link PrefixCache} that stores up to 5000 declarations.
+     */
+    public PrefixCache() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Creates a new {@link PrefixCache} that stores up to the given number of declarations. When full, the least recently used
+     * declarations are evicted.
+     *
+     * @param maximumSize
+     *     The maximum number of declarations to store.
+     */
+    public PrefixCache(long maximumSize) {
+        checkArgument(maximumSize > 0, "maximumSize must be greater than 0");
+        this.expansions = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+    }
+
+    /**
+     * Gets the stored prefixed copies for the given declaration, or creates and stores them if not present.
+     * <p>
+     * The returned declarations are shared and must not be modified or added to a syntax tree. Add copies of them instead.
+     *
+     * @param support
+     *     The compiled support matrix.
+     * @param handler
+     *     The handler creating the prefixed copies.
+     * @param declaration
+     *     The unprefixed declaration.
+     * @param instance
+     *     The prefixable unit within the declaration (e.g., a function), or the declaration itself.
+     * @param loader
+     *     Creates the prefixed copies when not already present.
+     *
+     * @return The prefixed copies, in order.
+     */
+    ImmutableList<Declaration> get(SupportMatrix support, Handler<?> handler, Declaration declaration, Object instance,
+        Callable<ImmutableList<Declaration>> loader) {
+        StyleWriter writer = WRITER.get();
+        String text = writer.writeSingle(declaration);
+        if (instance != declaration && instance instanceof Writable) {
+            text = text + '\n' + writer.writeSingle((Writable)instance);
+        }
+
+        Key key = new Key(support, handler, text);
+
+        ImmutableList<Declaration> expansion = expansions.getIfPresent(key);
+        if (expansion != null) {
+            hits.increment();
+            return expansion;
+        }
+
+        misses.increment();
+        try {
+            return expansions.get(key, loader);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("unable to create prefixed copies", e.getCause());
+        }
+    }
+
+    /**
+     * Gets the number of stored declarations.
+     *
+     * @return The number of declarations.
+     */
+    public long size() {
+        return expansions.size();
+    }
+
+    /**
+     * Gets the number of times stored prefixed copies were reused.
+     *
+     * @return The number of hits.
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of times prefixed copies weren't present and had to be created.
+     *
+     * @return The number of misses.
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Removes all stored declarations and resets the hit and miss counts.
+     *
+     * @return this, for chaining.
+     */
+    public PrefixCache clear() {
+        expansions.invalidateAll();
+        hits.reset();
+        misses.reset();
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return As.string(this).add("size", size()).add("hits", hits()).add("misses", misses()).toString();
+    }
+
+    /** compiled support matrices are immutable, so the identity is enough */
+    private static final class Key {
+        private final SupportMatrix support;
+        private final Handler<?> handler;
+        private final String text;
+
+        Key(SupportMatrix support, Handler<?> handler, String text) {
+            this.support = support;
+            this.handler = handler;
+            this.text = text;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof Key)) return false;
+            Key other = (Key)obj;
+            return support == other.support && handler == other.handler && text.equals(other.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(support), System.identityHashCode(handler), text);
+        }
+    }
+}
@@ -23,18 +23,38 @@
  * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
  * POSSIBILITY OF SUCH DAMAGE.
  */
-
 package com.salesforce.omakase.plugin.prefixer;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.salesforce.omakase.ast.Rule;
 import com.salesforce.omakase.ast.atrule.AtRule;
 import com.salesforce.omakase.ast.declaration.Declaration;
+import com.salesforce.omakase.ast.declaration.FunctionValue;
+import com.salesforce.omakase.ast.declaration.KeywordValue;
+import com.salesforce.omakase.ast.declaration.PropertyValue;
+import com.salesforce.omakase.ast.selector.PseudoClassSelector;
+import com.salesforce.omakase.ast.selector.PseudoElementSelector;
+import com.salesforce.omakase.ast.selector.Selector;
+import com.salesforce.omakase.ast.selector.SelectorPart;
 import com.salesforce.omakase.broadcast.annotation.Rework;
+import com.salesforce.omakase.data.Keyword;
 import com.salesforce.omakase.data.Prefix;
+import com.salesforce.omakase.data.PrefixTablesUtil;
+import com.salesforce.omakase.data.Property;
+import com.salesforce.omakase.parser.token.Tokens;
 import com.salesforce.omakase.plugin.Plugin;
 import com.salesforce.omakase.util.Declarations;
 import com.salesforce.omakase.util.Prefixes;
+import com.salesforce.omakase.util.SupportMatrix;
+import com.salesforce.omakase.util.Values;
 
 /**
  * This plugin handles removing unnecessary prefixed units.
@@ -70,12 +90,62 @@ import com.salesforce.omakase.util.Prefixes;
  * </code></pre>
  * You can also specify the only prefix you want to keep with the {@link #keep(Prefix)} method, and all other prefixed selectors,
  * at-rules, declarations, etc... that don't match will be removed. This can be useful if you are generating browser-specific
- * versions of your CSS. <b>Not yet supported!</b>
+ * versions of your CSS.
+ * <p>
+ * Finally, the {@link #unneededPrefixes(SupportMatrix)} method (or the {@link #unneededPrefixedUnits(SupportMatrix)} constructor
+ * method) removes every prefixed declaration, keyword, function, pseudo selector and at-rule that isn't required by any of the
+ * browser versions in the given {@link SupportMatrix}, whether or not an unprefixed equivalent is present. This is useful for
+ * stripping legacy prefixes from a stylesheet that only targets recent browsers. Unlike {@link Prefixer#prune(boolean)}, this
+ * works on the raw names, so the declarations and selectors do not need to be refined. Prefixed names that aren't in the prefix
+ * data (e.g., {@code -webkit-font-smoothing}) are always kept, except for the legacy flexbox properties, which are removed when
+ * none of the supported browsers use the 2009 or 2011 flexbox spec and the rule has a standard equivalent (e.g., {@code
+ * -webkit-box-pack} with {@code justify-content}). The {@code -webkit-line-clamp} idiom ({@code display:-webkit-box} and {@code
+ * -webkit-box-orient}) is always kept, as current browsers still need it. A declaration with an unneeded prefixed keyword or
+ * function in its value is only removed when a later declaration for the same property (without any unneeded prefixes) follows
+ * it, as the value can have other parts that are still needed, e.g., {@code
+ * background:-webkit-linear-gradient(red,blue),url(x.png)}.
+ * <pre><code>
+ * Omakase.source(input)
+ *      .use(PrefixCleaner.unneededPrefixedUnits(new SupportMatrix().latest(Browser.CHROME).latest(Browser.FIREFOX)))
+ *      .process()
+ * </code></pre>
  *
  * @author nmcwilliams
  */
 public final class PrefixCleaner implements Plugin {
+    /** legacy flexbox property names (2009 and 2011 specs) that aren't in the prefix data, with their standard equivalents */
+    private static final ImmutableSetMultimap<String, String> LEGACY_FLEX_PROPERTIES = ImmutableSetMultimap
+        .<String, String>builder()
+        .put("box-align", "align-items")
+        .putAll("box-direction", "flex-direction", "flex-flow")
+        .putAll("box-flex", "flex", "flex-grow")
+        .put("box-flex-group", "flex")
+        .putAll("box-lines", "flex-wrap", "flex-flow")
+        .put("box-ordinal-group", "order")
+        .putAll("box-orient", "flex-direction", "flex-flow")
+        .put("box-pack", "justify-content")
+        .put("flex-align", "align-items")
+        .put("flex-item-align", "align-self")
+        .put("flex-line-pack", "align-content")
+        .putAll("flex-negative", "flex", "flex-shrink")
+        .put("flex-order", "order")
+        .put("flex-pack", "justify-content")
+        .putAll("flex-positive", "flex", "flex-grow")
+        .putAll("flex-preferred-size", "flex", "flex-basis")
+        .build();
+
+    /** legacy flexbox keywords (2009 and 2011 specs) that aren't in the prefix data */
+    private static final Set<String> LEGACY_FLEX_KEYWORDS = ImmutableSet.of("box", "inline-box", "flexbox", "inline-flexbox");
+
+    /** legacy gradient functions with the same browser support as the unprefixed function in the prefix data */
+    private static final ImmutableMap<String, String> LEGACY_FUNCTIONS = ImmutableMap.of(
+        "gradient", "linear-gradient",
+        "radial-gradient", "linear-gradient",
+        "repeating-radial-gradient", "repeating-linear-gradient");
+
     private boolean prefixedAtRules;
+    private Prefix keep;
+    private SupportMatrix support;
 
     /**
      * Creates a new {@link PrefixCleaner} instance.
@@ -94,7 +164,7 @@ public final class PrefixCleaner implements Plugin {
     }
 
     /**
-     * NOT IMPLEMENTED: Removes all units with a prefix that doesn't match the given one.
+     * Removes all units with a prefix that doesn't match the given one.
      *
      * @param prefix
      *     Only keep units with this prefix.
@@ -102,9 +172,8 @@ public final class PrefixCleaner implements Plugin {
      * @return this, for chaining.
      */
     public PrefixCleaner keep(Prefix prefix) {
-        // this.keeper = checkNotNull(prefix, "prefix cannot be null");
-        //return this;
-        throw new UnsupportedOperationException("not yet supported");
+        this.keep = checkNotNull(prefix, "prefix cannot be null");
+        return this;
     }
 
     /**
@@ -118,6 +187,81 @@ public final class PrefixCleaner implements Plugin {
         return this;
     }
 
+    /**
+     * Removes all prefixed units that aren't required by any of the browser versions in the given {@link SupportMatrix}.
+     *
+     * @param support
+     *     The supported browser versions.
+     *
+     * @return this, for chaining.
+     */
+    public PrefixCleaner unneededPrefixes(SupportMatrix support) {
+        this.support = checkNotNull(support, "support cannot be null");
+        return this;
+    }
+
+    /**
+     * Subscription method - do not call directly.
+     *
+     * @param declaration
+     *     Check this declaration.
+     */
+    @Rework
+    public void declaration(Declaration declaration) {
+        if (keep == null && support == null) return;
+
+        String name = declaration.propertyName().name();
+        if (name.startsWith("--")) return; // custom property values could be used anywhere
+
+        Optional<Prefix> prefix = declaration.propertyName().prefix();
+        if (prefix.isPresent() && isUnneededProperty(prefix.get(), declaration.propertyName().unprefixed(), declaration)) {
+            declaration.destroy();
+        } else if (keep != null && isUnneededValue(declaration, true)) {
+            declaration.destroy();
+        } else if (support != null && isUnneededValue(declaration, false) && hasFallback(declaration)
+            && !isLineClamp(declaration)) {
+            declaration.destroy();
+        }
+    }
+
+    /**
+     * whether the declaration is part of the {@code -webkit-line-clamp} idiom, which still needs {@code display:-webkit-box} and
+     * {@code -webkit-box-orient} in current browsers
+     */
+    private static boolean isLineClamp(Declaration declaration) {
+        String name = declaration.propertyName().name();
+        if (!name.equalsIgnoreCase("display") && !name.equalsIgnoreCase("-webkit-box-orient")) return false;
+        return hasPeer(declaration, peer -> peer.equalsIgnoreCase("-webkit-line-clamp"));
+    }
+
+    /** whether another declaration in the same rule has a property name matching the predicate */
+    private static boolean hasPeer(Declaration declaration, Predicate<String> predicate) {
+        if (declaration.group() == null) return false;
+        for (Declaration peer : declaration.group()) {
+            if (peer != declaration && predicate.test(peer.propertyName().name())) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Subscription method - do not call directly.
+     *
+     * @param selector
+     *     Check this selector.
+     */
+    @Rework
+    public void selector(Selector selector) {
+        if (keep == null && support == null) return;
+
+        if (selector.isRefined() ? isUnneededSelector(selector) : isUnneededSelector(selector.raw().get().content())) {
+            Rule rule = selector.parent();
+            selector.destroy();
+            if (rule != null && rule.selectors().isEmpty()) {
+                rule.destroy();
+            }
+        }
+    }
+
     /**
      * Subscription method - do not call directly.
      *
@@ -126,6 +270,19 @@ public final class PrefixCleaner implements Plugin {
      */
     @Rework
     public void atRule(AtRule atRule) {
+        if ((keep != null || support != null) && atRule.name() != null) {
+            String name = atRule.name().toLowerCase();
+            Optional<Prefix> prefix = Prefixes.parsePrefix(name);
+            if (prefix.isPresent()) {
+                String unprefixed = unprefixed(name, prefix);
+                if (isUnneeded(prefix.get(), PrefixTablesUtil.isPrefixableAtRule(unprefixed),
+                    p -> support.requiresPrefixForAtRule(p, unprefixed))) {
+                    atRule.destroy();
+                    return;
+                }
+            }
+        }
+
         if (prefixedAtRules && atRule.isRefined() && atRule.name() != null && atRule.block().isPresent()) {
             Optional<Prefix> prefix = Prefixes.parsePrefix(atRule.name());
             if (prefix.isPresent()) {
@@ -139,6 +296,138 @@ public final class PrefixCleaner implements Plugin {
         }
     }
 
+    /**
+     * whether a later declaration for the same property can be used instead of the given one. A prefixed keyword or function is
+     * only one part of the value (e.g., one background layer), so the declaration is kept when nothing else would be left
+     */
+    private boolean hasFallback(Declaration declaration) {
+        String name = declaration.propertyName().name();
+        for (Optional<Declaration> next = declaration.next(); next.isPresent(); next = next.get().next()) {
+            if (next.get().propertyName().name().equalsIgnoreCase(name) && !isUnneededValue(next.get(), false)) return true;
+        }
+        return false;
+    }
+
+    /** whether the given declaration has an unneeded (or only a mismatched) prefixed keyword or function */
+    private boolean isUnneededValue(Declaration declaration, boolean mismatched) {
+        if (declaration.isRefined()) return isUnneededValue(declaration.propertyValue(), mismatched);
+        return isUnneededValue(declaration.rawPropertyValue().get().content(), mismatched);
+    }
+
+    /** whether the given refined value has an unneeded prefixed keyword or function */
+    private boolean isUnneededValue(PropertyValue value, boolean mismatched) {
+        for (KeywordValue keyword : Values.filter(KeywordValue.class, value)) {
+            if (isUnneededName(keyword.keyword(), false, mismatched)) return true;
+        }
+        for (FunctionValue function : Values.filter(FunctionValue.class, value)) {
+            if (isUnneededName(function.name(), true, mismatched)) return true;
+        }
+        return false;
+    }
+
+    /** whether the given raw declaration value has an unneeded prefixed keyword or function (skipping strings and urls) */
+    private boolean isUnneededValue(String value, boolean mismatched) {
+        return Values.anyRawName(value, (name, function) -> isUnneededName(name, function, mismatched));
+    }
+
+    /** whether the given keyword or function name is prefixed and unneeded (or only whether it doesn't match the kept prefix) */
+    private boolean isUnneededName(String name, boolean function, boolean mismatched) {
+        if (!PrefixTriage.isVendorPrefixed(name)) return false;
+
+        String lower = name.toLowerCase();
+        Optional<Prefix> prefix = Prefixes.parsePrefix(lower);
+        if (!prefix.isPresent()) return false;
+        if (mismatched) return prefix.get() != keep;
+
+        String unprefixed = unprefixed(lower, prefix);
+        return function ? isUnneededFunction(prefix.get(), unprefixed) : isUnneededKeyword(prefix.get(), unprefixed);
+    }
+
+    /** whether the given refined selector has an unneeded prefixed pseudo element or pseudo class */
+    private boolean isUnneededSelector(Selector selector) {
+        for (SelectorPart part : selector.parts()) {
+            if (part instanceof PseudoElementSelector && isUnneededPseudo(((PseudoElementSelector)part).name())) return true;
+            if (part instanceof PseudoClassSelector && isUnneededPseudo(((PseudoClassSelector)part).name())) return true;
+        }
+        return false;
+    }
+
+    /** whether the given raw selector has an unneeded prefixed pseudo element or pseudo class */
+    private boolean isUnneededSelector(String content) {
+        int colon = content.indexOf(':');
+
+        while (colon != -1) {
+            int start = colon + 1;
+            if (start < content.length() && content.charAt(start) == ':') start++;
+
+            int end = start;
+            while (end < content.length() && Tokens.NMCHAR.matches(content.charAt(end))) end++;
+
+            if (end > start && isUnneededPseudo(content.substring(start, end))) return true;
+            colon = content.indexOf(':', end);
+        }
+        return false;
+    }
+
+    private boolean isUnneededPseudo(String name) {
+        if (!PrefixTriage.isVendorPrefixed(name)) return false;
+
+        String lower = name.toLowerCase();
+        Optional<Prefix> prefix = Prefixes.parsePrefix(lower);
+        if (!prefix.isPresent()) return false;
+
+        // the webkit and ms placeholder selectors use a different name
+        String unprefixed = unprefixed(lower, prefix);
+        String selector = unprefixed.equals("input-placeholder") ? "placeholder" : unprefixed;
+
+        return isUnneeded(prefix.get(), PrefixTablesUtil.isPrefixableSelector(selector),
+            p -> support.requiresPrefixForSelector(p, selector));
+    }
+
+    private boolean isUnneededProperty(Prefix prefix, String unprefixed, Declaration declaration) {
+        Property property = Property.lookup(unprefixed);
+        if (property != null && PrefixTablesUtil.isPrefixableProperty(property)) {
+            return isUnneeded(prefix, true, p -> support.requiresPrefixForProperty(p, property));
+        }
+
+        // legacy flexbox properties are only removed when the rule has a standard equivalent to fall back on
+        Set<String> standard = LEGACY_FLEX_PROPERTIES.get(unprefixed);
+        boolean replaced = !standard.isEmpty() && !isLineClamp(declaration)
+            && hasPeer(declaration, peer -> standard.contains(peer.toLowerCase()));
+        return isUnneeded(prefix, replaced, this::isLegacyFlexRequired);
+    }
+
+    private boolean isUnneededKeyword(Prefix prefix, String unprefixed) {
+        Keyword keyword = Keyword.lookup(unprefixed);
+        if (keyword != null && PrefixTablesUtil.isPrefixableKeyword(keyword)) {
+            return isUnneeded(prefix, true, p -> support.requiresPrefixForKeyword(p, keyword));
+        }
+        return isUnneeded(prefix, LEGACY_FLEX_KEYWORDS.contains(unprefixed), this::isLegacyFlexRequired);
+    }
+
+    private boolean isUnneededFunction(Prefix prefix, String unprefixed) {
+        String function = LEGACY_FUNCTIONS.getOrDefault(unprefixed, unprefixed);
+        return isUnneeded(prefix, PrefixTablesUtil.isPrefixableFunction(function),
+            p -> support.requiresPrefixForFunction(p, function));
+    }
+
+    /**
+     * Whether a unit with the given prefix should be removed. When keeping a specific prefix any other prefix is removed.
+     * Otherwise the unit is only removed if it's known (in the prefix data) and the support matrix doesn't require the prefix.
+     */
+    private boolean isUnneeded(Prefix prefix, boolean known, Predicate<Prefix> required) {
+        if (keep != null && prefix != keep) return true;
+        return support != null && known && !required.test(prefix);
+    }
+
+    private boolean isLegacyFlexRequired(Prefix prefix) {
+        return PrefixBehaviors.FLEX_2009.matches(support, prefix) || PrefixBehaviors.FLEX_2011.matches(support, prefix);
+    }
+
+    private static String unprefixed(String name, Optional<Prefix> prefix) {
+        return name.substring(prefix.get().toString().length());
+    }
+
     /**
      * Creates a new {@link PrefixCleaner} that will eliminate prefixed declarations within prefixed at-rules, where the
      * declaration's prefix doesn't match the at-rule's prefix.
@@ -150,8 +439,7 @@ public final class PrefixCleaner implements Plugin {
     }
 
     /**
-     * NOT IMPLEMENTED: Creates a new {@link PrefixCleaner} that will eliminate all units with prefixes that do not match the
-     * given prefix.
+     * Creates a new {@link PrefixCleaner} that will eliminate all units with prefixes that do not match the given prefix.
      *
      * @param prefix
      *     Only keep units with this prefix.
@@ -161,4 +449,17 @@ public final class PrefixCleaner implements Plugin {
     public static PrefixCleaner onlyKeep(Prefix prefix) {
         return new PrefixCleaner(prefix);
     }
+
+    /**
+     * Creates a new {@link PrefixCleaner} that will eliminate all prefixed units that aren't required by any of the browser
+     * versions in the given {@link SupportMatrix}. See {@link #unneededPrefixes(SupportMatrix)}.
+     *
+     * @param support
+     *     The supported browser versions.
+     *
+     * @return The new {@link PrefixCleaner} instance.
+     */
+    public static PrefixCleaner unneededPrefixedUnits(SupportMatrix support) {
+        return new PrefixCleaner().unneededPrefixes(support);
+    }
 }
@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) 2015, salesforce.com, inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of salesforce.com, inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.salesforce.omakase.plugin.prefixer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Predicate;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.MapMaker;
+import com.salesforce.omakase.ast.Rule;
+import com.salesforce.omakase.ast.Syntax;
+import com.salesforce.omakase.ast.atrule.AtRule;
+import com.salesforce.omakase.ast.atrule.AtRuleBlock;
+import com.salesforce.omakase.ast.collection.SyntaxCollection;
+import com.salesforce.omakase.data.Browser;
+import com.salesforce.omakase.util.As;
+import com.salesforce.omakase.util.SupportMatrix;
+import com.salesforce.omakase.writer.StyleWriter;
+
+/**
+ * A set of named browser support targets (e.g., "modern" and "legacy"), for writing a separate output for each target from a
+ * single parse.
+ * <p>
+ * The {@link Prefixer} created by {@link Prefixer#multiTarget(PrefixTargets)} adds the prefixes required by any of the targets,
+ * and records on each prefixed copy the set of targets that actually need it. The {@link #write(StyleWriter)} method then writes
+ * one output per target, leaving out the prefixed copies that the target doesn't need. Parsing, refinement and all other plugins
+ * only run once.
+ * <p>
+ * Example:
+ * <pre><code>
+ * PrefixTargets targets = new PrefixTargets()
+ *     .target("modern", new SupportMatrix().latest(Browser.CHROME).latest(Browser.FIREFOX))
+ *     .target("legacy", new SupportMatrix().browser(Browser.IE, 11).last(Browser.IOS_SAFARI, 6));
+ *
+ * StyleWriter writer = StyleWriter.compressed();
+ * Omakase.source(input).use(Prefixer.multiTarget(targets)).use(writer).process();
+ *
+ * Map&lt;String, String&gt; outputs = targets.write(writer);
+ * </code></pre>
+ * <p>
+ * When {@link Prefixer#prune(boolean)} is enabled, existing prefixed equivalents that are kept are also recorded, so that each
+ * output only has the ones its target needs. Everything else, including prefixed units that were already in the source without
+ * an unprefixed equivalent, is written for every target.
+ * <p>
+ * Up to 32 targets can be added. The recorded targets are weakly held by the unit, so an instance can be reused for multiple
+ * sources.
+ *
+ * @author nmcwilliams
+ * @see Prefixer#multiTarget(PrefixTargets)
+ */
+public final class PrefixTargets {
+    private static final int MAX_TARGETS = 32;
+
+    private final Map<String, SupportMatrix> targets = new LinkedHashMap<>();
+    private final ConcurrentMap<Object, Integer> tags = new MapMaker().weakKeys().makeMap();
+    private List<SupportMatrix> matrices;
+    private SupportMatrix union;
+
+    /**
+     * Adds a target with the given name and supported browser versions.
+     * <p>
+     * Targets must be added before this instance is given to a {@link Prefixer}.
+     *
+     * @param name
+     *     Unique name of the target.
+     * @param support
+     *     The browser versions supported by the target.
+     *
+     * @return this, for chaining.
+     */
+    public PrefixTargets target(String name, SupportMatrix support) {
+        checkNotNull(name, "name cannot be null");
+        checkNotNull(support, "support cannot be null");
+        checkState(union == null, "targets cannot be added after this instance is given to a Prefixer");
+        checkArgument(!targets.containsKey(name), "target '%s' already exists", name);
+        checkArgument(targets.size() < MAX_TARGETS, "at most %s targets are allowed", MAX_TARGETS);
+        targets.put(name, support);
+        return this;
+    }
+
+    /**
+     * Gets the names of the targets, in the order they were added.
+     *
+     * @return The target names.
+     */
+    public Set<String> names() {
+        return ImmutableSet.copyOf(targets.keySet());
+    }
+
+    /**
+     * Gets the {@link SupportMatrix} of the target with the given name.
+     *
+     * @param name
+     *     Name of the target.
+     *
+     * @return The support matrix.
+     */
+    public SupportMatrix support(String name) {
+        SupportMatrix support = targets.get(name);
+        checkArgument(support != null, "unknown target '%s'", name);
+        return support;
+    }
+
+    /**
+     * Gets a {@link SupportMatrix} with the browser versions of all targets combined. After this is called no more targets can
+     * be added.
+     *
+     * @return The combined support matrix.
+     */
+    public SupportMatrix union() {
+        if (union == null) {
+            checkState(!targets.isEmpty(), "at least one target must be added");
+            SupportMatrix combined = new SupportMatrix();
+            for (SupportMatrix support : targets.values()) {
+                for (Browser browser : support.supportedBrowsers()) {
+                    for (Double version : support.allSupportedVersions(browser)) {
+                        combined.browser(browser, version);
+                    }
+                }
+            }
+            matrices = ImmutableList.copyOf(targets.values());
+            union = combined;
+        }
+        return union;
+    }
+
+    /**
+     * Gets whether the given unit should be written for the target with the given name. This is true unless the unit is a
+     * prefixed copy (or a kept prefixed equivalent) that the target doesn't need.
+     *
+     * @param unit
+     *     The unit.
+     * @param name
+     *     Name of the target.
+     *
+     * @return True if the unit is needed by the target.
+     */
+    public boolean isNeeded(Syntax unit, String name) {
+        return (mask(unit) & bit(name)) != 0;
+    }
+
+    /**
+     * Gets a filter for {@link StyleWriter#filter(Predicate)} that only accepts the units needed by the target with the given
+     * name.
+     *
+     * @param name
+     *     Name of the target.
+     *
+     * @return The filter.
+     */
+    public Predicate<Syntax> filter(String name) {
+        int bit = bit(name);
+        return unit -> (mask(unit) & bit) != 0;
+    }
+
+    /**
+     * Writes one output for each target using the given {@link StyleWriter}, which must have been used to process the source.
+     * Any filter on the writer is replaced while writing and cleared afterwards.
+     *
+     * @param writer
+     *     The writer.
+     *
+     * @return The output of each target, by target name, in the order the targets were added.
+     */
+    public Map<String, String> write(StyleWriter writer) {
+        Map<String, String> outputs = new LinkedHashMap<>();
+        try {
+            for (String name : targets.keySet()) {
+                outputs.put(name, writer.filter(filter(name)).write());
+            }
+        } finally {
+            writer.filter(null);
+        }
+        return outputs;
+    }
+
+    /** gets the bit mask of the targets for which the given support matrix predicate is true */
+    int matching(Predicate<SupportMatrix> predicate) {
+        union();
+        int mask = 0;
+        for (int i = 0; i < matrices.size(); i++) {
+            if (predicate.test(matrices.get(i))) mask |= 1 << i;
+        }
+        return mask;
+    }
+
+    /** gets the support matrix of the target with the given bit index */
+    SupportMatrix matrix(int index) {
+        union();
+        return matrices.get(index);
+    }
+
+    /** gets the bit mask of the targets needing the unit (all targets if not recorded) */
+    int mask(Object unit) {
+        Integer mask = tags.get(unit);
+        return mask != null ? mask : -1;
+    }
+
+    /** records that the unit is only needed by the targets in the mask (and by no more than previously recorded) */
+    void tag(Object unit, int mask) {
+        tags.merge(unit, mask, (existing, update) -> existing & update);
+    }
+
+    /** records the targets of the original unit and its inner declarations and statements on the (identical) copy */
+    void copyTags(Object original, Object copy) {
+        if (tags.isEmpty()) return;
+
+        Integer mask = tags.get(original);
+        if (mask != null) tag(copy, mask);
+
+        if (original instanceof Rule && copy instanceof Rule) {
+            copyTags(((Rule)original).declarations(), ((Rule)copy).declarations());
+        } else if (original instanceof AtRule && copy instanceof AtRule) {
+            Optional<AtRuleBlock> block = ((AtRule)original).block();
+            Optional<AtRuleBlock> copied = ((AtRule)copy).block();
+            if (block.isPresent() && copied.isPresent()) {
+                copyTags(block.get().statements(), copied.get().statements());
+            }
+        }
+    }
+
+    private void copyTags(SyntaxCollection<?, ?> originals, SyntaxCollection<?, ?> copies) {
+        if (originals.size() != copies.size()) return;
+        Iterator<?> iterator = copies.iterator();
+        for (Object original : originals) {
+            copyTags(original, iterator.next());
+        }
+    }
+
+    private int bit(String name) {
+        int index = 0;
+        for (String target : targets.keySet()) {
+            if (target.equals(name)) return 1 << index;
+            index++;
+        }
+        throw new IllegalArgumentException("unknown target '" + name + "'");
+    }
+
+    @Override
+    public String toString() {
+        return As.string(this).add("targets", targets.keySet()).toString();
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2015, salesforce.com, inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of salesforce.com, inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.salesforce.omakase.plugin.prefixer;
+
+import java.util.Set;
+
+import com.google.common.collect.ImmutableSet;
+import com.salesforce.omakase.PluginRegistry;
+import com.salesforce.omakase.ast.declaration.Declaration;
+import com.salesforce.omakase.ast.declaration.PropertyName;
+import com.salesforce.omakase.ast.selector.Selector;
+import com.salesforce.omakase.broadcast.Broadcaster;
+import com.salesforce.omakase.broadcast.annotation.Refine;
+import com.salesforce.omakase.data.Keyword;
+import com.salesforce.omakase.data.PrefixTablesUtil;
+import com.salesforce.omakase.data.Property;
+import com.salesforce.omakase.parser.Grammar;
+import com.salesforce.omakase.plugin.DependentPlugin;
+import com.salesforce.omakase.plugin.core.AutoRefine;
+import com.salesforce.omakase.plugin.syntax.DeclarationPlugin;
+import com.salesforce.omakase.plugin.syntax.FontFacePlugin;
+import com.salesforce.omakase.plugin.syntax.KeyframesPlugin;
+import com.salesforce.omakase.plugin.syntax.LinearGradientPlugin;
+import com.salesforce.omakase.plugin.syntax.MediaPlugin;
+import com.salesforce.omakase.plugin.syntax.SelectorPlugin;
+import com.salesforce.omakase.plugin.syntax.SupportsPlugin;
+import com.salesforce.omakase.util.Values;
+
+/**
+ * Refines only the declarations and selectors that could possibly need to be handled by the {@link Prefixer}.
+ * <p>
+ * The {@link Prefixer} only handles refined declarations and selectors, so it's usually paired with {@link AutoRefine}. However
+ * only a few hundred properties, keywords and functions ever need a prefix. This plugin can be used instead of {@link
+ * AutoRefine} to check the raw property name, raw value and raw selector content against the names from the prefix data, and to
+ * only refine the ones that mention something prefixable. Everything else is left unrefined, which saves parsing most
+ * declarations and selectors of a typical stylesheet.
+ * <p>
+ * The check doesn't depend on the supported browser versions, and anything with a vendor-prefixed name is always refined
+ * (this covers legacy names such as "-ms-flexbox" that aren't in the prefix data). This means existing prefixed declarations
+ * are refined, so that {@link Prefixer#prune(boolean)} and {@link Prefixer#rearrange(boolean)} still work as usual. At-rules
+ * and the prefixable functions are refined the same way as with {@link AutoRefine}.
+ * <p>
+ * If other plugins in use require every declaration or selector to be refined (e.g., {@link DeclarationPlugin} or {@link
+ * SelectorPlugin} is registered) then this plugin has no effect, as everything will be refined anyway. This plugin must be
+ * registered before the {@link Prefixer}.
+ * <p>
+ * Example:
+ * <pre><code>
+ *     Omakase.source(input).use(new PrefixTriage()).use(Prefixer.defaultBrowserSupport()).process();
+ * </code></pre>
+ *
+ * @author nmcwilliams
+ */
+public final class PrefixTriage implements DependentPlugin {
+    /** unprefixed names of everything in the prefix data (properties are included for values such as transition) */
+    private static final Set<String> PREFIXABLE_NAMES = prefixableNames();
+
+    /** unprefixed names of the prefixable selectors */
+    private static final Set<String> PREFIXABLE_SELECTORS = PrefixTablesUtil.prefixableSelectors();
+
+    @Override
+    public void dependencies(PluginRegistry registry) {
+        if (registry.retrieve(Prefixer.class).isPresent()) {
+            String msg = "The %s plugin should be registered BEFORE the %s plugin";
+            throw new IllegalStateException(String.format(msg, getClass().getSimpleName(), Prefixer.class.getSimpleName()));
+        }
+
+        // at-rule blocks must be refined to get to the declarations and selectors within them
+        registry.require(MediaPlugin.class);
+        registry.require(SupportsPlugin.class);
+        registry.require(KeyframesPlugin.class);
+        registry.require(FontFacePlugin.class);
+
+        // prefixed linear gradients are written out differently, so they must be refined to the specific value type
+        registry.require(LinearGradientPlugin.class);
+    }
+
+    /**
+     * Subscription method - do not invoke directly.
+     *
+     * @param declaration
+     *     The declaration.
+     * @param grammar
+     *     The grammar.
+     * @param broadcaster
+     *     The broadcaster.
+     */
+    @Refine
+    public void refine(Declaration declaration, Grammar grammar, Broadcaster broadcaster) {
+        PropertyName name = declaration.propertyName();
+        String value = declaration.rawPropertyValue().get().content();
+
+        if (name.isPrefixed() || isPrefixable(name.unprefixed()) || mentionsPrefixable(value)) {
+            DeclarationPlugin.delegateRefinement(declaration, grammar, broadcaster);
+        }
+    }
+
+    /**
+     * Subscription method - do not invoke directly.
+     *
+     * @param selector
+     *     The selector.
+     * @param grammar
+     *     The grammar.
+     * @param broadcaster
+     *     The broadcaster.
+     */
+    @Refine
+    public void refine(Selector selector, Grammar grammar, Broadcaster broadcaster) {
+        String content = selector.raw().get().content();
+        if (content.indexOf(':') < 0) return;
+
+        for (String name : PREFIXABLE_SELECTORS) {
+            if (content.contains(name)) {
+                SelectorPlugin.delegateRefinement(selector, grammar, broadcaster);
+                return;
+            }
+        }
+    }
+
+    /** whether any of the names in the raw value (e.g., keywords or function names) are prefixed or prefixable */
+    private static boolean mentionsPrefixable(String value) {
+        return Values.anyRawName(value, (name, function) -> {
+            String lower = name.toLowerCase();
+            return isVendorPrefixed(lower) || isPrefixable(lower);
+        });
+    }
+
+    private static boolean isPrefixable(String name) {
+        return PREFIXABLE_NAMES.contains(name);
+    }
+
+    /** whether the name starts with a vendor prefix, e.g., "-webkit-flex" or "-ms-flexbox" (but not "-10px" or "--custom") */
+    static boolean isVendorPrefixed(String name) {
+        return name.length() > 2 && name.charAt(0) == '-' && Character.isLetter(name.charAt(1)) && name.indexOf('-', 1) > 0;
+    }
+
+    private static Set<String> prefixableNames() {
+        ImmutableSet.Builder<String> builder = ImmutableSet.builder();
+        for (Property property : Property.values()) {
+            if (PrefixTablesUtil.isPrefixableProperty(property)) builder.add(property.toString());
+        }
+        for (Keyword keyword : Keyword.values()) {
+            if (PrefixTablesUtil.isPrefixableKeyword(keyword)) builder.add(keyword.toString());
+        }
+        builder.addAll(PrefixTablesUtil.prefixableFunctions());
+        return builder.build();
+    }
+}
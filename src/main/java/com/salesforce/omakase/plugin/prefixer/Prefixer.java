@@ -26,6 +26,8 @@
 
 package com.salesforce.omakase.plugin.prefixer;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
 import static com.salesforce.omakase.data.Browser.ANDROID;
 import static com.salesforce.omakase.data.Browser.CHROME;
 import static com.salesforce.omakase.data.Browser.EDGE;
@@ -35,6 +37,8 @@ import static com.salesforce.omakase.data.Browser.IE_MOBILE;
 import static com.salesforce.omakase.data.Browser.IOS_SAFARI;
 import static com.salesforce.omakase.data.Browser.SAFARI;
 
+import java.util.Optional;
+
 import com.salesforce.omakase.PluginRegistry;
 import com.salesforce.omakase.ast.atrule.AtRule;
 import com.salesforce.omakase.ast.declaration.Declaration;
@@ -44,6 +48,7 @@ import com.salesforce.omakase.ast.selector.PseudoElementSelector;
 import com.salesforce.omakase.broadcast.annotation.Rework;
 import com.salesforce.omakase.plugin.DependentPlugin;
 import com.salesforce.omakase.util.SupportMatrix;
+import com.salesforce.omakase.writer.StyleWriter;
 
 /**
  * This experimental plugin automagically handles vendor prefixing of css property names, function values, at-rules and
@@ -65,7 +70,8 @@ import com.salesforce.omakase.util.SupportMatrix;
  * This doesn't automatically refine declarations or other refinables to check if they might need prefixes. This will only handle
  * prefixes if declarations, at-rules, and selectors have already been refined. If you want to ensure that every thing gets
  * checked then register {@link AutoRefine#everything()} or {@link StandardValidation}. Either must be registered before
- * this plugin. See the main readme doc for more information on refinement.
+ * this plugin. Alternatively register {@link PrefixTriage} before this plugin to only refine what could possibly need a prefix.
+ * See the main readme doc for more information on refinement.
  * <p>
  * <b>Important:</b> Check the list of what's actually supported in the readme or {@code prefix-info.yaml} file.
  * <p>
@@ -150,12 +156,21 @@ public final class Prefixer implements DependentPlugin {
     private static final Handler<FunctionValue> STANDARD_FUNCTION = new HandleFunction();
 
     private final SupportMatrix support;
+    private final PrefixTargets targets;
+    private final EquivalentsIndex index = new EquivalentsIndex();
     private boolean rearrange;
     private boolean prune;
+    private PrefixCache cache;
 
     /** private constructor -- use one of the constructor methods to create instances */
     private Prefixer(SupportMatrix support) {
+        this(support, null);
+    }
+
+    /** private constructor -- use one of the constructor methods to create instances */
+    private Prefixer(SupportMatrix support, PrefixTargets targets) {
         this.support = support == null ? new SupportMatrix() : support;
+        this.targets = targets;
     }
 
     /**
@@ -217,6 +232,44 @@ public final class Prefixer implements DependentPlugin {
         return prune;
     }
 
+    /**
+     * Sets a {@link PrefixCache} to store the prefixed copies of declarations in, so that they can be reused for the same
+     * declarations in other rules and other sources. Default is none.
+     * <p>
+     * This requires a {@link SupportMatrix#compile() compiled} {@link SupportMatrix}, e.g., {@code
+     * Prefixer.customBrowserSupport(support.compile()).cache(cache)}. Share the same compiled support matrix and cache between
+     * prefixers to get the benefit across sources.
+     *
+     * @param cache
+     *     The cache, or null to not use a cache.
+     *
+     * @return this, for chaining.
+     */
+    public Prefixer cache(PrefixCache cache) {
+        checkState(cache == null || targets == null, "a PrefixCache cannot be used with multiple targets");
+        checkState(cache == null || support.isCompiled(), "a PrefixCache can only be used with a compiled SupportMatrix");
+        this.cache = cache;
+        return this;
+    }
+
+    /**
+     * Gets the {@link PrefixCache}, if one is set.
+     *
+     * @return The cache, or an empty optional if not set.
+     */
+    public Optional<PrefixCache> cache() {
+        return Optional.ofNullable(cache);
+    }
+
+    /**
+     * Gets the {@link PrefixTargets}, if this instance was created with {@link #multiTarget(PrefixTargets)}.
+     *
+     * @return The targets, or an empty optional if not present.
+     */
+    public Optional<PrefixTargets> targets() {
+        return Optional.ofNullable(targets);
+    }
+
     @Override
     public void dependencies(PluginRegistry registry) {
         if (registry.retrieve(PrefixCleaner.class).isPresent()) {
@@ -240,7 +293,7 @@ public final class Prefixer implements DependentPlugin {
     private final <T> void run(T instance, Handler<T>... handlers) {
         boolean finished;
         for (Handler<T> handler : handlers) {
-            finished = handler.handle(instance, rearrange, prune, support);
+            finished = handler.handle(instance, rearrange, prune, support, index, cache, targets);
             if (finished) return;
         }
     }
@@ -357,4 +410,24 @@ public final class Prefixer implements DependentPlugin {
     public static Prefixer customBrowserSupport(SupportMatrix support) {
         return new Prefixer(support);
     }
+
+    /**
+     * Creates a new instance of the {@link Prefixer} plugin that adds the prefixes required by any of the given targets, and
+     * records which targets need each prefixed copy. Use {@link PrefixTargets#write(StyleWriter)} to write one output per target
+     * from the same processed source.
+     * <p>
+     * The {@link #support()} of the new instance is the {@link PrefixTargets#union()} of the targets. No more targets can be
+     * added afterwards.
+     *
+     * @param targets
+     *     The targets.
+     *
+     * @return The new {@link Prefixer} instance.
+     *
+     * @see PrefixTargets
+     */
+    public static Prefixer multiTarget(PrefixTargets targets) {
+        checkNotNull(targets, "targets cannot be null");
+        return new Prefixer(targets.union(), targets);
+    }
 }
@@ -28,6 +28,7 @@ package com.salesforce.omakase.util;
 
 import java.util.Optional;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.LinkedListMultimap;
 import com.google.common.collect.Multimap;
@@ -170,6 +171,23 @@ public final class Equivalents {
         }
     }
 
+    /**
+     * Base for walkers that group {@link Declaration}s together and only locate declarations with certain property names. The
+     * property names allow the lookup to be indexed instead of walking every declaration.
+     */
+    public abstract static class DeclarationBase<N extends Named> extends Base<Declaration, N> {
+        /**
+         * Gets the unprefixed names of the properties that a prefixed-equivalent declaration may have. Any declaration located by
+         * {@link #locate(Object, Named)} must have one of these property names (ignoring the prefix).
+         *
+         * @param unprefixed
+         *     The original unprefixed unit.
+         *
+         * @return The unprefixed property names.
+         */
+        public abstract Iterable<String> properties(N unprefixed);
+    }
+
     /** base for walkers that group {@link Rule}s together */
     public abstract static class RuleBase<N extends Named> implements EquivalentWalker<Rule, N> {
         @Override
@@ -243,12 +261,17 @@ public final class Equivalents {
      * When given the last declaration in the rule, this will locate both the {@code -webkit-border-radius} and the {@code
      * -moz-border-radius} declarations.
      */
-    public static final EquivalentWalker<Declaration, Declaration> PROPERTIES = new Base<Declaration, Declaration>() {
+    public static final DeclarationBase<Declaration> PROPERTIES = new DeclarationBase<Declaration>() {
         @Override
         public Declaration locate(Declaration peer, Declaration unprefixed) {
             // check if the declaration has the same property name, but prefixed
             return peer.isPrefixed() && peer.isPropertyIgnorePrefix(unprefixed.propertyName()) ? peer : null;
         }
+
+        @Override
+        public Iterable<String> properties(Declaration unprefixed) {
+            return ImmutableList.of(unprefixed.propertyName().unprefixed());
+        }
     };
 
     /**
@@ -265,7 +288,7 @@ public final class Equivalents {
      * When given the last declaration in the rule and a functionName of "calc", this will locate the first declaration, which
      * contains the {@code -webkit-calc} function.
      */
-    public static final EquivalentWalker<Declaration, FunctionValue> FUNCTION_VALUES = new Base<Declaration, FunctionValue>() {
+    public static final DeclarationBase<FunctionValue> FUNCTION_VALUES = new DeclarationBase<FunctionValue>() {
         @Override
         public FunctionValue locate(Declaration peer, FunctionValue unprefixed) {
             // check if the declaration has the same property name as the prefixed one
@@ -277,6 +300,11 @@ public final class Equivalents {
             }
             return null;
         }
+
+        @Override
+        public Iterable<String> properties(FunctionValue unprefixed) {
+            return ImmutableList.of(unprefixed.declaration().propertyName().unprefixed());
+        }
     };
 
     /**
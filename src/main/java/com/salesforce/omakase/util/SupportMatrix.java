@@ -27,14 +27,20 @@
 package com.salesforce.omakase.util;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
 
 import java.util.Collection;
 import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Multimap;
@@ -48,14 +54,24 @@ import com.salesforce.omakase.data.Property;
 
 /**
  * Represents a set of supported browser versions.
+ * <p>
+ * The required prefixes are worked out and cached on demand, which means a new instance starts out cold and an instance must not
+ * be used by multiple threads at once. Once all of the supported browser versions have been designated, {@link #compile()} can
+ * be used to get an immutable copy with every answer worked out in advance. A compiled matrix is thread-safe, so the same one
+ * can be shared by all {@link Prefixer} instances without any warmup:
+ * <pre>
+ * <code>static final SupportMatrix SUPPORT = new SupportMatrix().last(Browser.CHROME, 3).latest(Browser.SAFARI).compile();
+ * ...
+ * Prefixer prefixer = Prefixer.customBrowserSupport(SUPPORT);</code>
+ * </pre>
  *
  * @author nmcwilliams
  * @see Browser
  * @see Prefixer
  */
 public final class SupportMatrix {
-    /* using tree so that getting browser versions are in ascending order */
-    private final Multimap<Browser, Double> supported = TreeMultimap.create();
+    /* using tree so that getting browser versions are in ascending order (the compiled copy keeps the same order) */
+    private final Multimap<Browser, Double> supported;
 
     private final Map<Property, Set<Prefix>> propertyCache = new EnumMap<>(Property.class);
     private final Map<Keyword, Set<Prefix>> keywordCache = new EnumMap<>(Keyword.class);
@@ -63,6 +79,43 @@ public final class SupportMatrix {
     private final Map<String, Set<Prefix>> selectorCache = new HashMap<>(2);
     private final Map<String, Set<Prefix>> functionCache = new HashMap<>(8);
 
+    /* the precomputed answers, only present when compiled */
+    private final Compiled compiled;
+
+    /** Creates a new {@link SupportMatrix} with no supported browser versions. */
+    public SupportMatrix() {
+        this.supported = TreeMultimap.create();
+        this.compiled = null;
+    }
+
+    /** creates a compiled copy of the given matrix */
+    private SupportMatrix(SupportMatrix source) {
+        this.supported = ImmutableListMultimap.copyOf(source.supported);
+        this.compiled = new Compiled(this);
+    }
+
+    /**
+     * Creates an immutable, thread-safe copy of this {@link SupportMatrix}, with the required prefixes for every property,
+     * keyword, at-rule, selector and function already worked out.
+     * <p>
+     * Attempting to designate more supported browser versions on the compiled copy will result in an {@link
+     * IllegalStateException}. Changes to this instance afterwards are not reflected in the compiled copy.
+     *
+     * @return The compiled copy, or this instance if it is already compiled.
+     */
+    public SupportMatrix compile() {
+        return compiled != null ? this : new SupportMatrix(this);
+    }
+
+    /**
+     * Gets whether this instance was created by {@link #compile()}, in which case it is immutable and thread-safe.
+     *
+     * @return True if this instance is compiled.
+     */
+    public boolean isCompiled() {
+        return compiled != null;
+    }
+
     /**
      * Designate support for the given {@link Browser} and version.
      * <p>
@@ -99,6 +152,7 @@ public final class SupportMatrix {
      */
     public SupportMatrix browser(Browser browser, double version) {
         checkArgument(browser.versions().contains(version), "version does not exist for browser");
+        checkMutable();
         supported.put(browser, version);
         return this;
     }
@@ -117,6 +171,7 @@ public final class SupportMatrix {
      * @return this, for chaining.
      */
     public SupportMatrix latest(Browser browser) {
+        checkMutable();
         supported.put(browser, browser.versions().get(0));
         return this;
     }
@@ -138,6 +193,7 @@ public final class SupportMatrix {
      */
     public SupportMatrix last(Browser browser, int numVersions) {
         checkArgument(numVersions <= browser.versions().size(), "numVersions out of range");
+        checkMutable();
         for (int i = 0; i < numVersions; i++) {
             supported.put(browser, browser.versions().get(i));
         }
@@ -153,6 +209,7 @@ public final class SupportMatrix {
      * @return this, for chaining.
      */
     public SupportMatrix all(Browser browser) {
+        checkMutable();
         for (Double version : browser.versions()) {
             supported.put(browser, version);
         }
@@ -258,21 +315,8 @@ public final class SupportMatrix {
      * @return The set of required prefixes.
      */
     public Set<Prefix> prefixesForProperty(Property property) {
-        Set<Prefix> cached = propertyCache.get(property);
-
-        if (cached == null) {
-            Set<Prefix> required = new HashSet<>();
-
-            for (Browser browser : supported.keySet()) {
-                Double lastPrefixed = PrefixTablesUtil.lastVersionPropertyIsPrefixed(property, browser);
-                if (lowestSupportedVersion(browser) <= lastPrefixed) required.add(browser.prefix());
-            }
-
-            cached = immutable(required);
-            propertyCache.put(property, cached);
-        }
-
-        return cached;
+        if (compiled != null) return compiled.properties.get(property.ordinal());
+        return propertyCache.computeIfAbsent(property, k -> required(b -> PrefixTablesUtil.lastVersionPropertyIsPrefixed(k, b)));
     }
 
     /**
@@ -284,21 +328,8 @@ public final class SupportMatrix {
      * @return The set of required prefixes.
      */
     public Set<Prefix> prefixesForKeyword(Keyword keyword) {
-        Set<Prefix> cached = keywordCache.get(keyword);
-
-        if (cached == null) {
-            Set<Prefix> required = new HashSet<>();
-
-            for (Browser browser : supported.keySet()) {
-                Double lastPrefixed = PrefixTablesUtil.lastVersionKeywordIsPrefixed(keyword, browser);
-                if (lowestSupportedVersion(browser) <= lastPrefixed) required.add(browser.prefix());
-            }
-
-            cached = immutable(required);
-            keywordCache.put(keyword, cached);
-        }
-
-        return cached;
+        if (compiled != null) return compiled.keywords.get(keyword.ordinal());
+        return keywordCache.computeIfAbsent(keyword, k -> required(b -> PrefixTablesUtil.lastVersionKeywordIsPrefixed(k, b)));
     }
 
     /**
@@ -310,21 +341,8 @@ public final class SupportMatrix {
      * @return The set of required prefixes.
      */
     public Set<Prefix> prefixesForAtRule(String name) {
-        Set<Prefix> cached = atRuleCache.get(name);
-
-        if (cached == null) {
-            Set<Prefix> required = new HashSet<>();
-
-            for (Browser browser : supported.keySet()) {
-                Double lastPrefixed = PrefixTablesUtil.lastVersionAtRuleIsPrefixed(name, browser);
-                if (lowestSupportedVersion(browser) <= lastPrefixed) required.add(browser.prefix());
-            }
-
-            cached = immutable(required);
-            atRuleCache.put(name, cached);
-        }
-
-        return cached;
+        if (compiled != null) return compiled.atRules.getOrDefault(name, ImmutableSet.of());
+        return atRuleCache.computeIfAbsent(name, k -> required(b -> PrefixTablesUtil.lastVersionAtRuleIsPrefixed(k, b)));
     }
 
     /**
@@ -336,21 +354,8 @@ public final class SupportMatrix {
      * @return The set of required prefixes.
      */
     public Set<Prefix> prefixesForSelector(String name) {
-        Set<Prefix> cached = selectorCache.get(name);
-
-        if (cached == null) {
-            Set<Prefix> required = new HashSet<>();
-
-            for (Browser browser : supported.keySet()) {
-                Double lastPrefixed = PrefixTablesUtil.lastVersionSelectorIsPrefixed(name, browser);
-                if (lowestSupportedVersion(browser) <= lastPrefixed) required.add(browser.prefix());
-            }
-
-            cached = immutable(required);
-            selectorCache.put(name, cached);
-        }
-
-        return cached;
+        if (compiled != null) return compiled.selectors.getOrDefault(name, ImmutableSet.of());
+        return selectorCache.computeIfAbsent(name, k -> required(b -> PrefixTablesUtil.lastVersionSelectorIsPrefixed(k, b)));
     }
 
     /**
@@ -363,21 +368,8 @@ public final class SupportMatrix {
      * @return The set of required prefixes.
      */
     public Set<Prefix> prefixesForFunction(String name) {
-        Set<Prefix> cached = functionCache.get(name);
-
-        if (cached == null) {
-            Set<Prefix> required = new HashSet<>();
-
-            for (Browser browser : supported.keySet()) {
-                Double lastPrefixed = PrefixTablesUtil.lastVersionFunctionIsPrefixed(name, browser);
-                if (lowestSupportedVersion(browser) <= lastPrefixed) required.add(browser.prefix());
-            }
-
-            cached = immutable(required);
-            functionCache.put(name, cached);
-        }
-
-        return cached;
+        if (compiled != null) return compiled.functions.getOrDefault(name, ImmutableSet.of());
+        return functionCache.computeIfAbsent(name, k -> required(b -> PrefixTablesUtil.lastVersionFunctionIsPrefixed(k, b)));
     }
 
     /**
@@ -394,6 +386,7 @@ public final class SupportMatrix {
      * @return True if the property requires the given prefix.
      */
     public boolean requiresPrefixForProperty(Prefix prefix, Property property) {
+        if (compiled != null) return (compiled.propertyMasks[property.ordinal()] & (1 << prefix.ordinal())) != 0;
         return PrefixTablesUtil.isPrefixableProperty(property) && prefixesForProperty(property).contains(prefix);
     }
 
@@ -411,6 +404,7 @@ public final class SupportMatrix {
      * @return True if the property requires the given prefix.
      */
     public boolean requiresPrefixForKeyword(Prefix prefix, Keyword keyword) {
+        if (compiled != null) return (compiled.keywordMasks[keyword.ordinal()] & (1 << prefix.ordinal())) != 0;
         return PrefixTablesUtil.isPrefixableKeyword(keyword) && prefixesForKeyword(keyword).contains(prefix);
     }
 
@@ -460,7 +454,22 @@ public final class SupportMatrix {
 
     @Override
     public String toString() {
-        return As.string(this).fields().toString();
+        return As.string(this).add("supported", supported).add("compiled", isCompiled()).toString();
+    }
+
+    private void checkMutable() {
+        checkState(compiled == null, "a compiled support matrix cannot be modified");
+    }
+
+    /** gets the prefixes required by the supported browsers, given the last prefixed version of each browser */
+    private Set<Prefix> required(Function<Browser, Double> lastPrefixed) {
+        Set<Prefix> required = EnumSet.noneOf(Prefix.class);
+
+        for (Browser browser : supported.keySet()) {
+            if (lowestSupportedVersion(browser) <= lastPrefixed.apply(browser)) required.add(browser.prefix());
+        }
+
+        return immutable(required);
     }
 
     private static Set<Prefix> immutable(Set<Prefix> required) {
@@ -473,4 +482,73 @@ public final class SupportMatrix {
             return Sets.newEnumSet(required, Prefix.class); // enum set maintains consistent ordinal-based iteration order
         }
     }
+
+    /** the required prefixes for everything in the prefix tables, worked out in advance */
+    private static final class Compiled {
+        final List<Set<Prefix>> properties;
+        final List<Set<Prefix>> keywords;
+        final int[] propertyMasks;
+        final int[] keywordMasks;
+        final Map<String, Set<Prefix>> atRules;
+        final Map<String, Set<Prefix>> selectors;
+        final Map<String, Set<Prefix>> functions;
+
+        /* identical prefix sets are shared, keyed by the bitmask of prefix ordinals */
+        private final Map<Integer, Set<Prefix>> interned = new HashMap<>();
+
+        Compiled(SupportMatrix matrix) {
+            Property[] allProperties = Property.values();
+            propertyMasks = new int[allProperties.length];
+            ImmutableList.Builder<Set<Prefix>> properties = ImmutableList.builder();
+            for (Property property : allProperties) {
+                Set<Prefix> set = ImmutableSet.of();
+                if (PrefixTablesUtil.isPrefixableProperty(property)) {
+                    set = intern(matrix.required(b -> PrefixTablesUtil.lastVersionPropertyIsPrefixed(property, b)));
+                }
+                propertyMasks[property.ordinal()] = mask(set);
+                properties.add(set);
+            }
+            this.properties = properties.build();
+
+            Keyword[] allKeywords = Keyword.values();
+            keywordMasks = new int[allKeywords.length];
+            ImmutableList.Builder<Set<Prefix>> keywords = ImmutableList.builder();
+            for (Keyword keyword : allKeywords) {
+                Set<Prefix> set = ImmutableSet.of();
+                if (PrefixTablesUtil.isPrefixableKeyword(keyword)) {
+                    set = intern(matrix.required(b -> PrefixTablesUtil.lastVersionKeywordIsPrefixed(keyword, b)));
+                }
+                keywordMasks[keyword.ordinal()] = mask(set);
+                keywords.add(set);
+            }
+            this.keywords = keywords.build();
+
+            this.atRules = table(PrefixTablesUtil.prefixableAtRules(),
+                name -> matrix.required(b -> PrefixTablesUtil.lastVersionAtRuleIsPrefixed(name, b)));
+            this.selectors = table(PrefixTablesUtil.prefixableSelectors(),
+                name -> matrix.required(b -> PrefixTablesUtil.lastVersionSelectorIsPrefixed(name, b)));
+            this.functions = table(PrefixTablesUtil.prefixableFunctions(),
+                name -> matrix.required(b -> PrefixTablesUtil.lastVersionFunctionIsPrefixed(name, b)));
+        }
+
+        private Map<String, Set<Prefix>> table(Set<String> names, Function<String, Set<Prefix>> required) {
+            ImmutableMap.Builder<String, Set<Prefix>> builder = ImmutableMap.builder();
+            for (String name : names) {
+                builder.put(name, intern(required.apply(name)));
+            }
+            return builder.build();
+        }
+
+        private Set<Prefix> intern(Set<Prefix> set) {
+            return interned.computeIfAbsent(mask(set), m -> Sets.immutableEnumSet(set));
+        }
+
+        private static int mask(Set<Prefix> set) {
+            int mask = 0;
+            for (Prefix prefix : set) {
+                mask |= 1 << prefix.ordinal();
+            }
+            return mask;
+        }
+    }
 }
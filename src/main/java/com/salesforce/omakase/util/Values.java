@@ -30,6 +30,7 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.BiPredicate;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
@@ -43,6 +44,7 @@ import com.salesforce.omakase.ast.declaration.PropertyValueMember;
 import com.salesforce.omakase.ast.declaration.StringValue;
 import com.salesforce.omakase.ast.declaration.Term;
 import com.salesforce.omakase.data.Keyword;
+import com.salesforce.omakase.parser.token.Tokens;
 
 /**
  * Utilities for working with {@link PropertyValue}s and {@link Term}s.
@@ -272,4 +274,71 @@ public final class Values {
 
         return joined;
     }
+
+    /**
+     * Checks whether any of the names (keywords and function names) in the given raw property value matches the predicate. This
+     * is useful for deciding whether a declaration is worth refining without refining it first. Quoted strings and unquoted
+     * {@code url()} arguments are skipped, as well as numbers and their units.
+     * <p>
+     * Example:
+     * <pre>
+     * {@code Values.anyRawName("url(left.png) left", (name, function) -> name.equals("left"))} // true, for the second one
+     * </pre>
+     *
+     * @param value
+     *     The raw property value content.
+     * @param predicate
+     *     Tests the name (as written) and whether it is a function name.
+     *
+     * @return True if the predicate matches any of the names.
+     */
+    public static boolean anyRawName(String value, BiPredicate<String, Boolean> predicate) {
+        int length = value.length();
+        int start = 0;
+
+        while (start < length) {
+            char c = value.charAt(start);
+
+            if (c == '"' || c == '\'') {
+                start = skipString(value, start);
+            } else if (!Tokens.NMCHAR.matches(c)) {
+                start++;
+            } else {
+                int end = start;
+                while (end < length && Tokens.NMCHAR.matches(value.charAt(end))) end++;
+
+                String name = value.substring(start, end);
+                boolean function = end < length && value.charAt(end) == '(';
+
+                if (function && name.equalsIgnoreCase("url") && !isQuoted(value, end + 1)) {
+                    int close = value.indexOf(')', end);
+                    end = close == -1 ? length : close + 1;
+                } else if (!Character.isDigit(c) && predicate.test(name, function)) {
+                    return true;
+                }
+                start = end;
+            }
+        }
+        return false;
+    }
+
+    /** gets the index after the string starting at the given index, or the length if the string isn't closed */
+    private static int skipString(String value, int start) {
+        char quote = value.charAt(start);
+        for (int i = start + 1; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == quote) {
+                return i + 1;
+            }
+        }
+        return value.length();
+    }
+
+    /** whether the first non-whitespace character at or after the given index is a quote */
+    private static boolean isQuoted(String value, int index) {
+        while (index < value.length() && Character.isWhitespace(value.charAt(index))) index++;
+        return index < value.length() && (value.charAt(index) == '"' || value.charAt(index) == '\'');
+    }
 }
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2015, salesforce.com, inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of salesforce.com, inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.salesforce.omakase.writer;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.salesforce.omakase.ast.Syntax;
+import com.salesforce.omakase.util.As;
+
+/**
+ * Stores the written output of rules and at-rules so that writing the same syntax tree again can reuse the output of
+ * unchanged units instead of writing them out again.
+ * <p>
+ * To use, give an instance to one or more {@link StyleWriter}s with {@link StyleWriter#outputCache(OutputCache)}. Output is
+ * stored separately for each {@link WriterMode}, each combination of comment settings and each position (indentation and
+ * whether the unit is first in its block), so a single instance can be shared between e.g., a compressed writer and a verbose
+ * writer. Stored output is only reused while the unit's {@link Syntax#revision()} is unchanged.
+ * <p>
+ * Custom writers are not part of the key, so do not share an instance between writers with different {@link CustomWriter}s.
+ * <p>
+ * Units are held with weak references and are released once the syntax tree is no longer used. This class is thread-safe.
+ *
+ * @author nmcwilliams
+ */
+public final class OutputCache {
+    private final Cache<Syntax, ConcurrentMap<Integer, Fragment>> fragments = CacheBuilder.newBuilder().weakKeys().build();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Gets the stored output for the given unit and variant, if it was stored at the unit's current revision.
+     *
+     * @param unit
+     *     The unit.
+     * @param variant
+     *     Identifies the writer settings and position.
+     *
+     * @return The output, or null if not present or out of date.
+     */
+    String get(Syntax unit, int variant) {
+        ConcurrentMap<Integer, Fragment> variants = fragments.getIfPresent(unit);
+        if (variants != null) {
+            Fragment fragment = variants.get(variant);
+            if (fragment != null && fragment.revision == unit.revision()) {
+                hits.increment();
+                return fragment.output;
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Stores the output for the given unit and variant.
+     *
+     * @param unit
+     *     The unit.
+     * @param variant
+     *     Identifies the writer settings and position.
+     * @param revision
+     *     The revision of the unit when the output was written.
+     * @param output
+     *     The output.
+     */
+    void put(Syntax unit, int variant, int revision, String output) {
+        try {
+            fragments.get(unit, ConcurrentHashMap::new).put(variant, new Fragment(revision, output));
+        } catch (ExecutionException e) {
+            throw new AssertionError("creating a map shouldn't fail", e);
+        }
+    }
+
+    /**
+     * Gets the number of units with stored output.
+     *
+     * @return The number of units.
+     */
+    public long size() {
+        return fragments.size();
+    }
+
+    /**
+     * Gets the number of times stored output was reused.
+     *
+     * @return The number of hits.
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of times output wasn't present or was out of date.
+     *
+     * @return The number of misses.
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Removes all stored output and resets the hit and miss counts.
+     *
+     * @return this, for chaining.
+     */
+    public OutputCache clear() {
+        fragments.invalidateAll();
+        hits.reset();
+        misses.reset();
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return As.string(this)
+            .add("size", size())
+            .add("hits", hits())
+            .add("misses", misses())
+            .toString();
+    }
+
+    /** output for a unit at a particular revision */
+    private static final class Fragment {
+        final int revision;
+        final String output;
+
+        Fragment(int revision, String output) {
+            this.revision = revision;
+            this.output = output;
+        }
+    }
+}
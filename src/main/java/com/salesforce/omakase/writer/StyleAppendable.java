@@ -29,6 +29,8 @@ package com.salesforce.omakase.writer;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.io.IOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
 
 /**
  * A wrapper around an {@link Appendable} that provides a few convenience functions.
@@ -40,7 +42,8 @@ import java.io.IOException;
 public final class StyleAppendable {
     private static final String INDENT_STRING = "            ";
     private final Appendable appendable;
-    private int indent = 0;
+    private int indent;
+    private long length = 0;
 
     /** Creates a new {@link StyleAppendable} using a {@link StringBuilder}. Use {@link #toString()} to get the final output. */
     public StyleAppendable() {
@@ -54,7 +57,13 @@ public final class StyleAppendable {
      *     Write to this {@link Appendable}.
      */
     public StyleAppendable(Appendable appendable) {
+        this(appendable, 0);
+    }
+
+    /** creates a new instance starting at the given indentation level */
+    StyleAppendable(Appendable appendable, int indent) {
         this.appendable = checkNotNull(appendable, "appendable cannot be null");
+        this.indent = indent;
     }
 
     /**
@@ -70,6 +79,7 @@ public final class StyleAppendable {
      */
     public StyleAppendable append(char c) throws IOException {
         appendable.append(c);
+        length++;
         return this;
     }
 
@@ -118,6 +128,33 @@ public final class StyleAppendable {
         return append(Long.toString(l));
     }
 
+    /**
+     * Appends a range of characters from the given array, as a single bulk copy when the underlying {@link Appendable} allows it.
+     *
+     * @param chars
+     *     The characters.
+     * @param offset
+     *     Index of the first character to append.
+     * @param count
+     *     Number of characters to append.
+     *
+     * @return this, for chaining.
+     *
+     * @throws IOException
+     *     If an I/O error occurs.
+     */
+    public StyleAppendable append(char[] chars, int offset, int count) throws IOException {
+        if (appendable instanceof StringBuilder) {
+            ((StringBuilder)appendable).append(chars, offset, count);
+        } else if (appendable instanceof Writer) {
+            ((Writer)appendable).write(chars, offset, count);
+        } else {
+            appendable.append(CharBuffer.wrap(chars, offset, count));
+        }
+        length += count;
+        return this;
+    }
+
     /**
      * Appends the specified {@link CharSequence} or String.
      *
@@ -131,6 +168,7 @@ public final class StyleAppendable {
      */
     public StyleAppendable append(CharSequence sequence) throws IOException {
         appendable.append(sequence);
+        length += sequence.length();
         return this;
     }
 
@@ -249,6 +287,15 @@ public final class StyleAppendable {
         return indent;
     }
 
+    /**
+     * Gets the number of characters appended through this {@link StyleAppendable}.
+     *
+     * @return The number of appended characters.
+     */
+    public long length() {
+        return length;
+    }
+
     @Override
     public String toString() {
         return appendable.toString();
@@ -30,16 +30,34 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
 import java.io.IOException;
-import java.util.ArrayDeque;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Deque;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Predicate;
 
 import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import com.salesforce.omakase.PluginRegistry;
 import com.salesforce.omakase.ast.Comment;
+import com.salesforce.omakase.ast.Rule;
+import com.salesforce.omakase.ast.Statement;
+import com.salesforce.omakase.ast.Stylesheet;
 import com.salesforce.omakase.ast.Syntax;
+import com.salesforce.omakase.ast.atrule.AtRule;
+import com.salesforce.omakase.jfr.Recording;
+import com.salesforce.omakase.jfr.Recordings;
+import com.salesforce.omakase.jfr.Stage;
 import com.salesforce.omakase.plugin.DependentPlugin;
 import com.salesforce.omakase.plugin.core.SyntaxTree;
 import com.salesforce.omakase.util.As;
@@ -76,6 +94,9 @@ import com.salesforce.omakase.util.As;
  * @author nmcwilliams
  */
 public final class StyleWriter implements DependentPlugin {
+    private static final int BYTE_BUFFER_SIZE = 8192;
+    private static final int MIN_PARALLEL_CHUNK = 128;
+
     private WriterMode mode;
     private SyntaxTree tree;
     private Multimap<Class<? extends Writable>, CustomWriter<?>> overrides;
@@ -83,8 +104,22 @@ public final class StyleWriter implements DependentPlugin {
     private boolean writeAllComments;
     private boolean writeAnnotatedComments;
     private boolean writeBangComments;
+    private boolean writeVerbatim;
+
+    /* for each unit currently being written (by depth - 1), the number of its inner units written so far */
+    private int[] childCounts = new int[16];
+    private int depth;
+    private long written;
+    private byte[] byteBuffer;
+
+    private OutputCache outputCache;
+    private boolean uncacheable;
 
-    private final Deque<StackEntry> stack = new ArrayDeque<>();
+    private Predicate<? super Syntax> filter;
+
+    private ForkJoinPool parallelPool;
+    private StringBuilder chunkBuffer;
+    private StyleAppendable chunkOutput;
 
     /** Creates a new {@link StyleWriter} instance using {@link WriterMode#INLINE}. */
     public StyleWriter() {
@@ -225,6 +260,132 @@ public final class StyleWriter implements DependentPlugin {
         return writeAllComments || writeBangComments;
     }
 
+    /**
+     * Sets whether rules and at-rules that are unmodified since parsing should be copied directly from the original source
+     * instead of being written out unit by unit. This only applies to {@link WriterMode#INLINE} and {@link WriterMode#VERBOSE}.
+     * <p>
+     * This makes writing out mostly untouched sources much cheaper, however the untouched parts keep their original formatting
+     * and any comments within them, regardless of the other settings on this writer. A unit is considered unmodified when it has
+     * not been refined and its {@link Syntax#revision()} has not changed since parsing. Custom writers for the inner units of an
+     * unmodified rule or at-rule will not be used.
+     *
+     * @param writeVerbatim
+     *     Whether unmodified units should be copied from the original source.
+     *
+     * @return this, for chaining.
+     */
+    public StyleWriter writeVerbatim(boolean writeVerbatim) {
+        this.writeVerbatim = writeVerbatim;
+        return this;
+    }
+
+    /**
+     * Gets whether unmodified rules and at-rules should be copied directly from the original source. See {@link
+     * #writeVerbatim(boolean)}.
+     *
+     * @return True if {@link #writeVerbatim(boolean)} is enabled and the current mode is not {@link WriterMode#COMPRESSED}.
+     */
+    public boolean shouldWriteVerbatim() {
+        return writeVerbatim && mode != WriterMode.COMPRESSED;
+    }
+
+    /**
+     * Sets the {@link OutputCache} used to store and reuse the output of rules and at-rules, or null to stop using one.
+     * <p>
+     * This is useful when writing out the same syntax tree more than once, e.g., in multiple modes. Rules and at-rules that are
+     * unchanged since they were last written in the same mode and position are copied from the cache instead of being written
+     * out again. Conditional at-rules (and any at-rules containing them) are never cached, as their output depends on the
+     * {@link com.salesforce.omakase.plugin.conditionals.ConditionalsConfig}.
+     * <p>
+     * The same cache may be shared between multiple writers that have the same {@link CustomWriter}s.
+     *
+     * @param outputCache
+     *     The cache to use.
+     *
+     * @return this, for chaining.
+     */
+    public StyleWriter outputCache(OutputCache outputCache) {
+        this.outputCache = outputCache;
+        return this;
+    }
+
+    /**
+     * Gets the {@link OutputCache}, if one is set. See {@link #outputCache(OutputCache)}.
+     *
+     * @return The output cache, if present.
+     */
+    public Optional<OutputCache> outputCache() {
+        return Optional.ofNullable(outputCache);
+    }
+
+    /**
+     * Sets a filter for the {@link Syntax} units to write, or null to write all units. Units that don't pass the filter are
+     * skipped as if they weren't {@link Writable#isWritable() writable}, along with all of their inner units.
+     * <p>
+     * This allows writing different outputs from the same syntax tree, e.g., one output per browser target with {@link
+     * com.salesforce.omakase.plugin.prefixer.PrefixTargets}. The {@link OutputCache} is not used while a filter is set.
+     *
+     * @param filter
+     *     The filter, or null.
+     *
+     * @return this, for chaining.
+     */
+    public StyleWriter filter(Predicate<? super Syntax> filter) {
+        this.filter = filter;
+        return this;
+    }
+
+    /**
+     * Gets the filter for the {@link Syntax} units to write, if one is set. See {@link #filter(Predicate)}.
+     *
+     * @return The filter, if present.
+     */
+    public Optional<Predicate<? super Syntax>> filter() {
+        return Optional.ofNullable(filter);
+    }
+
+    /**
+     * Sets whether the top-level statements of large stylesheets should be written out in parallel, using the common {@link
+     * ForkJoinPool}. See {@link #parallel(ForkJoinPool)}.
+     *
+     * @param parallel
+     *     Whether to write in parallel.
+     *
+     * @return this, for chaining.
+     */
+    public StyleWriter parallel(boolean parallel) {
+        return parallel(parallel ? ForkJoinPool.commonPool() : null);
+    }
+
+    /**
+     * Sets the {@link ForkJoinPool} used to write out the top-level statements of large stylesheets in parallel, or null to
+     * always write serially.
+     * <p>
+     * The statements are split into contiguous chunks, each chunk is written into a separate buffer and the buffers are
+     * concatenated in order. The output is identical to writing serially. Small stylesheets are still written serially, as are
+     * all stylesheets when any {@link CustomWriter}s have been added, since custom writers aren't expected to be thread-safe.
+     * <p>
+     * Only the writing happens in parallel. The syntax tree must not be modified while writing.
+     *
+     * @param pool
+     *     The pool to use, or null.
+     *
+     * @return this, for chaining.
+     */
+    public StyleWriter parallel(ForkJoinPool pool) {
+        this.parallelPool = pool;
+        return this;
+    }
+
+    /**
+     * Gets whether large stylesheets will be written out in parallel. See {@link #parallel(ForkJoinPool)}.
+     *
+     * @return True if a {@link ForkJoinPool} is set.
+     */
+    public boolean isParallel() {
+        return parallelPool != null;
+    }
+
     /**
      * Overrides the writing of a unit with the given {@link CustomWriter} instance. See {@link CustomWriter} for more details on
      * overriding.
@@ -256,7 +417,7 @@ public final class StyleWriter implements DependentPlugin {
 
         StyleAppendable appendable = new StyleAppendable();
         try {
-            writeInner(tree.stylesheet(), appendable);
+            writeStylesheet(appendable);
         } catch (IOException e) {
             throw new AssertionError("Using a StringBuilder shouldn't cause an IOException.", e);
         }
@@ -275,7 +436,97 @@ public final class StyleWriter implements DependentPlugin {
     public void writeTo(Appendable appendable) throws IOException {
         checkNotNull(appendable, "appendable cannot be null");
         checkState(tree != null, "syntax tree not set (did you add this writer plugin before parsing?)");
-        writeInner(tree.stylesheet(), new StyleAppendable(appendable));
+        writeStylesheet(new StyleAppendable(appendable));
+    }
+
+    /**
+     * Writes the entire processed stylesheet to the given {@link PrintStream}, using the stream's own character encoding. This is
+     * the same as {@link #writeTo(Appendable)}, e.g., for writing to {@code System.out}.
+     *
+     * @param out
+     *     Write the processed CSS source code to this stream.
+     *
+     * @throws IOException
+     *     If an I/O error occurs.
+     */
+    public void writeTo(PrintStream out) throws IOException {
+        writeTo((Appendable)out);
+    }
+
+    /**
+     * Writes the entire processed stylesheet to the given {@link OutputStream}, encoded as UTF-8.
+     * <p>
+     * Characters are encoded directly into a byte buffer that is reused by this {@link StyleWriter}, without creating an
+     * intermediate string of the whole output. The stream is flushed but not closed afterwards.
+     *
+     * @param out
+     *     Write the processed CSS source code to this stream.
+     *
+     * @throws IOException
+     *     If an I/O error occurs.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        writeUtf8(Utf8Writer.sink(out));
+    }
+
+    /**
+     * Writes the entire processed stylesheet to the given {@link WritableByteChannel}, encoded as UTF-8. See {@link
+     * #writeTo(OutputStream)}. The channel is not closed afterwards.
+     *
+     * @param channel
+     *     Write the processed CSS source code to this channel.
+     *
+     * @throws IOException
+     *     If an I/O error occurs.
+     */
+    public void writeTo(WritableByteChannel channel) throws IOException {
+        writeUtf8(Utf8Writer.sink(channel, byteBuffer()));
+    }
+
+    /**
+     * Puts the entire processed stylesheet into the given {@link ByteBuffer}, encoded as UTF-8, starting at the buffer's current
+     * position. See {@link #writeTo(OutputStream)}.
+     *
+     * @param buffer
+     *     Put the processed CSS source code into this buffer.
+     *
+     * @throws java.nio.BufferOverflowException
+     *     If the buffer doesn't have enough room for the output. Some of the output may have been put into the buffer.
+     */
+    public void writeTo(ByteBuffer buffer) {
+        try {
+            writeUtf8(Utf8Writer.sink(buffer));
+        } catch (IOException e) {
+            throw new AssertionError("Using a ByteBuffer shouldn't cause an IOException.", e);
+        }
+    }
+
+    /** writes the whole stylesheet as UTF-8 bytes to the given sink */
+    private void writeUtf8(Utf8Writer.Sink sink) throws IOException {
+        checkState(tree != null, "syntax tree not set (did you add this writer plugin before parsing?)");
+        Utf8Writer utf8 = new Utf8Writer(sink, byteBuffer());
+        writeStylesheet(new StyleAppendable(utf8));
+        utf8.flush();
+    }
+
+    /** gets the reusable buffer for encoding bytes */
+    private byte[] byteBuffer() {
+        if (byteBuffer == null) {
+            byteBuffer = new byte[BYTE_BUFFER_SIZE];
+        }
+        return byteBuffer;
+    }
+
+    /** writes the whole stylesheet, recording the write stage if enabled */
+    private void writeStylesheet(StyleAppendable appendable) throws IOException {
+        Recording recording = Recordings.begin(Stage.WRITE);
+        written = 0;
+        depth = 0;
+        uncacheable = false;
+        writeInner(tree.stylesheet(), appendable);
+        if (recording.stop()) {
+            recording.commit(tree.sourceName(), appendable.length(), written);
+        }
     }
 
     /**
@@ -336,7 +587,7 @@ public final class StyleWriter implements DependentPlugin {
 
         Class<? extends Writable> klass = writable.getClass();
 
-        if (writable.isWritable()) {
+        if (shouldWrite(writable)) {
             boolean handled = false;
 
             if (useOverrides && overrides != null && overrides.containsKey(klass)) {
@@ -352,27 +603,161 @@ public final class StyleWriter implements DependentPlugin {
             }
 
             if (!handled) {
-                if (writable instanceof Syntax) {
-                    Syntax syntax = (Syntax)writable;
-                    if (!syntax.writesOwnComments()) {
-                        appendComments(syntax.comments(), appendable);
-                    }
-                    syntax.write(this, appendable);
-                    if (!syntax.writesOwnOrphanedComments()) {
-                        appendComments(syntax.orphanedComments(), appendable);
-                    }
+                if (outputCache != null && filter == null && (writable instanceof Rule || writable instanceof AtRule)) {
+                    writeCached((Syntax)writable, appendable);
                 } else {
-                    writable.write(this, appendable);
+                    writeUnit(writable, appendable);
                 }
 
                 // keep track of how many syntax units written at this depth
-                stack.peek().incrementPeerCountAtDepth();
+                if (depth > 1) childCounts[depth - 2]++;
+                written++;
             }
         }
 
         decrementDepth();
     }
 
+    /** whether the unit is writable and passes the filter, if any */
+    private boolean shouldWrite(Writable writable) {
+        return writable.isWritable() && (filter == null || !(writable instanceof Syntax) || filter.test((Syntax)writable));
+    }
+
+    /** writes the unit along with its comments */
+    private void writeUnit(Writable writable, StyleAppendable appendable) throws IOException {
+        if (writable instanceof Syntax) {
+            Syntax syntax = (Syntax)writable;
+            if (!syntax.writesOwnComments()) {
+                appendComments(syntax.comments(), appendable);
+            }
+            if (parallelPool != null && overrides == null && syntax instanceof Stylesheet) {
+                writeParallel((Stylesheet)syntax, appendable);
+            } else {
+                syntax.write(this, appendable);
+            }
+            if (!syntax.writesOwnOrphanedComments()) {
+                appendComments(syntax.orphanedComments(), appendable);
+            }
+        } else {
+            writable.write(this, appendable);
+        }
+    }
+
+    /** writes the unit from the output cache, or writes it normally and stores the output if not present */
+    private void writeCached(Syntax syntax, StyleAppendable appendable) throws IOException {
+        if (syntax instanceof AtRule && ((AtRule)syntax).isConditional()) {
+            // output depends on the conditionals config, so this and all enclosing units can't be cached
+            uncacheable = true;
+            writeUnit(syntax, appendable);
+            return;
+        }
+
+        int variant = variant(appendable);
+        String output = outputCache.get(syntax, variant);
+
+        if (output == null) {
+            boolean enclosingUncacheable = uncacheable;
+            uncacheable = false;
+
+            int revision = syntax.revision();
+            StyleAppendable capture = new StyleAppendable(new StringBuilder(256), appendable.indentationLevel());
+            writeUnit(syntax, capture);
+            output = capture.toString();
+
+            if (!uncacheable) {
+                outputCache.put(syntax, variant, revision, output);
+            }
+            uncacheable |= enclosingUncacheable;
+        }
+
+        appendable.append(output);
+    }
+
+    /**
+     * writes the statements of the stylesheet in contiguous chunks on the parallel pool. Each chunk is written by a separate
+     * writer with the same settings, starting from the same depth and number of previously written peers as the serial writer
+     * would have at that point, so that separators come out exactly the same.
+     */
+    private void writeParallel(Stylesheet stylesheet, StyleAppendable appendable) throws IOException {
+        List<Statement> statements = ImmutableList.copyOf(stylesheet.statements());
+        int chunks = Math.min(statements.size() / MIN_PARALLEL_CHUNK, parallelPool.getParallelism() * 4);
+
+        if (chunks < 2) {
+            stylesheet.write(this, appendable);
+            return;
+        }
+
+        // the inner units of the stylesheet are counted at the current depth
+        int peers = childCounts[depth - 1];
+        int chunkSize = (statements.size() + chunks - 1) / chunks;
+        List<ForkJoinTask<StyleWriter>> tasks = Lists.newArrayListWithCapacity(chunks);
+
+        for (int start = 0; start < statements.size(); start += chunkSize) {
+            List<Statement> chunk = statements.subList(start, Math.min(start + chunkSize, statements.size()));
+            StyleWriter forked = fork(peers, appendable.indentationLevel());
+            tasks.add(parallelPool.submit(() -> forked.writeChunk(chunk)));
+
+            for (Statement statement : chunk) {
+                if (shouldWrite(statement)) peers++;
+            }
+        }
+
+        for (ForkJoinTask<StyleWriter> task : tasks) {
+            StyleWriter forked;
+            try {
+                forked = task.join();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            appendable.append(forked.chunkBuffer);
+            written += forked.written;
+            uncacheable |= forked.uncacheable;
+        }
+
+        childCounts[depth - 1] = peers;
+    }
+
+    /** creates a writer with the same settings and depth as this one, with the given number of peers written at the next depth */
+    private StyleWriter fork(int peers, int indent) {
+        StyleWriter fork = new StyleWriter(mode);
+        fork.writeAllComments = writeAllComments;
+        fork.writeAnnotatedComments = writeAnnotatedComments;
+        fork.writeBangComments = writeBangComments;
+        fork.writeVerbatim = writeVerbatim;
+        fork.outputCache = outputCache;
+        fork.filter = filter;
+        fork.childCounts = Arrays.copyOf(childCounts, childCounts.length);
+        fork.childCounts[depth - 1] = peers;
+        fork.depth = depth;
+        fork.chunkBuffer = new StringBuilder(256);
+        fork.chunkOutput = new StyleAppendable(fork.chunkBuffer, indent);
+        return fork;
+    }
+
+    /** writes the given statements of a forked writer */
+    private StyleWriter writeChunk(List<Statement> statements) {
+        try {
+            for (Statement statement : statements) {
+                writeInner(statement, chunkOutput);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    /** identifies everything besides the unit itself that output depends on */
+    private int variant(StyleAppendable appendable) {
+        int variant = mode.ordinal();
+        variant |= (writeAllComments ? 1 : 0) << 2;
+        variant |= (writeAnnotatedComments ? 1 : 0) << 3;
+        variant |= (writeBangComments ? 1 : 0) << 4;
+        variant |= (shouldWriteVerbatim() ? 1 : 0) << 5;
+        variant |= (isFirstAtCurrentDepth() ? 1 : 0) << 6;
+        variant |= appendable.indentationLevel() << 7;
+        return variant;
+    }
+
     /**
      * The easiest way to get the output of a single {@link Writable} instance.
      * <p>
@@ -435,7 +820,10 @@ public final class StyleWriter implements DependentPlugin {
      * @return this, for chaining.
      */
     public StyleWriter incrementDepth() {
-        stack.push(new StackEntry(stack.peek()));
+        if (depth == childCounts.length) {
+            childCounts = Arrays.copyOf(childCounts, depth * 2);
+        }
+        childCounts[depth++] = 0;
         return this;
     }
 
@@ -448,7 +836,8 @@ public final class StyleWriter implements DependentPlugin {
      * @return this, for chaining.
      */
     public StyleWriter decrementDepth() {
-        stack.pop();
+        checkState(depth > 0, "depth is already at zero");
+        depth--;
         return this;
     }
 
@@ -459,7 +848,7 @@ public final class StyleWriter implements DependentPlugin {
      * @return The number of peers previously written out at the current depth level.
      */
     public int countAtCurrentDepth() {
-        return stack.isEmpty() ? 0 : stack.peek().numberOfPreviousPeers();
+        return depth > 1 ? childCounts[depth - 2] : 0;
     }
 
     /**
@@ -508,36 +897,4 @@ public final class StyleWriter implements DependentPlugin {
     public static StyleWriter compressed() {
         return new StyleWriter(WriterMode.COMPRESSED);
     }
-
-    /** used to help keep track of how many inner units are written at a certain depth. */
-    private static final class StackEntry {
-        private final StackEntry parent;
-        private int numChildren;
-
-        public StackEntry(StackEntry parent) {
-            this.parent = parent;
-        }
-
-        /** increment the count of children directly below this depth */
-        public void incrementNumChildren() {
-            numChildren++;
-        }
-
-        /** gets the number of children directly below this depth */
-        public int totalChildren() {
-            return numChildren;
-        }
-
-        /** increment the number of peers at this depth */
-        public void incrementPeerCountAtDepth() {
-            if (this.parent != null) {
-                this.parent.incrementNumChildren();
-            }
-        }
-
-        /** gets the number of peers at this depth */
-        public int numberOfPreviousPeers() {
-            return this.parent != null ? this.parent.totalChildren() : 0;
-        }
-    }
 }
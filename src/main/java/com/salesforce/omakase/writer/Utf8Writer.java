@@ -0,0 +1,305 @@
+/*
+ * Copyright (c) 2015, salesforce.com, inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of salesforce.com, inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.salesforce.omakase.writer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * A {@link Writer} that encodes characters as UTF-8 directly into a byte buffer, handing the bytes off to a {@link Sink}
+ * whenever the buffer fills up.
+ * <p>
+ * This avoids the intermediate {@link String} and the general purpose charset encoder when writing CSS out as bytes. Runs of
+ * ASCII characters, which make up nearly all CSS output, are copied over without any further checks. Unpaired surrogates are
+ * written as '?', the same as {@link String#getBytes(java.nio.charset.Charset)}.
+ * <p>
+ * Be sure to call {@link #flush()} or {@link #close()} when finished, otherwise some bytes may not have been handed off yet.
+ *
+ * @author nmcwilliams
+ */
+final class Utf8Writer extends Writer {
+    /** the minimum buffer size, enough for the longest encoded character */
+    static final int MIN_BUFFER_SIZE = 4;
+
+    private static final byte REPLACEMENT = '?';
+
+    private final Sink sink;
+    private final byte[] buffer;
+    private int position;
+    private char highSurrogate;
+
+    /**
+     * Creates a new {@link Utf8Writer}.
+     *
+     * @param sink
+     *     Receives the encoded bytes.
+     * @param buffer
+     *     Bytes are encoded into this buffer before being handed to the sink. It may be reused once this writer is flushed.
+     */
+    Utf8Writer(Sink sink, byte[] buffer) {
+        checkArgument(buffer.length >= MIN_BUFFER_SIZE, "buffer must be at least %s bytes", MIN_BUFFER_SIZE);
+        this.sink = checkNotNull(sink, "sink cannot be null");
+        this.buffer = buffer;
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        encode((char)c);
+    }
+
+    @Override
+    public Writer append(char c) throws IOException {
+        encode(c);
+        return this;
+    }
+
+    @Override
+    public void write(char[] chars, int offset, int count) throws IOException {
+        int i = offset;
+        int end = offset + count;
+
+        while (i < end) {
+            if (highSurrogate == 0) {
+                // ascii fast path, bounded by the remaining room in the buffer
+                int stop = Math.min(end, i + buffer.length - position);
+                char c;
+                while (i < stop && (c = chars[i]) < 0x80) {
+                    buffer[position++] = (byte)c;
+                    i++;
+                }
+                if (i == end) break;
+                if (i == stop) {
+                    drain();
+                    continue;
+                }
+            }
+            encode(chars[i++]);
+        }
+    }
+
+    @Override
+    public void write(String str, int offset, int count) throws IOException {
+        append(str, offset, offset + count);
+    }
+
+    @Override
+    public Writer append(CharSequence csq) throws IOException {
+        CharSequence sequence = csq == null ? "null" : csq;
+        return append(sequence, 0, sequence.length());
+    }
+
+    @Override
+    public Writer append(CharSequence csq, int start, int end) throws IOException {
+        CharSequence sequence = csq == null ? "null" : csq;
+        int i = start;
+
+        while (i < end) {
+            if (highSurrogate == 0) {
+                // ascii fast path, bounded by the remaining room in the buffer
+                int stop = Math.min(end, i + buffer.length - position);
+                char c;
+                while (i < stop && (c = sequence.charAt(i)) < 0x80) {
+                    buffer[position++] = (byte)c;
+                    i++;
+                }
+                if (i == end) break;
+                if (i == stop) {
+                    drain();
+                    continue;
+                }
+            }
+            encode(sequence.charAt(i++));
+        }
+        return this;
+    }
+
+    /**
+     * Hands all buffered bytes to the sink. A high surrogate still waiting on its pair is written as '?'.
+     *
+     * @throws IOException
+     *     If the sink throws an I/O error.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (highSurrogate != 0) {
+            highSurrogate = 0;
+            ensureRoom(1);
+            buffer[position++] = REPLACEMENT;
+        }
+        drain();
+        sink.flush();
+    }
+
+    /** Same as {@link #flush()}. The sink itself is not closed. */
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+
+    /** encodes a single character, handling surrogate pairs */
+    private void encode(char c) throws IOException {
+        if (highSurrogate != 0) {
+            char high = highSurrogate;
+            highSurrogate = 0;
+
+            if (Character.isLowSurrogate(c)) {
+                int cp = Character.toCodePoint(high, c);
+                ensureRoom(4);
+                buffer[position++] = (byte)(0xF0 | (cp >> 18));
+                buffer[position++] = (byte)(0x80 | ((cp >> 12) & 0x3F));
+                buffer[position++] = (byte)(0x80 | ((cp >> 6) & 0x3F));
+                buffer[position++] = (byte)(0x80 | (cp & 0x3F));
+                return;
+            }
+
+            ensureRoom(1);
+            buffer[position++] = REPLACEMENT;
+        }
+
+        if (c < 0x80) {
+            ensureRoom(1);
+            buffer[position++] = (byte)c;
+        } else if (c < 0x800) {
+            ensureRoom(2);
+            buffer[position++] = (byte)(0xC0 | (c >> 6));
+            buffer[position++] = (byte)(0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c)) {
+            highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            ensureRoom(1);
+            buffer[position++] = REPLACEMENT;
+        } else {
+            ensureRoom(3);
+            buffer[position++] = (byte)(0xE0 | (c >> 12));
+            buffer[position++] = (byte)(0x80 | ((c >> 6) & 0x3F));
+            buffer[position++] = (byte)(0x80 | (c & 0x3F));
+        }
+    }
+
+    /** drains the buffer if there isn't room for the given number of bytes */
+    private void ensureRoom(int bytes) throws IOException {
+        if (position + bytes > buffer.length) {
+            drain();
+        }
+    }
+
+    /** hands the buffered bytes to the sink */
+    private void drain() throws IOException {
+        if (position > 0) {
+            sink.write(buffer, position);
+            position = 0;
+        }
+    }
+
+    /**
+     * Creates a {@link Sink} that writes to an {@link OutputStream}.
+     *
+     * @param out
+     *     The stream to write to.
+     *
+     * @return The sink.
+     */
+    static Sink sink(OutputStream out) {
+        checkNotNull(out, "output stream cannot be null");
+        return new Sink() {
+            @Override
+            public void write(byte[] bytes, int length) throws IOException {
+                out.write(bytes, 0, length);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                out.flush();
+            }
+        };
+    }
+
+    /**
+     * Creates a {@link Sink} that writes to a {@link WritableByteChannel}. The sink wraps the given buffer once and reuses the
+     * wrapper for each write.
+     *
+     * @param channel
+     *     The channel to write to.
+     * @param buffer
+     *     The same buffer given to the {@link Utf8Writer}.
+     *
+     * @return The sink.
+     */
+    static Sink sink(WritableByteChannel channel, byte[] buffer) {
+        checkNotNull(channel, "channel cannot be null");
+        ByteBuffer wrapped = ByteBuffer.wrap(buffer);
+        return (bytes, length) -> {
+            wrapped.clear().limit(length);
+            while (wrapped.hasRemaining()) {
+                channel.write(wrapped);
+            }
+        };
+    }
+
+    /**
+     * Creates a {@link Sink} that puts bytes into a {@link ByteBuffer}, advancing its position.
+     *
+     * @param target
+     *     The buffer to put bytes into.
+     *
+     * @return The sink.
+     */
+    static Sink sink(ByteBuffer target) {
+        checkNotNull(target, "buffer cannot be null");
+        return (bytes, length) -> target.put(bytes, 0, length);
+    }
+
+    /** Receives encoded bytes from a {@link Utf8Writer}. */
+    interface Sink {
+        /**
+         * Writes the given bytes. The array is reused afterwards, so the bytes must be consumed or copied before returning.
+         *
+         * @param bytes
+         *     The bytes.
+         * @param length
+         *     Number of bytes from the start of the array to write.
+         *
+         * @throws IOException
+         *     If an I/O error occurs.
+         */
+        void write(byte[] bytes, int length) throws IOException;
+
+        /**
+         * Flushes the underlying destination, if applicable.
+         *
+         * @throws IOException
+         *     If an I/O error occurs.
+         */
+        default void flush() throws IOException {}
+    }
+}
@@ -28,6 +28,9 @@ package com.salesforce.omakase;
 
 import static org.fest.assertions.api.Assertions.assertThat;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -42,7 +45,9 @@ import com.salesforce.omakase.broadcast.annotation.Validate;
 import com.salesforce.omakase.broadcast.emitter.SubscriptionException;
 import com.salesforce.omakase.error.ErrorLevel;
 import com.salesforce.omakase.error.ErrorManager;
+import com.salesforce.omakase.parser.Grammar;
 import com.salesforce.omakase.parser.ParserException;
+import com.salesforce.omakase.parser.Source;
 import com.salesforce.omakase.parser.factory.StandardParserFactory;
 import com.salesforce.omakase.parser.factory.StandardTokenFactory;
 import com.salesforce.omakase.plugin.DependentPlugin;
@@ -170,8 +175,67 @@ public class ContextTest {
         assertThat(tpp.postProcessCalled).isTrue();
     }
 
+    @Test
+    public void streamProcessesEachStatementBeforeParsingTheNext() {
+        List<String> events = new ArrayList<>();
+        c.register(new RuleEventsPlugin(events));
+        Grammar grammar = c.beforeParsing(new TestErrorManager());
+
+        c.stream(new Source(".a{color:red}\n.b{color:red}/*end*/"), grammar, window -> {
+            events.add("consume " + window.statements().size() + " " + window.orphanedComments().size());
+        });
+
+        assertThat(events).containsExactly(
+            "observe 1", "validate 1", "consume 1 0",
+            "observe 2", "validate 2", "consume 1 0",
+            "consume 0 1");
+    }
+
+    @Test
+    public void streamNotifiesPostProcessor() {
+        TestPostProcessingPlugin tpp = new TestPostProcessingPlugin();
+        c.register(tpp);
+        Grammar grammar = c.beforeParsing(new TestErrorManager());
+        c.stream(new Source(".a{color:red}"), grammar, window -> {});
+        assertThat(tpp.postProcessCalled).isTrue();
+    }
+
+    @Test
+    public void streamDoesNotBroadcastStylesheet() {
+        SyntaxTree tree = new SyntaxTree();
+        c.register(tree);
+        Grammar grammar = c.beforeParsing(new TestErrorManager());
+        c.stream(new Source(".a{color:red}"), grammar, window -> {});
+        assertThat(tree.stylesheet()).isNull();
+    }
+
+    @Test
+    public void streamErrorsOnExtraneousContent() {
+        Grammar grammar = c.beforeParsing(new TestErrorManager());
+        exception.expect(ParserException.class);
+        c.stream(new Source(".a{color:red} }"), grammar, window -> {});
+    }
+
     public static final class TestPlugin implements Plugin {}
 
+    public static final class RuleEventsPlugin implements Plugin {
+        private final List<String> events;
+
+        RuleEventsPlugin(List<String> events) {
+            this.events = events;
+        }
+
+        @Observe
+        public void observe(com.salesforce.omakase.ast.Rule rule) {
+            events.add("observe " + rule.line());
+        }
+
+        @Validate
+        public void validate(com.salesforce.omakase.ast.Rule rule, ErrorManager em) {
+            events.add("validate " + rule.line());
+        }
+    }
+
     public static final class FailingPlugin implements Plugin {
         @Validate
         public void classSelector(ClassSelector cs, ErrorManager em) {
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2015, salesforce.com, inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of salesforce.com, inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.salesforce.omakase;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.salesforce.omakase.jfr.Stage;
+import com.salesforce.omakase.plugin.core.AutoRefine;
+import com.salesforce.omakase.plugin.syntax.DeclarationPlugin;
+
+/**
+ * Unit tests for {@link ParseStats}.
+ *
+ * @author nmcwilliams
+ */
+public class ParseStatsTest {
+    private static final String SOURCE = ".a{color:red} .b,.c{margin:0;padding:0} @media (max-width:800px){.d{color:blue}} @charset \"UTF-8\";";
+
+    @Test
+    public void notCollectedWithoutReporter() {
+        Context context = new Context();
+        assertThat(context.stats().isPresent()).isFalse();
+    }
+
+    @Test
+    public void countsRawUnits() {
+        ParseStats stats = process(Omakase.source(SOURCE));
+        assertThat(stats.inputLength()).isEqualTo(SOURCE.length());
+        assertThat(stats.statements()).isEqualTo(4);
+        assertThat(stats.rules()).isEqualTo(2);
+        assertThat(stats.atRules()).isEqualTo(2);
+        assertThat(stats.refinedAtRules()).isEqualTo(0);
+        assertThat(stats.selectors()).isEqualTo(3);
+        assertThat(stats.refinedSelectors()).isEqualTo(0);
+        assertThat(stats.declarations()).isEqualTo(3);
+        assertThat(stats.refinedDeclarations()).isEqualTo(0);
+    }
+
+    @Test
+    public void countsRefinedUnits() {
+        ParseStats stats = process(Omakase.source(SOURCE).use(AutoRefine.everything()));
+        assertThat(stats.statements()).isEqualTo(5);
+        assertThat(stats.rules()).isEqualTo(3);
+        assertThat(stats.atRules()).isEqualTo(2);
+        assertThat(stats.refinedAtRules()).isEqualTo(1);
+        assertThat(stats.selectors()).isEqualTo(4);
+        assertThat(stats.refinedSelectors()).isEqualTo(4);
+        assertThat(stats.declarations()).isEqualTo(4);
+        assertThat(stats.refinedDeclarations()).isEqualTo(4);
+    }
+
+    @Test
+    public void countsPartiallyRefinedUnits() {
+        ParseStats stats = process(Omakase.source(SOURCE).use(new DeclarationPlugin()));
+        assertThat(stats.refinedSelectors()).isEqualTo(0);
+        assertThat(stats.refinedDeclarations()).isEqualTo(3);
+    }
+
+    @Test
+    public void timesPhases() {
+        ParseStats stats = process(Omakase.source(SOURCE));
+        assertThat(stats.nanos(Stage.PARSE)).isGreaterThan(0);
+        assertThat(stats.nanos(Stage.PROCESS)).isGreaterThan(0);
+        assertThat(stats.nanos(Stage.VALIDATE)).isGreaterThan(0);
+        assertThat(stats.nanos(Stage.WRITE)).isEqualTo(0);
+        assertThat(stats.totalNanos()).isGreaterThanOrEqualTo(stats.nanos(Stage.PARSE) + stats.nanos(Stage.PROCESS));
+    }
+
+    @Test
+    public void allocatedBytes() {
+        ParseStats stats = process(Omakase.source(SOURCE));
+        assertThat(stats.allocatedBytes() == -1 || stats.allocatedBytes() > 0).isTrue();
+    }
+
+    @Test
+    public void multipleReporters() {
+        List<ParseStats> reported = new ArrayList<>();
+        Omakase.source(SOURCE).stats(reported::add).stats(reported::add).process();
+        assertThat(reported).hasSize(2);
+        assertThat(reported.get(0)).isSameAs(reported.get(1));
+    }
+
+    @Test
+    public void toStringTest() {
+        assertThat(process(Omakase.source(SOURCE)).toString()).contains("declarations");
+    }
+
+    private static ParseStats process(Omakase.Request request) {
+        List<ParseStats> reported = new ArrayList<>();
+        request.stats(reported::add).process();
+        assertThat(reported).hasSize(1);
+        return reported.get(0);
+    }
+}
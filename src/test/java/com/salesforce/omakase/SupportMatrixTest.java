@@ -27,6 +27,16 @@
 package com.salesforce.omakase;
 
 import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.Before;
 import org.junit.Rule;
@@ -37,6 +47,7 @@ import com.google.common.collect.Iterables;
 import com.salesforce.omakase.data.Browser;
 import com.salesforce.omakase.data.Keyword;
 import com.salesforce.omakase.data.Prefix;
+import com.salesforce.omakase.data.PrefixTablesUtil;
 import com.salesforce.omakase.data.Property;
 import com.salesforce.omakase.util.SupportMatrix;
 
@@ -383,4 +394,106 @@ public class SupportMatrixTest {
         support.browser(Browser.OPERA, 12);
         assertThat(support.requiresPrefixForFunction(Prefix.O, "calc")).isFalse();
     }
+
+    @Test
+    public void notCompiledByDefault() {
+        assertThat(support.isCompiled()).isFalse();
+    }
+
+    @Test
+    public void compile() {
+        support.last(Browser.CHROME, 3);
+        SupportMatrix compiled = support.compile();
+        assertThat(compiled).isNotSameAs(support);
+        assertThat(compiled.isCompiled()).isTrue();
+        assertThat(compiled.compile()).isSameAs(compiled);
+        assertThat(compiled.allSupportedVersions(Browser.CHROME)).isEqualTo(support.allSupportedVersions(Browser.CHROME));
+        assertThat(compiled.lowestSupportedVersion(Browser.CHROME)).isEqualTo(support.lowestSupportedVersion(Browser.CHROME));
+    }
+
+    @Test
+    public void compiledIsImmutable() {
+        SupportMatrix compiled = support.latest(Browser.CHROME).compile();
+        assertThrows(IllegalStateException.class, () -> compiled.latest(Browser.FIREFOX));
+        assertThrows(IllegalStateException.class, () -> compiled.last(Browser.FIREFOX, 2));
+        assertThrows(IllegalStateException.class, () -> compiled.all(Browser.FIREFOX));
+        assertThrows(IllegalStateException.class, () -> compiled.browser(Browser.FIREFOX, 15));
+    }
+
+    @Test
+    public void compiledNotAffectedBySource() {
+        SupportMatrix compiled = support.browser(Browser.FIREFOX, 15).compile();
+        support.all(Browser.IE);
+        assertThat(compiled.supportsBrowser(Browser.IE)).isFalse();
+    }
+
+    @Test
+    public void compiledMatchesUncompiled() {
+        for (Browser browser : Browser.values()) {
+            support.all(browser);
+        }
+        SupportMatrix compiled = support.compile();
+
+        for (Property property : Property.values()) {
+            assertThat(compiled.prefixesForProperty(property)).isEqualTo(support.prefixesForProperty(property));
+            for (Prefix prefix : Prefix.values()) {
+                assertThat(compiled.requiresPrefixForProperty(prefix, property))
+                    .isEqualTo(support.requiresPrefixForProperty(prefix, property));
+            }
+        }
+        for (Keyword keyword : Keyword.values()) {
+            assertThat(compiled.prefixesForKeyword(keyword)).isEqualTo(support.prefixesForKeyword(keyword));
+            for (Prefix prefix : Prefix.values()) {
+                assertThat(compiled.requiresPrefixForKeyword(prefix, keyword))
+                    .isEqualTo(support.requiresPrefixForKeyword(prefix, keyword));
+            }
+        }
+        for (String name : PrefixTablesUtil.prefixableAtRules()) {
+            assertThat(compiled.prefixesForAtRule(name)).isEqualTo(support.prefixesForAtRule(name));
+        }
+        for (String name : PrefixTablesUtil.prefixableSelectors()) {
+            assertThat(compiled.prefixesForSelector(name)).isEqualTo(support.prefixesForSelector(name));
+        }
+        for (String name : PrefixTablesUtil.prefixableFunctions()) {
+            assertThat(compiled.prefixesForFunction(name)).isEqualTo(support.prefixesForFunction(name));
+        }
+    }
+
+    @Test
+    public void compiledUnknownNames() {
+        SupportMatrix compiled = support.all(Browser.CHROME).compile();
+        assertThat(compiled.prefixesForAtRule("blah")).isEmpty();
+        assertThat(compiled.prefixesForSelector("blah")).isEmpty();
+        assertThat(compiled.requiresPrefixForFunction(Prefix.WEBKIT, "blah")).isFalse();
+    }
+
+    @Test
+    public void compiledSharedAcrossThreads() throws Exception {
+        support.all(Browser.CHROME).all(Browser.FIREFOX).all(Browser.SAFARI);
+        SupportMatrix compiled = support.compile();
+        Map<Property, Set<Prefix>> expected = new EnumMap<>(Property.class);
+        for (Property property : Property.values()) {
+            expected.put(property, support.prefixesForProperty(property));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> {
+                    for (Property property : Property.values()) {
+                        if (!compiled.prefixesForProperty(property).equals(expected.get(property))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertThat(result.get()).isTrue();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
 }
@@ -29,6 +29,13 @@ package com.salesforce.omakase.ast;
 import static org.fest.assertions.api.Assertions.assertThat;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.Test;
 
@@ -336,6 +343,47 @@ public class AbstractSyntaxTest {
         assertThat(t1.id()).isNotEqualTo(t2.id());
     }
 
+    @Test
+    public void markModifiedIncreasesRevision() {
+        TestSyntax t = new TestSyntax();
+        int revision = t.revision();
+        t.markModified();
+        assertThat(t.revision()).isEqualTo(revision + 1);
+    }
+
+    @Test
+    public void addingCommentIncreasesRevision() {
+        TestSyntax t = new TestSyntax();
+        int revision = t.revision();
+        t.comment("test");
+        assertThat(t.revision()).isGreaterThan(revision);
+    }
+
+    @Test
+    public void idsUniqueAcrossThreads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<Integer>>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(() -> {
+                    List<Integer> ids = new ArrayList<>();
+                    for (int j = 0; j < 5000; j++) {
+                        ids.add(new TestSyntax().id());
+                    }
+                    return ids;
+                }));
+            }
+
+            Set<Integer> all = new HashSet<>();
+            for (Future<List<Integer>> future : futures) {
+                all.addAll(future.get());
+            }
+            assertThat(all).hasSize(20000);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     public static final class TestSyntax extends AbstractSyntax {
         private String name;
 
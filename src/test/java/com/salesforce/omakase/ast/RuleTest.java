@@ -33,6 +33,7 @@ import java.io.IOException;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import com.salesforce.omakase.Omakase;
 import com.salesforce.omakase.ast.declaration.Declaration;
 import com.salesforce.omakase.ast.declaration.KeywordValue;
 import com.salesforce.omakase.ast.declaration.NumericalValue;
@@ -42,6 +43,8 @@ import com.salesforce.omakase.ast.selector.Selector;
 import com.salesforce.omakase.broadcast.QueryableBroadcaster;
 import com.salesforce.omakase.data.Keyword;
 import com.salesforce.omakase.data.Property;
+import com.salesforce.omakase.plugin.core.AutoRefine;
+import com.salesforce.omakase.plugin.core.SyntaxTree;
 import com.salesforce.omakase.writer.StyleWriter;
 
 /** Unit tests for Rule. */
@@ -50,6 +53,60 @@ public class RuleTest {
     @org.junit.Rule
     public final ExpectedException exception = ExpectedException.none();
 
+    @Test
+    public void verbatimAfterParsing() {
+        SyntaxTree tree = new SyntaxTree();
+        Omakase.source(" .a  { color: red }  ").use(tree).process();
+        Rule rule = tree.stylesheet().rules().get(0);
+        assertThat(rule.verbatim().get().toString()).isEqualTo(".a  { color: red }");
+    }
+
+    @Test
+    public void verbatimEmptyWhenDeclarationRemoved() {
+        SyntaxTree tree = new SyntaxTree();
+        Omakase.source(".a{color:red; margin:0}").use(tree).process();
+        Rule rule = tree.stylesheet().rules().get(0);
+        rule.declarations().first().get().destroy();
+        assertThat(rule.verbatim().isPresent()).isFalse();
+    }
+
+    @Test
+    public void verbatimEmptyWhenRefined() {
+        SyntaxTree tree = new SyntaxTree();
+        Omakase.source(".a{color:red}").use(tree).use(AutoRefine.only(AutoRefine.Match.SELECTORS)).process();
+        assertThat(tree.stylesheet().rules().get(0).verbatim().isPresent()).isFalse();
+    }
+
+    @Test
+    public void destroyingDeclarationIncreasesRevision() {
+        SyntaxTree tree = new SyntaxTree();
+        Omakase.source(".a{color:red; margin:0}").use(tree).process();
+        Rule rule = tree.stylesheet().rules().get(0);
+        int ruleRevision = rule.revision();
+        int stylesheetRevision = tree.stylesheet().revision();
+
+        rule.declarations().first().get().destroy();
+        assertThat(rule.revision()).isGreaterThan(ruleRevision);
+        assertThat(tree.stylesheet().revision()).isGreaterThan(stylesheetRevision);
+    }
+
+    @Test
+    public void verbatimEmptyWhenNestedTermChanged() {
+        SyntaxTree tree = new SyntaxTree();
+        Omakase.source(".a{margin:0}").use(tree).process();
+        Rule rule = tree.stylesheet().rules().get(0);
+        Declaration declaration = rule.declarations().first().get();
+        assertThat(rule.verbatim().isPresent()).isTrue();
+
+        declaration.propertyValue().important(true);
+        assertThat(rule.verbatim().isPresent()).isFalse();
+    }
+
+    @Test
+    public void verbatimEmptyForDynamicRule() {
+        assertThat(new Rule().verbatim().isPresent()).isFalse();
+    }
+
     @Test
     public void canAddSelector() {
         Rule rule = new Rule();
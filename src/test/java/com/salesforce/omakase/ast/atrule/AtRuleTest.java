@@ -36,6 +36,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import com.salesforce.omakase.Omakase;
 import com.salesforce.omakase.ast.RawSyntax;
 import com.salesforce.omakase.ast.Statement;
 import com.salesforce.omakase.ast.StatementIterable;
@@ -43,6 +44,8 @@ import com.salesforce.omakase.ast.Status;
 import com.salesforce.omakase.ast.collection.SyntaxCollection;
 import com.salesforce.omakase.broadcast.QueryableBroadcaster;
 import com.salesforce.omakase.broadcast.emitter.SubscriptionPhase;
+import com.salesforce.omakase.plugin.core.AutoRefine;
+import com.salesforce.omakase.plugin.core.SyntaxTree;
 import com.salesforce.omakase.writer.StyleAppendable;
 import com.salesforce.omakase.writer.StyleWriter;
 
@@ -60,6 +63,31 @@ public class AtRuleTest {
         rawBlock = new RawSyntax(1, 1, "p { color: red;}");
     }
 
+    @Test
+    public void verbatimAfterParsing() {
+        SyntaxTree tree = new SyntaxTree();
+        Omakase.source("@media  screen { .a{color:red} }").use(tree).process();
+        AtRule ar = (AtRule)tree.stylesheet().statements().first().get();
+        assertThat(ar.verbatim().get().toString()).isEqualTo("@media  screen { .a{color:red} }");
+    }
+
+    @Test
+    public void verbatimEmptyAfterNameChange() {
+        SyntaxTree tree = new SyntaxTree();
+        Omakase.source("@media  screen { .a{color:red} }").use(tree).process();
+        AtRule ar = (AtRule)tree.stylesheet().statements().first().get();
+        ar.name("supports");
+        assertThat(ar.verbatim().isPresent()).isFalse();
+    }
+
+    @Test
+    public void verbatimEmptyWhenRefined() {
+        SyntaxTree tree = new SyntaxTree();
+        Omakase.source("@media  screen { .a{color:red} }").use(tree).use(AutoRefine.everything()).process();
+        AtRule ar = (AtRule)tree.stylesheet().statements().first().get();
+        assertThat(ar.verbatim().isPresent()).isFalse();
+    }
+
     @Test
     public void getName() {
         AtRule ar = new AtRule(5, 5, "media-x", rawExpression, rawBlock);
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2015, salesforce.com, inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of salesforce.com, inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.salesforce.omakase.ast.compact;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.salesforce.omakase.Omakase;
+import com.salesforce.omakase.ast.Rule;
+import com.salesforce.omakase.ast.Stylesheet;
+import com.salesforce.omakase.ast.atrule.AtRule;
+import com.salesforce.omakase.parser.ParserException;
+import com.salesforce.omakase.writer.StyleWriter;
+
+/**
+ * Unit tests for {@link CompactStylesheet} and {@link CompactNode}.
+ *
+ * @author nmcwilliams
+ */
+@SuppressWarnings("JavaDoc")
+public class CompactStylesheetTest {
+    private static final String SRC = ".a, .b > p {color:red; margin:0}\n" +
+        "@media screen {.c{color:red}}\n" +
+        "#d{color:red}";
+
+    @Test
+    public void statements() {
+        CompactStylesheet sheet = CompactStylesheet.parse(SRC);
+        List<CompactNode> statements = Lists.newArrayList(sheet.root().children());
+        assertThat(statements).hasSize(3);
+        assertThat(statements.get(0).kind()).isSameAs(NodeKind.RULE);
+        assertThat(statements.get(1).kind()).isSameAs(NodeKind.AT_RULE);
+        assertThat(statements.get(2).kind()).isSameAs(NodeKind.RULE);
+    }
+
+    @Test
+    public void ruleContent() {
+        CompactNode rule = CompactStylesheet.parse(SRC).root().children().iterator().next();
+        List<CompactNode> children = Lists.newArrayList(rule.children());
+        assertThat(children).hasSize(4);
+
+        assertThat(children.get(0).kind()).isSameAs(NodeKind.SELECTOR);
+        assertThat(children.get(0).text()).isEqualTo(".a");
+        assertThat(children.get(1).text()).isEqualTo(".b > p");
+
+        CompactNode declaration = children.get(2);
+        assertThat(declaration.kind()).isSameAs(NodeKind.DECLARATION);
+        assertThat(declaration.text()).isEqualTo("color");
+        assertThat(declaration.child(NodeKind.DECLARATION_VALUE).get().text()).isEqualTo("red");
+        assertThat(declaration.parent().get()).isEqualTo(rule);
+    }
+
+    @Test
+    public void atRuleContent() {
+        CompactNode atRule = Lists.newArrayList(CompactStylesheet.parse(SRC).root().children()).get(1);
+        assertThat(atRule.text()).isEqualTo("media");
+        assertThat(atRule.child(NodeKind.AT_RULE_EXPRESSION).get().text()).isEqualTo("screen");
+        assertThat(atRule.child(NodeKind.AT_RULE_BLOCK).get().text()).isEqualTo(".c{color:red}");
+    }
+
+    @Test
+    public void sourcePositions() {
+        CompactNode atRule = Lists.newArrayList(CompactStylesheet.parse(SRC).root().children()).get(1);
+        assertThat(atRule.line()).isEqualTo(2);
+        assertThat(atRule.column()).isEqualTo(1);
+    }
+
+    @Test
+    public void counts() {
+        CompactStylesheet sheet = CompactStylesheet.parse(SRC);
+        assertThat(sheet.count(NodeKind.RULE)).isEqualTo(2);
+        assertThat(sheet.count(NodeKind.AT_RULE)).isEqualTo(1);
+        assertThat(sheet.count(NodeKind.DECLARATION)).isEqualTo(3);
+        assertThat(sheet.size()).isEqualTo(15);
+    }
+
+    @Test
+    public void stringsAreInterned() {
+        CompactStylesheet sheet = CompactStylesheet.parse(SRC);
+        assertThat(sheet.uniqueStrings()).isLessThan(sheet.size());
+        assertThat(sheet.node(4).text()).isSameAs(sheet.node(13).text()); // "color"
+    }
+
+    @Test
+    public void emptySource() {
+        CompactStylesheet sheet = CompactStylesheet.parse("  /* comment */ ");
+        assertThat(sheet.size()).isEqualTo(1);
+        assertThat(sheet.root().children().iterator().hasNext()).isFalse();
+        assertThat(sheet.root().parent().isPresent()).isFalse();
+    }
+
+    @Test
+    public void invalidSource() {
+        assertThrows(ParserException.class, () -> CompactStylesheet.parse(".a{color:red} }"));
+    }
+
+    @Test
+    public void invalidIndex() {
+        assertThrows(IndexOutOfBoundsException.class, () -> CompactStylesheet.parse(SRC).node(100));
+    }
+
+    @Test
+    public void toSyntaxRule() {
+        CompactNode node = CompactStylesheet.parse(SRC).root().children().iterator().next();
+        Rule rule = (Rule)node.toSyntax();
+        assertThat(rule.selectors()).hasSize(2);
+        assertThat(rule.declarations()).hasSize(2);
+        assertThat(rule.line()).isEqualTo(1);
+    }
+
+    @Test
+    public void toSyntaxAtRule() {
+        CompactNode node = Lists.newArrayList(CompactStylesheet.parse(SRC).root().children()).get(1);
+        AtRule atRule = (AtRule)node.toSyntax();
+        assertThat(atRule.name()).isEqualTo("media");
+        assertThat(atRule.rawExpression().get().content()).isEqualTo("screen");
+        assertThat(atRule.rawBlock().get().content()).isEqualTo(".c{color:red}");
+    }
+
+    @Test
+    public void toSyntaxStylesheetWritesSameAsRegularParse() {
+        Stylesheet stylesheet = (Stylesheet)CompactStylesheet.parse(SRC).root().toSyntax();
+
+        StyleWriter expected = StyleWriter.compressed();
+        Omakase.source(SRC).use(expected).process();
+
+        assertThat(StyleWriter.compressed().writeSingle(stylesheet)).isEqualTo(expected.write());
+    }
+
+    @Test
+    public void viewEquality() {
+        CompactStylesheet sheet = CompactStylesheet.parse(SRC);
+        assertThat(sheet.node(1)).isEqualTo(sheet.node(1));
+        assertThat(sheet.node(1).hashCode()).isEqualTo(sheet.node(1).hashCode());
+        assertThat(sheet.node(1)).isNotEqualTo(sheet.node(2));
+        assertThat(sheet.node(1)).isNotEqualTo(CompactStylesheet.parse(SRC).node(1));
+    }
+}
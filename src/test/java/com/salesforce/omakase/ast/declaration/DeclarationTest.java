@@ -37,6 +37,7 @@ import com.google.common.collect.Lists;
 import com.salesforce.omakase.ast.RawSyntax;
 import com.salesforce.omakase.ast.Rule;
 import com.salesforce.omakase.ast.Status;
+import com.salesforce.omakase.ast.Stylesheet;
 import com.salesforce.omakase.ast.atrule.AtRule;
 import com.salesforce.omakase.ast.atrule.GenericAtRuleBlock;
 import com.salesforce.omakase.ast.atrule.GenericAtRuleExpression;
@@ -65,6 +66,58 @@ public class DeclarationTest {
         fromRaw = new Declaration(rawName, rawValue);
     }
 
+    @Test
+    public void settingPropertyValueIncreasesRevisionOfEnclosingUnits() {
+        Declaration d = new Declaration(Property.DISPLAY, KeywordValue.of(Keyword.NONE));
+        Rule rule = new Rule();
+        rule.declarations().append(d);
+        Stylesheet stylesheet = new Stylesheet();
+        stylesheet.append(rule);
+
+        int declarationRevision = d.revision();
+        int ruleRevision = rule.revision();
+        int stylesheetRevision = stylesheet.revision();
+
+        d.propertyValue(KeywordValue.of(Keyword.BLOCK));
+        assertThat(d.revision()).isGreaterThan(declarationRevision);
+        assertThat(rule.revision()).isGreaterThan(ruleRevision);
+        assertThat(stylesheet.revision()).isGreaterThan(stylesheetRevision);
+    }
+
+    @Test
+    public void prefixingPropertyNameIncreasesRevision() {
+        Declaration d = new Declaration(Property.BORDER_RADIUS, NumericalValue.of(5, "px"));
+        int revision = d.revision();
+        d.propertyName().prefix(Prefix.WEBKIT);
+        assertThat(d.revision()).isGreaterThan(revision);
+    }
+
+    @Test
+    public void prefixingRefinedRawPropertyNameIncreasesRevision() {
+        int revision = fromRaw.revision();
+        fromRaw.propertyName().prefix(Prefix.WEBKIT);
+        assertThat(fromRaw.revision()).isGreaterThan(revision);
+    }
+
+    @Test
+    public void changingTermIncreasesRevision() {
+        NumericalValue number = NumericalValue.of(5, "px");
+        Declaration d = new Declaration(Property.MARGIN, number);
+        int revision = d.revision();
+        number.value(10);
+        assertThat(d.revision()).isGreaterThan(revision);
+    }
+
+    @Test
+    public void readingDoesNotIncreaseRevision() {
+        Declaration d = new Declaration(Property.MARGIN, NumericalValue.of(5, "px"));
+        int revision = d.revision();
+        d.propertyName();
+        d.propertyValue();
+        StyleWriter.inline().writeSingle(d);
+        assertThat(d.revision()).isEqualTo(revision);
+    }
+
     @Test
     public void rawValues() {
         assertThat(fromRaw.rawPropertyName().get()).isSameAs(rawName);
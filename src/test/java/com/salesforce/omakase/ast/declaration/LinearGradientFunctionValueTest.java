@@ -139,4 +139,12 @@ public class LinearGradientFunctionValueTest {
         assertThat(copy.comments()).hasSameSizeAs(function.comments());
         assertThat(copy.repeating()).isEqualTo(function.repeating());
     }
+
+    @Test
+    public void testCopyWhenPrefixed() {
+        function = new LinearGradientFunctionValue("red, yellow").prefix(Prefix.WEBKIT);
+        LinearGradientFunctionValue copy = function.copy();
+        assertThat(copy.prefix().get()).isSameAs(Prefix.WEBKIT);
+        assertThat(copy.name()).isEqualTo("-webkit-linear-gradient");
+    }
 }
@@ -33,6 +33,7 @@ import java.io.IOException;
 import org.junit.Test;
 
 import com.google.common.collect.Lists;
+import com.salesforce.omakase.data.Property;
 import com.salesforce.omakase.writer.StyleWriter;
 
 /** Unit tests for {@link NumericalValue}. */
@@ -357,6 +358,17 @@ public class NumericalValueTest {
         assertThat(StyleWriter.compressed().writeSingle(numerical)).isEqualTo("0");
     }
 
+    @Test
+    public void writeZeroFlexBasisKeepsUnit() throws Exception {
+        numerical = NumericalValue.of(0, "px");
+        new Declaration(Property.FLEX, PropertyValue.of(NumericalValue.of(1), NumericalValue.of(1), numerical));
+        assertThat(StyleWriter.compressed().writeSingle(numerical)).isEqualTo("0px");
+
+        numerical = NumericalValue.of(0, "px");
+        new Declaration(Property.FLEX_BASIS, PropertyValue.of(numerical));
+        assertThat(StyleWriter.compressed().writeSingle(numerical)).isEqualTo("0px");
+    }
+
     @Test
     public void writeHasMultipleZeros() throws Exception {
         numerical = new NumericalValue(1, 1, "0000");
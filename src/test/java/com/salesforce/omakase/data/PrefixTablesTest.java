@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2015, salesforce.com, inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of salesforce.com, inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.salesforce.omakase.data;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link PrefixTables}.
+ *
+ * @author nmcwilliams
+ */
+public class PrefixTablesTest {
+    @Test
+    public void resourceHeader() throws IOException {
+        try (InputStream resource = PrefixTables.class.getResourceAsStream(PrefixTables.RESOURCE)) {
+            assertThat(resource).isNotNull();
+            DataInputStream in = new DataInputStream(resource);
+            assertThat(in.readInt()).isEqualTo(PrefixTables.MAGIC);
+            assertThat(in.readUnsignedShort()).isEqualTo(PrefixTables.FORMAT);
+            assertThat(in.readUnsignedByte()).isEqualTo(Browser.values().length);
+        }
+    }
+
+    @Test
+    public void enumSectionsMatchByName() throws IOException {
+        try (InputStream resource = PrefixTables.class.getResourceAsStream(PrefixTables.RESOURCE)) {
+            DataInputStream in = new DataInputStream(resource);
+            in.readInt();
+            in.readUnsignedShort();
+            in.readUnsignedByte();
+
+            Map<String, double[]> properties = readSection(in);
+            assertThat(properties).isNotEmpty();
+            for (Property property : Property.values()) {
+                double[] versions = properties.get(property.toString());
+                assertThat(PrefixTables.isPrefixable(property)).as(property.toString()).isEqualTo(versions != null);
+                for (Browser browser : Browser.values()) {
+                    double expected = versions != null ? versions[browser.ordinal()] : PrefixTables.NONE;
+                    assertThat(PrefixTables.lastPrefixed(property, browser)).as(property + " " + browser).isEqualTo(expected);
+                }
+            }
+
+            Map<String, double[]> keywords = readSection(in);
+            assertThat(keywords).isNotEmpty();
+            for (Keyword keyword : Keyword.values()) {
+                double[] versions = keywords.get(keyword.toString());
+                assertThat(PrefixTables.isPrefixable(keyword)).as(keyword.toString()).isEqualTo(versions != null);
+                for (Browser browser : Browser.values()) {
+                    double expected = versions != null ? versions[browser.ordinal()] : PrefixTables.NONE;
+                    assertThat(PrefixTables.lastPrefixed(keyword, browser)).as(keyword + " " + browser).isEqualTo(expected);
+                }
+            }
+        }
+    }
+
+    private static Map<String, double[]> readSection(DataInputStream in) throws IOException {
+        Map<String, double[]> section = new HashMap<>();
+        int names = in.readUnsignedShort();
+        for (int i = 0; i < names; i++) {
+            double[] versions = new double[Browser.values().length];
+            Arrays.fill(versions, PrefixTables.NONE);
+            section.put(in.readUTF(), versions);
+            int entries = in.readUnsignedByte();
+            for (int j = 0; j < entries; j++) {
+                versions[in.readUnsignedByte()] = Math.round(in.readFloat() * 1000d) / 1000d;
+            }
+        }
+        return section;
+    }
+
+    @Test
+    public void decimalVersionsAreExact() {
+        assertThat(PrefixTables.lastPrefixed(Property.BORDER_RADIUS, Browser.FIREFOX)).isEqualTo(3.6);
+        assertThat(PrefixTables.lastPrefixed(Property.BORDER_RADIUS, Browser.IOS_SAFARI)).isEqualTo(3.2);
+        assertThat(PrefixTables.lastPrefixed(Property.BACKGROUND_CLIP, Browser.OPERA)).isEqualTo(10.1);
+    }
+
+    @Test
+    public void missingVersion() {
+        assertThat(PrefixTables.lastPrefixed(Property.BORDER_RADIUS, Browser.IE)).isEqualTo(PrefixTables.NONE);
+        assertThat(PrefixTables.lastPrefixed(Keyword.ALL, Browser.CHROME)).isEqualTo(PrefixTables.NONE);
+    }
+
+    @Test
+    public void prefixableRows() {
+        assertThat(PrefixTables.isPrefixable(Property.BORDER_RADIUS)).isTrue();
+        assertThat(PrefixTables.isPrefixable(Property.BORDER)).isFalse();
+        assertThat(PrefixTables.isPrefixable(Keyword.FLEX)).isTrue();
+        assertThat(PrefixTables.isPrefixable(Keyword.ALL)).isFalse();
+    }
+
+    @Test
+    public void nameTables() {
+        assertThat(PrefixTables.atRules()).containsKey("keyframes");
+        assertThat(PrefixTables.selectors()).containsKey("selection");
+        assertThat(PrefixTables.functions()).containsKey("calc");
+        assertThat(PrefixTables.functions().get("calc")[Browser.CHROME.ordinal()]).isEqualTo(25.0);
+        assertThat(PrefixTables.functions().get("calc")[Browser.IE.ordinal()]).isEqualTo(PrefixTables.NONE);
+    }
+}
@@ -172,4 +172,11 @@ public class PrefixTablesUtilTest {
     public void lastPrefixedVersionFunctionForNotPrefixedFunction() {
         assertThat(PrefixTablesUtil.lastVersionFunctionIsPrefixed("blah", Browser.IE)).isEqualTo(-1);
     }
+
+    @Test
+    public void prefixableNames() {
+        assertThat(PrefixTablesUtil.prefixableAtRules()).contains("keyframes");
+        assertThat(PrefixTablesUtil.prefixableSelectors()).contains("selection");
+        assertThat(PrefixTablesUtil.prefixableFunctions()).contains("linear-gradient");
+    }
 }
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2015, salesforce.com, inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of salesforce.com, inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.salesforce.omakase.jfr;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.salesforce.omakase.Omakase;
+import com.salesforce.omakase.error.DefaultErrorManager;
+import com.salesforce.omakase.plugin.core.AutoRefine;
+import com.salesforce.omakase.writer.StyleWriter;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Unit tests for {@link Recordings}.
+ *
+ * @author nmcwilliams
+ */
+public class RecordingsTest {
+    @Test
+    public void noopWhenNotRecording() {
+        assertThat(Recordings.begin(Stage.PARSE)).isSameAs(Recordings.NOOP);
+    }
+
+    @Test
+    public void noopCommitDoesNothing() {
+        assertThat(Recordings.NOOP.stop()).isFalse();
+        Recordings.NOOP.commit("test", 1, 1);
+    }
+
+    @Test
+    public void recordsAllStages() throws IOException {
+        Map<String, RecordedEvent> events = record(() -> {
+            StyleWriter writer = StyleWriter.compressed();
+            Omakase.source(".a{color:red}.b{margin:1px 2px}")
+                .use(new DefaultErrorManager("test.css"))
+                .use(AutoRefine.everything())
+                .use(writer)
+                .process();
+            assertThat(writer.write()).isEqualTo(".a{color:red}.b{margin:1px 2px}");
+        });
+
+        assertThat(events.keySet()).contains(
+            "com.salesforce.omakase.Parse",
+            "com.salesforce.omakase.Refine",
+            "com.salesforce.omakase.Process",
+            "com.salesforce.omakase.Validate",
+            "com.salesforce.omakase.PostProcess",
+            "com.salesforce.omakase.Write");
+
+        RecordedEvent parse = events.get("com.salesforce.omakase.Parse");
+        assertThat(parse.getString("sourceName")).isEqualTo("test.css");
+        assertThat(parse.getLong("size")).isEqualTo(31);
+        assertThat(parse.getLong("nodes")).isGreaterThan(0);
+
+        RecordedEvent write = events.get("com.salesforce.omakase.Write");
+        assertThat(write.getString("sourceName")).isEqualTo("test.css");
+        assertThat(write.getLong("size")).isEqualTo(31);
+        assertThat(write.getLong("nodes")).isGreaterThan(0);
+
+        RecordedEvent refine = events.get("com.salesforce.omakase.Refine");
+        assertThat(refine.getString("sourceName")).isEqualTo("test.css");
+        assertThat(refine.getLong("size")).isGreaterThan(0);
+    }
+
+    /** runs the given code with all omakase events enabled, returning the last recorded event of each type */
+    private static Map<String, RecordedEvent> record(Runnable runnable) throws IOException {
+        Path file = Files.createTempFile("omakase", ".jfr");
+        try {
+            try (jdk.jfr.Recording recording = new jdk.jfr.Recording()) {
+                for (String name : new String[]{"Parse", "Refine", "Process", "Validate", "PostProcess", "Write"}) {
+                    recording.enable("com.salesforce.omakase." + name).withoutThreshold();
+                }
+                recording.start();
+                runnable.run();
+                recording.stop();
+                recording.dump(file);
+            }
+
+            List<RecordedEvent> recorded = RecordingFile.readAllEvents(file);
+            Map<String, RecordedEvent> events = new HashMap<>();
+            for (RecordedEvent event : recorded) {
+                events.put(event.getEventType().getName(), event);
+            }
+            return events;
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -71,6 +71,26 @@ public class SourceTest {
         assertThat(source.index()).isEqualTo(1);
     }
 
+    @Test
+    public void spanFrom() {
+        Source source = new Source("abc def");
+        source.forward(3);
+        SourceSpan span = source.spanFrom(1);
+        assertThat(span.toString()).isEqualTo("bc");
+        assertThat(span.start()).isEqualTo(1);
+        assertThat(span.end()).isEqualTo(3);
+        assertThat(span.length()).isEqualTo(2);
+        assertThat(span.charAt(1)).isEqualTo('c');
+        assertThat(span.subSequence(1, 2).toString()).isEqualTo("c");
+    }
+
+    @Test
+    public void spanFromInvalidStart() {
+        Source source = new Source("abc def");
+        source.forward(3);
+        assertThrows(IndexOutOfBoundsException.class, () -> source.spanFrom(4));
+    }
+
     @Test
     public void streamFromRaw() {
         RawSyntax raw = new RawSyntax(5, 6, "test");
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2015, salesforce.com, inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of salesforce.com, inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.salesforce.omakase.plugin.conditionals;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableSet;
+import com.salesforce.omakase.Omakase;
+import com.salesforce.omakase.writer.OutputCache;
+import com.salesforce.omakase.writer.StyleWriter;
+
+/**
+ * Unit tests for {@link ConditionalsPermutations}.
+ *
+ * @author nmcwilliams
+ */
+@SuppressWarnings("JavaDoc")
+public class ConditionalsPermutationsTest {
+    private static final String SOURCE = ".test {color: red}\n" +
+        "@if(ie7) {\n" +
+        "    .test {color: yellow}\n" +
+        "}\n" +
+        "@if(!dark) {\n" +
+        "    .test {background: white}\n" +
+        "}\n" +
+        "@if(DARK) {\n" +
+        "    .test {background: black}\n" +
+        "}\n" +
+        "@if(compact) { .test {padding: 0} }\n" +
+        "#id, #id2 {font-size: 10em;margin: 10px}\n" +
+        "@media screen {\n" +
+        "    @if(compact || ie7) { #id {margin: 0} }\n" +
+        "}\n" +
+        ".last {color: blue}";
+
+    private static String single(Set<String> trueConditions) {
+        StyleWriter writer = StyleWriter.compressed();
+        Omakase.source(SOURCE).use(new Conditionals(trueConditions)).use(writer).process();
+        return writer.write();
+    }
+
+    @Test
+    public void matchesSeparateRuns() {
+        ConditionalsPermutations permutations = new ConditionalsPermutations()
+            .add()
+            .add("ie7")
+            .add("dark", "compact")
+            .add("IE7", "Compact");
+
+        StyleWriter writer = StyleWriter.compressed();
+        Omakase.source(SOURCE).use(permutations).use(writer).process();
+        Map<ImmutableSet<String>, String> outputs = permutations.write(writer);
+
+        assertThat(outputs.keySet()).containsExactly(ImmutableSet.of(), ImmutableSet.of("ie7"),
+            ImmutableSet.of("dark", "compact"), ImmutableSet.of("ie7", "compact"));
+
+        for (Map.Entry<ImmutableSet<String>, String> entry : outputs.entrySet()) {
+            assertThat(entry.getValue()).isEqualTo(single(entry.getKey()));
+        }
+    }
+
+    @Test
+    public void allCombinations() {
+        ConditionalsPermutations permutations = new ConditionalsPermutations().allCombinations();
+        StyleWriter writer = StyleWriter.compressed();
+        Omakase.source(SOURCE).use(permutations).use(writer).process();
+
+        Map<ImmutableSet<String>, String> outputs = permutations.write(writer);
+        assertThat(outputs).hasSize(8);
+        for (Map.Entry<ImmutableSet<String>, String> entry : outputs.entrySet()) {
+            assertThat(entry.getValue()).isEqualTo(single(entry.getKey()));
+        }
+    }
+
+    @Test
+    public void allCombinationsExcludeNegationOnly() {
+        String source = "@if(ie7){.a{color:red}}@if(!ie8){.b{color:red}}";
+        ConditionalsCollector collector = new ConditionalsCollector().excludeNegationOnly(true);
+        ConditionalsPermutations permutations = new ConditionalsPermutations().allCombinations();
+
+        StyleWriter writer = StyleWriter.compressed();
+        Omakase.source(source).use(collector).use(permutations).use(writer).process();
+
+        assertThat(permutations.permutations()).containsOnly(ImmutableSet.of(), ImmutableSet.of("ie7"));
+    }
+
+    @Test
+    public void allCombinationsWithAdded() {
+        ConditionalsPermutations permutations = new ConditionalsPermutations().add("ie7", "other").allCombinations();
+        Omakase.source("@if(ie7){.a{color:red}}").use(permutations).process();
+        assertThat(permutations.permutations()).containsExactly(ImmutableSet.of("ie7", "other"), ImmutableSet.of(),
+            ImmutableSet.of("ie7"));
+    }
+
+    @Test
+    public void sharesOutputOfEquivalentPermutations() {
+        ConditionalsPermutations permutations = new ConditionalsPermutations().add("ie7").add("ie7", "unused").add("unused");
+        StyleWriter writer = StyleWriter.compressed();
+        Omakase.source(SOURCE).use(permutations).use(writer).process();
+
+        Map<ImmutableSet<String>, String> outputs = permutations.write(writer);
+        assertThat(outputs.get(ImmutableSet.of("ie7", "unused"))).isSameAs(outputs.get(ImmutableSet.of("ie7")));
+        assertThat(outputs.get(ImmutableSet.of("unused"))).isNotEqualTo(outputs.get(ImmutableSet.of("ie7")));
+    }
+
+    @Test
+    public void reusesSharedRules() {
+        OutputCache cache = new OutputCache();
+        ConditionalsPermutations permutations = new ConditionalsPermutations().add().add("ie7").add("dark");
+        StyleWriter writer = StyleWriter.compressed().outputCache(cache);
+        Omakase.source(SOURCE).use(permutations).use(writer).process();
+
+        permutations.write(writer);
+        assertThat(cache.hits()).isGreaterThan(0);
+        assertThat(writer.outputCache().get()).isSameAs(cache);
+    }
+
+    @Test
+    public void restoresConfigAndCache() {
+        Conditionals conditionals = new Conditionals("ie7");
+        ConditionalsPermutations permutations = new ConditionalsPermutations().add("dark");
+        StyleWriter writer = StyleWriter.compressed();
+        Omakase.source(SOURCE).use(conditionals).use(permutations).use(writer).process();
+
+        String before = writer.write();
+        permutations.write(writer);
+
+        assertThat(conditionals.config().trueConditions()).containsOnly("ie7");
+        assertThat(writer.outputCache().isPresent()).isFalse();
+        assertThat(writer.write()).isEqualTo(before);
+    }
+
+    @Test
+    public void passthroughMode() {
+        ConditionalsPermutations permutations = new ConditionalsPermutations().add().add("ie7");
+        StyleWriter writer = StyleWriter.compressed();
+        Omakase.source(SOURCE).use(new Conditionals(true)).use(permutations).use(writer).process();
+
+        Map<ImmutableSet<String>, String> outputs = permutations.write(writer);
+        assertThat(outputs.get(ImmutableSet.of("ie7"))).isSameAs(outputs.get(ImmutableSet.<String>of()));
+        assertThat(outputs.get(ImmutableSet.of("ie7"))).contains("@if(ie7)");
+    }
+
+    @Test
+    public void tooManyConditions() {
+        StringBuilder source = new StringBuilder();
+        for (int i = 0; i < 17; i++) {
+            source.append("@if(c").append(i).append("){.a{color:red}}");
+        }
+        ConditionalsPermutations permutations = new ConditionalsPermutations().allCombinations();
+        Omakase.source(source).use(permutations).process();
+        assertThrows(IllegalStateException.class, permutations::permutations);
+    }
+
+    @Test
+    public void notRegistered() {
+        assertThrows(IllegalStateException.class, () -> new ConditionalsPermutations().write(StyleWriter.compressed()));
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2015, salesforce.com, inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of salesforce.com, inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.salesforce.omakase.plugin.conditionals;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import org.junit.Test;
+
+import com.salesforce.omakase.Omakase;
+import com.salesforce.omakase.parser.ParserException;
+
+/**
+ * Unit tests for {@link ConditionalsScanner}.
+ *
+ * @author nmcwilliams
+ */
+@SuppressWarnings("JavaDoc")
+public class ConditionalsScannerTest {
+    private static final String SOURCE = ".test {color: red}\n" +
+        "\n" +
+        "@if(ie7) {\n" +
+        "    .test {color: yellow}\n" +
+        "}\n" +
+        "\n" +
+        "@if(IE8) {\n" +
+        "    .test {color: green}\n" +
+        "}\n" +
+        "\n" +
+        "@if(!ie9) {\n" +
+        "    .test {color: green}\n" +
+        "}\n" +
+        "\n" +
+        "#id, #id2 {font-size: 10em;margin: 10px}\n" +
+        "\n" +
+        "@if(webkit || blink) {\n" +
+        "    #id {border: 1px}\n" +
+        "}";
+
+    @Test
+    public void foundConditions() {
+        ConditionalsScanner scanner = new ConditionalsScanner().scan(SOURCE);
+        assertThat(scanner.foundConditions()).containsOnly("ie7", "ie8", "ie9", "webkit", "blink");
+        assertThat(scanner.count()).isEqualTo(4);
+    }
+
+    @Test
+    public void sameAsCollector() {
+        ConditionalsCollector collector = new ConditionalsCollector();
+        Omakase.source(SOURCE).use(collector).process();
+        assertThat(new ConditionalsScanner().scan(SOURCE).foundConditions()).isEqualTo(collector.foundConditions());
+    }
+
+    @Test
+    public void hasCondition() {
+        ConditionalsScanner scanner = new ConditionalsScanner().scan(SOURCE);
+        assertThat(scanner.hasCondition("ie8")).isTrue();
+        assertThat(scanner.hasCondition("ie10")).isFalse();
+    }
+
+    @Test
+    public void excludeNegationOnly() {
+        ConditionalsScanner scanner = new ConditionalsScanner().excludeNegationOnly(true).scan(SOURCE);
+        assertThat(scanner.foundConditions()).containsOnly("ie7", "ie8", "webkit", "blink");
+        assertThat(scanner.hasCondition("ie9")).isFalse();
+    }
+
+    @Test
+    public void negatedAndNonNegated() {
+        ConditionalsScanner scanner = new ConditionalsScanner().excludeNegationOnly(true).scan("@if(!a){}@if(b || a){}");
+        assertThat(scanner.foundConditions()).containsOnly("a", "b");
+    }
+
+    @Test
+    public void whitespaceAndComments() {
+        ConditionalsScanner scanner = new ConditionalsScanner().scan("@if /* c */ (  !a  ||b||  c ){.x{color:red}}");
+        assertThat(scanner.foundConditions()).containsOnly("a", "b", "c");
+    }
+
+    @Test
+    public void skipsComments() {
+        ConditionalsScanner scanner = new ConditionalsScanner().scan("/* @if(a) */ @if(b){} /*@if(c)*/");
+        assertThat(scanner.foundConditions()).containsOnly("b");
+    }
+
+    @Test
+    public void skipsStrings() {
+        String source = ".a{content:\"@if(a)\"} .b{content:'@if(b) \\' @if(c)'} @if(d){}";
+        assertThat(new ConditionalsScanner().scan(source).foundConditions()).containsOnly("d");
+    }
+
+    @Test
+    public void caseInsensitive() {
+        assertThat(new ConditionalsScanner().scan("@IF(A){}").foundConditions()).containsOnly("a");
+    }
+
+    @Test
+    public void ignoresOtherAtRules() {
+        assertThat(new ConditionalsScanner().scan("@iffy(a){} @media (b){} @import 'x.css';").count()).isEqualTo(0);
+    }
+
+    @Test
+    public void noConditionals() {
+        ConditionalsScanner scanner = new ConditionalsScanner().scan(".a{color:red}");
+        assertThat(scanner.foundConditions()).isEmpty();
+        assertThat(scanner.count()).isEqualTo(0);
+    }
+
+    @Test
+    public void accumulatesScans() {
+        ConditionalsScanner scanner = new ConditionalsScanner().scan("@if(a){}").scan("@if(b){}");
+        assertThat(scanner.foundConditions()).containsOnly("a", "b");
+    }
+
+    @Test
+    public void missingExpression() {
+        assertThrows(ParserException.class, () -> new ConditionalsScanner().scan("@if {.a{color:red}}"));
+    }
+
+    @Test
+    public void missingConditionName() {
+        assertThrows(ParserException.class, () -> new ConditionalsScanner().scan("@if(a || ){}"));
+    }
+
+    @Test
+    public void missingCloseParen() {
+        assertThrows(ParserException.class, () -> new ConditionalsScanner().scan("@if(a b){}"));
+    }
+
+    @Test
+    public void unclosedComment() {
+        assertThrows(ParserException.class, () -> new ConditionalsScanner().scan("@if(a){} /* @if(b)"));
+    }
+}
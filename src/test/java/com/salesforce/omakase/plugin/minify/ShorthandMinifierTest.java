@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2015, salesforce.com, inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of salesforce.com, inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.salesforce.omakase.plugin.minify;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import com.salesforce.omakase.Omakase;
+import com.salesforce.omakase.writer.StyleWriter;
+
+/**
+ * Unit tests for {@link ShorthandMinifier}.
+ *
+ * @author nmcwilliams
+ */
+@SuppressWarnings("JavaDoc")
+public class ShorthandMinifierTest {
+    private void check(String source, String expected) {
+        StyleWriter writer = StyleWriter.compressed();
+        Omakase.source(source).use(new ShorthandMinifier()).use(writer).process();
+        assertThat(writer.write()).isEqualTo(expected);
+    }
+
+    @Test
+    public void allFourDifferent() {
+        check(".a{margin-top:1px;margin-right:2px;margin-bottom:3px;margin-left:4px}", ".a{margin:1px 2px 3px 4px}");
+    }
+
+    @Test
+    public void reducedToTwo() {
+        check(".a{margin-top:1px;margin-right:2px;margin-bottom:1px;margin-left:2px}", ".a{margin:1px 2px}");
+    }
+
+    @Test
+    public void reducedToThree() {
+        check(".a{padding-top:1px;padding-right:2px;padding-bottom:3px;padding-left:2px}", ".a{padding:1px 2px 3px}");
+    }
+
+    @Test
+    public void reducedToOne() {
+        check(".a{padding-left:0;padding-top:0;padding-bottom:0;padding-right:0}", ".a{padding:0}");
+    }
+
+    @Test
+    public void anyOrder() {
+        check(".a{color:red;margin-left:4px;margin-bottom:3px;display:block;margin-right:2px;margin-top:1px;top:0}",
+            ".a{color:red;display:block;margin:1px 2px 3px 4px;top:0}");
+    }
+
+    @Test
+    public void borderLonghands() {
+        check(".a{border-top-width:1px;border-right-width:1px;border-bottom-width:1px;border-left-width:1px}",
+            ".a{border-width:1px}");
+        check(".a{border-top-style:solid;border-right-style:none;border-bottom-style:solid;border-left-style:none}",
+            ".a{border-style:solid none}");
+        check(".a{border-top-color:red;border-right-color:#fff;border-bottom-color:red;border-left-color:#000}",
+            ".a{border-color:red #fff red #000}");
+    }
+
+    @Test
+    public void incompleteSet() {
+        check(".a{margin-top:1px;margin-right:2px;margin-bottom:3px}", ".a{margin-top:1px;margin-right:2px;margin-bottom:3px}");
+    }
+
+    @Test
+    public void mixedImportance() {
+        check(".a{margin-top:1px;margin-right:1px;margin-bottom:1px!important;margin-left:1px}",
+            ".a{margin-top:1px;margin-right:1px;margin-bottom:1px!important;margin-left:1px}");
+    }
+
+    @Test
+    public void allImportant() {
+        check(".a{margin-top:1px!important;margin-right:1px!important;margin-bottom:1px!important;margin-left:1px!important}",
+            ".a{margin:1px!important}");
+    }
+
+    @Test
+    public void laterRelatedDeclaration() {
+        check(".a{margin-top:1px;margin-right:1px;margin:0;margin-bottom:1px;margin-left:1px}",
+            ".a{margin-top:1px;margin-right:1px;margin:0;margin-bottom:1px;margin-left:1px}");
+        check(".a{border-top-width:1px;border-right-width:1px;border-bottom-width:1px;border-left-width:1px;border-top:0}",
+            ".a{border-top-width:1px;border-right-width:1px;border-bottom-width:1px;border-left-width:1px;border-top:0}");
+    }
+
+    @Test
+    public void laterLogicalDeclaration() {
+        check(".a{margin-left:1px;margin-inline-start:5px;margin-top:0;margin-right:0;margin-bottom:0}",
+            ".a{margin-left:1px;margin-inline-start:5px;margin-top:0;margin-right:0;margin-bottom:0}");
+        check(".a{padding-top:0;padding-right:0;padding-bottom:0;padding-left:0;padding-block:1px}",
+            ".a{padding-top:0;padding-right:0;padding-bottom:0;padding-left:0;padding-block:1px}");
+        check(".a{border-top-color:red;border-right-color:red;border-bottom-color:red;border-left-color:red;"
+                + "border-inline-end-color:blue}",
+            ".a{border-top-color:red;border-right-color:red;border-bottom-color:red;border-left-color:red;"
+                + "border-inline-end-color:blue}");
+        check(".a{border-top-width:0;border-right-width:0;border-bottom-width:0;border-left-width:0;"
+                + "border-block-start:1px solid}",
+            ".a{border-top-width:0;border-right-width:0;border-bottom-width:0;border-left-width:0;"
+                + "border-block-start:1px solid}");
+    }
+
+    @Test
+    public void laterPrefixedLogicalDeclaration() {
+        check(".a{margin-left:1px;-webkit-margin-start:5px;margin-top:0;margin-right:0;margin-bottom:0}",
+            ".a{margin-left:1px;-webkit-margin-start:5px;margin-top:0;margin-right:0;margin-bottom:0}");
+    }
+
+    @Test
+    public void earlierLogicalDeclaration() {
+        check(".a{margin-inline-start:5px;margin-top:0;margin-right:0;margin-bottom:0;margin-left:1px}",
+            ".a{margin-inline-start:5px;margin:0 0 0 1px}");
+    }
+
+    @Test
+    public void unrelatedLogicalDeclaration() {
+        check(".a{margin-top:0;margin-right:0;margin-bottom:0;margin-left:0;padding-inline:1px}",
+            ".a{margin:0;padding-inline:1px}");
+    }
+
+    @Test
+    public void earlierRelatedDeclaration() {
+        check(".a{margin:5px;margin-top:1px;margin-right:1px;margin-bottom:1px;margin-left:1px}", ".a{margin:5px;margin:1px}");
+    }
+
+    @Test
+    public void duplicateLonghand() {
+        check(".a{margin-top:9px;margin-top:1px;margin-right:2px;margin-bottom:1px;margin-left:2px}",
+            ".a{margin-top:9px;margin:1px 2px}");
+    }
+
+    @Test
+    public void multipleTermsNotCollapsed() {
+        check(".a{margin-top:1px 2px;margin-right:1px;margin-bottom:1px;margin-left:1px}",
+            ".a{margin-top:1px 2px;margin-right:1px;margin-bottom:1px;margin-left:1px}");
+    }
+
+    @Test
+    public void cssWideKeywordsNotCollapsed() {
+        check(".a{margin-top:inherit;margin-right:1px;margin-bottom:1px;margin-left:1px}",
+            ".a{margin-top:inherit;margin-right:1px;margin-bottom:1px;margin-left:1px}");
+    }
+
+    @Test
+    public void prefixedNotCollapsed() {
+        check(".a{-webkit-margin-top:1px;margin-right:1px;margin-bottom:1px;margin-left:1px}",
+            ".a{-webkit-margin-top:1px;margin-right:1px;margin-bottom:1px;margin-left:1px}");
+    }
+
+    @Test
+    public void existingShorthandShortened() {
+        check(".a{margin:1px 2px 1px 2px}", ".a{margin:1px 2px}");
+        check(".a{padding:0 0 0 0}", ".a{padding:0}");
+        check(".a{margin:1px 2px 3px 2px}", ".a{margin:1px 2px 3px}");
+        check(".a{margin:1px 2px 3px 4px}", ".a{margin:1px 2px 3px 4px}");
+    }
+
+    @Test
+    public void shorthandWithOperatorsNotShortened() {
+        check(".a{border-color:red/red}", ".a{border-color:red/red}");
+    }
+}
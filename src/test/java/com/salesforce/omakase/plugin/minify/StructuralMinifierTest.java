@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2015, salesforce.com, inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of salesforce.com, inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.salesforce.omakase.plugin.minify;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import com.salesforce.omakase.Omakase;
+import com.salesforce.omakase.writer.StyleWriter;
+
+/**
+ * Unit tests for {@link StructuralMinifier}.
+ *
+ * @author nmcwilliams
+ */
+@SuppressWarnings("JavaDoc")
+public class StructuralMinifierTest {
+    private void check(String source, String expected) {
+        StyleWriter writer = StyleWriter.compressed();
+        Omakase.source(source).use(new StructuralMinifier()).use(writer).process();
+        assertThat(writer.write()).isEqualTo(expected);
+    }
+
+    @Test
+    public void adjacentRulesWithSameSelectors() {
+        check(".a{color:red}.a{margin:0}", ".a{color:red;margin:0}");
+    }
+
+    @Test
+    public void adjacentRulesWithSameDeclarations() {
+        check(".a{color:red}.b{color:red}", ".a,.b{color:red}");
+    }
+
+    @Test
+    public void duplicateSelectorsNotRepeated() {
+        check(".a,.b{color:red}.b,.c{color:red}", ".a,.b,.c{color:red}");
+    }
+
+    @Test
+    public void separatedRulesWithUnrelatedProperties() {
+        check(".a{color:red}.x{margin:0}.a{padding:0}", ".a{color:red;padding:0}.x{margin:0}");
+    }
+
+    @Test
+    public void separatedRulesWithRelatedProperties() {
+        check(".a{margin:0}.x{margin-top:1px}.a{margin:2px}", ".a{margin:0}.x{margin-top:1px}.a{margin:2px}");
+        check(".a{color:red}.x{color:blue}.b{color:red}", ".a{color:red}.x{color:blue}.b{color:red}");
+        check(".a{font:12px serif}.x{line-height:2}.a{font:14px serif}",
+            ".a{font:12px serif}.x{line-height:2}.a{font:14px serif}");
+    }
+
+    @Test
+    public void notMovedAcrossAtRules() {
+        check(".a{color:red}@media print{.x{margin:0}}.a{padding:0}",
+            ".a{color:red}@media print{.x{margin:0}}.a{padding:0}");
+    }
+
+    @Test
+    public void notMergedWithAllProperty() {
+        check(".a{color:red}.x{all:initial}.a{padding:0}", ".a{color:red}.x{all:initial}.a{padding:0}");
+    }
+
+    @Test
+    public void separatedRulesWithGapProperties() {
+        check(".a{gap:1px}.b{column-gap:2px}.a{gap:3px}", ".a{gap:1px}.b{column-gap:2px}.a{gap:3px}");
+        check(".a{row-gap:1px}.b{grid-gap:2px}.a{row-gap:3px}", ".a{row-gap:1px}.b{grid-gap:2px}.a{row-gap:3px}");
+    }
+
+    @Test
+    public void separatedRulesWithAliasedProperties() {
+        check(".a{overflow-wrap:normal}.b{word-wrap:break-word}.a{overflow-wrap:anywhere}",
+            ".a{overflow-wrap:normal}.b{word-wrap:break-word}.a{overflow-wrap:anywhere}");
+        check(".a{break-before:auto}.b{page-break-before:always}.a{break-before:page}",
+            ".a{break-before:auto}.b{page-break-before:always}.a{break-before:page}");
+    }
+
+    @Test
+    public void separatedRulesWithLogicalProperties() {
+        check(".a{width:1px}.b{inline-size:2px}.a{width:3px}", ".a{width:1px}.b{inline-size:2px}.a{width:3px}");
+    }
+
+    @Test
+    public void notMergedWithUnknownProperty() {
+        check(".a{color:red}.x{foo-bar:1}.a{padding:0}", ".a{color:red}.x{foo-bar:1}.a{padding:0}");
+        check(".a{foo-bar:1}.x{margin:0}.a{padding:0}", ".a{foo-bar:1}.x{margin:0}.a{padding:0}");
+    }
+
+    @Test
+    public void mergedWithCustomProperty() {
+        check(".a{color:red}.x{--foo:1}.a{padding:0}", ".a{color:red;padding:0}.x{--foo:1}");
+    }
+
+    @Test
+    public void vendorPseudoSelectorsNotCombined() {
+        check("::-moz-placeholder{color:red}::-webkit-input-placeholder{color:red}",
+            "::-moz-placeholder{color:red}::-webkit-input-placeholder{color:red}");
+        check(".a:focus-visible{color:red}.b{color:red}", ".a:focus-visible{color:red}.b{color:red}");
+    }
+
+    @Test
+    public void legacyPseudoSelectorsCombined() {
+        check(".a:hover{color:red}.b::after{color:red}", ".a:hover,.b:after{color:red}");
+    }
+
+    @Test
+    public void overriddenDeclarationRemoved() {
+        check(".a{margin:0;color:red;margin:1px}", ".a{color:red;margin:1px}");
+    }
+
+    @Test
+    public void identicalDeclarationRemoved() {
+        check(".a{background:url(a.png);background:url(a.png)}", ".a{background:url(a.png)}");
+    }
+
+    @Test
+    public void fallbackDeclarationsKept() {
+        check(".a{display:block;display:flex}", ".a{display:block;display:flex}");
+        check(".a{color:#000;color:rgba(0,0,0,.5)}", ".a{color:#000;color:rgba(0,0,0,.5)}");
+        check(".a{font-size:16px;font-size:1rem}", ".a{font-size:16px;font-size:1rem}");
+    }
+
+    @Test
+    public void importantDeclarationKept() {
+        check(".a{margin:0!important;margin:1px}", ".a{margin:0!important;margin:1px}");
+        check(".a{margin:0;margin:1px!important}", ".a{margin:1px!important}");
+    }
+
+    @Test
+    public void differentPrefixesKept() {
+        check(".a{-webkit-border-radius:2px;border-radius:2px}", ".a{-webkit-border-radius:2px;border-radius:2px}");
+    }
+
+    @Test
+    public void overriddenAfterMerging() {
+        check(".a{margin:0;color:red}.a{margin:1px}", ".a{color:red;margin:1px}");
+    }
+
+    @Test
+    public void adjacentMediaCombined() {
+        check("@media print{.a{color:red}}@media print{.b{color:red}}", "@media print{.a,.b{color:red}}");
+    }
+
+    @Test
+    public void differentMediaNotCombined() {
+        check("@media print{.a{color:red}}@media screen{.b{color:red}}",
+            "@media print{.a{color:red}}@media screen{.b{color:red}}");
+    }
+
+    @Test
+    public void separatedMediaNotCombined() {
+        check("@media print{.a{color:red}}.x{color:blue}@media print{.b{color:red}}",
+            "@media print{.a{color:red}}.x{color:blue}@media print{.b{color:red}}");
+    }
+
+    @Test
+    public void keyframesUntouched() {
+        check("@keyframes a{from{top:0}from{left:0}}", "@keyframes a{from{top:0}from{left:0}}");
+    }
+
+    @Test
+    public void largeStylesheet() {
+        StringBuilder source = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            source.append(".a").append(i).append("{color:red}.a").append(i).append("{margin:0}");
+            expected.append(".a").append(i).append("{color:red;margin:0}");
+        }
+        check(source.toString(), expected.toString());
+    }
+}
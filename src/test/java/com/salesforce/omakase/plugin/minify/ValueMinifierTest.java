@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2015, salesforce.com, inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of salesforce.com, inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.salesforce.omakase.plugin.minify;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import com.salesforce.omakase.Omakase;
+import com.salesforce.omakase.writer.StyleWriter;
+
+/**
+ * Unit tests for {@link ValueMinifier}.
+ *
+ * @author nmcwilliams
+ */
+@SuppressWarnings("JavaDoc")
+public class ValueMinifierTest {
+    private void check(String source, String expected) {
+        StyleWriter writer = StyleWriter.compressed();
+        Omakase.source(source).use(new ValueMinifier()).use(writer).process();
+        assertThat(writer.write()).isEqualTo(expected);
+    }
+
+    @Test
+    public void shorthandHexColor() {
+        check(".a{color:#AABBCC}", ".a{color:#abc}");
+        check(".a{color:#aabbcd}", ".a{color:#aabbcd}");
+    }
+
+    @Test
+    public void hexColorToName() {
+        check(".a{color:#ff0000}", ".a{color:red}");
+        check(".a{border:1px solid #000080}", ".a{border:1px solid navy}");
+    }
+
+    @Test
+    public void nameToHexColor() {
+        check(".a{color:white}", ".a{color:#fff}");
+        check(".a{background:yellow url(a.png)}", ".a{background:#ff0 url(a.png)}");
+    }
+
+    @Test
+    public void nameNotChangedOutsideOfColors() {
+        check(".a{animation-name:white}", ".a{animation-name:white}");
+        check(".a{color:red}", ".a{color:red}");
+    }
+
+    @Test
+    public void zeroUnits() {
+        check(".a{margin:0px 0em 0.0rem -0px}", ".a{margin:0 0 0 0}");
+    }
+
+    @Test
+    public void zeroUnitsVerbose() {
+        StyleWriter writer = StyleWriter.verbose();
+        Omakase.source(".a{margin:0px 0.50em}").use(new ValueMinifier()).use(writer).process();
+        assertThat(writer.write()).isEqualTo(".a {\n  margin: 0 .5em;\n}");
+    }
+
+    @Test
+    public void zeroUnitsKept() {
+        check(".a{transition-duration:0s}", ".a{transition-duration:0s}");
+        check(".a{width:0%}", ".a{width:0%}");
+    }
+
+    @Test
+    public void zeroFlexBasisUnitKept() {
+        check(".a{flex:1 1 0px}", ".a{flex:1 1 0px}");
+        check(".a{flex:1 1 0.0px}", ".a{flex:1 1 0px}");
+        check(".a{-ms-flex:1 1 0px}", ".a{-ms-flex:1 1 0px}");
+        check(".a{flex-basis:0px}", ".a{flex-basis:0px}");
+        check(".a{flex:1 1 0px;margin:0px}", ".a{flex:1 1 0px;margin:0}");
+    }
+
+    @Test
+    public void extraneousZeros() {
+        check(".a{opacity:0.50}", ".a{opacity:.5}");
+        check(".a{line-height:1.500}", ".a{line-height:1.5}");
+        check(".a{margin:10.0px -02.50px}", ".a{margin:10px -2.5px}");
+        check(".a{z-index:100}", ".a{z-index:100}");
+    }
+
+    @Test
+    public void fontWeight() {
+        check(".a{font-weight:bold}", ".a{font-weight:700}");
+        check(".a{font-weight:normal}", ".a{font-weight:400}");
+        check(".a{font:bold 12px Arial}", ".a{font:700 12px Arial}");
+        check(".a{font:normal 12px Arial}", ".a{font:normal 12px Arial}");
+    }
+
+    @Test
+    public void fontFamilyQuotes() {
+        check(".a{font-family:\"Arial\",'Helvetica',sans-serif}", ".a{font-family:Arial,Helvetica,sans-serif}");
+        check(".a{font-family:\"Times New Roman\"}", ".a{font-family:\"Times New Roman\"}");
+        check(".a{font-family:\"serif\"}", ".a{font-family:\"serif\"}");
+        check(".a{font-family:\"inherit\"}", ".a{font-family:\"inherit\"}");
+    }
+
+    @Test
+    public void contentQuotesKept() {
+        check(".a:after{content:\"a\"}", ".a:after{content:\"a\"}");
+    }
+
+    @Test
+    public void urlQuotes() {
+        check(".a{background:url(\"a/b.png\")}", ".a{background:url(a/b.png)}");
+        check(".a{background:url('a b.png')}", ".a{background:url('a b.png')}");
+        check(".a{background:url(\"a(1).png\")}", ".a{background:url(\"a(1).png\")}");
+    }
+}
@@ -28,12 +28,33 @@ package com.salesforce.omakase.plugin.misc;
 
 import static org.fest.assertions.api.Assertions.assertThat;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.Test;
 
 import com.salesforce.omakase.Omakase;
+import com.salesforce.omakase.ast.declaration.Declaration;
+import com.salesforce.omakase.broadcast.annotation.Observe;
+import com.salesforce.omakase.plugin.Plugin;
+import com.salesforce.omakase.plugin.core.AutoRefine;
 import com.salesforce.omakase.writer.StyleWriter;
 
 public class DirectionFlipPluginTest {
+    private static final class Collector implements Plugin {
+        final List<Declaration> declarations = new ArrayList<>();
+
+        @Observe
+        public void declaration(Declaration declaration) {
+            declarations.add(declaration);
+        }
+    }
+
+    private static List<Declaration> collect(String source) {
+        Collector collector = new Collector();
+        Omakase.source(source).use(new DirectionFlipPlugin()).use(collector).process();
+        return collector.declarations;
+    }
 
     private void check(String ltr, String rtl) {
         StyleWriter writer = StyleWriter.compressed();
@@ -226,4 +247,72 @@ public class DirectionFlipPluginTest {
             ".test{border-width:1px 2px 3px 4px}",
             ".test{border-width:1px 4px 3px 2px}");
     }
+
+    @Test
+    public void onlyRefinesFlippable() {
+        List<Declaration> declarations = collect(".test{color:red; left:5px; font:12px Arial; margin:1px 2px 3px 4px}");
+        assertThat(declarations.get(0).isRefined()).isFalse();
+        assertThat(declarations.get(1).isRefined()).isTrue();
+        assertThat(declarations.get(2).isRefined()).isFalse();
+        assertThat(declarations.get(3).isRefined()).isTrue();
+    }
+
+    @Test
+    public void refinesValuesWithKeywords() {
+        List<Declaration> declarations = collect(".test{text-align:LEFT; cursor:e-resize; text-align:center; content:'left'}");
+        assertThat(declarations.get(0).isRefined()).isTrue();
+        assertThat(declarations.get(1).isRefined()).isTrue();
+        assertThat(declarations.get(2).isRefined()).isFalse();
+        assertThat(declarations.get(3).isRefined()).isFalse();
+    }
+
+    @Test
+    public void keywordsInStringsAndUrlsNotRefined() {
+        List<Declaration> declarations = collect(".test{content:\"left\"; background-image:url(left.png); " +
+            "background-image:url('left.png'); cursor:url(right.cur), e-resize}");
+        assertThat(declarations.get(0).isRefined()).isFalse();
+        assertThat(declarations.get(1).isRefined()).isFalse();
+        assertThat(declarations.get(2).isRefined()).isFalse();
+        assertThat(declarations.get(3).isRefined()).isTrue();
+    }
+
+    @Test
+    public void noFlipNotRefined() {
+        assertThat(collect(".test{/*@noflip*/left:5px}").get(0).isRefined()).isFalse();
+    }
+
+    @Test
+    public void unrefinedWrittenAsIs() {
+        check(
+            ".test{color:RED;font:12px  Arial;left:5px}",
+            ".test{color:RED;font:12px  Arial;right:5px}");
+    }
+
+    @Test
+    public void prefixedProperty() {
+        check(
+            ".test{-webkit-border-radius:1px 2px}",
+            ".test{-webkit-border-radius:2px 1px}");
+    }
+
+    @Test
+    public void unknownPropertyKeyword() {
+        check(
+            ".test{foo:left}",
+            ".test{foo:right}");
+    }
+
+    @Test
+    public void sameAsFullRefinement() {
+        String source = ".a{color:red;float:left;padding:1px 2px 3px 4px;background:url(left.png) 20% 0;cursor:nw-resize}" +
+            ".b{border-radius:1px 2px 3px/4px 5px;direction:ltr;margin-right:0;font-family:Arial, sans-serif}";
+
+        StyleWriter writer = StyleWriter.verbose();
+        Omakase.source(source).use(new AutoRefine()).use(new DirectionFlipPlugin()).use(writer).process();
+
+        StyleWriter triaged = StyleWriter.verbose();
+        Omakase.source(source).use(new DirectionFlipPlugin()).use(triaged).process();
+
+        assertThat(triaged.write()).isEqualTo(writer.write());
+    }
 }
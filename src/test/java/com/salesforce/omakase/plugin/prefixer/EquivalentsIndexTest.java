@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2015, salesforce.com, inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of salesforce.com, inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.salesforce.omakase.plugin.prefixer;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
+import com.salesforce.omakase.Omakase;
+import com.salesforce.omakase.ast.declaration.Declaration;
+import com.salesforce.omakase.broadcast.annotation.Rework;
+import com.salesforce.omakase.data.Browser;
+import com.salesforce.omakase.plugin.Plugin;
+import com.salesforce.omakase.plugin.core.AutoRefine;
+import com.salesforce.omakase.writer.StyleWriter;
+
+/**
+ * Unit tests for {@link EquivalentsIndex}.
+ * <p>
+ * Blocks with enough declarations use the index, while smaller blocks walk the peers directly, so the results of each should be
+ * the same once the padding is removed.
+ *
+ * @author nmcwilliams
+ */
+@SuppressWarnings("JavaDoc")
+public class EquivalentsIndexTest {
+    private static final String PADDING = padding();
+
+    private static final ImmutableList<String> BLOCKS = ImmutableList.of(
+        "border-radius:2px",
+        "-webkit-border-radius:2px; border-radius:2px",
+        "-moz-border-radius:2px; -webkit-border-radius:2px; border-radius:2px",
+        "border-radius:2px; -webkit-border-radius:2px; -o-border-radius:2px",
+        "-webkit-border-radius:2px; color:red; -moz-border-radius:2px; margin:0; border-radius:2px",
+        "-webkit-box-pack:center; -webkit-justify-content:center; -ms-flex-pack:center; justify-content:center",
+        "display:-webkit-box; display:-ms-flexbox; display:flex",
+        "display:flex; display:-webkit-box",
+        "width:-webkit-calc(1px + 2px); width:calc(1px + 2px)",
+        "transition:transform 1s; -webkit-transition:-webkit-transform 1s",
+        "border-radius:2px; box-shadow:0 0 1px red; -webkit-box-shadow:0 0 1px red; transform:none; border-radius:3px",
+        "flex:1; -webkit-box-flex:1; flex-direction:row; order:2; -webkit-box-ordinal-group:3; align-items:center");
+
+    private static String padding() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            builder.append("pad").append(i).append(":0;");
+        }
+        return builder.toString();
+    }
+
+    private static Prefixer prefixer(boolean rearrange, boolean prune) {
+        Prefixer prefixer = Prefixer.customBrowserSupport();
+        prefixer.support().browser(Browser.CHROME, 20).browser(Browser.FIREFOX, 15).browser(Browser.SAFARI, 6)
+            .browser(Browser.IE, 10).browser(Browser.IOS_SAFARI, 6).browser(Browser.ANDROID, 4.4);
+        return prefixer.rearrange(rearrange).prune(prune);
+    }
+
+    private static String process(String source, boolean rearrange, boolean prune) {
+        StyleWriter writer = StyleWriter.compressed();
+        Omakase.source(source).use(new AutoRefine()).use(prefixer(rearrange, prune)).use(writer).process();
+        return writer.write().replaceAll("pad\\d+:0;?", "").replace(";}", "}");
+    }
+
+    private static void check(String block, boolean rearrange, boolean prune) {
+        String walked = process(".a{" + block + "}", rearrange, prune);
+        String indexed = process(".a{" + PADDING + block + ";" + PADDING + "}", rearrange, prune);
+        assertThat(indexed).as(block).isEqualTo(walked);
+    }
+
+    private static void checkAll(boolean rearrange, boolean prune) {
+        for (String block : BLOCKS) {
+            check(block, rearrange, prune);
+        }
+        check(Joiner.on("; ").join(BLOCKS), rearrange, prune);
+    }
+
+    @Test
+    public void addOnly() {
+        checkAll(false, false);
+    }
+
+    @Test
+    public void rearrange() {
+        checkAll(true, false);
+    }
+
+    @Test
+    public void prune() {
+        checkAll(false, true);
+    }
+
+    @Test
+    public void rearrangeAndPrune() {
+        checkAll(true, true);
+    }
+
+    @Test
+    public void keyframes() {
+        String frames = "from{transform:none;" + PADDING + "-webkit-transform:none}to{transform:scale(2);" + PADDING + "}";
+        String walked = process("@keyframes x{from{transform:none;-webkit-transform:none}to{transform:scale(2)}}", true, true);
+        assertThat(process("@keyframes x{" + frames + "}", true, true)).isEqualTo(walked);
+    }
+
+    @Test
+    public void renamedByAnotherPlugin() {
+        Plugin renamer = new Plugin() {
+            @Rework
+            public void declaration(Declaration declaration) {
+                if (declaration.isProperty("-webkit-foo")) {
+                    declaration.propertyName("-webkit-user-select");
+                }
+            }
+        };
+
+        String block = "-webkit-hyphens:auto;hyphens:auto;-webkit-foo:none;user-select:none";
+        for (String source : ImmutableList.of(".a{" + block + "}", ".a{" + block + ";" + PADDING + "}")) {
+            Prefixer prefixer = Prefixer.customBrowserSupport();
+            prefixer.support().browser(Browser.SAFARI, 10);
+
+            StyleWriter writer = StyleWriter.compressed();
+            Omakase.source(source).use(new AutoRefine()).use(renamer).use(prefixer).use(writer).process();
+            assertThat(writer.write().replaceAll("pad\\d+:0;?", "").replace(";}", "}"))
+                .as(source)
+                .isEqualTo(".a{-webkit-hyphens:auto;hyphens:auto;-webkit-user-select:none;user-select:none}");
+        }
+    }
+}
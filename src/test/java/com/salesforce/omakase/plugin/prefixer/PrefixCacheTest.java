@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2015, salesforce.com, inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of salesforce.com, inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.salesforce.omakase.plugin.prefixer;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Test;
+
+import com.salesforce.omakase.Omakase;
+import com.salesforce.omakase.data.Browser;
+import com.salesforce.omakase.plugin.core.AutoRefine;
+import com.salesforce.omakase.util.SupportMatrix;
+import com.salesforce.omakase.writer.StyleWriter;
+
+/**
+ * Unit tests for {@link PrefixCache}.
+ *
+ * @author nmcwilliams
+ */
+@SuppressWarnings("JavaDoc")
+public class PrefixCacheTest {
+    private static final SupportMatrix SUPPORT = new SupportMatrix()
+        .browser(Browser.CHROME, 20).browser(Browser.FIREFOX, 15).browser(Browser.SAFARI, 6)
+        .browser(Browser.IE, 10).browser(Browser.IOS_SAFARI, 6).browser(Browser.ANDROID, 4.4)
+        .compile();
+
+    private static String process(String source, PrefixCache cache) {
+        StyleWriter writer = StyleWriter.inline();
+        Prefixer prefixer = Prefixer.customBrowserSupport(SUPPORT).rearrange(true).prune(true).cache(cache);
+        Omakase.source(source).use(new AutoRefine()).use(prefixer).use(writer).process();
+        return writer.write();
+    }
+
+    @Test
+    public void reusedAcrossSources() {
+        PrefixCache cache = new PrefixCache();
+        String source = ".a{display:flex; transition:transform .2s; user-select:none}";
+
+        String first = process(source, cache);
+        assertThat(cache.misses()).isEqualTo(3);
+        assertThat(cache.hits()).isEqualTo(0);
+
+        String second = process(source, cache);
+        assertThat(second).isEqualTo(first);
+        assertThat(cache.hits()).isEqualTo(3);
+        assertThat(cache.size()).isEqualTo(3);
+    }
+
+    @Test
+    public void sameOutputAsUncached() {
+        String source = ".a{display:flex; display:inline-flex; flex:1; justify-content:space-around; border-radius:2px}" +
+            ".b{background:linear-gradient(red, blue); width:calc(1px + 2px); transition:transform .2s, opacity 1s}" +
+            ".c{flex-direction:column; order:2; align-items:center; box-shadow:0 0 1px red}";
+        String expected = process(source, null);
+
+        PrefixCache cache = new PrefixCache();
+        assertThat(process(source, cache)).isEqualTo(expected);
+        assertThat(process(source, cache)).isEqualTo(expected);
+        assertThat(cache.hits()).isGreaterThan(0);
+    }
+
+    @Test
+    public void sameOutputAsUncachedGoldfiles() throws IOException {
+        PrefixCache cache = new PrefixCache();
+        File dir = new File(PrefixCacheTest.class.getResource("/goldfile/sources").getFile());
+
+        for (File file : dir.listFiles()) {
+            // contains IE filters that can't be refined
+            if (file.getName().equals("chatter.css")) continue;
+
+            String source = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+            String expected = process(source, null);
+            assertThat(process(source, cache)).as(file.getName()).isEqualTo(expected);
+            assertThat(process(source, cache)).as(file.getName()).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void notUsedWithExistingEquivalents() {
+        PrefixCache cache = new PrefixCache();
+        process(".a{-webkit-flex:1; flex:1}", cache);
+        assertThat(cache.misses()).isEqualTo(0);
+        assertThat(cache.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void notUsedWithComments() {
+        PrefixCache cache = new PrefixCache();
+        String output = process(".a{/* grow */flex:1}", cache);
+        assertThat(cache.size()).isEqualTo(0);
+        assertThat(output).isEqualTo(process(".a{/* grow */flex:1}", null));
+    }
+
+    @Test
+    public void differentValuesStoredSeparately() {
+        PrefixCache cache = new PrefixCache();
+        assertThat(process(".a{flex:1}", cache)).isEqualTo(process(".a{flex:1}", null));
+        assertThat(process(".a{flex:2}", cache)).isEqualTo(process(".a{flex:2}", null));
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.hits()).isEqualTo(0);
+    }
+
+    @Test
+    public void bounded() {
+        PrefixCache cache = new PrefixCache(2);
+        process(".a{flex:1} .b{flex:2} .c{flex:3} .d{flex:4}", cache);
+        assertThat(cache.misses()).isEqualTo(4);
+        assertThat(cache.size()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    public void clear() {
+        PrefixCache cache = new PrefixCache();
+        process(".a{flex:1}", cache);
+        process(".a{flex:1}", cache);
+        cache.clear();
+        assertThat(cache.size()).isEqualTo(0);
+        assertThat(cache.hits()).isEqualTo(0);
+        assertThat(cache.misses()).isEqualTo(0);
+    }
+
+    @Test
+    public void invalidMaximumSize() {
+        assertThrows(IllegalArgumentException.class, () -> new PrefixCache(0));
+    }
+
+    @Test
+    public void requiresCompiledSupport() {
+        assertThrows(IllegalStateException.class, () -> Prefixer.defaultBrowserSupport().cache(new PrefixCache()));
+    }
+
+    @Test
+    public void sharedAcrossThreads() throws InterruptedException {
+        PrefixCache cache = new PrefixCache();
+        String source = ".a{display:flex; transition:transform .2s; user-select:none; border-radius:2px}";
+        String expected = process(source, null);
+
+        String[] results = new String[8];
+        Thread[] threads = new Thread[results.length];
+        for (int i = 0; i < threads.length; i++) {
+            int n = i;
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 50; j++) {
+                    results[n] = process(source, cache);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (String result : results) {
+            assertThat(result).isEqualTo(expected);
+        }
+    }
+}
@@ -30,6 +30,7 @@ import static org.fest.assertions.api.Assertions.assertThat;
 
 import org.junit.Test;
 
+import com.salesforce.omakase.Omakase;
 import com.salesforce.omakase.ast.RawSyntax;
 import com.salesforce.omakase.ast.atrule.AtRule;
 import com.salesforce.omakase.ast.atrule.AtRuleBlock;
@@ -37,17 +38,41 @@ import com.salesforce.omakase.ast.atrule.AtRuleExpression;
 import com.salesforce.omakase.ast.declaration.Declaration;
 import com.salesforce.omakase.broadcast.Broadcaster;
 import com.salesforce.omakase.broadcast.ConsumingBroadcaster;
+import com.salesforce.omakase.data.Browser;
 import com.salesforce.omakase.data.Prefix;
 import com.salesforce.omakase.parser.Grammar;
+import com.salesforce.omakase.plugin.Plugin;
+import com.salesforce.omakase.plugin.core.AutoRefine;
 import com.salesforce.omakase.plugin.syntax.KeyframesPlugin;
 import com.salesforce.omakase.util.Declarations;
+import com.salesforce.omakase.util.SupportMatrix;
+import com.salesforce.omakase.writer.StyleWriter;
 
 /**
  * Unit tests for {@link PrefixCleaner}.
  *
  * @author nmcwilliams
  */
+@SuppressWarnings("JavaDoc")
 public class PrefixCleanerTest {
+    private static SupportMatrix modern() {
+        return new SupportMatrix().latest(Browser.CHROME).latest(Browser.FIREFOX).latest(Browser.SAFARI).latest(Browser.EDGE);
+    }
+
+    private static SupportMatrix webkit() {
+        return new SupportMatrix().latest(Browser.CHROME).latest(Browser.SAFARI);
+    }
+
+    private static SupportMatrix legacy() {
+        return new SupportMatrix().browser(Browser.CHROME, 20).browser(Browser.FIREFOX, 15).browser(Browser.SAFARI, 6)
+            .browser(Browser.IE, 10);
+    }
+
+    private static String process(String source, Plugin... plugins) {
+        StyleWriter writer = StyleWriter.compressed();
+        Omakase.source(source).use(plugins).use(writer).process();
+        return writer.write();
+    }
 
     @Test
     public void testRemoveDeclarations() {
@@ -72,4 +97,170 @@ public class PrefixCleanerTest {
             }
         }
     }
+
+    @Test
+    public void unneededPrefixedProperties() {
+        String css = ".a{-webkit-transform:none;-ms-transform:none;transform:none;-webkit-font-smoothing:antialiased}";
+        assertThat(process(css, PrefixCleaner.unneededPrefixedUnits(modern())))
+            .isEqualTo(".a{transform:none;-webkit-font-smoothing:antialiased}");
+    }
+
+    @Test
+    public void keepsRequiredPrefixedProperties() {
+        String css = ".a{-webkit-user-select:none;-moz-user-select:none;-o-user-select:none;user-select:none}";
+        assertThat(process(css, PrefixCleaner.unneededPrefixedUnits(modern())))
+            .isEqualTo(".a{-webkit-user-select:none;-moz-user-select:none;user-select:none}");
+    }
+
+    @Test
+    public void removesWithoutUnprefixedEquivalent() {
+        assertThat(process(".a{-webkit-border-radius:3px;color:red}", PrefixCleaner.unneededPrefixedUnits(modern())))
+            .isEqualTo(".a{color:red}");
+    }
+
+    @Test
+    public void unneededPrefixedKeywords() {
+        String css = ".a{display:-webkit-box;display:-ms-flexbox;display:-webkit-flex;display:flex}";
+        assertThat(process(css, PrefixCleaner.unneededPrefixedUnits(modern()))).isEqualTo(".a{display:flex}");
+    }
+
+    @Test
+    public void keepsLegacyFlexboxWhenRequired() {
+        String css = ".a{display:-webkit-box;-webkit-box-flex:1;display:-ms-flexbox;display:flex}";
+        assertThat(process(css, PrefixCleaner.unneededPrefixedUnits(legacy()))).isEqualTo(css);
+    }
+
+    @Test
+    public void removesLegacyFlexboxProperties() {
+        String css = ".a{-webkit-box-flex:1;-ms-flex-pack:center;-webkit-box-reflect:below;flex:1;justify-content:center}";
+        assertThat(process(css, PrefixCleaner.unneededPrefixedUnits(modern())))
+            .isEqualTo(".a{-webkit-box-reflect:below;flex:1;justify-content:center}");
+    }
+
+    @Test
+    public void keepsLegacyFlexboxPropertiesWithoutStandardEquivalent() {
+        String css = ".a{-webkit-box-flex:1;-ms-flex-pack:center;-webkit-flex-direction:column;flex:1}";
+        assertThat(process(css, PrefixCleaner.unneededPrefixedUnits(modern())))
+            .isEqualTo(".a{-ms-flex-pack:center;flex:1}");
+    }
+
+    @Test
+    public void keepsLineClamp() {
+        String css = ".clamp{overflow:hidden;display:-webkit-box;-webkit-line-clamp:3;-webkit-box-orient:vertical}";
+        assertThat(process(css, PrefixCleaner.unneededPrefixedUnits(modern()))).isEqualTo(css);
+        assertThat(process(css, new AutoRefine(), PrefixCleaner.unneededPrefixedUnits(modern()))).isEqualTo(css);
+
+        String withFlex = ".clamp{display:-webkit-box;-webkit-box-orient:vertical;-webkit-line-clamp:3" +
+            ";display:flex;flex-direction:column}";
+        assertThat(process(withFlex, PrefixCleaner.unneededPrefixedUnits(modern()))).isEqualTo(withFlex);
+    }
+
+    @Test
+    public void unneededPrefixedFunctions() {
+        String css = ".a{background:-webkit-linear-gradient(top,red,blue)" +
+            ";background:-webkit-gradient(linear,0 0,0 100%,from(red))" +
+            ";background:linear-gradient(to bottom,red,blue);width:-webkit-calc(100% - 1px);width:calc(100% - 1px)}";
+        assertThat(process(css, PrefixCleaner.unneededPrefixedUnits(modern())))
+            .isEqualTo(".a{background:linear-gradient(to bottom,red,blue);width:calc(100% - 1px)}");
+    }
+
+    @Test
+    public void unneededRefinedValues() {
+        String css = ".a{display:-webkit-flex;background:-moz-linear-gradient(top,red,blue);display:flex" +
+            ";background:linear-gradient(red,blue)}";
+        assertThat(process(css, new AutoRefine(), PrefixCleaner.unneededPrefixedUnits(modern())))
+            .isEqualTo(".a{display:flex;background:linear-gradient(red,blue)}");
+    }
+
+    @Test
+    public void keepsValuesWithoutFallback() {
+        String css = ".a{background:-webkit-linear-gradient(red,blue),url(x.png) #fff}";
+        assertThat(process(css, PrefixCleaner.unneededPrefixedUnits(modern()))).isEqualTo(css);
+        assertThat(process(css, new AutoRefine(), PrefixCleaner.unneededPrefixedUnits(modern()))).isEqualTo(css);
+    }
+
+    @Test
+    public void removesMultipleLayerValuesWithFallback() {
+        String css = ".a{background:-webkit-linear-gradient(red,blue),url(x.png) #fff" +
+            ";background:linear-gradient(red,blue),url(x.png) #fff}";
+        String expected = ".a{background:linear-gradient(red,blue),url(x.png) #fff}";
+        assertThat(process(css, PrefixCleaner.unneededPrefixedUnits(modern()))).isEqualTo(expected);
+        assertThat(process(css, new AutoRefine(), PrefixCleaner.unneededPrefixedUnits(modern()))).isEqualTo(expected);
+    }
+
+    @Test
+    public void keepsValuesWhenFallbackIsAlsoUnneeded() {
+        String css = ".a{background:-webkit-linear-gradient(red,blue),url(x.png);background:-moz-linear-gradient(red,blue)}";
+        assertThat(process(css, PrefixCleaner.unneededPrefixedUnits(modern()))).isEqualTo(css);
+    }
+
+    @Test
+    public void fallbackMustFollow() {
+        String css = ".a{background:linear-gradient(red,blue);background:-webkit-linear-gradient(red,blue),url(x.png)}";
+        assertThat(process(css, PrefixCleaner.unneededPrefixedUnits(modern()))).isEqualTo(css);
+    }
+
+    @Test
+    public void ignoresStringsAndUrls() {
+        String css = ".a{content:\"-webkit-flex\";background:url(-webkit-box.png);--b:-webkit-box}";
+        assertThat(process(css, PrefixCleaner.unneededPrefixedUnits(modern()))).isEqualTo(css);
+    }
+
+    @Test
+    public void ignoresNegativeNumbers() {
+        String css = ".a{margin:-1px -2em}";
+        assertThat(process(css, PrefixCleaner.unneededPrefixedUnits(modern()))).isEqualTo(css);
+    }
+
+    @Test
+    public void unneededPrefixedSelectors() {
+        String css = "::-moz-selection,::selection{color:red}::-moz-selection{color:blue}" +
+            "::-webkit-input-placeholder{color:red}:-ms-input-placeholder{color:red}::placeholder{color:red}";
+        assertThat(process(css, PrefixCleaner.unneededPrefixedUnits(webkit())))
+            .isEqualTo("::selection{color:red}::placeholder{color:red}");
+        assertThat(process(css, PrefixCleaner.unneededPrefixedUnits(modern())))
+            .isEqualTo("::-moz-selection,::selection{color:red}::-moz-selection{color:blue}" +
+                ":-ms-input-placeholder{color:red}::placeholder{color:red}");
+    }
+
+    @Test
+    public void unneededRefinedSelectors() {
+        String css = "::-moz-selection,::selection{color:red}:-ms-input-placeholder{color:red}";
+        assertThat(process(css, new AutoRefine(), PrefixCleaner.unneededPrefixedUnits(webkit())))
+            .isEqualTo("::selection{color:red}");
+    }
+
+    @Test
+    public void unneededPrefixedAtRules() {
+        String css = "@-webkit-keyframes a{from{top:0}}@-moz-keyframes a{from{top:0}}@keyframes a{from{top:0}}" +
+            "@-moz-document url-prefix(){.a{color:red}}";
+        assertThat(process(css, PrefixCleaner.unneededPrefixedUnits(modern())))
+            .isEqualTo("@keyframes a{from{top:0}}@-moz-document url-prefix(){.a{color:red}}");
+    }
+
+    @Test
+    public void keepsPrefixesRequiredByLegacyBrowsers() {
+        String css = "@-webkit-keyframes a{from{top:0}}@-moz-keyframes a{from{top:0}}.a{-webkit-transform:none;transform:none}";
+        assertThat(process(css, PrefixCleaner.unneededPrefixedUnits(legacy()))).isEqualTo(css);
+    }
+
+    @Test
+    public void cleansPrefixerOutput() {
+        String css = ".a{display:flex;user-select:none;transform:none}::selection{color:red}";
+
+        Prefixer prefixer = Prefixer.customBrowserSupport(legacy());
+        String legacyOnly = process(css, new AutoRefine(), prefixer);
+        String cleaned = process(css, new AutoRefine(), Prefixer.customBrowserSupport(legacy()),
+            PrefixCleaner.unneededPrefixedUnits(modern()));
+
+        assertThat(cleaned.length()).isLessThan(legacyOnly.length());
+        assertThat(cleaned).isEqualTo(process(css, new AutoRefine(), Prefixer.customBrowserSupport(modern())));
+    }
+
+    @Test
+    public void onlyKeep() {
+        String css = "@-moz-keyframes a{from{top:0}}::-moz-selection{color:red}" +
+            ".a{-webkit-transform:none;-moz-osx-font-smoothing:auto;display:-ms-flexbox;transform:none}";
+        assertThat(process(css, PrefixCleaner.onlyKeep(Prefix.WEBKIT))).isEqualTo(".a{-webkit-transform:none;transform:none}");
+    }
 }
@@ -0,0 +1,301 @@
+/*
+ * Copyright (c) 2015, salesforce.com, inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of salesforce.com, inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.salesforce.omakase.plugin.prefixer;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import com.salesforce.omakase.Omakase;
+import com.salesforce.omakase.ast.declaration.Declaration;
+import com.salesforce.omakase.broadcast.annotation.Observe;
+import com.salesforce.omakase.data.Browser;
+import com.salesforce.omakase.data.Prefix;
+import com.salesforce.omakase.plugin.Plugin;
+import com.salesforce.omakase.plugin.core.AutoRefine;
+import com.salesforce.omakase.util.SupportMatrix;
+import com.salesforce.omakase.writer.OutputCache;
+import com.salesforce.omakase.writer.StyleWriter;
+
+/**
+ * Unit tests for {@link PrefixTargets}.
+ *
+ * @author nmcwilliams
+ */
+@SuppressWarnings("JavaDoc")
+public class PrefixTargetsTest {
+    private static final Pattern BLOCK = Pattern.compile("\\{([^{}]*)\\}");
+
+    private static final String SOURCE = ".a{border-radius:3px; transition:transform 1s; display:flex; flex:1}\n" +
+        ".b{-webkit-border-radius:2px; -moz-border-radius:2px; border-radius:2px}\n" +
+        ".c{background:linear-gradient(red, blue); -webkit-mask-image:linear-gradient(red, blue)}\n" +
+        "::selection{color:red}\n" +
+        "::placeholder{color:gray}\n" +
+        "@keyframes spin{from{transform:rotate(0deg)} to{transform:rotate(360deg)}}\n" +
+        "@media (min-width:100px){.d{user-select:none; column-count:2}}";
+
+    private static final class Collector implements Plugin {
+        Declaration declaration;
+
+        @Observe
+        public void declaration(Declaration declaration) {
+            if (!declaration.isPrefixed()) this.declaration = declaration;
+        }
+    }
+
+    private static SupportMatrix legacy() {
+        return new SupportMatrix().browser(Browser.CHROME, 20).browser(Browser.FIREFOX, 15).browser(Browser.SAFARI, 6)
+            .browser(Browser.IE, 10).browser(Browser.IOS_SAFARI, 6).browser(Browser.ANDROID, 4.4);
+    }
+
+    private static SupportMatrix modern() {
+        return new SupportMatrix().latest(Browser.CHROME).latest(Browser.FIREFOX).latest(Browser.SAFARI).latest(Browser.EDGE);
+    }
+
+    private static SupportMatrix webkit() {
+        return new SupportMatrix().browser(Browser.SAFARI, 6).browser(Browser.IOS_SAFARI, 6);
+    }
+
+    private static PrefixTargets targets() {
+        return new PrefixTargets().target("legacy", legacy()).target("modern", modern()).target("webkit", webkit());
+    }
+
+    private static String single(String source, SupportMatrix support, boolean prune, boolean rearrange) {
+        StyleWriter writer = StyleWriter.compressed();
+        Prefixer prefixer = Prefixer.customBrowserSupport(support).prune(prune).rearrange(rearrange);
+        Omakase.source(source).use(AutoRefine.everything()).use(prefixer).use(writer).process();
+        return writer.write();
+    }
+
+    private static Map<String, String> multi(String source, PrefixTargets targets, boolean prune, boolean rearrange) {
+        StyleWriter writer = StyleWriter.compressed();
+        Prefixer prefixer = Prefixer.multiTarget(targets).prune(prune).rearrange(rearrange);
+        Omakase.source(source).use(AutoRefine.everything()).use(prefixer).use(writer).process();
+        return targets.write(writer);
+    }
+
+    /**
+     * rearranged prefixed declarations are moved in the order of the prefixes required by all targets, so they can come out in a
+     * different order than when prefixing for a single target. Sort the declarations of each block to compare the content.
+     */
+    private static String normalize(String css) {
+        Matcher matcher = BLOCK.matcher(css);
+        StringBuffer buffer = new StringBuffer();
+        while (matcher.find()) {
+            List<String> declarations = new ArrayList<>(Arrays.asList(matcher.group(1).split(";")));
+            Collections.sort(declarations);
+            matcher.appendReplacement(buffer, Matcher.quoteReplacement("{" + String.join(";", declarations) + "}"));
+        }
+        matcher.appendTail(buffer);
+        return buffer.toString();
+    }
+
+    private static void assertSameAsSingle(String name, String source) {
+        for (boolean prune : new boolean[]{false, true}) {
+            for (boolean rearrange : new boolean[]{false, true}) {
+                Map<String, String> outputs = multi(source, targets(), prune, rearrange);
+                String msg = String.format("%s (prune %s, rearrange %s)", name, prune, rearrange);
+                assertThat(normalize(outputs.get("legacy"))).as(msg)
+                    .isEqualTo(normalize(single(source, legacy(), prune, rearrange)));
+                assertThat(normalize(outputs.get("modern"))).as(msg)
+                    .isEqualTo(normalize(single(source, modern(), prune, rearrange)));
+                assertThat(normalize(outputs.get("webkit"))).as(msg)
+                    .isEqualTo(normalize(single(source, webkit(), prune, rearrange)));
+            }
+        }
+    }
+
+    @Test
+    public void sameOutputAsSingleTargets() {
+        assertSameAsSingle("source", SOURCE);
+    }
+
+    @Test
+    public void sameOutputAsSingleTargetsForGoldfiles() throws IOException {
+        File dir = new File(PrefixTargetsTest.class.getResource("/goldfile/sources").getFile());
+        File[] files = dir.listFiles();
+        assertThat(files).isNotEmpty();
+
+        for (File file : files) {
+            // contains IE filters that can't be refined
+            if (file.getName().equals("chatter.css")) continue;
+
+            String source = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+            assertSameAsSingle(file.getName(), source);
+        }
+    }
+
+    @Test
+    public void outputsInTargetOrder() {
+        Map<String, String> outputs = multi(".a{color:red}", targets(), false, false);
+        assertThat(outputs.keySet()).containsExactly("legacy", "modern", "webkit");
+        assertThat(outputs.values()).containsOnly(".a{color:red}");
+    }
+
+    @Test
+    public void writerFilterIsClearedAfterWrite() {
+        PrefixTargets targets = targets();
+        StyleWriter writer = StyleWriter.compressed();
+        Omakase.source(".a{transform:none}").use(AutoRefine.everything()).use(Prefixer.multiTarget(targets)).use(writer)
+            .process();
+
+        Map<String, String> outputs = targets.write(writer);
+        assertThat(outputs.get("modern")).isEqualTo(".a{transform:none}");
+        assertThat(writer.filter().isPresent()).isFalse();
+        assertThat(writer.write()).contains("-webkit-transform");
+    }
+
+    @Test
+    public void filterIgnoresOutputCache() {
+        PrefixTargets targets = targets();
+        StyleWriter writer = StyleWriter.compressed().outputCache(new OutputCache());
+        Omakase.source(".a{transform:none}").use(AutoRefine.everything()).use(Prefixer.multiTarget(targets)).use(writer)
+            .process();
+
+        String all = writer.write();
+        Map<String, String> outputs = targets.write(writer);
+        assertThat(outputs.get("legacy")).isEqualTo(single(".a{transform:none}", legacy(), false, false));
+        assertThat(outputs.get("modern")).isEqualTo(single(".a{transform:none}", modern(), false, false));
+        assertThat(writer.write()).isEqualTo(all);
+    }
+
+    @Test
+    public void parallelWrite() {
+        StringBuilder source = new StringBuilder();
+        for (int i = 0; i < 300; i++) source.append(".a").append(i).append("{transform:none; color:red}\n");
+
+        PrefixTargets targets = targets();
+        StyleWriter writer = StyleWriter.compressed().parallel(true);
+        Omakase.source(source).use(AutoRefine.everything()).use(Prefixer.multiTarget(targets)).use(writer).process();
+
+        Map<String, String> outputs = targets.write(writer);
+        assertThat(outputs.get("legacy")).isEqualTo(single(source.toString(), legacy(), false, false));
+        assertThat(outputs.get("modern")).isEqualTo(single(source.toString(), modern(), false, false));
+    }
+
+    @Test
+    public void tagsPrefixedCopies() {
+        PrefixTargets targets = new PrefixTargets().target("legacy", legacy()).target("modern", modern());
+        Collector collector = new Collector();
+        Omakase.source(".a{transform:none}").use(AutoRefine.everything()).use(Prefixer.multiTarget(targets))
+            .use(collector).process();
+
+        Declaration original = collector.declaration;
+        Declaration webkit = original.group().stream().filter(d -> d.propertyName().hasPrefix(Prefix.WEBKIT)).findFirst().get();
+        assertThat(targets.isNeeded(original, "modern")).isTrue();
+        assertThat(targets.isNeeded(webkit, "legacy")).isTrue();
+        assertThat(targets.isNeeded(webkit, "modern")).isFalse();
+    }
+
+    @Test
+    public void copiesDependingOnBrowserVersions() {
+        SupportMatrix safari = new SupportMatrix().browser(Browser.SAFARI, 8);
+        SupportMatrix android = new SupportMatrix().browser(Browser.ANDROID, 4.3);
+        String source = ".a{display:flex}.b{justify-content:space-between;align-items:center;flex:1}";
+
+        for (boolean prune : new boolean[]{false, true}) {
+            PrefixTargets targets = new PrefixTargets().target("safari", safari).target("android", android);
+            Map<String, String> outputs = multi(source, targets, prune, false);
+            assertThat(outputs.get("safari")).isEqualTo(single(source, safari, prune, false));
+            assertThat(outputs.get("android")).isEqualTo(single(source, android, prune, false));
+        }
+
+        PrefixTargets targets = new PrefixTargets().target("safari", safari).target("android", android);
+        Map<String, String> outputs = multi(".a{display:flex}", targets, false, false);
+        assertThat(outputs.get("safari")).isEqualTo(".a{display:-webkit-flex;display:flex}");
+        assertThat(outputs.get("android")).isEqualTo(".a{display:-webkit-box;display:flex}");
+    }
+
+    @Test
+    public void copiedPlaceholdersDependingOnBrowserVersions() {
+        SupportMatrix old = new SupportMatrix().browser(Browser.FIREFOX, 18);
+        SupportMatrix newer = new SupportMatrix().browser(Browser.FIREFOX, 21);
+        String source = "::placeholder{color:gray}";
+
+        PrefixTargets targets = new PrefixTargets().target("old", old).target("newer", newer);
+        Map<String, String> outputs = multi(source, targets, false, false);
+        assertThat(outputs.get("old")).isEqualTo(single(source, old, false, false));
+        assertThat(outputs.get("newer")).isEqualTo(single(source, newer, false, false));
+    }
+
+    @Test
+    public void copiedAtRulesKeepInnerTargets() {
+        String source = "@keyframes spin{from{transform:rotate(0deg)} to{transform:rotate(360deg)}}";
+        Map<String, String> outputs = multi(source, targets(), false, false);
+        assertThat(outputs.get("modern")).isEqualTo(single(source, modern(), false, false));
+        assertThat(outputs.get("legacy")).isEqualTo(single(source, legacy(), false, false));
+    }
+
+    @Test
+    public void unionCombinesTargets() {
+        SupportMatrix union = targets().union();
+        assertThat(union.supportsVersion(Browser.CHROME, 20)).isTrue();
+        assertThat(union.supportsVersion(Browser.IE, 10)).isTrue();
+        assertThat(union.supportsVersion(Browser.EDGE, Browser.EDGE.versions().get(0))).isTrue();
+    }
+
+    @Test
+    public void cannotAddTargetsAfterUnion() {
+        PrefixTargets targets = targets();
+        Prefixer.multiTarget(targets);
+        assertThrows(IllegalStateException.class, () -> targets.target("other", new SupportMatrix()));
+    }
+
+    @Test
+    public void duplicateTargetName() {
+        assertThrows(IllegalArgumentException.class, () -> targets().target("legacy", new SupportMatrix()));
+    }
+
+    @Test
+    public void unknownTargetName() {
+        assertThrows(IllegalArgumentException.class, () -> targets().filter("other"));
+    }
+
+    @Test
+    public void noTargets() {
+        assertThrows(IllegalStateException.class, () -> Prefixer.multiTarget(new PrefixTargets()));
+    }
+
+    @Test
+    public void cacheNotAllowed() {
+        Prefixer prefixer = Prefixer.multiTarget(targets());
+        assertThrows(IllegalStateException.class, () -> prefixer.cache(new PrefixCache()));
+    }
+}
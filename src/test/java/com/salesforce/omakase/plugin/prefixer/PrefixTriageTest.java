@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2015, salesforce.com, inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of salesforce.com, inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.salesforce.omakase.plugin.prefixer;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.base.CharMatcher;
+import com.salesforce.omakase.Omakase;
+import com.salesforce.omakase.ast.declaration.Declaration;
+import com.salesforce.omakase.ast.selector.Selector;
+import com.salesforce.omakase.broadcast.annotation.Observe;
+import com.salesforce.omakase.data.Browser;
+import com.salesforce.omakase.plugin.Plugin;
+import com.salesforce.omakase.plugin.core.AutoRefine;
+import com.salesforce.omakase.writer.StyleWriter;
+
+/**
+ * Unit tests for {@link PrefixTriage}.
+ *
+ * @author nmcwilliams
+ */
+@SuppressWarnings("JavaDoc")
+public class PrefixTriageTest {
+    private static final CharMatcher WHITESPACE = CharMatcher.whitespace();
+
+    private static final class Collector implements Plugin {
+        final List<Declaration> declarations = new ArrayList<>();
+        final List<Selector> selectors = new ArrayList<>();
+
+        @Observe
+        public void declaration(Declaration declaration) {
+            declarations.add(declaration);
+        }
+
+        @Observe
+        public void selector(Selector selector) {
+            selectors.add(selector);
+        }
+    }
+
+    private static Prefixer prefixer() {
+        Prefixer prefixer = Prefixer.customBrowserSupport();
+        prefixer.support().browser(Browser.CHROME, 20).browser(Browser.FIREFOX, 15).browser(Browser.SAFARI, 6)
+            .browser(Browser.IE, 10).browser(Browser.IOS_SAFARI, 6).browser(Browser.ANDROID, 4.4);
+        return prefixer.prune(true).rearrange(true);
+    }
+
+    private static String triaged(String source) {
+        StyleWriter writer = StyleWriter.compressed();
+        Omakase.source(source).use(new PrefixTriage()).use(prefixer()).use(writer).process();
+
+        // unrefined units are written as-is, so ignore whitespace, comments and case when comparing with fully refined output
+        return normalize(writer.write());
+    }
+
+    private static String refined(String source) {
+        StyleWriter writer = StyleWriter.compressed();
+        Omakase.source(source).use(new AutoRefine()).use(prefixer()).use(writer).process();
+        return normalize(writer.write());
+    }
+
+    private static String normalize(String css) {
+        return WHITESPACE.removeFrom(css).replaceAll("/\\*.*?\\*/", "").toLowerCase();
+    }
+
+    private static Collector collect(String source) {
+        Collector collector = new Collector();
+        Omakase.source(source).use(new PrefixTriage()).use(collector).process();
+        return collector;
+    }
+
+    @Test
+    public void refinesPrefixableProperty() {
+        Collector collector = collect(".a{color:red; border-radius:3px}");
+        assertThat(collector.declarations.get(0).isRefined()).isFalse();
+        assertThat(collector.declarations.get(1).isRefined()).isTrue();
+    }
+
+    @Test
+    public void refinesPrefixableKeyword() {
+        Collector collector = collect(".a{display:flex; display:block}");
+        assertThat(collector.declarations.get(0).isRefined()).isTrue();
+        assertThat(collector.declarations.get(1).isRefined()).isFalse();
+    }
+
+    @Test
+    public void refinesPrefixableFunction() {
+        Collector collector = collect(".a{background:linear-gradient(red, blue); background:url(a.png)}");
+        assertThat(collector.declarations.get(0).isRefined()).isTrue();
+        assertThat(collector.declarations.get(1).isRefined()).isFalse();
+    }
+
+    @Test
+    public void ignoresNamesInStringsAndUrls() {
+        Collector collector = collect(".a{content:\"flex\"; background:url(linear-gradient.png); " +
+            "background:url(a.png), -webkit-box}");
+        assertThat(collector.declarations.get(0).isRefined()).isFalse();
+        assertThat(collector.declarations.get(1).isRefined()).isFalse();
+        assertThat(collector.declarations.get(2).isRefined()).isTrue();
+    }
+
+    @Test
+    public void refinesPropertyNamesInValues() {
+        Collector collector = collect(".a{transition:transform 1s}");
+        assertThat(collector.declarations.get(0).isRefined()).isTrue();
+    }
+
+    @Test
+    public void refinesAlreadyPrefixed() {
+        Collector collector = collect(".a{-webkit-border-radius:3px; display:-ms-flexbox}");
+        assertThat(collector.declarations.get(0).isRefined()).isTrue();
+        assertThat(collector.declarations.get(1).isRefined()).isTrue();
+    }
+
+    @Test
+    public void numbersAreNotNames() {
+        Collector collector = collect(".a{margin:10px 2em; width:100%}");
+        assertThat(collector.declarations.get(0).isRefined()).isFalse();
+        assertThat(collector.declarations.get(1).isRefined()).isFalse();
+    }
+
+    @Test
+    public void refinesPrefixableSelectors() {
+        Collector collector = collect(".a:hover{color:red} ::selection{color:red} .b{color:red}");
+        assertThat(collector.selectors.get(0).isRefined()).isFalse();
+        assertThat(collector.selectors.get(1).isRefined()).isTrue();
+        assertThat(collector.selectors.get(2).isRefined()).isFalse();
+    }
+
+    @Test
+    public void refinesWithinAtRules() {
+        String source = "@media (min-width:100px){.a{transform:none}} @keyframes x{from{transform:none}}";
+        assertThat(triaged(source)).isEqualTo(refined(source));
+    }
+
+    @Test
+    public void prunesPrefixedSiblings() {
+        String source = ".a{-webkit-border-radius:3px; -moz-border-radius:3px; border-radius:3px; color:red}";
+        assertThat(triaged(source)).isEqualTo(refined(source));
+    }
+
+    @Test
+    public void sameOutputAsAutoRefine() throws IOException {
+        File dir = new File(PrefixTriageTest.class.getResource("/goldfile/sources").getFile());
+        File[] files = dir.listFiles();
+        assertThat(files).isNotEmpty();
+
+        for (File file : files) {
+            // contains IE filters that can't be refined
+            if (file.getName().equals("chatter.css")) continue;
+
+            String source = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+            assertThat(triaged(source)).as(file.getName()).isEqualTo(refined(source));
+        }
+    }
+
+    @Test
+    public void mustBeRegisteredBeforePrefixer() {
+        assertThrows(IllegalStateException.class,
+            () -> Omakase.source(".a{}").use(Prefixer.defaultBrowserSupport()).use(new PrefixTriage()).process());
+    }
+}
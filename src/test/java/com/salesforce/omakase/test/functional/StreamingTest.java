@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2015, salesforce.com, inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of salesforce.com, inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.salesforce.omakase.test.functional;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+import com.salesforce.omakase.Omakase;
+import com.salesforce.omakase.ast.Rule;
+import com.salesforce.omakase.ast.declaration.Declaration;
+import com.salesforce.omakase.ast.declaration.NumericalValue;
+import com.salesforce.omakase.ast.selector.ClassSelector;
+import com.salesforce.omakase.ast.selector.Selector;
+import com.salesforce.omakase.broadcast.annotation.Rework;
+import com.salesforce.omakase.data.Browser;
+import com.salesforce.omakase.data.Property;
+import com.salesforce.omakase.parser.ParserException;
+import com.salesforce.omakase.plugin.Plugin;
+import com.salesforce.omakase.plugin.conditionals.Conditionals;
+import com.salesforce.omakase.plugin.core.AutoRefine;
+import com.salesforce.omakase.plugin.core.StandardValidation;
+import com.salesforce.omakase.plugin.prefixer.Prefixer;
+import com.salesforce.omakase.tools.Tools;
+import com.salesforce.omakase.writer.StyleWriter;
+import com.salesforce.omakase.writer.WriterMode;
+
+/**
+ * Tests that streaming with {@link Omakase.Request#stream(StyleWriter, Appendable)} gives the same output as processing and
+ * then writing.
+ *
+ * @author nmcwilliams
+ */
+public class StreamingTest {
+    private static final String SOURCE = "/*leading*/\n" +
+        ".a{color:red; transition: transform 1s}\n" +
+        "@media screen{.b{margin:0; display:flex}}\n" +
+        "@if(ie7){.c{zoom:1}}\n" +
+        "@keyframes spin{from{transform:rotate(0deg)} to{transform:rotate(360deg)}}\n" +
+        "/*between*/.d{user-select:none}\n" +
+        "/*orphaned*/";
+
+    private static String processed(String source, WriterMode mode, boolean comments) {
+        StyleWriter writer = new StyleWriter(mode).writeAllComments(comments);
+        Omakase.source(source).use(plugins()).use(writer).process();
+        return writer.write();
+    }
+
+    private static String streamed(String source, WriterMode mode, boolean comments) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        Omakase.source(source).use(plugins()).stream(new StyleWriter(mode).writeAllComments(comments), builder);
+        return builder.toString();
+    }
+
+    private static Plugin[] plugins() {
+        Prefixer prefixer = Prefixer.customBrowserSupport();
+        prefixer.support().all(Browser.CHROME);
+        prefixer.support().all(Browser.FIREFOX);
+        prefixer.support().all(Browser.SAFARI);
+        return new Plugin[]{AutoRefine.everything(), prefixer, new Conditionals(false), new StandardValidation()};
+    }
+
+    @Test
+    public void sameAsProcessing() throws IOException {
+        for (WriterMode mode : WriterMode.values()) {
+            for (boolean comments : new boolean[]{false, true}) {
+                assertThat(streamed(SOURCE, mode, comments)).describedAs(mode + ", comments: " + comments)
+                    .isEqualTo(processed(SOURCE, mode, comments));
+            }
+        }
+    }
+
+    @Test
+    public void sameAsProcessingLargeSource() throws IOException {
+        // without the prefixer, which looks at neighboring statements for existing prefixed at-rules
+        String source = Tools.readFile("/perftest/heavy.css");
+        for (WriterMode mode : WriterMode.values()) {
+            StyleWriter writer = new StyleWriter(mode).writeAllComments(true);
+            Omakase.source(source).use(AutoRefine.everything()).use(new StandardValidation()).use(writer).process();
+
+            StringBuilder builder = new StringBuilder();
+            Omakase.source(source).use(AutoRefine.everything()).use(new StandardValidation())
+                .stream(new StyleWriter(mode).writeAllComments(true), builder);
+
+            assertThat(builder.toString()).describedAs(mode.toString()).isEqualTo(writer.write());
+        }
+    }
+
+    @Test
+    public void writerCanBeReused() throws IOException {
+        StyleWriter writer = StyleWriter.compressed();
+        StringBuilder first = new StringBuilder();
+        StringBuilder second = new StringBuilder();
+        Omakase.source(".a{color:red}.b{color:red}").stream(writer, first);
+        Omakase.source(".c{color:red}").stream(writer, second);
+        assertThat(first.toString()).isEqualTo(".a{color:red}.b{color:red}");
+        assertThat(second.toString()).isEqualTo(".c{color:red}");
+    }
+
+    @Test
+    public void statementsAddedByPluginsAreWritten() throws IOException {
+        StringBuilder builder = new StringBuilder();
+        Omakase.source(".a{color:red}").use(new Plugin() {
+            @Rework
+            public void rule(Rule rule) {
+                if (rule.hasSourcePosition()) {
+                    Rule added = new Rule();
+                    added.selectors().append(new Selector(new ClassSelector("b")));
+                    added.declarations().append(new Declaration(Property.MARGIN, NumericalValue.of(0)));
+                    rule.append(added);
+                }
+            }
+        }).stream(StyleWriter.compressed(), builder);
+        assertThat(builder.toString()).isEqualTo(".a{color:red}.b{margin:0}");
+    }
+
+    @Test
+    public void errorsAreReported() {
+        StringBuilder builder = new StringBuilder();
+        assertThrows(ParserException.class,
+            () -> Omakase.source(".a{color:red} }").stream(StyleWriter.compressed(), builder));
+        assertThat(builder.toString()).isEqualTo(".a{color:red}");
+    }
+}
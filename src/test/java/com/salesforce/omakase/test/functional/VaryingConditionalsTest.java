@@ -43,6 +43,7 @@ import com.salesforce.omakase.plugin.Plugin;
 import com.salesforce.omakase.plugin.conditionals.Conditionals;
 import com.salesforce.omakase.plugin.core.AutoRefine;
 import com.salesforce.omakase.plugin.core.StandardValidation;
+import com.salesforce.omakase.writer.OutputCache;
 import com.salesforce.omakase.writer.StyleWriter;
 import com.salesforce.omakase.writer.WriterMode;
 
@@ -143,6 +144,28 @@ public class VaryingConditionalsTest {
         assertThat(inline.write()).describedAs("passthrough").isEqualTo(PASSTHROUGH);
     }
 
+    @Test
+    public void testWithOutputCache() {
+        Conditionals conditionals = new Conditionals(Sets.newHashSet("ie7"));
+        StyleWriter inline = new StyleWriter(WriterMode.INLINE).outputCache(new OutputCache());
+        Omakase.source(INPUT).use(AutoRefine.everything()).use(conditionals).use(inline).process();
+
+        assertThat(inline.write()).describedAs("ie7 only").isEqualTo(EXPECTED_IE7);
+        assertThat(inline.write()).describedAs("ie7 only, again").isEqualTo(EXPECTED_IE7);
+
+        conditionals.config().addTrueConditions("webkit");
+        assertThat(inline.write()).describedAs("ie7 + webkit").isEqualTo(EXPECTED_BOTH);
+
+        conditionals.config().removeTrueCondition("ie7");
+        assertThat(inline.write()).describedAs("webkit only").isEqualTo(WEBKIT_ONLY);
+
+        conditionals.config().clearTrueConditions();
+        assertThat(inline.write()).describedAs("none").isEqualTo(NONE);
+
+        conditionals.config().passthroughMode(true);
+        assertThat(inline.write()).describedAs("passthrough").isEqualTo(PASSTHROUGH);
+    }
+
     @Test
     public void testConditionalStatementsAreBroadcasted() {
         // setup
@@ -26,6 +26,12 @@
 
 package com.salesforce.omakase.tools;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.net.URL;
 import java.net.URLConnection;
@@ -41,16 +47,17 @@ import com.google.common.base.Splitter;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Table;
+import com.google.common.collect.TreeBasedTable;
+import com.google.common.io.Files;
 import com.google.common.primitives.Doubles;
 import com.salesforce.omakase.data.Browser;
 import com.salesforce.omakase.data.Keyword;
 import com.salesforce.omakase.data.PrefixTables;
 import com.salesforce.omakase.data.Property;
 
-import freemarker.template.TemplateException;
-
 /**
- * Handles updating the {@link PrefixTables} class.
+ * Handles updating the binary prefix data resource read by the {@link PrefixTables} class.
  * <p>
  * Run the main method or use 'script/omakase.sh'.
  * <p>
@@ -63,11 +70,11 @@ public class GeneratePrefixTablesClass {
     private static final String ENDPOINT = "https://raw.github.com/Fyrd/caniuse/master/features-json/";
     private static final Yaml yaml = new Yaml();
 
-    public static void main(String[] args) throws IOException, TemplateException {
+    public static void main(String[] args) throws IOException {
         new GeneratePrefixTablesClass().run();
     }
 
-    public void run() throws IOException, TemplateException {
+    public void run() throws IOException {
         // read the prefix input data
         System.out.println("reading prefixable.yaml");
         Map types = (Map)yaml.load(Tools.readFile("/data/prefixable.yaml"));
@@ -81,20 +88,51 @@ public class GeneratePrefixTablesClass {
         List<NameInfo> selectors = loadGeneric((Map)types.get("selectors"));
         List<NameInfo> functions = loadGeneric((Map)types.get("functions"));
 
-        // write out the new class source
-        SourceWriter writer = new SourceWriter();
+        // write out the new data resource
+        File file = Tools.getResourceFile(PrefixTables.class, PrefixTables.RESOURCE);
+        System.out.println();
+        System.out.println(String.format("regenerating '%s'", file));
+        writeResource(file, properties, keywords, atRules, selectors, functions);
+        System.out.println("done\n");
+    }
 
-        writer.generator(GeneratePrefixTablesClass.class);
-        writer.classToWrite(PrefixTables.class);
-        writer.template("prefix-tables-class.ftl");
-        writer.data("properties", properties);
-        writer.data("keywords", keywords);
-        writer.data("atRules", atRules);
-        writer.data("selectors", selectors);
-        writer.data("functions", functions);
+    /**
+     * Writes the compact binary data resource read by {@link PrefixTables}. See the {@link PrefixTables} class docs for a
+     * description of the format.
+     */
+    static void writeResource(File file, List<PropertyInfo> properties, List<KeywordInfo> keywords, List<NameInfo> atRules,
+        List<NameInfo> selectors, List<NameInfo> functions) throws IOException {
+        Files.createParentDirs(file);
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(PrefixTables.MAGIC);
+            out.writeShort(PrefixTables.FORMAT);
+            out.writeByte(Browser.values().length);
+
+            writeNameSection(out, Lists.transform(properties, i -> new NameInfo(i.property.toString(), i.browser, i.version)));
+            writeNameSection(out, Lists.transform(keywords, i -> new NameInfo(i.keyword.toString(), i.browser, i.version)));
+            writeNameSection(out, atRules);
+            writeNameSection(out, selectors);
+            writeNameSection(out, functions);
+        }
+    }
 
-        System.out.println();
-        writer.write();
+    private static void writeNameSection(DataOutputStream out, List<NameInfo> info) throws IOException {
+        Table<String, Browser, Double> table = TreeBasedTable.create();
+        for (NameInfo i : info) {
+            checkArgument(!table.contains(i.name, i.browser), "duplicate prefix data for %s in %s", i.name, i.browser);
+            table.put(i.name, i.browser, i.version);
+        }
+
+        out.writeShort(table.rowKeySet().size());
+        for (Map.Entry<String, Map<Browser, Double>> row : table.rowMap().entrySet()) {
+            out.writeUTF(row.getKey());
+            out.writeByte(row.getValue().size());
+            for (Map.Entry<Browser, Double> entry : row.getValue().entrySet()) {
+                out.writeByte(entry.getKey().ordinal());
+                out.writeFloat(entry.getValue().floatValue());
+            }
+        }
     }
 
     /** load information on all the prefixable properties */
@@ -247,61 +285,40 @@ public class GeneratePrefixTablesClass {
         }
     }
 
-    @SuppressWarnings("unused")
     private static class Info {
-        private final Browser browser;
-        private final Double version;
+        final Browser browser;
+        final Double version;
 
         public Info(Browser browser, Double version) {
             this.browser = browser;
             this.version = version;
         }
-
-        public String getBrowser() {
-            return browser.name();
-        }
-
-        public String getVersion() {
-            return version.toString();
-        }
     }
 
     public static final class PropertyInfo extends Info {
-        private final Property property;
+        final Property property;
 
         public PropertyInfo(Property property, Browser browser, Double version) {
             super(browser, version);
             this.property = property;
         }
-
-        public String getProperty() {
-            return property.name();
-        }
     }
 
     public static final class KeywordInfo extends Info {
-        private final Keyword keyword;
+        final Keyword keyword;
 
         public KeywordInfo(Keyword keyword, Browser browser, Double version) {
             super(browser, version);
             this.keyword = keyword;
         }
-
-        public String getKeyword() {
-            return keyword.name();
-        }
     }
 
     public static final class NameInfo extends Info {
-        private final String name;
+        final String name;
 
         public NameInfo(String name, Browser browser, Double version) {
             super(browser, version);
             this.name = name;
         }
-
-        public String getName() {
-            return name;
-        }
     }
 }
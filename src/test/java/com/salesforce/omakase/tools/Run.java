@@ -54,7 +54,7 @@ public class Run {
     @Option(name = "-p", aliases = "--perf", usage = "performance test", metaVar = "<args>")
     private boolean perf;
 
-    @Option(name = "-u", aliases = "--update", usage = "regenerate data enum, data class and prefixes source files")
+    @Option(name = "-u", aliases = "--update", usage = "regenerate data enum, prefix data and prefixes source files")
     private boolean update;
 
     @Option(name = "-l", aliases = "--local-only", usage = "only regenerate local data, no prefix data (used with -u option)")
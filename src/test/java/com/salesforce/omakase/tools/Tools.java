@@ -66,6 +66,13 @@ public final class Tools {
         return new File(url.getFile().replace("target/classes", "src/main/java").replace(".class", ".java"));
     }
 
+    /** finds the source file for a resource with the given name, relative to the given class */
+    public static File getResourceFile(Class<?> klass, String name) {
+        URL url = klass.getResource(klass.getSimpleName() + ".class");
+        File classFile = new File(url.getFile().replace("target/classes", "src/main/resources"));
+        return new File(classFile.getParentFile(), name);
+    }
+
     /** finds a template on the classpath */
     public static Template getTemplate(String name) throws IOException {
         if (!name.endsWith(".ftl")) name += ".ftl";
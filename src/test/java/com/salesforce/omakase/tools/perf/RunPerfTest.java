@@ -26,15 +26,25 @@
 
 package com.salesforce.omakase.tools.perf;
 
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import com.google.common.base.CaseFormat;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
+import com.salesforce.omakase.Omakase;
+import com.salesforce.omakase.plugin.core.AutoRefine;
+import com.salesforce.omakase.writer.StyleWriter;
 
 /**
  * Performance testing of this parser (more extensive tests + csv writer is in
@@ -70,6 +80,12 @@ public final class RunPerfTest {
 
         System.out.println("\nAvailable options:");
         System.out.println("no-prime (don't prime the jvm before testing)");
+        System.out.println("concurrent (measure throughput when parsing from 1 to N threads at once)");
+        System.out.println("write (measure time and allocated bytes of StyleWriter.compressed().write())");
+        System.out.println("parallel (with write, write top-level statements in parallel)");
+
+        System.out.println("\nStartup (cold Prefixer.defaultBrowserSupport() time, measured in fresh jvms):");
+        System.out.println("omakase -p startup");
 
         System.out.println("\nExamples:");
         System.out.println("omakase -p omakase light");
@@ -77,10 +93,18 @@ public final class RunPerfTest {
         System.out.println("omakase -p omakase heavy");
         System.out.println("omakase -p omakase prefix-heavy");
         System.out.println("omakase -p omakase prefix-heavy no-prime");
+        System.out.println("omakase -p omakase normal concurrent");
+        System.out.println("omakase -p omakase heavy write");
+        System.out.println("omakase -p omakase heavy write parallel");
     }
 
     /** main method with setup */
-    public static void run(List<String> args) {
+    public static void run(List<String> args) throws IOException, InterruptedException {
+        if (args.get(0).equals("startup")) {
+            StartupPerf.run();
+            return;
+        }
+
         // find parser
         PerfTest parser = null;
 
@@ -121,7 +145,13 @@ public final class RunPerfTest {
         boolean prime = !args.contains("no-prime");
 
         System.out.printf("\nRunning tests for %s - %s:\n", parser.name(), args.get(1));
-        test(parser, mode, prime);
+        if (args.contains("concurrent")) {
+            concurrent(parser, mode, prime);
+        } else if (args.contains("write")) {
+            write(mode, prime, args.contains("parallel"));
+        } else {
+            test(parser, mode, prime);
+        }
         System.out.println("\ndone");
     }
 
@@ -164,4 +194,108 @@ public final class RunPerfTest {
 
         System.out.println(String.format("%-12s %-15s %s", min + "ms", "(" + loc + " loc)", parseTimes));
     }
+
+    /** prime the parser then measure the parsing throughput with an increasing number of threads parsing at once */
+    private static void concurrent(PerfTest parser, Mode mode, boolean prime) {
+        if (prime) {
+            System.out.println("\nPriming...\n");
+            for (int i = 0; i < 500; i++) parser.parse(mode);
+        }
+
+        // 1, 2, 4, ... up to the number of available processors
+        int max = Runtime.getRuntime().availableProcessors();
+        List<Integer> counts = Lists.newArrayList();
+        for (int threads = 1; threads < max; threads *= 2) counts.add(threads);
+        counts.add(max);
+
+        double single = 0;
+        for (int threads : counts) {
+            // best of 3 runs, each thread parsing the same number of times
+            double best = 0;
+            for (int run = 0; run < 3; run++) {
+                best = Math.max(best, throughput(parser, mode, threads, 200));
+            }
+            if (threads == 1) single = best;
+
+            System.out.println(String.format("%-12s %-20s %s", threads + " threads", Math.round(best) + " parses/s",
+                String.format("(%.2fx)", best / single)));
+        }
+    }
+
+    /** parses the source the given number of times per thread across all threads, returning the total parses per second */
+    private static double throughput(PerfTest parser, Mode mode, int threads, int parsesPerThread) {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch ready = new CountDownLatch(threads);
+            CountDownLatch go = new CountDownLatch(1);
+            List<Future<?>> futures = Lists.newArrayList();
+
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    ready.countDown();
+                    go.await();
+                    for (int j = 0; j < parsesPerThread; j++) parser.parse(mode);
+                    return null;
+                }));
+            }
+
+            ready.await();
+            long start = System.nanoTime();
+            go.countDown();
+            for (Future<?> future : futures) future.get();
+            long end = System.nanoTime();
+
+            return (threads * parsesPerThread) / ((end - start) / 1e9);
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException(e);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /** measures the time and allocations (of the calling thread only) of writing out an already parsed and refined stylesheet with each specified factor */
+    private static void write(Mode mode, boolean prime, boolean parallel) {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) {
+            System.err.println("allocation tracking is not supported on this jvm");
+            System.exit(1);
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        if (prime) {
+            System.out.println("\nPriming...\n");
+            StyleWriter writer = StyleWriter.compressed().parallel(parallel);
+            Omakase.source(mode.source()).use(AutoRefine.everything()).use(writer).process();
+            for (int i = 0; i < 500; i++) writer.write();
+        }
+
+        System.out.println(String.format("%-12s %-15s %-15s %s", "time", "(loc)", "allocated", "allocated/output char"));
+
+        for (Integer factor : FACTORS) {
+            StringBuilder input = new StringBuilder();
+            for (int i = 0; i < factor; i++) input.append('\n').append(mode.source());
+            int loc = input.toString().trim().split("\n").length;
+
+            StyleWriter writer = StyleWriter.compressed().parallel(parallel);
+            Omakase.source(input).use(AutoRefine.everything()).use(writer).process();
+
+            // best of 5 for both time and allocations
+            long minTime = Long.MAX_VALUE;
+            long minAllocated = Long.MAX_VALUE;
+            int length = 0;
+            for (int i = 0; i < 5; i++) {
+                long allocatedStart = threads.getThreadAllocatedBytes(thread);
+                long start = System.nanoTime();
+                length = writer.write().length();
+                long end = System.nanoTime();
+                long allocated = threads.getThreadAllocatedBytes(thread) - allocatedStart;
+
+                minTime = Math.min(minTime, end - start);
+                minAllocated = Math.min(minAllocated, allocated);
+            }
+
+            System.out.println(String.format("%-12s %-15s %-15s %.2f", TimeUnit.NANOSECONDS.toMillis(minTime) + "ms",
+                "(" + loc + " loc)", (minAllocated / 1024) + "kb", (double)minAllocated / length));
+        }
+    }
 }
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2015, salesforce.com, inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of salesforce.com, inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.salesforce.omakase.tools.perf;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.salesforce.omakase.data.Property;
+import com.salesforce.omakase.plugin.prefixer.Prefixer;
+
+/**
+ * Measures the cold startup cost of {@link Prefixer#defaultBrowserSupport()}, including the first prefix lookup (which loads
+ * the prefix data), in a series of fresh jvms.
+ * <p>
+ * Usage: omakase -p startup
+ *
+ * @author nmcwilliams
+ */
+public final class StartupPerf {
+    private static final int RUNS = 15;
+
+    private StartupPerf() {}
+
+    /** runs each measurement in a fresh jvm and prints the min and median times */
+    public static void run() throws IOException, InterruptedException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        List<String> command = ImmutableList.of(java, "-cp", System.getProperty("java.class.path"), StartupPerf.class.getName());
+
+        List<Long> create = Lists.newArrayList();
+        List<Long> lookup = Lists.newArrayList();
+        List<Long> total = Lists.newArrayList();
+
+        for (int i = 0; i < RUNS; i++) {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            String line;
+            try (BufferedReader in = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+                line = in.readLine();
+            }
+            if (process.waitFor() != 0 || line == null) {
+                System.err.println("startup measurement failed: " + line);
+                System.exit(1);
+            }
+
+            List<String> times = Splitter.on(' ').splitToList(line);
+            create.add(Long.parseLong(times.get(0)));
+            lookup.add(Long.parseLong(times.get(1)));
+            total.add(Long.parseLong(times.get(0)) + Long.parseLong(times.get(1)));
+        }
+
+        System.out.println(String.format("\n%-40s %-12s %s", "cold (" + RUNS + " jvms)", "min", "median"));
+        print("Prefixer.defaultBrowserSupport()", create);
+        print("first prefix lookup", lookup);
+        print("total", total);
+    }
+
+    private static void print(String label, List<Long> nanos) {
+        Collections.sort(nanos);
+        System.out.println(String.format("%-40s %-12s %s", label, millis(nanos.get(0)), millis(nanos.get(nanos.size() / 2))));
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.2fms", nanos / (double)TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    /** the measurement itself, run in the fresh jvm. Prints the nanos to create the plugin and to do the first lookup */
+    public static void main(String[] args) {
+        long start = System.nanoTime();
+        Prefixer prefixer = Prefixer.defaultBrowserSupport();
+        long created = System.nanoTime();
+        prefixer.support().prefixesForProperty(Property.TRANSITION);
+        long looked = System.nanoTime();
+
+        System.out.println((created - start) + " " + (looked - created));
+    }
+}
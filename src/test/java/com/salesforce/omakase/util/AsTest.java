@@ -65,7 +65,7 @@ public class AsTest {
         String actual = As.string(d.propertyValue()).fields().toString();
         String expected = "PropertyValue {\n" +
             "  important: false\n" +
-            "  members: LinkedSyntaxCollection{units=[none (keyword-value)]}\n" +
+            "  members: IntrusiveSyntaxCollection{units=[none (keyword-value)]}\n" +
             "}";
         assertThat(actual).isEqualTo(expected);
     }
@@ -28,6 +28,7 @@ package com.salesforce.omakase.util;
 
 import static org.fest.assertions.api.Assertions.assertThat;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.Test;
@@ -215,4 +216,35 @@ public class ValuesTest {
         assertThat(Iterables.get(join.members(), 5)).isInstanceOf(Operator.class);
         assertThat(Iterables.get(join.members(), 6)).isInstanceOf(NumericalValue.class);
     }
+
+    @Test
+    public void anyRawNameKeywordsAndFunctions() {
+        List<String> names = new ArrayList<>();
+        List<String> functions = new ArrayList<>();
+        Values.anyRawName("-webkit-linear-gradient(top, red 10%, blue), url(x.png) no-repeat", (name, function) -> {
+            (function ? functions : names).add(name);
+            return false;
+        });
+        assertThat(functions).containsExactly("-webkit-linear-gradient");
+        assertThat(names).containsExactly("top", "red", "blue", "no-repeat");
+    }
+
+    @Test
+    public void anyRawNameMatches() {
+        assertThat(Values.anyRawName("1px solid LEFT", (name, function) -> name.equalsIgnoreCase("left"))).isTrue();
+        assertThat(Values.anyRawName("1px solid red", (name, function) -> name.equals("left"))).isFalse();
+    }
+
+    @Test
+    public void anyRawNameSkipsStringsAndUrls() {
+        assertThat(Values.anyRawName("\"left\" 'le\\'ft' url(left.png) url( \"left.png\" )",
+            (name, function) -> name.equals("left"))).isFalse();
+        assertThat(Values.anyRawName("url(\"a)b\") left", (name, function) -> name.equals("left"))).isTrue();
+        assertThat(Values.anyRawName("\"unclosed left", (name, function) -> name.equals("left"))).isFalse();
+    }
+
+    @Test
+    public void anyRawNameSkipsNumbers() {
+        assertThat(Values.anyRawName("10px 2em", (name, function) -> true)).isFalse();
+    }
 }
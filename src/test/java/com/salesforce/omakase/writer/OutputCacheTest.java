@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2015, salesforce.com, inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of salesforce.com, inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.salesforce.omakase.writer;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import com.salesforce.omakase.Omakase;
+import com.salesforce.omakase.ast.Rule;
+import com.salesforce.omakase.ast.atrule.AtRule;
+import com.salesforce.omakase.ast.declaration.Declaration;
+import com.salesforce.omakase.ast.declaration.KeywordValue;
+import com.salesforce.omakase.ast.selector.ClassSelector;
+import com.salesforce.omakase.data.Keyword;
+import com.salesforce.omakase.data.Property;
+import com.salesforce.omakase.plugin.core.AutoRefine;
+import com.salesforce.omakase.plugin.core.SyntaxTree;
+
+/**
+ * Unit tests for {@link OutputCache}.
+ *
+ * @author nmcwilliams
+ */
+public class OutputCacheTest {
+    private static final String SOURCE = ".a{color:red}\n.b{margin:0}\n@media screen{.c{display:none}}";
+
+    @Test
+    public void getAndPut() {
+        OutputCache cache = new OutputCache();
+        ClassSelector unit = new ClassSelector("a");
+        assertThat(cache.get(unit, 1)).isNull();
+
+        cache.put(unit, 1, unit.revision(), ".a");
+        assertThat(cache.get(unit, 1)).isEqualTo(".a");
+        assertThat(cache.get(unit, 2)).isNull();
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void outOfDateOutputNotReturned() {
+        OutputCache cache = new OutputCache();
+        ClassSelector unit = new ClassSelector("a");
+        cache.put(unit, 1, unit.revision(), ".a");
+        unit.name("b");
+        assertThat(cache.get(unit, 1)).isNull();
+    }
+
+    @Test
+    public void hitsAndMisses() {
+        OutputCache cache = new OutputCache();
+        StyleWriter writer = StyleWriter.compressed().outputCache(cache);
+        Omakase.source(SOURCE).use(AutoRefine.everything()).use(writer).process();
+
+        writer.write();
+        assertThat(cache.hits()).isEqualTo(0);
+        assertThat(cache.misses()).isEqualTo(4);
+        assertThat(cache.size()).isEqualTo(4);
+
+        // the nested rule isn't looked up again when its at-rule is a hit
+        writer.write();
+        assertThat(cache.hits()).isEqualTo(3);
+        assertThat(cache.misses()).isEqualTo(4);
+    }
+
+    @Test
+    public void separateOutputForEachMode() {
+        OutputCache cache = new OutputCache();
+        StyleWriter writer = StyleWriter.compressed().outputCache(cache);
+        Omakase.source(SOURCE).use(AutoRefine.everything()).use(writer).process();
+
+        for (int i = 0; i < 2; i++) {
+            writer.mode(WriterMode.COMPRESSED);
+            assertThat(writer.write()).isEqualTo(".a{color:red}.b{margin:0}@media screen{.c{display:none}}");
+            writer.mode(WriterMode.VERBOSE);
+            assertThat(writer.write()).isEqualTo(".a {\n  color: red;\n}\n\n.b {\n  margin: 0;\n}\n\n" +
+                "@media screen {\n  .c {\n    display: none;\n  }\n}");
+        }
+        assertThat(cache.hits()).isEqualTo(6);
+    }
+
+    @Test
+    public void modifiedUnitsWrittenAgain() {
+        OutputCache cache = new OutputCache();
+        SyntaxTree tree = new SyntaxTree();
+        StyleWriter writer = StyleWriter.inline().outputCache(cache);
+        Omakase.source(SOURCE).use(AutoRefine.everything()).use(tree).use(writer).process();
+        writer.write();
+
+        AtRule media = (AtRule)tree.stylesheet().statements().last().get();
+        Rule nested = (Rule)media.block().get().statements().first().get();
+        nested.declarations().append(new Declaration(Property.COLOR, KeywordValue.of(Keyword.RED)));
+        tree.stylesheet().rules().get(0).destroy();
+
+        assertThat(writer.write()).isEqualTo(".b {margin:0}\n@media screen {\n  .c {display:none; color:red}\n}");
+        assertThat(cache.hits()).isEqualTo(0);
+    }
+
+    @Test
+    public void clear() {
+        OutputCache cache = new OutputCache();
+        StyleWriter writer = StyleWriter.compressed().outputCache(cache);
+        Omakase.source(SOURCE).use(writer).process();
+        writer.write();
+        writer.write();
+
+        cache.clear();
+        assertThat(cache.size()).isEqualTo(0);
+        assertThat(cache.hits()).isEqualTo(0);
+        assertThat(cache.misses()).isEqualTo(0);
+    }
+}
@@ -29,6 +29,7 @@ package com.salesforce.omakase.writer;
 import static org.fest.assertions.api.Assertions.assertThat;
 
 import java.io.IOException;
+import java.io.StringWriter;
 
 import org.junit.Test;
 
@@ -52,6 +53,28 @@ public class StyleAppendableTest {
         assertThat(sa.toString()).isEqualTo("abc");
     }
 
+    @Test
+    public void appendCharRange() throws IOException {
+        StyleAppendable sa = new StyleAppendable();
+        sa.append("abcdef".toCharArray(), 1, 3);
+        assertThat(sa.toString()).isEqualTo("bcd");
+        assertThat(sa.length()).isEqualTo(3);
+    }
+
+    @Test
+    public void appendCharRangeToWriter() throws IOException {
+        StringWriter writer = new StringWriter();
+        new StyleAppendable(writer).append("abcdef".toCharArray(), 2, 2);
+        assertThat(writer.toString()).isEqualTo("cd");
+    }
+
+    @Test
+    public void appendCharRangeToOtherAppendable() throws IOException {
+        StringBuffer buffer = new StringBuffer();
+        new StyleAppendable(buffer).append("abcdef".toCharArray(), 0, 2);
+        assertThat(buffer.toString()).isEqualTo("ab");
+    }
+
     @Test
     public void appendInt() throws IOException {
         StyleAppendable sa = new StyleAppendable();
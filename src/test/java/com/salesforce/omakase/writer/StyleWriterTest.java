@@ -27,20 +27,33 @@
 package com.salesforce.omakase.writer;
 
 import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.Assert.assertThrows;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.Test;
 
 import com.salesforce.omakase.Omakase;
 import com.salesforce.omakase.ast.AbstractSyntax;
+import com.salesforce.omakase.ast.Rule;
 import com.salesforce.omakase.ast.Syntax;
 import com.salesforce.omakase.ast.collection.AbstractGroupable;
 import com.salesforce.omakase.ast.collection.LinkedSyntaxCollection;
 import com.salesforce.omakase.ast.collection.SyntaxCollection;
 import com.salesforce.omakase.ast.declaration.Declaration;
+import com.salesforce.omakase.ast.declaration.KeywordValue;
 import com.salesforce.omakase.ast.selector.ClassSelector;
 import com.salesforce.omakase.ast.selector.Selector;
+import com.salesforce.omakase.data.Keyword;
+import com.salesforce.omakase.data.Property;
+import com.salesforce.omakase.plugin.conditionals.Conditionals;
+import com.salesforce.omakase.plugin.core.AutoRefine;
+import com.salesforce.omakase.plugin.core.SyntaxTree;
 
 /**
  * Unit tests for {@link StyleWriter}.
@@ -133,6 +146,48 @@ public class StyleWriterTest {
         assertThat(builder.toString()).isEqualTo(".test{color:red}");
     }
 
+    @Test
+    public void writeToOutputStream() throws IOException {
+        StyleWriter writer = StyleWriter.verbose();
+        Omakase.source(".test:before{content:'\u00e9\u4e2d'}\n.b{margin:0}").use(writer).process();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.writeTo(out);
+        assertThat(out.toByteArray()).isEqualTo(writer.write().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void writeToChannel() throws IOException {
+        StyleWriter writer = StyleWriter.compressed();
+        Omakase.source(".test{content:'\u00e9'}").use(writer).process();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.writeTo(Channels.newChannel(out));
+        assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8)).isEqualTo(".test{content:'\u00e9'}");
+    }
+
+    @Test
+    public void writeToByteBuffer() {
+        StyleWriter writer = StyleWriter.compressed();
+        Omakase.source(".test{color:red}").use(writer).process();
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        writer.writeTo(buffer);
+        assertThat(new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8)).isEqualTo(".test{color:red}");
+    }
+
+    @Test
+    public void writeToOutputStreamLargerThanBuffer() throws IOException {
+        StringBuilder source = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            source.append(".class").append(i).append("{content:'\u00e9'}");
+        }
+        StyleWriter writer = StyleWriter.compressed();
+        Omakase.source(source).use(writer).process();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.writeTo(out);
+        writer.writeTo(out);
+        String expected = writer.write();
+        assertThat(out.toByteArray()).isEqualTo((expected + expected).getBytes(StandardCharsets.UTF_8));
+    }
+
     @Test
     public void writeUnitHasOverride() {
         StyleWriter writer = StyleWriter.compressed();
@@ -262,6 +317,127 @@ public class StyleWriterTest {
         StyleWriter.verbose().writeInner(new Level1(), new StyleAppendable());
     }
 
+    @Test
+    public void outputCache() {
+        StyleWriter writer = StyleWriter.inline();
+        assertThat(writer.outputCache().isPresent()).isFalse();
+
+        OutputCache cache = new OutputCache();
+        assertThat(writer.outputCache(cache).outputCache().get()).isSameAs(cache);
+    }
+
+    @Test
+    public void parallelOutputMatchesSerial() {
+        StringBuilder source = new StringBuilder("/*first*/");
+        for (int i = 0; i < 1000; i++) {
+            source.append("/*c").append(i).append("*/.a").append(i).append(",.b{color:red;margin:0}\n");
+            if (i % 10 == 0) source.append("@media screen{.m").append(i).append("{margin:0}}\n");
+            if (i % 25 == 0) source.append("@if(ie7){.ie").append(i).append("{display:none}}\n");
+        }
+
+        SyntaxTree tree = new SyntaxTree();
+        StyleWriter writer = new StyleWriter();
+        Omakase.source(source).use(tree).use(new Conditionals()).use(writer).process();
+
+        // leading run of unwritable rules, so that whole chunks write nothing
+        for (Rule rule : tree.stylesheet().rules().subList(0, 300)) {
+            rule.declarations().clear();
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (WriterMode mode : WriterMode.values()) {
+                for (boolean comments : new boolean[]{false, true}) {
+                    writer.mode(mode).writeAllComments(comments).parallel(false);
+                    String serial = writer.write();
+                    writer.parallel(pool);
+                    assertThat(writer.write()).describedAs(mode + ", comments: " + comments).isEqualTo(serial);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void parallel() {
+        StyleWriter writer = StyleWriter.inline();
+        assertThat(writer.isParallel()).isFalse();
+        assertThat(writer.parallel(true).isParallel()).isTrue();
+        assertThat(writer.parallel(false).isParallel()).isFalse();
+    }
+
+    @Test
+    public void deepNestingBeyondInitialDepthCapacity() {
+        StyleWriter writer = StyleWriter.verbose();
+        for (int i = 0; i < 100; i++) {
+            writer.incrementDepth();
+            assertThat(writer.countAtCurrentDepth()).isEqualTo(0);
+        }
+        for (int i = 0; i < 100; i++) {
+            writer.decrementDepth();
+        }
+        assertThat(writer.countAtCurrentDepth()).isEqualTo(0);
+    }
+
+    @Test
+    public void decrementDepthAtZero() {
+        assertThrows(IllegalStateException.class, () -> StyleWriter.verbose().decrementDepth());
+    }
+
+    @Test
+    public void peerCountsResetForEachParent() {
+        StyleWriter writer = StyleWriter.compressed();
+        Omakase.source(".a,.b{color:red;margin:0}.c,.d{color:red;margin:0}").use(writer).use(AutoRefine.everything()).process();
+        assertThat(writer.write()).isEqualTo(".a,.b{color:red;margin:0}.c,.d{color:red;margin:0}");
+    }
+
+    @Test
+    public void writeVerbatimUnmodified() {
+        String src = ".a  >  p {color : red}\n\n@media  screen{.b{margin:0}}\n@import  'x.css';";
+        StyleWriter writer = StyleWriter.inline().writeVerbatim(true);
+        Omakase.source(src).use(writer).process();
+        assertThat(writer.write()).isEqualTo(".a  >  p {color : red}\n@media  screen{.b{margin:0}}\n@import  'x.css';");
+    }
+
+    @Test
+    public void writeVerbatimModifiedRule() {
+        String src = ".a  >  p {color : red}\n.b  {color : red}";
+        SyntaxTree tree = new SyntaxTree();
+        StyleWriter writer = StyleWriter.inline().writeVerbatim(true);
+        Omakase.source(src).use(tree).use(writer).process();
+
+        tree.stylesheet().rules().get(1).declarations().append(new Declaration(Property.DISPLAY, KeywordValue.of(Keyword.NONE)));
+        assertThat(writer.write()).isEqualTo(".a  >  p {color : red}\n.b {color:red; display:none}");
+    }
+
+    @Test
+    public void writeVerbatimRefinedUnitsAreWrittenNormally() {
+        String src = ".a  >  p {color : red}\n@media  screen{.b{margin:0}}";
+        StyleWriter writer = StyleWriter.inline().writeVerbatim(true);
+        Omakase.source(src).use(AutoRefine.everything()).use(writer).process();
+        assertThat(writer.write()).isEqualTo(".a>p {color:red}\n@media screen {\n  .b {margin:0}\n}");
+    }
+
+    @Test
+    public void writeVerbatimIgnoredWhenCompressed() {
+        StyleWriter writer = StyleWriter.compressed().writeVerbatim(true);
+        Omakase.source(".a  {color : red}").use(writer).process();
+        assertThat(writer.shouldWriteVerbatim()).isFalse();
+        assertThat(writer.write()).isEqualTo(".a{color:red}");
+    }
+
+    @Test
+    public void writeVerbatimIncludesLeadingCommentsPerSettings() {
+        StyleWriter writer = StyleWriter.inline().writeVerbatim(true).writeAllComments(true);
+        Omakase.source("/*x*/ .a {color:red}").use(writer).process();
+        assertThat(writer.write()).isEqualTo("/*x*/.a {color:red}");
+
+        writer = StyleWriter.inline().writeVerbatim(true);
+        Omakase.source("/*x*/ .a {color:red}").use(writer).process();
+        assertThat(writer.write()).isEqualTo(".a {color:red}");
+    }
+
     public static final class CustomSelectorWriter1 implements CustomWriter<Selector> {
         boolean called;
 
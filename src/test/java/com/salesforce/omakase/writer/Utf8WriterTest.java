@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2015, salesforce.com, inc.
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are permitted provided
+ * that the following conditions are met:
+ *
+ *    Redistributions of source code must retain the above copyright notice, this list of conditions and the
+ *    following disclaimer.
+ *
+ *    Redistributions in binary form must reproduce the above copyright notice, this list of conditions and
+ *    the following disclaimer in the documentation and/or other materials provided with the distribution.
+ *
+ *    Neither the name of salesforce.com, inc. nor the names of its contributors may be used to endorse or
+ *    promote products derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A
+ * PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED
+ * TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION)
+ * HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.salesforce.omakase.writer;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link Utf8Writer}.
+ *
+ * @author nmcwilliams
+ */
+public class Utf8WriterTest {
+    private static final String MIXED = ".a:before{content:\"é中😀\"} .b{color:red}";
+
+    private static byte[] encode(String input, int bufferSize, boolean asChars) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Utf8Writer writer = new Utf8Writer(Utf8Writer.sink(out), new byte[bufferSize]);
+        if (asChars) {
+            char[] chars = input.toCharArray();
+            writer.write(chars, 0, chars.length);
+        } else {
+            writer.append(input);
+        }
+        writer.flush();
+        return out.toByteArray();
+    }
+
+    @Test
+    public void ascii() throws IOException {
+        assertThat(encode(".a{color:red}", 64, false)).isEqualTo(".a{color:red}".getBytes(StandardCharsets.UTF_8));
+        assertThat(encode(".a{color:red}", 64, true)).isEqualTo(".a{color:red}".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void multiByteAndSurrogatePairs() throws IOException {
+        assertThat(encode(MIXED, 64, false)).isEqualTo(MIXED.getBytes(StandardCharsets.UTF_8));
+        assertThat(encode(MIXED, 64, true)).isEqualTo(MIXED.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void smallBufferIsDrainedAsNeeded() throws IOException {
+        assertThat(encode(MIXED, Utf8Writer.MIN_BUFFER_SIZE, false)).isEqualTo(MIXED.getBytes(StandardCharsets.UTF_8));
+        assertThat(encode(MIXED, 5, true)).isEqualTo(MIXED.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void surrogatePairSplitAcrossWrites() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Utf8Writer writer = new Utf8Writer(Utf8Writer.sink(out), new byte[16]);
+        writer.append("a\uD83D");
+        writer.append('\uDE00');
+        writer.flush();
+        assertThat(out.toByteArray()).isEqualTo("a😀".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void unpairedSurrogatesAreReplaced() throws IOException {
+        String input = "a\uDE00b\uD83Dc\uD83D";
+        assertThat(encode(input, 16, false)).isEqualTo(input.getBytes(StandardCharsets.UTF_8));
+        assertThat(encode(input, 16, true)).isEqualTo(input.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void nothingWrittenUntilBufferFullOrFlushed() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Utf8Writer writer = new Utf8Writer(Utf8Writer.sink(out), new byte[16]);
+        writer.append("abc");
+        assertThat(out.size()).isEqualTo(0);
+        writer.flush();
+        assertThat(out.size()).isEqualTo(3);
+    }
+}